@@ -0,0 +1,73 @@
+package org.mvnsearch.dotenvx.ecies;
+
+import org.bouncycastle.crypto.InvalidCipherTextException;
+
+/**
+ * Authenticated cipher used by ECIES for the payload, with the key derived by ECDH and HKDF.
+ * <p>
+ * The payload layout is {@code nonce || tag (16) || ciphered}, without associated data. Implementations are stateless
+ * and thread-safe; see {@link AeadCiphers} for the available ones.
+ * </p>
+ *
+ * @author linux_china
+ */
+public interface AeadCipher {
+    int TAG_LENGTH = 16;
+
+    /**
+     * name used to select the cipher, e.g. in {@code dotenvx.encryptor.cipher}
+     *
+     * @return cipher name
+     */
+    String getName();
+
+    /**
+     * @return nonce length in bytes
+     */
+    int getNonceLength();
+
+    /**
+     * Encrypts a message into {@code output}, laid out as {@code nonce || tag || ciphered} from {@code offset}. The
+     * nonce is already filled in by the caller, and {@code output} has exactly the room for the tag and the ciphered
+     * bytes after it.
+     *
+     * @param key     32 bytes key
+     * @param message message to encrypt
+     * @param output  output buffer
+     * @param offset  offset of the nonce in the output buffer
+     */
+    void seal(byte[] key, byte[] message, byte[] output, int offset) throws InvalidCipherTextException;
+
+    /**
+     * Decrypts {@code nonce || tag || ciphered} read in place from the slice
+     *
+     * @param key    32 bytes key
+     * @param input  input buffer
+     * @param offset offset of the nonce
+     * @param length length of nonce, tag and ciphered bytes
+     * @return decrypted message
+     * @throws InvalidCipherTextException if the input is too short or fails authentication
+     */
+    byte[] open(byte[] key, byte[] input, int offset, int length) throws InvalidCipherTextException;
+
+    /**
+     * Same as {@link #open(byte[], byte[], int, int)}, returning null instead of throwing when the input is too short
+     * or fails authentication
+     *
+     * @param key    32 bytes key
+     * @param input  input buffer
+     * @param offset offset of the nonce
+     * @param length length of nonce, tag and ciphered bytes
+     * @return decrypted message, or null
+     */
+    default byte[] tryOpen(byte[] key, byte[] input, int offset, int length) {
+        if (length < getNonceLength() + TAG_LENGTH) {
+            return null;
+        }
+        try {
+            return open(key, input, offset, length);
+        } catch (InvalidCipherTextException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package org.mvnsearch.dotenvx.ecies;
+
+import org.bouncycastle.crypto.InvalidCipherTextException;
+import org.bouncycastle.crypto.modes.AEADCipher;
+
+/**
+ * Available {@link AeadCipher}s.
+ *
+ * @author linux_china
+ */
+public final class AeadCiphers {
+    /**
+     * AES-256-GCM with a 16 bytes nonce on the Bouncy Castle lightweight API, the dotenvx format
+     */
+    public static final AeadCipher AES_256_GCM = new BouncyCastleAesGcm();
+    /**
+     * AES-256-GCM with a 16 bytes nonce on the JDK provider, which uses AES-NI/CLMUL intrinsics where available;
+     * the output is byte-identical to {@link #AES_256_GCM}
+     */
+    public static final AeadCipher JDK_AES_256_GCM = new JdkAesGcm();
+    /**
+     * XChaCha20-Poly1305 with a 24 bytes nonce, the layout of eciespy and eciesjs with the {@code xchacha20} symmetric
+     * algorithm; values encrypted with it can only be decrypted with the same cipher
+     */
+    public static final AeadCipher XCHACHA20_POLY1305 = new XChaCha20Poly1305();
+
+    private AeadCiphers() {
+    }
+
+    /**
+     * find a cipher by name
+     *
+     * @param name {@code aes-256-gcm}, {@code jdk-aes-256-gcm} or {@code xchacha20-poly1305}
+     * @return cipher
+     */
+    public static AeadCipher forName(String name) {
+        for (AeadCipher cipher : new AeadCipher[]{AES_256_GCM, JDK_AES_256_GCM, XCHACHA20_POLY1305}) {
+            if (cipher.getName().equalsIgnoreCase(name)) {
+                return cipher;
+            }
+        }
+        throw new IllegalArgumentException("Unknown cipher: " + name + ", use aes-256-gcm, jdk-aes-256-gcm or xchacha20-poly1305");
+    }
+
+    /**
+     * Bouncy Castle AEAD encryption into {@code nonce || tag || ciphered}. The cipher emits {@code ciphered || tag}:
+     * ciphered bytes go straight to their place, the buffered tail and the tag go through a small per-thread buffer
+     * because the tag precedes the ciphered bytes.
+     */
+    static void seal(AEADCipher cipher, byte[] message, byte[] output, int tagOffset) throws InvalidCipherTextException {
+        final int cipheredOffset = tagOffset + AeadCipher.TAG_LENGTH;
+        int pos = cipher.processBytes(message, 0, message.length, output, cipheredOffset);
+        byte[] tail = tailBuffer(cipher.getOutputSize(0));
+        int tailLength = cipher.doFinal(tail, 0) - AeadCipher.TAG_LENGTH;
+        System.arraycopy(tail, 0, output, cipheredOffset + pos, tailLength);
+        System.arraycopy(tail, tailLength, output, tagOffset, AeadCipher.TAG_LENGTH);
+    }
+
+    /**
+     * Bouncy Castle AEAD decryption of {@code tag || ciphered}, fed to the cipher as {@code ciphered || tag}
+     */
+    static byte[] open(AEADCipher cipher, byte[] input, int tagOffset, int cipheredLength) throws InvalidCipherTextException {
+        byte[] decrypted = new byte[cipheredLength];
+        int pos = cipher.processBytes(input, tagOffset + AeadCipher.TAG_LENGTH, cipheredLength, decrypted, 0);
+        pos += cipher.processBytes(input, tagOffset, AeadCipher.TAG_LENGTH, decrypted, pos);
+        cipher.doFinal(decrypted, pos);
+        return decrypted;
+    }
+
+    static int cipheredLength(AeadCipher cipher, int length) throws InvalidCipherTextException {
+        int cipheredLength = length - cipher.getNonceLength() - AeadCipher.TAG_LENGTH;
+        if (cipheredLength < 0) {
+            throw new InvalidCipherTextException("Cipher text too short");
+        }
+        return cipheredLength;
+    }
+
+    private static final ThreadLocal<byte[]> TAIL = ThreadLocal.withInitial(() -> new byte[128]);
+
+    static byte[] tailBuffer(int size) {
+        byte[] tail = TAIL.get();
+        if (tail.length < size) {
+            tail = new byte[size];
+            TAIL.set(tail);
+        }
+        return tail;
+    }
+}
@@ -0,0 +1,72 @@
+package org.mvnsearch.dotenvx.ecies;
+
+import java.util.NoSuchElementException;
+
+/**
+ * Outcome of one item of a batch encryption or decryption: either a value or the failure of that item.
+ *
+ * @param <T> value type
+ * @author linux_china
+ */
+public final class BatchResult<T> {
+    private final T value;
+    private final Throwable error;
+
+    private BatchResult(T value, Throwable error) {
+        this.value = value;
+        this.error = error;
+    }
+
+    /**
+     * successful item
+     *
+     * @param value item value
+     * @param <T>   value type
+     * @return result
+     */
+    public static <T> BatchResult<T> success(T value) {
+        return new BatchResult<>(value, null);
+    }
+
+    /**
+     * failed item
+     *
+     * @param error item failure
+     * @param <T>   value type
+     * @return result
+     */
+    public static <T> BatchResult<T> failure(Throwable error) {
+        return new BatchResult<>(null, error);
+    }
+
+    public boolean isSuccess() {
+        return error == null;
+    }
+
+    /**
+     * get item value
+     *
+     * @return value
+     * @throws NoSuchElementException if the item failed, with the failure as cause
+     */
+    public T getValue() {
+        if (error != null) {
+            throw new NoSuchElementException("Batch item failed: " + error.getMessage(), error);
+        }
+        return value;
+    }
+
+    /**
+     * get item failure
+     *
+     * @return failure, null if the item succeeded
+     */
+    public Throwable getError() {
+        return error;
+    }
+
+    @Override
+    public String toString() {
+        return error == null ? "BatchResult{value=" + value + "}" : "BatchResult{error=" + error + "}";
+    }
+}
@@ -0,0 +1,142 @@
+package org.mvnsearch.dotenvx.ecies;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Runs an operation over many items on an {@link Executor} and collects per-item results in input order.
+ * <p>
+ * Items are split into a few contiguous chunks per available processor, one task per chunk, so the task overhead stays
+ * small compared with the ECDH work of every item. A failing item is reported in its {@link BatchResult} and does not
+ * stop the other items.
+ * </p>
+ *
+ * @author linux_china
+ */
+public final class Batches {
+    /**
+     * executor running every chunk on the calling thread
+     */
+    public static final Executor CALLER_THREAD = Runnable::run;
+    private static final int CHUNKS_PER_PROCESSOR = 4;
+
+    private Batches() {
+    }
+
+    /**
+     * operation applied to every item of a batch
+     *
+     * @param <I> input type
+     * @param <O> output type
+     */
+    @FunctionalInterface
+    public interface BatchFunction<I, O> {
+        O apply(I input) throws Exception;
+    }
+
+    /**
+     * apply an operation to all items
+     *
+     * @param items    input items
+     * @param function operation
+     * @param executor executor for the chunks
+     * @param <I>      input type
+     * @param <O>      output type
+     * @return results in input order
+     */
+    public static <I, O> List<BatchResult<O>> map(Collection<? extends I> items, BatchFunction<? super I, ? extends O> function, Executor executor) {
+        final List<? extends I> inputs = items instanceof List<?> ? (List<? extends I>) items : new ArrayList<>(items);
+        final int size = inputs.size();
+        // generic arrays can't be created, the chunks fill disjoint ranges of this one without synchronization
+        @SuppressWarnings({"rawtypes", "unchecked"})
+        final BatchResult<O>[] results = new BatchResult[size];
+        int chunks = Math.min(size, Runtime.getRuntime().availableProcessors() * CHUNKS_PER_PROCESSOR);
+        if (chunks <= 1 || executor == CALLER_THREAD) {
+            apply(inputs, function, results, 0, size);
+        } else {
+            CompletableFuture<?>[] futures = new CompletableFuture<?>[chunks];
+            for (int i = 0; i < chunks; i++) {
+                final int from = (int) ((long) size * i / chunks);
+                final int to = (int) ((long) size * (i + 1) / chunks);
+                futures[i] = CompletableFuture.runAsync(() -> apply(inputs, function, results, from, to), executor);
+            }
+            CompletableFuture.allOf(futures).join();
+        }
+        return List.of(results);
+    }
+
+    /**
+     * pair batch results with the keys of the map whose values were processed
+     *
+     * @param items   input map
+     * @param results results of its values, in the iteration order of the map
+     * @param <K>     key type
+     * @param <R>     result type
+     * @return results by key, in the iteration order of the input map
+     */
+    public static <K, R> Map<K, R> byKey(Map<K, ?> items, List<R> results) {
+        Map<K, R> resultMap = new LinkedHashMap<>(items.size() * 4 / 3 + 1);
+        Iterator<R> iterator = results.iterator();
+        for (K key : items.keySet()) {
+            resultMap.put(key, iterator.next());
+        }
+        return resultMap;
+    }
+
+    /**
+     * executor with one virtual thread per task when the runtime supports it, the common fork-join pool otherwise
+     *
+     * @return executor
+     */
+    public static Executor virtualThreadExecutor() {
+        return VirtualThreadExecutorHolder.EXECUTOR;
+    }
+
+    /**
+     * resolve executor by name: {@code fork-join}, {@code virtual} or {@code caller}
+     *
+     * @param name executor name
+     * @return executor
+     */
+    public static Executor executor(String name) {
+        return switch (name) {
+            case "caller" -> CALLER_THREAD;
+            case "virtual" -> virtualThreadExecutor();
+            case "fork-join" -> ForkJoinPool.commonPool();
+            default -> throw new IllegalArgumentException("Unknown batch executor: " + name + ", use fork-join, virtual or caller");
+        };
+    }
+
+    private static final class VirtualThreadExecutorHolder {
+        private static final Executor EXECUTOR = create();
+
+        private static Executor create() {
+            try {
+                // Java 21+, looked up reflectively to keep the Java 17 baseline
+                Method method = java.util.concurrent.Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+                return (Executor) method.invoke(null);
+            } catch (Exception e) {
+                return ForkJoinPool.commonPool();
+            }
+        }
+    }
+
+    private static <I, O> void apply(List<? extends I> inputs, BatchFunction<? super I, ? extends O> function,
+                                     BatchResult<O>[] results, int from, int to) {
+        for (int i = from; i < to; i++) {
+            try {
+                results[i] = BatchResult.success(function.apply(inputs.get(i)));
+            } catch (Exception e) {
+                results[i] = BatchResult.failure(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package org.mvnsearch.dotenvx.ecies;
+
+import org.bouncycastle.crypto.InvalidCipherTextException;
+import org.bouncycastle.crypto.engines.AESEngine;
+import org.bouncycastle.crypto.modes.GCMBlockCipher;
+import org.bouncycastle.crypto.modes.GCMModeCipher;
+import org.bouncycastle.crypto.modes.gcm.Tables4kGCMMultiplier;
+import org.bouncycastle.crypto.params.KeyParameter;
+import org.bouncycastle.crypto.params.ParametersWithIV;
+
+/**
+ * AES-256-GCM with a 16 bytes nonce on the Bouncy Castle lightweight API.
+ *
+ * @author linux_china
+ */
+final class BouncyCastleAesGcm implements AeadCipher {
+    private static final int NONCE_LENGTH = 16;
+    /**
+     * every message has its own AES key, so GCM uses the 4k multiplier tables: the default 64k tables are rebuilt on
+     * every init and cost more than the whole encryption of a typical configuration value
+     */
+    private static final ThreadLocal<GCMModeCipher> AES_GCM = ThreadLocal.withInitial(() -> GCMBlockCipher.newInstance(AESEngine.newInstance(), new Tables4kGCMMultiplier()));
+
+    @Override
+    public String getName() {
+        return "aes-256-gcm";
+    }
+
+    @Override
+    public int getNonceLength() {
+        return NONCE_LENGTH;
+    }
+
+    @Override
+    public void seal(byte[] key, byte[] message, byte[] output, int offset) throws InvalidCipherTextException {
+        final GCMModeCipher gcm = AES_GCM.get();
+        gcm.init(true, new ParametersWithIV(new KeyParameter(key), output, offset, NONCE_LENGTH));
+        AeadCiphers.seal(gcm, message, output, offset + NONCE_LENGTH);
+    }
+
+    @Override
+    public byte[] open(byte[] key, byte[] input, int offset, int length) throws InvalidCipherTextException {
+        final int cipheredLength = AeadCiphers.cipheredLength(this, length);
+        final GCMModeCipher gcm = AES_GCM.get();
+        gcm.init(false, new ParametersWithIV(new KeyParameter(key), input, offset, NONCE_LENGTH));
+        return AeadCiphers.open(gcm, input, offset + NONCE_LENGTH, cipheredLength);
+    }
+}
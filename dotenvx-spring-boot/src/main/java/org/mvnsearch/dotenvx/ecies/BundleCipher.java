@@ -0,0 +1,111 @@
+package org.mvnsearch.dotenvx.ecies;
+
+import org.bouncycastle.crypto.InvalidCipherTextException;
+import org.bouncycastle.util.encoders.Base64;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Symmetric cipher for the values of one configuration file under a data key.
+ * <p>
+ * The data key is random, stored once per file encrypted with ECIES for the file's public key, and every value is
+ * {@code bundle:<base64(nonce || tag || ciphered)>} under it. Decrypting a file then takes one ECDH for the data key
+ * and one AEAD operation per value. Instances are immutable and thread-safe.
+ * </p>
+ *
+ * @author linux_china
+ */
+public final class BundleCipher {
+    /**
+     * prefix of values encrypted under a data key
+     */
+    public static final String PREFIX = "bundle:";
+    public static final int KEY_SIZE = 32;
+    private final byte[] dataKey;
+    private final AeadCipher cipher;
+
+    /**
+     * create cipher for a data key
+     *
+     * @param dataKey 32 bytes data key
+     * @param cipher  payload cipher, see {@link AeadCiphers}
+     */
+    public BundleCipher(byte[] dataKey, AeadCipher cipher) {
+        if (dataKey.length != KEY_SIZE) {
+            throw new IllegalArgumentException("Data key must be " + KEY_SIZE + " bytes");
+        }
+        this.dataKey = dataKey.clone();
+        this.cipher = cipher;
+    }
+
+    /**
+     * generate a random data key
+     *
+     * @return 32 bytes data key
+     */
+    public static byte[] generateDataKey() {
+        byte[] dataKey = new byte[KEY_SIZE];
+        SecureRandoms.nextBytes(dataKey);
+        return dataKey;
+    }
+
+    /**
+     * whether a value is encrypted under a data key
+     *
+     * @param text value, without the `encrypted:` prefix
+     * @return bundled or not
+     */
+    public static boolean isBundled(String text) {
+        return text != null && text.startsWith(PREFIX);
+    }
+
+    /**
+     * Encrypts a given message
+     *
+     * @param message message to encrypt
+     * @return encrypted message with the `bundle:` prefix
+     */
+    public String encrypt(String message) throws InvalidCipherTextException {
+        return PREFIX + Base64.toBase64String(encrypt(message.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Encrypts a given message
+     *
+     * @param message message to encrypt binary
+     * @return {@code nonce || tag || ciphered}
+     */
+    public byte[] encrypt(byte[] message) throws InvalidCipherTextException {
+        byte[] output = new byte[cipher.getNonceLength() + AeadCipher.TAG_LENGTH + message.length];
+        byte[] nonce = new byte[cipher.getNonceLength()];
+        SecureRandoms.nextBytes(nonce);
+        System.arraycopy(nonce, 0, output, 0, nonce.length);
+        cipher.seal(dataKey, message, output, 0);
+        return output;
+    }
+
+    /**
+     * Decrypts given ciphertext
+     *
+     * @param ciphertext ciphered text in base64, with or without the `bundle:` prefix
+     * @return decrypted message
+     */
+    public String decrypt(String ciphertext) throws InvalidCipherTextException {
+        ByteBuffer cipherBuffer = Ecies.decodeBase64Pooled(isBundled(ciphertext) ? ciphertext.substring(PREFIX.length()) : ciphertext);
+        byte[] decrypted = decrypt(cipherBuffer.array(), cipherBuffer.arrayOffset() + cipherBuffer.position(), cipherBuffer.remaining());
+        return new String(decrypted, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Decrypts given ciphertext slice in place, without copying it
+     *
+     * @param cipherBytes cipher text binary
+     * @param offset      offset of the ciphertext
+     * @param length      length of the ciphertext
+     * @return decrypted message binary
+     */
+    public byte[] decrypt(byte[] cipherBytes, int offset, int length) throws InvalidCipherTextException {
+        return cipher.open(dataKey, cipherBytes, offset, length);
+    }
+}
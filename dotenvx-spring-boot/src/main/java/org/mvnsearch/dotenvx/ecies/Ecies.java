@@ -1,14 +1,11 @@
 package org.mvnsearch.dotenvx.ecies;
 
+import org.bouncycastle.asn1.x9.X9ECParameters;
 import org.bouncycastle.crypto.InvalidCipherTextException;
 import org.bouncycastle.crypto.digests.SHA256Digest;
-import org.bouncycastle.crypto.engines.AESEngine;
-import org.bouncycastle.crypto.generators.HKDFBytesGenerator;
-import org.bouncycastle.crypto.modes.GCMBlockCipher;
-import org.bouncycastle.crypto.modes.GCMModeCipher;
-import org.bouncycastle.crypto.params.HKDFParameters;
+import org.bouncycastle.crypto.ec.CustomNamedCurves;
+import org.bouncycastle.crypto.macs.HMac;
 import org.bouncycastle.crypto.params.KeyParameter;
-import org.bouncycastle.crypto.params.ParametersWithIV;
 import org.bouncycastle.jcajce.provider.asymmetric.ec.BCECPrivateKey;
 import org.bouncycastle.jcajce.provider.asymmetric.ec.BCECPublicKey;
 import org.bouncycastle.jce.ECNamedCurveTable;
@@ -16,29 +13,41 @@ import org.bouncycastle.jce.interfaces.ECPrivateKey;
 import org.bouncycastle.jce.interfaces.ECPublicKey;
 import org.bouncycastle.jce.provider.BouncyCastleProvider;
 import org.bouncycastle.jce.spec.ECNamedCurveParameterSpec;
-import org.bouncycastle.jce.spec.ECNamedCurveSpec;
+import org.bouncycastle.jce.spec.ECPrivateKeySpec;
+import org.bouncycastle.jce.spec.ECPublicKeySpec;
+import org.bouncycastle.math.ec.ECPoint;
 import org.bouncycastle.util.encoders.Base64;
 import org.bouncycastle.util.encoders.Hex;
 
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.security.*;
-import java.security.spec.ECPrivateKeySpec;
-import java.security.spec.ECPublicKeySpec;
 import java.security.spec.InvalidKeySpecException;
-import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
 
 @SuppressWarnings("unused")
 public class Ecies {
 
-    private static final String CURVE_NAME = "secp256k1";
-    private static final int UNCOMPRESSED_PUBLIC_KEY_SIZE = 65;
-    private static final int AES_IV_LENGTH = 16;
-    private static final int AES_TAG_LENGTH = 16;
-    private static final int AES_IV_PLUS_TAG_LENGTH = AES_IV_LENGTH + AES_TAG_LENGTH;
+    static final String CURVE_NAME = "secp256k1";
+    static final X9ECParameters CURVE = CustomNamedCurves.getByName(CURVE_NAME);
+    static final int UNCOMPRESSED_PUBLIC_KEY_SIZE = 65;
     private static final int SECRET_KEY_LENGTH = 32;
-    private static final SecureRandom SECURE_RANDOM = new SecureRandom();
-    private static final BouncyCastleProvider BOUNCY_CASTLE_PROVIDER = new BouncyCastleProvider();
+    /**
+     * HKDF-SHA256 extract step with the (empty) default salt, keyed once per thread and reset after every use
+     */
+    private static final ThreadLocal<HMac> HKDF_EXTRACT = ThreadLocal.withInitial(() -> {
+        HMac hmac = new HMac(new SHA256Digest());
+        hmac.init(new KeyParameter(new byte[SECRET_KEY_LENGTH]));
+        return hmac;
+    });
+    private static final ThreadLocal<HMac> HKDF_EXPAND = ThreadLocal.withInitial(() -> new HMac(new SHA256Digest()));
+    private static final java.util.Base64.Decoder BASE64_DECODER = java.util.Base64.getDecoder();
+    private static final int MAX_POOLED_BUFFER_SIZE = 64 * 1024;
+    private static final ThreadLocal<ByteBuffer> DECODE_BUFFER = ThreadLocal.withInitial(() -> ByteBuffer.allocate(256));
 
     /**
      * Generates new key pair consists of {@link ECPublicKey} and {@link ECPrivateKey}
@@ -47,20 +56,32 @@ public class Ecies {
      */
     public static ECKeyPair generateEcKeyPair() throws NoSuchAlgorithmException, InvalidAlgorithmParameterException {
         ECNamedCurveParameterSpec ecSpec = ECNamedCurveTable.getParameterSpec(CURVE_NAME);
-        KeyPairGenerator g = KeyPairGenerator.getInstance("EC", BOUNCY_CASTLE_PROVIDER);
-        g.initialize(ecSpec, SECURE_RANDOM);
-        KeyPair keyPair = g.generateKeyPair();
-        return new ECKeyPair((BCECPublicKey) keyPair.getPublic(), (BCECPrivateKey) keyPair.getPrivate());
+        byte[] privateKey = Secp256k1.generatePrivateKey();
+        ECPoint q = ecSpec.getCurve().decodePoint(Secp256k1.derivePublicKey(privateKey, false));
+        return new ECKeyPair(new BCECPublicKey("EC", new ECPublicKeySpec(q, ecSpec), BouncyCastleProvider.CONFIGURATION),
+                new BCECPrivateKey("EC", new ECPrivateKeySpec(new BigInteger(1, privateKey), ecSpec), BouncyCastleProvider.CONFIGURATION));
+    }
+
+    /**
+     * Generates new X25519 key pair, see {@link X25519Ecies}
+     *
+     * @return new X25519 key pair
+     */
+    public static X25519KeyPair generateX25519KeyPair() {
+        return X25519KeyPair.generate();
     }
 
     /**
      * Encrypts a given message with a given public key in hex
      *
-     * @param publicKeyHex EC public key in hex
+     * @param publicKeyHex EC public key in hex, or X25519 public key with the `x25519:` prefix
      * @param message      message to encrypt
-     * @return encrypted message with base64 encoding
+     * @return encrypted message with base64 encoding, prefixed with `x25519:` for an X25519 key
      */
     public static String encrypt(String publicKeyHex, String message) throws InvalidCipherTextException, InvalidAlgorithmParameterException, NoSuchAlgorithmException, InvalidKeySpecException {
+        if (X25519Ecies.isX25519(publicKeyHex)) {
+            return X25519Encryptor.fromText(publicKeyHex).encrypt(message);
+        }
         byte[] publicKey = Hex.decode(publicKeyHex);
         byte[] encrypt = encrypt(publicKey, message.getBytes(StandardCharsets.UTF_8));
         return Base64.toBase64String(encrypt);
@@ -69,134 +90,195 @@ public class Ecies {
     /**
      * Decrypts given ciphertext with a given private key
      *
-     * @param privateKeyHex EC private key in hex
+     * @param privateKeyHex EC private key in hex, or X25519 private key with the `x25519:` prefix
      * @param ciphertext    ciphered text in base64
      * @return decrypted message
      */
     public static String decrypt(String privateKeyHex, String ciphertext) throws InvalidCipherTextException, NoSuchAlgorithmException, InvalidKeySpecException {
-        byte[] privateKey = Hex.decode(privateKeyHex);
-        byte[] cipherBytes = Base64.decode(ciphertext);
-        return new String(decrypt(privateKey, cipherBytes), StandardCharsets.UTF_8);
+        if (X25519Ecies.isX25519(privateKeyHex)) {
+            return X25519Decryptor.fromText(privateKeyHex).decrypt(ciphertext);
+        }
+        return EciesDecryptor.fromHex(privateKeyHex).decrypt(ciphertext);
     }
 
     /**
-     * Encrypts a given message with a given public key
+     * Encrypts a given message with a given public key. Use {@link EciesEncryptor} directly when the same public key
+     * encrypts more than one message.
      *
      * @param publicKeyBytes EC public key binary
      * @param message        message to encrypt binary
      * @return encrypted message binary
      */
     public static byte[] encrypt(byte[] publicKeyBytes, byte[] message) throws InvalidAlgorithmParameterException, NoSuchAlgorithmException, InvalidKeySpecException, InvalidCipherTextException {
-        ECNamedCurveParameterSpec ecSpec = ECNamedCurveTable.getParameterSpec(CURVE_NAME);
-        KeyPair pair = generateEphemeralKey(ecSpec);
-
-        ECPrivateKey ephemeralPrivateKey = (ECPrivateKey) pair.getPrivate();
-        ECPublicKey ephemeralPublicKey = (ECPublicKey) pair.getPublic();
-
-        //generate receiver PK
-        KeyFactory keyFactory = getKeyFactory();
-        ECNamedCurveSpec curvedParams = new ECNamedCurveSpec(CURVE_NAME, ecSpec.getCurve(), ecSpec.getG(), ecSpec.getN());
-        ECPublicKey publicKey = getEcPublicKey(curvedParams, publicKeyBytes, keyFactory);
+        Secp256k1.PublicKey publicKey = Secp256k1.PublicKey.decode(publicKeyBytes);
+        return encrypt(publicKey, generateEphemeralKey(), AeadCiphers.AES_256_GCM, message);
+    }
 
+    /**
+     * Encrypts a given message for a decoded recipient public key
+     *
+     * @param publicKey recipient public key, precomputed when it encrypts more than one message
+     * @param ephemeral single-use ephemeral key
+     * @param cipher    payload cipher
+     * @param message   message to encrypt binary
+     * @return encrypted message binary
+     */
+    static byte[] encrypt(Secp256k1.PublicKey publicKey, EphemeralKey ephemeral, AeadCipher cipher, byte[] message) throws InvalidCipherTextException {
         //Derive shared secret
-        byte[] uncompressed = ephemeralPublicKey.getQ().getEncoded(false);
-        byte[] multiply = publicKey.getQ().multiply(ephemeralPrivateKey.getD()).getEncoded(false);
-        byte[] aesKey = hkdf(uncompressed, multiply);
+        byte[] aesKey = sharedKey(publicKey, ephemeral);
 
-        // AES encryption
-        return aesEncrypt(message, ephemeralPublicKey, aesKey);
+        // output layout: ephemeral public key || nonce || tag || ciphered
+        byte[] output = new byte[UNCOMPRESSED_PUBLIC_KEY_SIZE + cipher.getNonceLength() + AeadCipher.TAG_LENGTH + message.length];
+        System.arraycopy(ephemeral.getPublicKey(), 0, output, 0, UNCOMPRESSED_PUBLIC_KEY_SIZE);
+        byte[] nonce = new byte[cipher.getNonceLength()];
+        SecureRandoms.nextBytes(nonce);
+        System.arraycopy(nonce, 0, output, UNCOMPRESSED_PUBLIC_KEY_SIZE, nonce.length);
+        cipher.seal(aesKey, message, output, UNCOMPRESSED_PUBLIC_KEY_SIZE);
+        return output;
     }
 
     /**
-     * Decrypts given ciphertext with a given private key
+     * Derives the AES key shared by an ephemeral key and a recipient public key
+     *
+     * @param publicKey recipient public key
+     * @param ephemeral single-use ephemeral key
+     * @return 32 bytes AES key
+     */
+    static byte[] sharedKey(Secp256k1.PublicKey publicKey, EphemeralKey ephemeral) {
+        return hkdf(ephemeral.getPublicKey(), publicKey.multiply(ephemeral.getPrivateKey()));
+    }
+
+    /**
+     * Decrypts given ciphertext with a given private key. Use {@link EciesDecryptor} directly when the same private
+     * key decrypts more than one message.
      *
      * @param privateKeyBytes EC private key binary
      * @param cipherBytes     cipher text binary
      * @return decrypted message binary
      */
     public static byte[] decrypt(byte[] privateKeyBytes, byte[] cipherBytes) throws NoSuchAlgorithmException, InvalidKeySpecException, InvalidCipherTextException {
-        ECNamedCurveParameterSpec ecSpec = ECNamedCurveTable.getParameterSpec(CURVE_NAME);
-        KeyFactory keyFactory = getKeyFactory();
-        ECNamedCurveSpec curvedParams = new ECNamedCurveSpec(CURVE_NAME, ecSpec.getCurve(), ecSpec.getG(), ecSpec.getN());
-
-        //generate a receiver private key
-        ECPrivateKeySpec privateKeySpec = new ECPrivateKeySpec(new BigInteger(1, privateKeyBytes), curvedParams);
-        ECPrivateKey receiverPrivateKey = (ECPrivateKey) keyFactory.generatePrivate(privateKeySpec);
-
-        //get sender pub key
-        byte[] senderPubKeyByte = Arrays.copyOf(cipherBytes, UNCOMPRESSED_PUBLIC_KEY_SIZE);
-        ECPublicKey senderPubKey = getEcPublicKey(curvedParams, senderPubKeyByte, keyFactory);
-
-        //decapsulate
-        byte[] uncompressed = senderPubKey.getQ().getEncoded(false);
-        byte[] multiply = senderPubKey.getQ().multiply(receiverPrivateKey.getD()).getEncoded(false);
-        byte[] aesKey = hkdf(uncompressed, multiply);
-
-        // AES decryption
-        return aesDecrypt(cipherBytes, aesKey);
+        return new EciesDecryptor(privateKeyBytes).decrypt(cipherBytes);
     }
 
-    private static KeyFactory getKeyFactory() throws NoSuchAlgorithmException {
-        return KeyFactory.getInstance("EC", BOUNCY_CASTLE_PROVIDER);
+    /**
+     * Encrypts all given messages with a given public key, see {@link EciesEncryptor#encryptAll(Collection, Executor)}
+     *
+     * @param publicKeyBytes EC public key binary
+     * @param messages       message binaries to encrypt
+     * @param executor       executor for the batch
+     * @return encrypted message binaries or failures, in input order
+     */
+    public static List<BatchResult<byte[]>> encryptAll(byte[] publicKeyBytes, Collection<byte[]> messages, Executor executor) {
+        return new EciesEncryptor(publicKeyBytes).encryptAll(messages, executor);
     }
 
-    private static byte[] aesEncrypt(byte[] message, ECPublicKey ephemeralPubKey, byte[] aesKey) throws InvalidCipherTextException {
-        final GCMModeCipher aesGcmBlockCipher = GCMBlockCipher.newInstance(AESEngine.newInstance());
-        byte[] nonce = new byte[AES_IV_LENGTH];
-        SECURE_RANDOM.nextBytes(nonce);
-
-        ParametersWithIV parametersWithIV = new ParametersWithIV(new KeyParameter(aesKey), nonce);
-        aesGcmBlockCipher.init(true, parametersWithIV);
-
-        int outputSize = aesGcmBlockCipher.getOutputSize(message.length);
+    /**
+     * Decrypts all given ciphertexts with a given private key, see {@link EciesDecryptor#decryptAll(Collection, Executor)}
+     *
+     * @param privateKeyBytes EC private key binary
+     * @param cipherBytesList cipher text binaries
+     * @param executor        executor for the batch
+     * @return decrypted message binaries or failures, in input order
+     */
+    public static List<BatchResult<byte[]>> decryptAll(byte[] privateKeyBytes, Collection<byte[]> cipherBytesList, Executor executor) {
+        return new EciesDecryptor(privateKeyBytes).decryptAll(cipherBytesList, executor);
+    }
 
-        byte[] encrypted = new byte[outputSize];
-        int pos = aesGcmBlockCipher.processBytes(message, 0, message.length, encrypted, 0);
-        aesGcmBlockCipher.doFinal(encrypted, pos);
+    static EphemeralKey generateEphemeralKey() {
+        byte[] privateKey = Secp256k1.generatePrivateKey();
+        return new EphemeralKey(privateKey, Secp256k1.derivePublicKey(privateKey, false));
+    }
 
-        byte[] tag = Arrays.copyOfRange(encrypted, encrypted.length - nonce.length, encrypted.length);
-        encrypted = Arrays.copyOfRange(encrypted, 0, encrypted.length - tag.length);
+    /**
+     * Decodes base64 text with the JDK decoder, falling back to the lenient Bouncy Castle decoder for text that isn't
+     * strict base64, e.g. with line breaks.
+     *
+     * @param text base64 text
+     * @return new buffer positioned on the decoded bytes
+     * @throws org.bouncycastle.util.encoders.DecoderException if the text is not base64
+     */
+    public static ByteBuffer decodeBase64(String text) {
+        return decodeBase64(text, false);
+    }
 
-        byte[] ephemeralPkUncompressed = ephemeralPubKey.getQ().getEncoded(false);
-        return org.bouncycastle.util.Arrays.concatenate(ephemeralPkUncompressed, nonce, tag, encrypted);
+    /**
+     * Decodes base64 text into a per-thread buffer that is lent to the reader. The buffer is only valid until the
+     * reader returns and must not be kept; a nested call from the reader decodes into a new buffer.
+     *
+     * @param text   base64 text
+     * @param reader reader of the buffer positioned on the decoded bytes
+     * @param <T>    result type
+     * @return reader result
+     * @throws org.bouncycastle.util.encoders.DecoderException if the text is not base64
+     */
+    public static <T> T decodeBase64(String text, Function<ByteBuffer, T> reader) {
+        ByteBuffer buffer = decodeBase64(text, true);
+        ByteBuffer pooled = DECODE_BUFFER.get();
+        if (buffer != pooled) {
+            return reader.apply(buffer);
+        }
+        DECODE_BUFFER.set(null);
+        try {
+            return reader.apply(buffer);
+        } finally {
+            DECODE_BUFFER.set(pooled);
+        }
     }
 
-    private static KeyPair generateEphemeralKey(ECNamedCurveParameterSpec ecSpec) throws NoSuchAlgorithmException, InvalidAlgorithmParameterException {
-        KeyPairGenerator g = KeyPairGenerator.getInstance("EC", BOUNCY_CASTLE_PROVIDER);
-        g.initialize(ecSpec, SECURE_RANDOM);
-        return g.generateKeyPair();
+    /**
+     * Decodes base64 text into the per-thread buffer, only valid until the next decoding on the same thread
+     */
+    static ByteBuffer decodeBase64Pooled(String text) {
+        return decodeBase64(text, true);
     }
 
-    private static byte[] aesDecrypt(byte[] inputBytes, byte[] aesKey) throws InvalidCipherTextException {
-        byte[] encrypted = Arrays.copyOfRange(inputBytes, UNCOMPRESSED_PUBLIC_KEY_SIZE, inputBytes.length);
-        byte[] nonce = Arrays.copyOf(encrypted, AES_IV_LENGTH);
-        byte[] tag = Arrays.copyOfRange(encrypted, AES_IV_LENGTH, AES_IV_PLUS_TAG_LENGTH);
-        byte[] ciphered = Arrays.copyOfRange(encrypted, AES_IV_PLUS_TAG_LENGTH, encrypted.length);
+    private static ByteBuffer decodeBase64(String text, boolean pooled) {
+        byte[] src = text.getBytes(StandardCharsets.ISO_8859_1);
+        int maxLength = src.length / 4 * 3 + 3;
+        try {
+            // not pooled when too large, or lent to a reader
+            ByteBuffer buffer = pooled && maxLength <= MAX_POOLED_BUFFER_SIZE ? DECODE_BUFFER.get() : null;
+            if (buffer == null) {
+                return ByteBuffer.wrap(BASE64_DECODER.decode(src));
+            }
+            if (buffer.capacity() < maxLength) {
+                buffer = ByteBuffer.allocate(Math.min(Math.max(maxLength, buffer.capacity() * 2), MAX_POOLED_BUFFER_SIZE));
+                DECODE_BUFFER.set(buffer);
+            }
+            int length = BASE64_DECODER.decode(src, buffer.array());
+            buffer.clear().limit(length);
+            return buffer;
+        } catch (IllegalArgumentException e) {
+            return ByteBuffer.wrap(Base64.decode(text));
+        }
+    }
 
-        final GCMModeCipher aesGcmBlockCipher = GCMBlockCipher.newInstance(AESEngine.newInstance());
-        ParametersWithIV parametersWithIV = new ParametersWithIV(new KeyParameter(aesKey), nonce);
-        aesGcmBlockCipher.init(false, parametersWithIV);
+    /**
+     * HKDF-SHA256 without salt and info over {@code uncompressed || multiply}, producing a 32 bytes AES key. The output
+     * is a single expand block, so it is computed directly as {@code HMAC(PRK, 0x01)}.
+     */
+    static byte[] hkdf(byte[] uncompressed, byte[] multiply) {
+        return hkdf(uncompressed, 0, multiply);
+    }
 
-        int outputSize = aesGcmBlockCipher.getOutputSize(ciphered.length + tag.length);
-        byte[] decrypted = new byte[outputSize];
-        int pos = aesGcmBlockCipher.processBytes(ciphered, 0, ciphered.length, decrypted, 0);
-        pos += aesGcmBlockCipher.processBytes(tag, 0, tag.length, decrypted, pos);
-        aesGcmBlockCipher.doFinal(decrypted, pos);
-        return decrypted;
+    static byte[] hkdf(byte[] uncompressed, int uncompressedOffset, byte[] multiply) {
+        return hkdf(uncompressed, uncompressedOffset, UNCOMPRESSED_PUBLIC_KEY_SIZE, multiply);
     }
 
-    private static byte[] hkdf(byte[] uncompressed, byte[] multiply) {
-        byte[] master = org.bouncycastle.util.Arrays.concatenate(uncompressed, multiply);
-        HKDFBytesGenerator hkdfBytesGenerator = new HKDFBytesGenerator(new SHA256Digest());
-        hkdfBytesGenerator.init(new HKDFParameters(master, null, null));
+    /**
+     * HKDF-SHA256 over {@code ephemeralKey || multiply} for an ephemeral public key of any length, e.g. 32 bytes X25519
+     */
+    static byte[] hkdf(byte[] ephemeralKey, int offset, int length, byte[] multiply) {
+        final HMac extract = HKDF_EXTRACT.get();
+        byte[] prk = new byte[SECRET_KEY_LENGTH];
+        extract.update(ephemeralKey, offset, length);
+        extract.update(multiply, 0, multiply.length);
+        extract.doFinal(prk, 0);
+        final HMac expand = HKDF_EXPAND.get();
+        expand.init(new KeyParameter(prk));
+        expand.update((byte) 1);
         byte[] aesKey = new byte[SECRET_KEY_LENGTH];
-        hkdfBytesGenerator.generateBytes(aesKey, 0, aesKey.length);
+        expand.doFinal(aesKey, 0);
         return aesKey;
     }
-
-    private static ECPublicKey getEcPublicKey(ECNamedCurveSpec curvedParams, byte[] senderPubKeyByte, KeyFactory keyFactory) throws InvalidKeySpecException {
-        java.security.spec.ECPoint point = org.bouncycastle.jce.ECPointUtil.decodePoint(curvedParams.getCurve(), senderPubKeyByte);
-        ECPublicKeySpec pubKeySpec = new ECPublicKeySpec(point, curvedParams);
-        return (ECPublicKey) keyFactory.generatePublic(pubKeySpec);
-    }
 }
@@ -0,0 +1,255 @@
+package org.mvnsearch.dotenvx.ecies;
+
+import org.bouncycastle.crypto.InvalidCipherTextException;
+import org.bouncycastle.util.encoders.Hex;
+
+import java.io.InputStream;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * ECIES decryptor bound to one secp256k1 private key.
+ * <p>
+ * The private key is parsed and its scalar recoding is computed once, so a long-lived instance decrypts every
+ * message with the ECDH multiplication, HKDF and payload decryption work only. Both the legacy format and the
+ * versioned format of {@link EciesEnvelope} are read. Instances are immutable and thread-safe.
+ * </p>
+ *
+ * @author linux_china
+ */
+public final class EciesDecryptor implements TrialDecryptor {
+    private final FixedScalarMultiplier multiplier;
+    private final AeadCipher cipher;
+    private final int keyId;
+
+    /**
+     * create decryptor for a private key
+     *
+     * @param privateKeyBytes EC private key binary
+     */
+    public EciesDecryptor(byte[] privateKeyBytes) {
+        this(privateKeyBytes, AeadCiphers.AES_256_GCM);
+    }
+
+    /**
+     * create decryptor for a private key and a payload cipher
+     *
+     * @param privateKeyBytes EC private key binary
+     * @param cipher          payload cipher, see {@link AeadCiphers}
+     */
+    public EciesDecryptor(byte[] privateKeyBytes, AeadCipher cipher) {
+        this.cipher = cipher;
+        BigInteger d = new BigInteger(1, privateKeyBytes);
+        if (d.signum() == 0 || d.compareTo(Ecies.CURVE.getN()) >= 0) {
+            throw new IllegalArgumentException("Invalid secp256k1 private key");
+        }
+        this.multiplier = new FixedScalarMultiplier(d);
+        this.keyId = EciesEnvelope.keyId(Secp256k1.derivePublicKey(privateKeyBytes, true));
+    }
+
+    private EciesDecryptor(EciesDecryptor decryptor, AeadCipher cipher) {
+        this.multiplier = decryptor.multiplier;
+        this.keyId = decryptor.keyId;
+        this.cipher = cipher;
+    }
+
+    /**
+     * decryptor for the same private key with another payload cipher, sharing the precomputed key
+     *
+     * @param cipher payload cipher, see {@link AeadCiphers}
+     * @return decryptor
+     */
+    public EciesDecryptor withCipher(AeadCipher cipher) {
+        return cipher == this.cipher ? this : new EciesDecryptor(this, cipher);
+    }
+
+    /**
+     * create decryptor for a private key in hex
+     *
+     * @param privateKeyHex EC private key in hex
+     * @return decryptor
+     */
+    public static EciesDecryptor fromHex(String privateKeyHex) {
+        return new EciesDecryptor(Hex.decode(privateKeyHex));
+    }
+
+    /**
+     * key id of the public key, see {@link EciesEnvelope#keyId(byte[])}
+     *
+     * @return key id
+     */
+    public int getKeyId() {
+        return keyId;
+    }
+
+    /**
+     * Decrypts given ciphertext
+     *
+     * @param ciphertext ciphered text in base64
+     * @return decrypted message
+     */
+    public String decrypt(String ciphertext) throws InvalidCipherTextException {
+        return new String(decrypt(Ecies.decodeBase64Pooled(ciphertext)), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Decrypts given ciphertext
+     *
+     * @param cipherBytes cipher text binary
+     * @return decrypted message binary
+     */
+    public byte[] decrypt(byte[] cipherBytes) throws InvalidCipherTextException {
+        return decrypt(cipherBytes, 0, cipherBytes.length);
+    }
+
+    /**
+     * Decrypts the remaining bytes of given buffer, the buffer position is moved to its limit
+     *
+     * @param cipherBuffer cipher text binary
+     * @return decrypted message binary
+     */
+    public byte[] decrypt(ByteBuffer cipherBuffer) throws InvalidCipherTextException {
+        byte[] decrypted;
+        if (cipherBuffer.hasArray()) {
+            decrypted = decrypt(cipherBuffer.array(), cipherBuffer.arrayOffset() + cipherBuffer.position(), cipherBuffer.remaining());
+        } else {
+            byte[] cipherBytes = new byte[cipherBuffer.remaining()];
+            cipherBuffer.duplicate().get(cipherBytes);
+            decrypted = decrypt(cipherBytes);
+        }
+        cipherBuffer.position(cipherBuffer.limit());
+        return decrypted;
+    }
+
+    /**
+     * Decrypts given ciphertext slice in place, without copying it
+     *
+     * @param cipherBytes cipher text binary
+     * @param offset      offset of the ciphertext
+     * @param length      length of the ciphertext
+     * @return decrypted message binary
+     */
+    public byte[] decrypt(byte[] cipherBytes, int offset, int length) throws InvalidCipherTextException {
+        if (EciesEnvelope.isEnvelope(cipherBytes, offset, length)) {
+            byte[] decrypted = tryDecryptEnvelope(cipherBytes, offset, length);
+            if (decrypted == null) {
+                throw new InvalidCipherTextException("Cipher text is not encrypted for this key or corrupted");
+            }
+            return decrypted;
+        }
+        if (length <= Ecies.UNCOMPRESSED_PUBLIC_KEY_SIZE) {
+            throw new InvalidCipherTextException("Cipher text too short");
+        }
+        byte[] aesKey = sharedKey(cipherBytes, offset);
+        return cipher.open(aesKey, cipherBytes, offset + Ecies.UNCOMPRESSED_PUBLIC_KEY_SIZE, length - Ecies.UNCOMPRESSED_PUBLIC_KEY_SIZE);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public byte[] tryDecrypt(byte[] cipherBytes, int offset, int length) {
+        if (EciesEnvelope.isEnvelope(cipherBytes, offset, length)) {
+            return tryDecryptEnvelope(cipherBytes, offset, length);
+        }
+        if (length <= Ecies.UNCOMPRESSED_PUBLIC_KEY_SIZE) {
+            return null;
+        }
+        byte[] aesKey = trySharedKey(cipherBytes, offset, Ecies.UNCOMPRESSED_PUBLIC_KEY_SIZE);
+        if (aesKey == null) {
+            return null;
+        }
+        return cipher.tryOpen(aesKey, cipherBytes, offset + Ecies.UNCOMPRESSED_PUBLIC_KEY_SIZE, length - Ecies.UNCOMPRESSED_PUBLIC_KEY_SIZE);
+    }
+
+    /**
+     * Derives the AES key shared with the sender from its uncompressed ephemeral public key
+     *
+     * @param ephemeralPublicKey buffer with the ephemeral public key
+     * @param offset             offset of the 65 bytes ephemeral public key
+     * @return 32 bytes AES key
+     */
+    byte[] sharedKey(byte[] ephemeralPublicKey, int offset) throws InvalidCipherTextException {
+        if (ephemeralPublicKey[offset] != 0x04) {
+            throw new InvalidCipherTextException("Ephemeral public key is not uncompressed");
+        }
+        byte[] aesKey = trySharedKey(ephemeralPublicKey, offset, Ecies.UNCOMPRESSED_PUBLIC_KEY_SIZE);
+        if (aesKey == null) {
+            throw new InvalidCipherTextException("Invalid ephemeral public key");
+        }
+        return aesKey;
+    }
+
+    private byte[] trySharedKey(byte[] ephemeralPublicKey, int offset, int length) {
+        long[] x = Secp256k1Field.create(), y = Secp256k1Field.create();
+        if (!Secp256k1Point.decode(ephemeralPublicKey, offset, length, x, y)) {
+            return null;
+        }
+        return Ecies.hkdf(ephemeralPublicKey, offset, length, multiplier.multiply(x, y));
+    }
+
+    /**
+     * Decrypts a version 2 payload if one of its key ids is this key's, see {@link EciesEnvelope}
+     */
+    private byte[] tryDecryptEnvelope(byte[] cipherBytes, int offset, int length) {
+        int count = EciesEnvelope.recipients(cipherBytes, offset, length);
+        if (count == 0) {
+            return null;
+        }
+        int ephemeralKeyOffset = offset + EciesEnvelope.EPHEMERAL_KEY_OFFSET;
+        int keyIdsOffset = EciesEnvelope.keyIdsOffset(cipherBytes, offset);
+        int wrappedKeyLength = count > 1 ? EciesEnvelope.wrappedKeyLength(cipher) : 0;
+        int wrappedKeysOffset = keyIdsOffset + count * EciesEnvelope.KEY_ID_LENGTH;
+        int payloadOffset = wrappedKeysOffset + count * wrappedKeyLength;
+        if (payloadOffset > offset + length) {
+            return null;
+        }
+        byte[] keyEncryptionKey = null;
+        for (int i = 0; i < count; i++) {
+            if (EciesEnvelope.readInt(cipherBytes, keyIdsOffset + i * EciesEnvelope.KEY_ID_LENGTH) != keyId) {
+                continue;
+            }
+            if (keyEncryptionKey == null) {
+                keyEncryptionKey = trySharedKey(cipherBytes, ephemeralKeyOffset, keyIdsOffset - ephemeralKeyOffset);
+                if (keyEncryptionKey == null) {
+                    return null;
+                }
+            }
+            byte[] contentKey = count == 1 ? keyEncryptionKey
+                    : cipher.tryOpen(keyEncryptionKey, cipherBytes, wrappedKeysOffset + i * wrappedKeyLength, wrappedKeyLength);
+            if (contentKey != null) {
+                // a key id shared by two recipients is tried for both
+                byte[] decrypted = cipher.tryOpen(contentKey, cipherBytes, payloadOffset, offset + length - payloadOffset);
+                if (decrypted != null) {
+                    return decrypted;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Decrypts all given ciphertexts on an executor
+     *
+     * @param cipherBytesList cipher text binaries
+     * @param executor        executor, e.g. {@link Batches#CALLER_THREAD} or a fork-join pool
+     * @return decrypted message binaries or failures, in input order
+     */
+    public List<BatchResult<byte[]>> decryptAll(Collection<byte[]> cipherBytesList, Executor executor) {
+        return Batches.map(cipherBytesList, this::decrypt, executor);
+    }
+
+    /**
+     * Wraps a stream written by {@link EciesEncryptor#encryptingStream(java.io.OutputStream)}, decrypting it as it is read
+     *
+     * @param in encrypted stream
+     * @return decrypted stream
+     */
+    public InputStream decryptingStream(InputStream in) {
+        return new EciesInputStream(in, List.of(this));
+    }
+}
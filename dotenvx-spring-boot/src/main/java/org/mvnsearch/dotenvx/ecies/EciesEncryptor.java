@@ -0,0 +1,129 @@
+package org.mvnsearch.dotenvx.ecies;
+
+import org.bouncycastle.crypto.InvalidCipherTextException;
+import org.bouncycastle.util.encoders.Base64;
+import org.bouncycastle.util.encoders.Hex;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * ECIES encryptor bound to one secp256k1 recipient public key.
+ * <p>
+ * The recipient point is decoded once and gets a fixed-window table, the same precomputation the generator point
+ * uses, so the ECDH multiplication of every message is a constant-time fixed-base multiplication. Instances are
+ * immutable and thread-safe.
+ * </p>
+ *
+ * @author linux_china
+ */
+public final class EciesEncryptor {
+    private final Secp256k1.PublicKey publicKey;
+    private final EphemeralKeyPool ephemeralKeyPool;
+    private final AeadCipher cipher;
+
+    /**
+     * create encryptor for a public key
+     *
+     * @param publicKeyBytes EC public key binary, compressed or uncompressed
+     */
+    public EciesEncryptor(byte[] publicKeyBytes) {
+        this(publicKeyBytes, null);
+    }
+
+    /**
+     * create encryptor for a public key that takes its ephemeral keys from a pool
+     *
+     * @param publicKeyBytes   EC public key binary, compressed or uncompressed
+     * @param ephemeralKeyPool pre-generated ephemeral keys, null to generate them on every call
+     */
+    public EciesEncryptor(byte[] publicKeyBytes, EphemeralKeyPool ephemeralKeyPool) {
+        this(publicKeyBytes, ephemeralKeyPool, AeadCiphers.AES_256_GCM);
+    }
+
+    /**
+     * create encryptor for a public key with a payload cipher
+     *
+     * @param publicKeyBytes   EC public key binary, compressed or uncompressed
+     * @param ephemeralKeyPool pre-generated ephemeral keys, null to generate them on every call
+     * @param cipher           payload cipher, see {@link AeadCiphers}
+     */
+    public EciesEncryptor(byte[] publicKeyBytes, EphemeralKeyPool ephemeralKeyPool, AeadCipher cipher) {
+        this.publicKey = Secp256k1.PublicKey.decode(publicKeyBytes).precompute();
+        this.ephemeralKeyPool = ephemeralKeyPool;
+        this.cipher = cipher;
+    }
+
+    /**
+     * create encryptor for a public key in hex
+     *
+     * @param publicKeyHex EC public key in hex
+     * @return encryptor
+     */
+    public static EciesEncryptor fromHex(String publicKeyHex) {
+        return new EciesEncryptor(Hex.decode(publicKeyHex));
+    }
+
+    /**
+     * create encryptor for a public key in hex that takes its ephemeral keys from a pool
+     *
+     * @param publicKeyHex     EC public key in hex
+     * @param ephemeralKeyPool pre-generated ephemeral keys, null to generate them on every call
+     * @return encryptor
+     */
+    public static EciesEncryptor fromHex(String publicKeyHex, EphemeralKeyPool ephemeralKeyPool) {
+        return new EciesEncryptor(Hex.decode(publicKeyHex), ephemeralKeyPool);
+    }
+
+    /**
+     * Encrypts a given message
+     *
+     * @param message message to encrypt
+     * @return encrypted message with base64 encoding
+     */
+    public String encrypt(String message) throws InvalidCipherTextException {
+        return Base64.toBase64String(encrypt(message.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Encrypts a given message
+     *
+     * @param message message to encrypt binary
+     * @return encrypted message binary
+     */
+    public byte[] encrypt(byte[] message) throws InvalidCipherTextException {
+        return Ecies.encrypt(publicKey, nextEphemeralKey(), cipher, message);
+    }
+
+    /**
+     * Wraps a stream so that everything written to it is encrypted with one ECDH step and chunked AES-GCM frames,
+     * see {@link EciesOutputStream}. Closing the returned stream writes the last frame and closes {@code out}.
+     *
+     * @param out stream receiving the encrypted bytes
+     * @return plaintext stream
+     * @throws IOException if the header can't be written
+     */
+    public OutputStream encryptingStream(OutputStream out) throws IOException {
+        EphemeralKey ephemeral = nextEphemeralKey();
+        return new EciesOutputStream(out, ephemeral.getPublicKey(), Ecies.sharedKey(publicKey, ephemeral));
+    }
+
+    private EphemeralKey nextEphemeralKey() {
+        return ephemeralKeyPool != null ? ephemeralKeyPool.take() : Ecies.generateEphemeralKey();
+    }
+
+    /**
+     * Encrypts all given messages on an executor
+     *
+     * @param messages message binaries to encrypt
+     * @param executor executor, e.g. {@link Batches#CALLER_THREAD} or a fork-join pool
+     * @return encrypted message binaries or failures, in input order
+     */
+    public List<BatchResult<byte[]>> encryptAll(Collection<byte[]> messages, Executor executor) {
+        return Batches.map(messages, this::encrypt, executor);
+    }
+}
@@ -0,0 +1,135 @@
+package org.mvnsearch.dotenvx.ecies;
+
+import org.bouncycastle.crypto.digests.SHA256Digest;
+
+/**
+ * Versioned secp256k1 ECIES format, readable next to the legacy one.
+ * <p>
+ * A legacy payload starts with the {@code 0x04} prefix of its uncompressed ephemeral key. A versioned payload starts
+ * with {@link #VERSION_2} and is laid out as
+ * {@code version (1) || recipient count n (1) || ephemeral public key (33 or 65) || n * key id (4) || wrapped keys || nonce || tag || ciphered}.
+ * The key id is the first 4 bytes, big endian, of SHA-256 over the compressed recipient public key, so a decryptor
+ * holding several private keys picks the right one without trying them. With one recipient the payload key is
+ * derived by ECDH and HKDF over {@code ephemeral public key || shared point}, exactly like a legacy payload, and there
+ * are no wrapped keys. With more recipients a random content key encrypts the payload once, and is wrapped for every
+ * recipient as {@code nonce || tag || content key (32)} under the key derived from the shared ephemeral key.
+ * </p>
+ *
+ * @author linux_china
+ * @see EciesEnvelopeEncryptor
+ */
+public final class EciesEnvelope {
+    /**
+     * first byte of a version 2 payload, never a SEC1 point prefix
+     */
+    public static final byte VERSION_2 = (byte) 0x82;
+    public static final int KEY_ID_LENGTH = 4;
+    static final int MAX_RECIPIENTS = 255;
+    static final int EPHEMERAL_KEY_OFFSET = 2;
+    static final int CONTENT_KEY_LENGTH = 32;
+
+    private EciesEnvelope() {
+    }
+
+    /**
+     * key id of a secp256k1 public key
+     *
+     * @param publicKey public key, compressed or uncompressed
+     * @return key id
+     */
+    public static int keyId(byte[] publicKey) {
+        byte[] compressed = publicKey.length == Ecies.UNCOMPRESSED_PUBLIC_KEY_SIZE ? compress(publicKey) : publicKey;
+        SHA256Digest digest = new SHA256Digest();
+        digest.update(compressed, 0, compressed.length);
+        byte[] hash = new byte[digest.getDigestSize()];
+        digest.doFinal(hash, 0);
+        return readInt(hash, 0);
+    }
+
+    /**
+     * whether a payload is in a versioned format
+     *
+     * @param cipherBytes cipher text binary
+     * @param offset      offset of the ciphertext
+     * @param length      length of the ciphertext
+     * @return versioned or not
+     */
+    public static boolean isEnvelope(byte[] cipherBytes, int offset, int length) {
+        return length > 0 && cipherBytes[offset] == VERSION_2;
+    }
+
+    /**
+     * number of recipients of a version 2 payload
+     *
+     * @param cipherBytes cipher text binary
+     * @param offset      offset of the ciphertext
+     * @param length      length of the ciphertext
+     * @return recipient count, 0 if the header is truncated or malformed
+     */
+    public static int recipients(byte[] cipherBytes, int offset, int length) {
+        if (!isEnvelope(cipherBytes, offset, length) || length < EPHEMERAL_KEY_OFFSET + 1) {
+            return 0;
+        }
+        int count = cipherBytes[offset + 1] & 0xFF;
+        int ephemeralKeyLength = ephemeralKeyLength(cipherBytes[offset + EPHEMERAL_KEY_OFFSET]);
+        if (ephemeralKeyLength < 0 || length < EPHEMERAL_KEY_OFFSET + ephemeralKeyLength + count * KEY_ID_LENGTH) {
+            return 0;
+        }
+        return count;
+    }
+
+    /**
+     * key id of a recipient of a version 2 payload, see {@link #recipients(byte[], int, int)}
+     *
+     * @param cipherBytes cipher text binary
+     * @param offset      offset of the ciphertext
+     * @param index       recipient index
+     * @return key id
+     */
+    public static int keyId(byte[] cipherBytes, int offset, int index) {
+        return readInt(cipherBytes, keyIdsOffset(cipherBytes, offset) + index * KEY_ID_LENGTH);
+    }
+
+    static int keyIdsOffset(byte[] cipherBytes, int offset) {
+        return offset + EPHEMERAL_KEY_OFFSET + ephemeralKeyLength(cipherBytes[offset + EPHEMERAL_KEY_OFFSET]);
+    }
+
+    /**
+     * length of a SEC1 encoded ephemeral key from its prefix
+     *
+     * @param prefix first byte of the key
+     * @return 33, 65 or -1 for an invalid prefix
+     */
+    static int ephemeralKeyLength(byte prefix) {
+        return switch (prefix) {
+            case 0x02, 0x03 -> 33;
+            case 0x04 -> Ecies.UNCOMPRESSED_PUBLIC_KEY_SIZE;
+            default -> -1;
+        };
+    }
+
+    /**
+     * length of a wrapped content key entry for a payload cipher
+     */
+    static int wrappedKeyLength(AeadCipher cipher) {
+        return cipher.getNonceLength() + AeadCipher.TAG_LENGTH + CONTENT_KEY_LENGTH;
+    }
+
+    static byte[] compress(byte[] uncompressed) {
+        byte[] compressed = new byte[33];
+        compressed[0] = (byte) (0x02 | (uncompressed[64] & 1));
+        System.arraycopy(uncompressed, 1, compressed, 1, 32);
+        return compressed;
+    }
+
+    static int readInt(byte[] bytes, int offset) {
+        return (bytes[offset] & 0xFF) << 24 | (bytes[offset + 1] & 0xFF) << 16 | (bytes[offset + 2] & 0xFF) << 8 | (bytes[offset + 3] & 0xFF);
+    }
+
+    static void writeInt(int value, byte[] bytes, int offset) {
+        bytes[offset] = (byte) (value >>> 24);
+        bytes[offset + 1] = (byte) (value >>> 16);
+        bytes[offset + 2] = (byte) (value >>> 8);
+        bytes[offset + 3] = (byte) value;
+    }
+}
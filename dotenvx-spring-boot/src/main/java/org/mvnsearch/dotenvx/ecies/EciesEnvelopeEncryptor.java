@@ -0,0 +1,141 @@
+package org.mvnsearch.dotenvx.ecies;
+
+import org.bouncycastle.crypto.InvalidCipherTextException;
+import org.bouncycastle.util.encoders.Base64;
+import org.bouncycastle.util.encoders.Hex;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * ECIES encryptor writing the version 2 format of {@link EciesEnvelope} for one or more secp256k1 recipients.
+ * <p>
+ * Every message takes one ephemeral key, written compressed by default, and one ECDH multiplication per recipient on
+ * the precomputed recipient points. {@link EciesDecryptor} reads both formats. Instances are immutable and thread-safe.
+ * </p>
+ *
+ * @author linux_china
+ */
+public final class EciesEnvelopeEncryptor {
+    private final List<Secp256k1.PublicKey> recipients = new ArrayList<>();
+    private final int[] keyIds;
+    private final boolean compressed;
+    private final EphemeralKeyPool ephemeralKeyPool;
+    private final AeadCipher cipher;
+
+    /**
+     * create encryptor for recipient public keys, with a compressed ephemeral key
+     *
+     * @param publicKeys EC public key binaries, compressed or uncompressed
+     */
+    public EciesEnvelopeEncryptor(List<byte[]> publicKeys) {
+        this(publicKeys, true, null, AeadCiphers.AES_256_GCM);
+    }
+
+    /**
+     * create encryptor for recipient public keys
+     *
+     * @param publicKeys       EC public key binaries, compressed or uncompressed, 1 to 255 keys
+     * @param compressed       write the 33 bytes compressed ephemeral key instead of the 65 bytes uncompressed one
+     * @param ephemeralKeyPool pre-generated ephemeral keys, null to generate them on every call
+     * @param cipher           payload cipher, see {@link AeadCiphers}
+     */
+    public EciesEnvelopeEncryptor(List<byte[]> publicKeys, boolean compressed, EphemeralKeyPool ephemeralKeyPool, AeadCipher cipher) {
+        if (publicKeys.isEmpty() || publicKeys.size() > EciesEnvelope.MAX_RECIPIENTS) {
+            throw new IllegalArgumentException("1 to " + EciesEnvelope.MAX_RECIPIENTS + " recipients expected");
+        }
+        this.keyIds = new int[publicKeys.size()];
+        for (int i = 0; i < keyIds.length; i++) {
+            Secp256k1.PublicKey publicKey = Secp256k1.PublicKey.decode(publicKeys.get(i));
+            recipients.add(publicKey.precompute());
+            keyIds[i] = EciesEnvelope.keyId(publicKey.getEncoded(true));
+        }
+        this.compressed = compressed;
+        this.ephemeralKeyPool = ephemeralKeyPool;
+        this.cipher = cipher;
+    }
+
+    /**
+     * create encryptor for recipient public keys in hex
+     *
+     * @param publicKeyHexes EC public keys in hex
+     * @return encryptor
+     */
+    public static EciesEnvelopeEncryptor fromHex(String... publicKeyHexes) {
+        List<byte[]> publicKeys = new ArrayList<>();
+        for (String publicKeyHex : publicKeyHexes) {
+            publicKeys.add(Hex.decode(publicKeyHex));
+        }
+        return new EciesEnvelopeEncryptor(publicKeys);
+    }
+
+    /**
+     * Encrypts a given message
+     *
+     * @param message message to encrypt
+     * @return encrypted message with base64 encoding
+     */
+    public String encrypt(String message) throws InvalidCipherTextException {
+        return Base64.toBase64String(encrypt(message.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Encrypts a given message
+     *
+     * @param message message to encrypt binary
+     * @return encrypted message binary
+     */
+    public byte[] encrypt(byte[] message) throws InvalidCipherTextException {
+        EphemeralKey ephemeral = ephemeralKeyPool != null ? ephemeralKeyPool.take() : Ecies.generateEphemeralKey();
+        byte[] ephemeralPublicKey = compressed ? EciesEnvelope.compress(ephemeral.getPublicKey()) : ephemeral.getPublicKey();
+        int count = keyIds.length;
+        int wrappedKeyLength = count > 1 ? EciesEnvelope.wrappedKeyLength(cipher) : 0;
+        int wrappedKeysOffset = EciesEnvelope.EPHEMERAL_KEY_OFFSET + ephemeralPublicKey.length + count * EciesEnvelope.KEY_ID_LENGTH;
+        int payloadOffset = wrappedKeysOffset + count * wrappedKeyLength;
+        byte[] output = new byte[payloadOffset + cipher.getNonceLength() + AeadCipher.TAG_LENGTH + message.length];
+        output[0] = EciesEnvelope.VERSION_2;
+        output[1] = (byte) count;
+        System.arraycopy(ephemeralPublicKey, 0, output, EciesEnvelope.EPHEMERAL_KEY_OFFSET, ephemeralPublicKey.length);
+        byte[] contentKey;
+        if (count == 1) {
+            contentKey = keyEncryptionKey(0, ephemeral, ephemeralPublicKey);
+        } else {
+            contentKey = new byte[EciesEnvelope.CONTENT_KEY_LENGTH];
+            SecureRandoms.nextBytes(contentKey);
+        }
+        for (int i = 0; i < count; i++) {
+            EciesEnvelope.writeInt(keyIds[i], output, EciesEnvelope.EPHEMERAL_KEY_OFFSET + ephemeralPublicKey.length + i * EciesEnvelope.KEY_ID_LENGTH);
+            if (count > 1) {
+                int entryOffset = wrappedKeysOffset + i * wrappedKeyLength;
+                seal(keyEncryptionKey(i, ephemeral, ephemeralPublicKey), contentKey, output, entryOffset);
+            }
+        }
+        seal(contentKey, message, output, payloadOffset);
+        return output;
+    }
+
+    private byte[] keyEncryptionKey(int recipient, EphemeralKey ephemeral, byte[] ephemeralPublicKey) {
+        return Ecies.hkdf(ephemeralPublicKey, 0, ephemeralPublicKey.length, recipients.get(recipient).multiply(ephemeral.getPrivateKey()));
+    }
+
+    private void seal(byte[] key, byte[] message, byte[] output, int offset) throws InvalidCipherTextException {
+        byte[] nonce = new byte[cipher.getNonceLength()];
+        SecureRandoms.nextBytes(nonce);
+        System.arraycopy(nonce, 0, output, offset, nonce.length);
+        cipher.seal(key, message, output, offset);
+    }
+
+    /**
+     * Encrypts all given messages on an executor
+     *
+     * @param messages message binaries to encrypt
+     * @param executor executor, e.g. {@link Batches#CALLER_THREAD} or a fork-join pool
+     * @return encrypted message binaries or failures, in input order
+     */
+    public List<BatchResult<byte[]>> encryptAll(Collection<byte[]> messages, Executor executor) {
+        return Batches.map(messages, this::encrypt, executor);
+    }
+}
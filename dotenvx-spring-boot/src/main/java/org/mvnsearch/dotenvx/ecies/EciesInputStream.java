@@ -0,0 +1,194 @@
+package org.mvnsearch.dotenvx.ecies;
+
+import org.bouncycastle.crypto.InvalidCipherTextException;
+import org.bouncycastle.crypto.engines.AESEngine;
+import org.bouncycastle.crypto.modes.GCMBlockCipher;
+import org.bouncycastle.crypto.modes.GCMModeCipher;
+import org.bouncycastle.crypto.params.AEADParameters;
+import org.bouncycastle.crypto.params.KeyParameter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+import static org.mvnsearch.dotenvx.ecies.EciesOutputStream.*;
+
+/**
+ * Decrypting side of the streaming ECIES format, see {@link EciesOutputStream} for the layout.
+ * <p>
+ * Frames are decrypted one at a time into a chunk buffer, so memory use doesn't depend on the size of the payload.
+ * With several candidate private keys, the key is chosen by the first frame that authenticates. Any tampering,
+ * reordering or truncation is reported as an {@link IOException} once the affected frame is read; bytes of earlier
+ * frames have already been returned by then.
+ * </p>
+ *
+ * @author linux_china
+ */
+public final class EciesInputStream extends InputStream {
+    private final InputStream in;
+    private final List<EciesDecryptor> decryptors;
+    private final byte[] header = new byte[HEADER_LENGTH];
+    private final byte[] nonce = new byte[NONCE_LENGTH];
+    private final GCMModeCipher gcm = GCMBlockCipher.newInstance(AESEngine.newInstance());
+    private KeyParameter key;
+    private byte[] chunk;
+    /**
+     * one frame plus one byte of look-ahead to detect the last frame
+     */
+    private byte[] frame;
+    private boolean lookAhead = false;
+    private int position = 0;
+    private int limit = 0;
+    private int frameIndex = 0;
+    private boolean lastFrameRead = false;
+
+    /**
+     * create a decrypting stream
+     *
+     * @param in         encrypted stream
+     * @param decryptors candidate private keys
+     */
+    public EciesInputStream(InputStream in, List<EciesDecryptor> decryptors) {
+        if (decryptors.isEmpty()) {
+            throw new IllegalArgumentException("No private key to decrypt ECIES stream");
+        }
+        this.in = in;
+        this.decryptors = decryptors;
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] b = new byte[1];
+        int n = read(b, 0, 1);
+        return n == -1 ? -1 : b[0] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        while (position == limit) {
+            if (lastFrameRead) {
+                return -1;
+            }
+            readFrame();
+        }
+        int n = Math.min(len, limit - position);
+        System.arraycopy(chunk, position, b, off, n);
+        position += n;
+        return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long skipped = 0;
+        while (skipped < n) {
+            if (position == limit) {
+                if (lastFrameRead) {
+                    break;
+                }
+                readFrame();
+                continue;
+            }
+            int step = (int) Math.min(n - skipped, limit - position);
+            position += step;
+            skipped += step;
+        }
+        return skipped;
+    }
+
+    @Override
+    public int available() {
+        return limit - position;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private void readFrame() throws IOException {
+        if (chunk == null) {
+            readHeader();
+        }
+        int frameLength = chunk.length + TAG_LENGTH;
+        int start = lookAhead ? 1 : 0;
+        if (lookAhead) {
+            frame[0] = frame[frameLength];
+        }
+        int length = start + readFully(frame, start, frameLength + 1 - start);
+        lookAhead = length == frameLength + 1;
+        boolean last = !lookAhead;
+        if (lookAhead) {
+            length = frameLength;
+        }
+        if (length < TAG_LENGTH) {
+            throw new IOException("Truncated ECIES stream");
+        }
+        if (frameIndex < 0) {
+            throw new IOException("Too many frames in ECIES stream");
+        }
+        frameNonce(nonce, frameIndex, last);
+        if (key == null) {
+            selectKey(length, last);
+        } else {
+            limit = decryptFrame(key, length);
+        }
+        frameIndex++;
+        position = 0;
+        lastFrameRead = last;
+    }
+
+    private void readHeader() throws IOException {
+        if (readFully(header, 0, HEADER_LENGTH) != HEADER_LENGTH) {
+            throw new IOException("Truncated ECIES stream header");
+        }
+        if (header[0] != VERSION) {
+            throw new IOException("Unsupported ECIES stream version: " + header[0]);
+        }
+        int shift = header[1];
+        if (shift < MIN_CHUNK_SHIFT || shift > MAX_CHUNK_SHIFT) {
+            throw new IOException("Invalid ECIES stream chunk size");
+        }
+        System.arraycopy(header, NONCE_PREFIX_OFFSET, nonce, 0, NONCE_PREFIX_LENGTH);
+        chunk = new byte[1 << shift];
+        frame = new byte[chunk.length + TAG_LENGTH + 1];
+    }
+
+    private void selectKey(int length, boolean last) throws IOException {
+        for (EciesDecryptor decryptor : decryptors) {
+            try {
+                KeyParameter candidate = new KeyParameter(decryptor.sharedKey(header, EPHEMERAL_KEY_OFFSET));
+                limit = decryptFrame(candidate, length);
+                key = candidate;
+                return;
+            } catch (IOException | InvalidCipherTextException ignore) {
+                // not encrypted for this key
+            }
+        }
+        throw new IOException("Failed to decrypt ECIES stream: no matching private key or corrupted frame " + frameIndex + (last ? " (last)" : ""));
+    }
+
+    private int decryptFrame(KeyParameter frameKey, int length) throws IOException {
+        gcm.init(false, new AEADParameters(frameKey, TAG_LENGTH * 8, nonce, header));
+        int n = gcm.processBytes(frame, 0, length, chunk, 0);
+        try {
+            return n + gcm.doFinal(chunk, n);
+        } catch (InvalidCipherTextException e) {
+            throw new IOException("ECIES stream frame " + frameIndex + " failed authentication, the stream is corrupted or truncated", e);
+        }
+    }
+
+    private int readFully(byte[] b, int off, int len) throws IOException {
+        int total = 0;
+        while (total < len) {
+            int n = in.read(b, off + total, len - total);
+            if (n == -1) {
+                break;
+            }
+            total += n;
+        }
+        return total;
+    }
+}
@@ -0,0 +1,135 @@
+package org.mvnsearch.dotenvx.ecies;
+
+import org.bouncycastle.crypto.InvalidCipherTextException;
+import org.bouncycastle.crypto.engines.AESEngine;
+import org.bouncycastle.crypto.modes.GCMBlockCipher;
+import org.bouncycastle.crypto.modes.GCMModeCipher;
+import org.bouncycastle.crypto.params.AEADParameters;
+import org.bouncycastle.crypto.params.KeyParameter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Encrypting side of the streaming ECIES format.
+ * <p>
+ * The stream starts with a header {@code version (1) || chunk size shift (1) || ephemeral public key (65) || nonce
+ * prefix (7)}; the AES key is derived from the ephemeral key exactly like for single values. The plaintext is then
+ * cut into chunks of {@code 1 << shift} bytes, and every chunk is written as an AES-GCM frame {@code ciphered || tag}
+ * with the 12 bytes nonce {@code nonce prefix || frame index (4, big endian) || last frame flag (1)} and the header as
+ * associated data. The last frame, possibly empty, carries the flag, so reordered, dropped or truncated frames fail
+ * authentication. Memory use is two chunk buffers whatever the size of the payload.
+ * </p>
+ *
+ * @author linux_china
+ * @see EciesInputStream
+ */
+public final class EciesOutputStream extends OutputStream {
+    static final byte VERSION = 1;
+    static final int DEFAULT_CHUNK_SHIFT = 16;
+    static final int MIN_CHUNK_SHIFT = 10;
+    static final int MAX_CHUNK_SHIFT = 24;
+    static final int NONCE_PREFIX_LENGTH = 7;
+    static final int NONCE_LENGTH = NONCE_PREFIX_LENGTH + 5;
+    static final int TAG_LENGTH = 16;
+    static final int EPHEMERAL_KEY_OFFSET = 2;
+    static final int NONCE_PREFIX_OFFSET = EPHEMERAL_KEY_OFFSET + Ecies.UNCOMPRESSED_PUBLIC_KEY_SIZE;
+    static final int HEADER_LENGTH = NONCE_PREFIX_OFFSET + NONCE_PREFIX_LENGTH;
+
+    private final OutputStream out;
+    private final KeyParameter key;
+    private final byte[] header = new byte[HEADER_LENGTH];
+    private final byte[] nonce = new byte[NONCE_LENGTH];
+    private final GCMModeCipher gcm = GCMBlockCipher.newInstance(AESEngine.newInstance());
+    private final byte[] chunk;
+    private final byte[] frame;
+    private int chunkLength = 0;
+    private int frameIndex = 0;
+    private boolean closed = false;
+
+    EciesOutputStream(OutputStream out, byte[] ephemeralPublicKey, byte[] aesKey) throws IOException {
+        this.out = out;
+        this.key = new KeyParameter(aesKey);
+        this.chunk = new byte[1 << DEFAULT_CHUNK_SHIFT];
+        this.frame = new byte[chunk.length + TAG_LENGTH];
+        header[0] = VERSION;
+        header[1] = DEFAULT_CHUNK_SHIFT;
+        System.arraycopy(ephemeralPublicKey, 0, header, EPHEMERAL_KEY_OFFSET, Ecies.UNCOMPRESSED_PUBLIC_KEY_SIZE);
+        SecureRandoms.nextBytes(nonce);
+        System.arraycopy(nonce, 0, header, NONCE_PREFIX_OFFSET, NONCE_PREFIX_LENGTH);
+        out.write(header);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        write(new byte[]{(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+        while (len > 0) {
+            // a full chunk is only sealed once more data arrives, so that the last frame can be flagged on close
+            if (chunkLength == chunk.length) {
+                writeFrame(false);
+            }
+            int n = Math.min(len, chunk.length - chunkLength);
+            System.arraycopy(b, off, chunk, chunkLength, n);
+            chunkLength += n;
+            off += n;
+            len -= n;
+        }
+    }
+
+    /**
+     * flushes the underlying stream only: buffered plaintext is sealed when the chunk is full or on close
+     */
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    /**
+     * writes the last frame and closes the underlying stream
+     */
+    @Override
+    public void close() throws IOException {
+        if (!closed) {
+            closed = true;
+            try {
+                writeFrame(true);
+            } finally {
+                out.close();
+            }
+        }
+    }
+
+    private void writeFrame(boolean last) throws IOException {
+        if (frameIndex < 0) {
+            throw new IOException("Too many frames in ECIES stream");
+        }
+        frameNonce(nonce, frameIndex++, last);
+        gcm.init(true, new AEADParameters(key, TAG_LENGTH * 8, nonce, header));
+        int length = gcm.processBytes(chunk, 0, chunkLength, frame, 0);
+        try {
+            length += gcm.doFinal(frame, length);
+        } catch (InvalidCipherTextException e) {
+            throw new IOException("Failed to encrypt ECIES stream frame", e);
+        }
+        out.write(frame, 0, length);
+        chunkLength = 0;
+    }
+
+    /**
+     * fill the counter part of a frame nonce, the first bytes hold the nonce prefix
+     */
+    static void frameNonce(byte[] nonce, int frameIndex, boolean last) {
+        nonce[NONCE_PREFIX_LENGTH] = (byte) (frameIndex >>> 24);
+        nonce[NONCE_PREFIX_LENGTH + 1] = (byte) (frameIndex >>> 16);
+        nonce[NONCE_PREFIX_LENGTH + 2] = (byte) (frameIndex >>> 8);
+        nonce[NONCE_PREFIX_LENGTH + 3] = (byte) frameIndex;
+        nonce[NONCE_PREFIX_LENGTH + 4] = (byte) (last ? 1 : 0);
+    }
+}
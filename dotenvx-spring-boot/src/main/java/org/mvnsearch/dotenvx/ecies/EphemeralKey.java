@@ -0,0 +1,25 @@
+package org.mvnsearch.dotenvx.ecies;
+
+/**
+ * Single-use ECIES ephemeral key: the private scalar, 32 bytes big-endian, and the uncompressed encoding of its public
+ * point.
+ *
+ * @author linux_china
+ */
+final class EphemeralKey {
+    private final byte[] privateKey;
+    private final byte[] publicKey;
+
+    EphemeralKey(byte[] privateKey, byte[] publicKey) {
+        this.privateKey = privateKey;
+        this.publicKey = publicKey;
+    }
+
+    byte[] getPrivateKey() {
+        return privateKey;
+    }
+
+    byte[] getPublicKey() {
+        return publicKey;
+    }
+}
@@ -0,0 +1,94 @@
+package org.mvnsearch.dotenvx.ecies;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Pool of pre-generated, single-use ECIES ephemeral keys.
+ * <p>
+ * A daemon thread fills the pool up to its size and goes back to sleep; whenever a {@link #take()} leaves the pool at
+ * or below the low-water mark, the thread wakes up and refills it. An empty pool falls back to generating the key on
+ * the calling thread. Every key is removed from the pool when it is taken, so it is used exactly once. One pool can
+ * be shared by any number of {@link EciesEncryptor}s, because ephemeral keys don't depend on the recipient.
+ * </p>
+ *
+ * @author linux_china
+ */
+public final class EphemeralKeyPool implements AutoCloseable {
+    private final BlockingQueue<EphemeralKey> keys;
+    private final int lowWaterMark;
+    private final Object refillLock = new Object();
+    private final Thread refillThread;
+    private volatile boolean closed = false;
+
+    /**
+     * create a pool and start its refill thread
+     *
+     * @param size         maximum number of pre-generated keys
+     * @param lowWaterMark refill is triggered when the number of available keys drops to this value
+     */
+    public EphemeralKeyPool(int size, int lowWaterMark) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Ephemeral key pool size must be positive");
+        }
+        if (lowWaterMark < 0 || lowWaterMark >= size) {
+            throw new IllegalArgumentException("Ephemeral key pool low-water mark must be in [0, size)");
+        }
+        this.keys = new ArrayBlockingQueue<>(size);
+        this.lowWaterMark = lowWaterMark;
+        this.refillThread = new Thread(this::refill, "dotenvx-ephemeral-key-pool");
+        this.refillThread.setDaemon(true);
+        this.refillThread.start();
+    }
+
+    /**
+     * take a key out of the pool, or generate one on the calling thread if the pool is empty
+     *
+     * @return single-use ephemeral key
+     */
+    EphemeralKey take() {
+        EphemeralKey key = keys.poll();
+        if (keys.size() <= lowWaterMark) {
+            synchronized (refillLock) {
+                refillLock.notifyAll();
+            }
+        }
+        return key != null ? key : Ecies.generateEphemeralKey();
+    }
+
+    /**
+     * number of pre-generated keys currently available
+     *
+     * @return available keys
+     */
+    public int available() {
+        return keys.size();
+    }
+
+    private void refill() {
+        try {
+            while (!closed) {
+                while (!closed && keys.remainingCapacity() > 0) {
+                    keys.offer(Ecies.generateEphemeralKey());
+                }
+                synchronized (refillLock) {
+                    while (!closed && keys.size() > lowWaterMark) {
+                        refillLock.wait();
+                    }
+                }
+            }
+        } catch (InterruptedException ignore) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * stop the refill thread and drop the remaining keys
+     */
+    @Override
+    public void close() {
+        closed = true;
+        refillThread.interrupt();
+        keys.clear();
+    }
+}
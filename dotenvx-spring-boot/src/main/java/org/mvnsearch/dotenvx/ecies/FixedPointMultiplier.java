@@ -0,0 +1,128 @@
+package org.mvnsearch.dotenvx.ecies;
+
+import org.bouncycastle.math.ec.ECPoint;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import static org.mvnsearch.dotenvx.ecies.Secp256k1Field.*;
+
+/**
+ * Multiplies one fixed point, the generator or a long-lived public key, by secret scalars in constant time.
+ * <p>
+ * The scalar is cut into 64 windows of 4 bits and the table holds {@code j * 16^i * P + U_i} for every window i and
+ * digit j, so a multiplication is 64 table scans and 63 mixed additions without any doubling. The offsets
+ * {@code U_i = 2^i * H}, with {@code U_63} chosen so that they sum to infinity, keep zero digits from selecting the
+ * point at infinity; H is hashed to the curve, so no relation to P is known and the additions never hit their
+ * exceptional cases in practice. The table takes 80 KB per point.
+ * </p>
+ *
+ * @author linux_china
+ */
+final class FixedPointMultiplier {
+    private static final int WINDOW_BITS = 4;
+    private static final int WINDOW_SIZE = 1 << WINDOW_BITS;
+    private static final int WINDOWS = 256 / WINDOW_BITS;
+    private static final long[] OFFSET_X = create();
+    private static final long[] OFFSET_Y = create();
+
+    static {
+        hashToCurve("dotenvx secp256k1 table offset", OFFSET_X, OFFSET_Y);
+    }
+
+    static final FixedPointMultiplier GENERATOR = new FixedPointMultiplier(Ecies.CURVE.getG());
+
+    private final long[] table = new long[WINDOWS * WINDOW_SIZE * Secp256k1Point.AFFINE_LIMBS];
+
+    FixedPointMultiplier(ECPoint point) {
+        this(fromBigInteger(point.normalize().getAffineXCoord().toBigInteger()),
+                fromBigInteger(point.normalize().getAffineYCoord().toBigInteger()));
+    }
+
+    FixedPointMultiplier(long[] px, long[] py) {
+        long[] jacobian = new long[WINDOWS * WINDOW_SIZE * 3 * LIMBS];
+        Secp256k1Point base = new Secp256k1Point();
+        base.setAffine(px, py);
+        Secp256k1Point offset = new Secp256k1Point();
+        offset.setAffine(OFFSET_X, OFFSET_Y);
+        Secp256k1Point offsetSum = new Secp256k1Point();
+        offsetSum.setInfinity();
+        Secp256k1Point entry = new Secp256k1Point();
+        for (int i = 0; i < WINDOWS; i++) {
+            if (i < WINDOWS - 1) {
+                entry.set(offset);
+                offsetSum.addJacobian(offset);
+                offset.twice();
+            } else {
+                entry.set(offsetSum);
+                entry.negate();
+            }
+            entry.writeJacobian(jacobian, i * WINDOW_SIZE);
+            for (int j = 1; j < WINDOW_SIZE; j++) {
+                entry.addJacobian(base);
+                entry.writeJacobian(jacobian, i * WINDOW_SIZE + j);
+            }
+            base.twice(WINDOW_BITS);
+        }
+        Secp256k1Point.toAffine(jacobian, WINDOWS * WINDOW_SIZE, table);
+    }
+
+    /**
+     * r = k * P
+     *
+     * @param scalar k as 32 bytes big-endian, below the curve order
+     * @param r      receives the product, infinity for k = 0
+     */
+    void multiply(byte[] scalar, Secp256k1Point r) {
+        long[] ax = create(), ay = create();
+        for (int i = 0; i < WINDOWS; i++) {
+            int digit = (scalar[31 - (i >>> 1)] >>> ((i & 1) << 2)) & 0xF;
+            Secp256k1Point.lookup(table, i * WINDOW_SIZE, WINDOW_SIZE, digit, ax, ay);
+            if (i == 0) {
+                r.setAffine(ax, ay);
+            } else {
+                r.addAffine(ax, ay);
+            }
+        }
+    }
+
+    /**
+     * k * P as an uncompressed SEC1 point
+     */
+    byte[] multiply(byte[] scalar) {
+        Secp256k1Point r = new Secp256k1Point();
+        multiply(scalar, r);
+        long[] ax = create(), ay = create();
+        if (!r.toAffine(ax, ay)) {
+            throw new IllegalArgumentException("Scalar is zero");
+        }
+        return Secp256k1Point.encode(ax, ay, false);
+    }
+
+    /**
+     * try-and-increment: the first SHA-256(seed || counter) that is the x coordinate of a curve point
+     */
+    private static void hashToCurve(String seed, long[] x, long[] y) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            long[] rhs = create();
+            for (int counter = 0; ; counter++) {
+                sha256.update(seed.getBytes(StandardCharsets.US_ASCII));
+                sha256.update((byte) counter);
+                if (!setBytes(sha256.digest(), 0, x)) {
+                    continue;
+                }
+                square(x, rhs);
+                Secp256k1Field.multiply(rhs, x, rhs);
+                add(rhs, fromInt(7), rhs);
+                if (sqrt(rhs, y)) {
+                    normalize(y);
+                    return;
+                }
+            }
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
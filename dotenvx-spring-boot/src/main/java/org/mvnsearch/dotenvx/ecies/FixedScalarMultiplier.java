@@ -0,0 +1,121 @@
+package org.mvnsearch.dotenvx.ecies;
+
+import org.bouncycastle.math.ec.endo.GLVEndomorphism;
+
+import java.math.BigInteger;
+
+import static org.mvnsearch.dotenvx.ecies.Secp256k1Field.*;
+
+/**
+ * Multiplies arbitrary points by one fixed scalar, typically a private key used for ECDH.
+ * <p>
+ * The scalar is split with the GLV endomorphism of the curve, {@code k = k1 + k2 * lambda}, into two halves of about
+ * 128 bits, and both halves are recoded once, at construction time, to 33 signed odd digits of 4 bits. Odd digits are
+ * never zero, so each {@link #multiply(long[], long[])} performs the same 132 doublings and 66 mixed additions for
+ * every scalar, reading the odd multiples of the point and of its endomorphism image with constant-time table scans.
+ * An even half is recoded as {@code k + 1} and the extra point is subtracted by a masked select at the end.
+ * </p>
+ *
+ * @author linux_china
+ */
+final class FixedScalarMultiplier {
+    private static final int WINDOW_BITS = 4;
+    private static final int TABLE_SIZE = 1 << (WINDOW_BITS - 1);
+    private static final int DIGITS = 33;
+
+    private final byte[] index1 = new byte[DIGITS];
+    private final byte[] index2 = new byte[DIGITS];
+    private final long[] negate1 = new long[DIGITS];
+    private final long[] negate2 = new long[DIGITS];
+    private final long even1;
+    private final long even2;
+    private final long negative1;
+    private final long negative2;
+
+    FixedScalarMultiplier(BigInteger scalar) {
+        GLVEndomorphism endomorphism = (GLVEndomorphism) Ecies.CURVE.getCurve().getEndomorphism();
+        BigInteger[] ab = endomorphism.decomposeScalar(scalar.mod(Ecies.CURVE.getN()));
+        this.negative1 = ab[0].signum() < 0 ? -1 : 0;
+        this.negative2 = ab[1].signum() < 0 ? -1 : 0;
+        this.even1 = ab[0].testBit(0) ? 0 : -1;
+        this.even2 = ab[1].testBit(0) ? 0 : -1;
+        recode(ab[0].abs().add(BigInteger.valueOf(even1 & 1)), negative1, index1, negate1);
+        recode(ab[1].abs().add(BigInteger.valueOf(even2 & 1)), negative2, index2, negate2);
+    }
+
+    /**
+     * regular signed odd recoding of an odd k: digits in {+-1, +-3, ..., +-15}, stored as table index and negation mask
+     */
+    private static void recode(BigInteger k, long negative, byte[] index, long[] negate) {
+        for (int i = 0; i < DIGITS; i++) {
+            int digit;
+            if (i < DIGITS - 1) {
+                digit = (k.intValue() & ((1 << (WINDOW_BITS + 1)) - 1)) - (1 << WINDOW_BITS);
+                k = k.subtract(BigInteger.valueOf(digit)).shiftRight(WINDOW_BITS);
+            } else {
+                if (k.bitLength() > WINDOW_BITS) {
+                    throw new IllegalArgumentException("Scalar half is too long for " + DIGITS + " digits");
+                }
+                digit = k.intValue();
+            }
+            index[i] = (byte) (Math.abs(digit) >>> 1);
+            negate[i] = (digit < 0 ? -1 : 0) ^ negative;
+        }
+    }
+
+    /**
+     * multiply a point by the fixed scalar
+     *
+     * @param px normalized affine x of a point on the curve
+     * @param py normalized affine y
+     * @param r  receives the product
+     */
+    void multiply(long[] px, long[] py, Secp256k1Point r) {
+        // odd multiples P, 3P, ..., 15P and their images (beta * x, y) under the endomorphism
+        long[] table1 = Secp256k1Point.oddMultiples(px, py, TABLE_SIZE);
+        long[] table2 = Secp256k1Point.endomorphism(table1);
+
+        long[] ax = create(), ay = create(), ny = create();
+        lookup(table1, index1[DIGITS - 1], negate1[DIGITS - 1], ax, ay, ny);
+        r.setAffine(ax, ay);
+        lookup(table2, index2[DIGITS - 1], negate2[DIGITS - 1], ax, ay, ny);
+        r.addAffine(ax, ay);
+        for (int i = DIGITS - 2; i >= 0; i--) {
+            r.twice(WINDOW_BITS);
+            lookup(table1, index1[i], negate1[i], ax, ay, ny);
+            r.addAffine(ax, ay);
+            lookup(table2, index2[i], negate2[i], ax, ay, ny);
+            r.addAffine(ax, ay);
+        }
+
+        // remove the point added to an even half: r - sign(k1) * P, r - sign(k2) * lambda * P
+        Secp256k1Point corrected = new Secp256k1Point();
+        lookup(table1, 0, ~negative1, ax, ay, ny);
+        corrected.set(r);
+        corrected.addAffine(ax, ay);
+        r.select(corrected, even1);
+        lookup(table2, 0, ~negative2, ax, ay, ny);
+        corrected.set(r);
+        corrected.addAffine(ax, ay);
+        r.select(corrected, even2);
+    }
+
+    /**
+     * k * P as an uncompressed SEC1 point
+     */
+    byte[] multiply(long[] px, long[] py) {
+        Secp256k1Point r = new Secp256k1Point();
+        multiply(px, py, r);
+        long[] ax = create(), ay = create();
+        if (!r.toAffine(ax, ay)) {
+            throw new IllegalArgumentException("Scalar is zero");
+        }
+        return Secp256k1Point.encode(ax, ay, false);
+    }
+
+    private static void lookup(long[] table, int index, long negate, long[] ax, long[] ay, long[] ny) {
+        Secp256k1Point.lookup(table, 0, TABLE_SIZE, index, ax, ay);
+        Secp256k1Field.negate(ay, ny);
+        select(ny, negate, ay);
+    }
+}
@@ -0,0 +1,70 @@
+package org.mvnsearch.dotenvx.ecies;
+
+import org.bouncycastle.crypto.InvalidCipherTextException;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.security.GeneralSecurityException;
+
+/**
+ * AES-256-GCM with a 16 bytes nonce on the JDK {@code AES/GCM/NoPadding} cipher, which is intrinsified with AES-NI
+ * and CLMUL on x86 and the AES/PMULL instructions on aarch64.
+ *
+ * @author linux_china
+ */
+final class JdkAesGcm implements AeadCipher {
+    private static final int NONCE_LENGTH = 16;
+    private static final ThreadLocal<Cipher> AES_GCM = ThreadLocal.withInitial(() -> {
+        try {
+            return Cipher.getInstance("AES/GCM/NoPadding");
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("AES/GCM/NoPadding is not available", e);
+        }
+    });
+
+    @Override
+    public String getName() {
+        return "jdk-aes-256-gcm";
+    }
+
+    @Override
+    public int getNonceLength() {
+        return NONCE_LENGTH;
+    }
+
+    @Override
+    public void seal(byte[] key, byte[] message, byte[] output, int offset) throws InvalidCipherTextException {
+        final Cipher cipher = AES_GCM.get();
+        final int tagOffset = offset + NONCE_LENGTH;
+        final int cipheredOffset = tagOffset + TAG_LENGTH;
+        try {
+            cipher.init(Cipher.ENCRYPT_MODE, new SecretKeySpec(key, "AES"), new GCMParameterSpec(TAG_LENGTH * 8, output, offset, NONCE_LENGTH));
+            // update writes the full blocks in place, doFinal the buffered tail and the tag that goes in front
+            int pos = cipher.update(message, 0, message.length, output, cipheredOffset);
+            byte[] tail = AeadCiphers.tailBuffer(cipher.getOutputSize(0));
+            int tailLength = cipher.doFinal(tail, 0) - TAG_LENGTH;
+            System.arraycopy(tail, 0, output, cipheredOffset + pos, tailLength);
+            System.arraycopy(tail, tailLength, output, tagOffset, TAG_LENGTH);
+        } catch (GeneralSecurityException e) {
+            throw new InvalidCipherTextException("AES-GCM encryption failed", e);
+        }
+    }
+
+    @Override
+    public byte[] open(byte[] key, byte[] input, int offset, int length) throws InvalidCipherTextException {
+        final int cipheredLength = AeadCiphers.cipheredLength(this, length);
+        final Cipher cipher = AES_GCM.get();
+        final int tagOffset = offset + NONCE_LENGTH;
+        try {
+            cipher.init(Cipher.DECRYPT_MODE, new SecretKeySpec(key, "AES"), new GCMParameterSpec(TAG_LENGTH * 8, input, offset, NONCE_LENGTH));
+            byte[] decrypted = new byte[cipheredLength];
+            // the JDK buffers the ciphered bytes until the tag is verified by doFinal
+            int pos = cipher.update(input, tagOffset + TAG_LENGTH, cipheredLength, decrypted, 0);
+            cipher.doFinal(input, tagOffset, TAG_LENGTH, decrypted, pos);
+            return decrypted;
+        } catch (GeneralSecurityException e) {
+            throw new InvalidCipherTextException("AES-GCM decryption failed", e);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package org.mvnsearch.dotenvx.ecies;
+
+import org.bouncycastle.math.ec.ECPoint;
+import org.bouncycastle.math.ec.WNafUtil;
+import org.bouncycastle.math.ec.endo.GLVEndomorphism;
+
+import java.math.BigInteger;
+
+import static org.mvnsearch.dotenvx.ecies.Secp256k1Field.*;
+
+/**
+ * Computes {@code u1 * G + u2 * Q} for public scalars, the double multiplication of ECDSA verification, in variable
+ * time.
+ * <p>
+ * Both scalars are split with the GLV endomorphism and the four halves of about 128 bits are recoded to width-w NAF, so
+ * that one chain of about 128 doublings serves all of them (Strauss-Shamir). The generator uses static tables of 64
+ * odd multiples, Q a per-call table of 8. Never use it with secret scalars: the running time depends on their digits.
+ * </p>
+ *
+ * @author linux_china
+ */
+final class PublicScalarMultiplier {
+    private static final int G_WINDOW = 8;
+    private static final int Q_WINDOW = 5;
+    private static final GLVEndomorphism ENDOMORPHISM = (GLVEndomorphism) Ecies.CURVE.getCurve().getEndomorphism();
+    private static final long[] G_TABLE;
+    private static final long[] G_LAMBDA_TABLE;
+
+    static {
+        ECPoint g = Ecies.CURVE.getG().normalize();
+        G_TABLE = Secp256k1Point.oddMultiples(fromBigInteger(g.getAffineXCoord().toBigInteger()),
+                fromBigInteger(g.getAffineYCoord().toBigInteger()), 1 << (G_WINDOW - 2));
+        G_LAMBDA_TABLE = Secp256k1Point.endomorphism(G_TABLE);
+    }
+
+    private PublicScalarMultiplier() {
+    }
+
+    /**
+     * r = u1 * G + u2 * Q
+     *
+     * @param u1 public scalar for the generator
+     * @param u2 public scalar for Q
+     * @param qx normalized affine x of Q
+     * @param qy normalized affine y of Q
+     * @param r  receives the sum
+     */
+    static void multiply(BigInteger u1, BigInteger u2, long[] qx, long[] qy, Secp256k1Point r) {
+        long[] qTable = Secp256k1Point.oddMultiples(qx, qy, 1 << (Q_WINDOW - 2));
+        BigInteger[] a = ENDOMORPHISM.decomposeScalar(u1.mod(Secp256k1.N));
+        BigInteger[] b = ENDOMORPHISM.decomposeScalar(u2.mod(Secp256k1.N));
+        long[][] tables = {G_TABLE, G_LAMBDA_TABLE, qTable, Secp256k1Point.endomorphism(qTable)};
+        byte[][] nafs = {
+                WNafUtil.generateWindowNaf(G_WINDOW, a[0].abs()), WNafUtil.generateWindowNaf(G_WINDOW, a[1].abs()),
+                WNafUtil.generateWindowNaf(Q_WINDOW, b[0].abs()), WNafUtil.generateWindowNaf(Q_WINDOW, b[1].abs())
+        };
+        int[] signs = {a[0].signum(), a[1].signum(), b[0].signum(), b[1].signum()};
+        int length = 0;
+        for (byte[] naf : nafs) {
+            length = Math.max(length, naf.length);
+        }
+        long[] ax = create(), ay = create();
+        r.setInfinity();
+        for (int i = length - 1; i >= 0; i--) {
+            if (!r.isInfinity()) {
+                r.twice();
+            }
+            for (int j = 0; j < nafs.length; j++) {
+                if (i >= nafs[j].length || nafs[j][i] == 0) {
+                    continue;
+                }
+                int digit = nafs[j][i] * signs[j];
+                int offset = ((Math.abs(digit) - 1) >>> 1) * Secp256k1Point.AFFINE_LIMBS;
+                System.arraycopy(tables[j], offset, ax, 0, LIMBS);
+                System.arraycopy(tables[j], offset + LIMBS, ay, 0, LIMBS);
+                if (digit < 0) {
+                    negate(ay, ay);
+                }
+                r.addAffine(ax, ay);
+            }
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package org.mvnsearch.dotenvx.ecies;
+
+import org.bouncycastle.crypto.digests.SHA256Digest;
+import org.bouncycastle.crypto.signers.HMacDSAKCalculator;
+import org.bouncycastle.util.BigIntegers;
+import org.bouncycastle.util.encoders.Hex;
+
+import java.math.BigInteger;
+import java.security.SecureRandom;
+import java.security.spec.ECFieldFp;
+import java.security.spec.ECParameterSpec;
+
+import static org.mvnsearch.dotenvx.ecies.Secp256k1Field.create;
+
+/**
+ * secp256k1 key generation and ECDSA on the dedicated curve arithmetic of this package.
+ * <p>
+ * Points are multiplied by {@link FixedPointMultiplier} tables, one shared table for the generator and one per
+ * {@link PublicKey#precompute() precomputed} public key, and by {@link FixedScalarMultiplier} otherwise. Signing uses
+ * deterministic nonces from RFC 6979 and yields the same signatures as Bouncy Castle's
+ * {@code ECDSASigner(new HMacDSAKCalculator(new SHA256Digest()))}.
+ * </p>
+ *
+ * @author linux_china
+ */
+public final class Secp256k1 {
+    /**
+     * order of the generator
+     */
+    public static final BigInteger N = Ecies.CURVE.getN();
+    private static final int SCALAR_LENGTH = 32;
+
+    private Secp256k1() {
+    }
+
+    /**
+     * generate a private key from {@link SecureRandoms}
+     *
+     * @return private key, 32 bytes big-endian
+     */
+    public static byte[] generatePrivateKey() {
+        SecureRandom random = SecureRandoms.current();
+        byte[] privateKey = new byte[SCALAR_LENGTH];
+        BigInteger d;
+        do {
+            random.nextBytes(privateKey);
+            d = new BigInteger(1, privateKey);
+        } while (d.signum() == 0 || d.compareTo(N) >= 0);
+        return privateKey;
+    }
+
+    /**
+     * derive the public key of a private key
+     *
+     * @param privateKey private key, 32 bytes big-endian
+     * @param compressed compressed or uncompressed SEC1 encoding
+     * @return public key
+     */
+    public static byte[] derivePublicKey(byte[] privateKey, boolean compressed) {
+        byte[] scalar = toScalar(new BigInteger(1, privateKey));
+        Secp256k1Point q = new Secp256k1Point();
+        FixedPointMultiplier.GENERATOR.multiply(scalar, q);
+        long[] x = create(), y = create();
+        q.toAffine(x, y);
+        return Secp256k1Point.encode(x, y, compressed);
+    }
+
+    /**
+     * sign a message hash with ECDSA and an RFC 6979 nonce
+     *
+     * @param hash       message hash, e.g. SHA-256 of the message
+     * @param privateKey private key
+     * @return r and s
+     */
+    public static BigInteger[] sign(byte[] hash, BigInteger privateKey) {
+        checkScalar(privateKey);
+        BigInteger e = toE(hash);
+        HMacDSAKCalculator kCalculator = new HMacDSAKCalculator(new SHA256Digest());
+        kCalculator.init(N, privateKey, hash);
+        Secp256k1Point point = new Secp256k1Point();
+        long[] x = create(), y = create();
+        while (true) {
+            BigInteger k = kCalculator.nextK();
+            FixedPointMultiplier.GENERATOR.multiply(toScalar(k), point);
+            point.toAffine(x, y);
+            BigInteger r = Secp256k1Field.toBigInteger(x).mod(N);
+            if (r.signum() == 0) {
+                continue;
+            }
+            BigInteger s = BigIntegers.modOddInverse(N, k).multiply(e.add(privateKey.multiply(r))).mod(N);
+            if (s.signum() != 0) {
+                return new BigInteger[]{r, s};
+            }
+        }
+    }
+
+    /**
+     * verify an ECDSA signature
+     *
+     * @param hash      message hash
+     * @param r         signature r
+     * @param s         signature s
+     * @param publicKey public key
+     * @return verified result
+     */
+    public static boolean verify(byte[] hash, BigInteger r, BigInteger s, PublicKey publicKey) {
+        if (r.signum() <= 0 || r.compareTo(N) >= 0 || s.signum() <= 0 || s.compareTo(N) >= 0) {
+            return false;
+        }
+        BigInteger w = BigIntegers.modOddInverseVar(N, s);
+        BigInteger u1 = toE(hash).multiply(w).mod(N);
+        BigInteger u2 = r.multiply(w).mod(N);
+        Secp256k1Point point = new Secp256k1Point();
+        if (publicKey.multiplier != null) {
+            FixedPointMultiplier.GENERATOR.multiply(toScalar(u1), point);
+            Secp256k1Point q = new Secp256k1Point();
+            publicKey.multiplier.multiply(toScalar(u2), q);
+            point.addJacobian(q);
+        } else {
+            PublicScalarMultiplier.multiply(u1, u2, publicKey.x, publicKey.y, point);
+        }
+        // x mod n = r: x is r, or r + n when that is still below p
+        if (point.hasAffineX(Secp256k1Field.fromBigInteger(r))) {
+            return true;
+        }
+        BigInteger x = r.add(N);
+        return x.compareTo(Secp256k1Field.P) < 0 && point.hasAffineX(Secp256k1Field.fromBigInteger(x));
+    }
+
+    /**
+     * whether JCA EC parameters, e.g. of an {@code ECPrivateKey}, describe secp256k1
+     *
+     * @param params EC parameters
+     * @return secp256k1 or not
+     */
+    public static boolean isSecp256k1(ECParameterSpec params) {
+        return params.getCurve().getField() instanceof ECFieldFp field
+                && field.getP().equals(Secp256k1Field.P)
+                && params.getCurve().getA().signum() == 0
+                && params.getCurve().getB().equals(BigInteger.valueOf(7))
+                && params.getOrder().equals(N)
+                && params.getGenerator().getAffineX().equals(Ecies.CURVE.getG().getAffineXCoord().toBigInteger())
+                && params.getGenerator().getAffineY().equals(Ecies.CURVE.getG().getAffineYCoord().toBigInteger());
+    }
+
+    static byte[] toScalar(BigInteger k) {
+        return BigIntegers.asUnsignedByteArray(SCALAR_LENGTH, k);
+    }
+
+    private static void checkScalar(BigInteger k) {
+        if (k.signum() <= 0 || k.compareTo(N) >= 0) {
+            throw new IllegalArgumentException("Invalid secp256k1 private key");
+        }
+    }
+
+    /**
+     * the leftmost bits of the hash, as many as the bit length of n
+     */
+    private static BigInteger toE(byte[] hash) {
+        BigInteger e = new BigInteger(1, hash);
+        int excess = hash.length * 8 - N.bitLength();
+        return excess > 0 ? e.shiftRight(excess) : e;
+    }
+
+    /**
+     * secp256k1 public key, decoded and validated once. Instances are immutable and thread-safe.
+     */
+    public static final class PublicKey {
+        private final long[] x;
+        private final long[] y;
+        private final FixedPointMultiplier multiplier;
+
+        private PublicKey(long[] x, long[] y, FixedPointMultiplier multiplier) {
+            this.x = x;
+            this.y = y;
+            this.multiplier = multiplier;
+        }
+
+        /**
+         * decode a compressed or uncompressed SEC1 public key
+         *
+         * @param encoded public key binary
+         * @return public key
+         * @throws IllegalArgumentException if the encoding or the point is invalid
+         */
+        public static PublicKey decode(byte[] encoded) {
+            long[] x = create(), y = create();
+            if (!Secp256k1Point.decode(encoded, 0, encoded.length, x, y)) {
+                throw new IllegalArgumentException("Invalid secp256k1 public key: " + Hex.toHexString(encoded));
+            }
+            return new PublicKey(x, y, null);
+        }
+
+        /**
+         * create a public key from affine coordinates
+         *
+         * @param x affine x
+         * @param y affine y
+         * @return public key
+         * @throws IllegalArgumentException if the point is not on the curve
+         */
+        public static PublicKey fromAffine(BigInteger x, BigInteger y) {
+            if (x.signum() < 0 || x.bitLength() > 256 || y.signum() < 0 || y.bitLength() > 256) {
+                throw new IllegalArgumentException("Invalid secp256k1 public key");
+            }
+            byte[] encoded = new byte[65];
+            encoded[0] = 0x04;
+            System.arraycopy(toScalar(x), 0, encoded, 1, SCALAR_LENGTH);
+            System.arraycopy(toScalar(y), 0, encoded, 1 + SCALAR_LENGTH, SCALAR_LENGTH);
+            return decode(encoded);
+        }
+
+        /**
+         * Returns this key with a fixed-window table of 80 KB, which makes multiplications by the key two to three times
+         * faster and verification somewhat faster. Worth it for keys that encrypt or verify more than a handful of times.
+         *
+         * @return public key with a table
+         */
+        public PublicKey precompute() {
+            return multiplier != null ? this : new PublicKey(x, y, new FixedPointMultiplier(x, y));
+        }
+
+        /**
+         * encode the public key
+         *
+         * @param compressed compressed or uncompressed SEC1 encoding
+         * @return public key binary
+         */
+        public byte[] getEncoded(boolean compressed) {
+            return Secp256k1Point.encode(x, y, compressed);
+        }
+
+        /**
+         * k * Q as an uncompressed SEC1 point, in constant time
+         */
+        byte[] multiply(byte[] scalar) {
+            if (multiplier != null) {
+                return multiplier.multiply(scalar);
+            }
+            return new FixedScalarMultiplier(new BigInteger(1, scalar)).multiply(x, y);
+        }
+    }
+}
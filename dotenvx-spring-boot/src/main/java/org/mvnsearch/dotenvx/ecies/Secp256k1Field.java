@@ -0,0 +1,562 @@
+package org.mvnsearch.dotenvx.ecies;
+
+import java.math.BigInteger;
+
+/**
+ * Arithmetic in the secp256k1 base field, p = 2^256 - 2^32 - 977, on five 52-bit limbs.
+ * <p>
+ * An element is a {@code long[5]} holding {@code sum(n[i] * 2^(52 * i))}. Multiplication and squaring follow the
+ * reduction schedule of libsecp256k1's 5x52 field, with its 128-bit accumulators kept in carry-save form: a sum of the
+ * low 52 bits of each product and a sum of the rest, taken from {@link Math#multiplyHigh(long, long)}, so no addition
+ * needs carry detection. Every operation returns a weakly normalized element: limbs fit in 52 bits, the top one in 49
+ * bits, but the value may still be at least p, so {@link #normalize(long[])} is needed before an element is encoded.
+ * Operations run in constant time, allocate nothing and allow the output to alias an input.
+ * </p>
+ *
+ * @author linux_china
+ */
+final class Secp256k1Field {
+    static final int LIMBS = 5;
+    /**
+     * the field prime
+     */
+    static final BigInteger P = new BigInteger("fffffffffffffffffffffffffffffffffffffffffffffffffffffffefffffc2f", 16);
+    private static final long M = 0xFFFFFFFFFFFFFL;
+    private static final long R = 0x1000003D10L;
+    private static final long P0 = 0xFFFFEFFFFFC2FL;
+    private static final long P4 = 0x0FFFFFFFFFFFFL;
+
+    private Secp256k1Field() {
+    }
+
+    static long[] create() {
+        return new long[LIMBS];
+    }
+
+    static long[] fromInt(int value) {
+        long[] r = create();
+        r[0] = value;
+        return r;
+    }
+
+    static long[] fromBigInteger(BigInteger value) {
+        long[] r = create();
+        for (int i = 0; i < LIMBS; i++) {
+            r[i] = value.shiftRight(52 * i).longValue() & M;
+        }
+        return r;
+    }
+
+    static BigInteger toBigInteger(long[] a) {
+        long[] t = a.clone();
+        normalize(t);
+        BigInteger value = BigInteger.ZERO;
+        for (int i = LIMBS - 1; i >= 0; i--) {
+            value = value.shiftLeft(52).or(BigInteger.valueOf(t[i]));
+        }
+        return value;
+    }
+
+    static void copy(long[] a, long[] r) {
+        System.arraycopy(a, 0, r, 0, LIMBS);
+    }
+
+    /**
+     * decode a 32 bytes big-endian element
+     *
+     * @return false if the value is not below p
+     */
+    static boolean setBytes(byte[] bytes, int offset, long[] r) {
+        long w0 = readLong(bytes, offset + 24), w1 = readLong(bytes, offset + 16);
+        long w2 = readLong(bytes, offset + 8), w3 = readLong(bytes, offset);
+        r[0] = w0 & M;
+        r[1] = ((w0 >>> 52) | (w1 << 12)) & M;
+        r[2] = ((w1 >>> 40) | (w2 << 24)) & M;
+        r[3] = ((w2 >>> 28) | (w3 << 36)) & M;
+        r[4] = w3 >>> 16;
+        return !((r[4] == P4) & ((r[3] & r[2] & r[1]) == M) & (r[0] >= P0));
+    }
+
+    /**
+     * encode a normalized element as 32 bytes big-endian
+     */
+    static void getBytes(long[] a, byte[] bytes, int offset) {
+        writeLong(a[0] | (a[1] << 52), bytes, offset + 24);
+        writeLong((a[1] >>> 12) | (a[2] << 40), bytes, offset + 16);
+        writeLong((a[2] >>> 24) | (a[3] << 28), bytes, offset + 8);
+        writeLong((a[3] >>> 36) | (a[4] << 16), bytes, offset);
+    }
+
+    private static long readLong(byte[] bytes, int offset) {
+        long value = 0;
+        for (int i = 0; i < 8; i++) {
+            value = (value << 8) | (bytes[offset + i] & 0xFF);
+        }
+        return value;
+    }
+
+    private static void writeLong(long value, byte[] bytes, int offset) {
+        for (int i = 7; i >= 0; i--) {
+            bytes[offset + i] = (byte) value;
+            value >>>= 8;
+        }
+    }
+
+    static void normalizeWeak(long[] r) {
+        long t0 = r[0], t1 = r[1], t2 = r[2], t3 = r[3], t4 = r[4];
+        long x = t4 >>> 48;
+        t4 &= P4;
+        t0 += x * 0x1000003D1L;
+        t1 += t0 >>> 52;
+        t0 &= M;
+        t2 += t1 >>> 52;
+        t1 &= M;
+        t3 += t2 >>> 52;
+        t2 &= M;
+        t4 += t3 >>> 52;
+        t3 &= M;
+        r[0] = t0;
+        r[1] = t1;
+        r[2] = t2;
+        r[3] = t3;
+        r[4] = t4;
+    }
+
+    /**
+     * fully reduce an element to its canonical value below p
+     */
+    static void normalize(long[] r) {
+        long t0 = r[0], t1 = r[1], t2 = r[2], t3 = r[3], t4 = r[4];
+        long x = t4 >>> 48;
+        t4 &= P4;
+        t0 += x * 0x1000003D1L;
+        t1 += t0 >>> 52;
+        t0 &= M;
+        t2 += t1 >>> 52;
+        t1 &= M;
+        long m = t1;
+        t3 += t2 >>> 52;
+        t2 &= M;
+        m &= t2;
+        t4 += t3 >>> 52;
+        t3 &= M;
+        m &= t3;
+        // subtract p once more if the weakly normalized value is still at least p
+        x = (t4 >>> 48) | (isEqual(t4, P4) & isEqual(m, M) & isAtLeast(t0, P0));
+        t0 += x * 0x1000003D1L;
+        t1 += t0 >>> 52;
+        t0 &= M;
+        t2 += t1 >>> 52;
+        t1 &= M;
+        t3 += t2 >>> 52;
+        t2 &= M;
+        t4 += t3 >>> 52;
+        t3 &= M;
+        t4 &= P4;
+        r[0] = t0;
+        r[1] = t1;
+        r[2] = t2;
+        r[3] = t3;
+        r[4] = t4;
+    }
+
+    /**
+     * whether the element is 0 mod p, without modifying it
+     */
+    static boolean isZero(long[] a) {
+        long t0 = a[0], t1 = a[1], t2 = a[2], t3 = a[3], t4 = a[4];
+        long x = t4 >>> 48;
+        t4 &= P4;
+        t0 += x * 0x1000003D1L;
+        t1 += t0 >>> 52;
+        t0 &= M;
+        // z0 tracks the value 0, z1 the value p
+        long z0 = t0, z1 = t0 ^ 0x1000003D0L;
+        t2 += t1 >>> 52;
+        t1 &= M;
+        z0 |= t1;
+        z1 &= t1;
+        t3 += t2 >>> 52;
+        t2 &= M;
+        z0 |= t2;
+        z1 &= t2;
+        t4 += t3 >>> 52;
+        t3 &= M;
+        z0 |= t3;
+        z1 &= t3;
+        z0 |= t4;
+        z1 &= t4 ^ 0xF000000000000L;
+        return (z0 == 0) | (z1 == M);
+    }
+
+    static boolean isOdd(long[] normalized) {
+        return (normalized[0] & 1) != 0;
+    }
+
+    private static long isEqual(long a, long b) {
+        return ((a ^ b) - 1) >>> 63;
+    }
+
+    private static long isAtLeast(long a, long b) {
+        return ((b - 1 - a) >>> 63);
+    }
+
+    static void add(long[] a, long[] b, long[] r) {
+        for (int i = 0; i < LIMBS; i++) {
+            r[i] = a[i] + b[i];
+        }
+        normalizeWeak(r);
+    }
+
+    static void subtract(long[] a, long[] b, long[] r) {
+        // a + 4p - b, the limbs of 4p are above the limbs of any weakly normalized b
+        r[0] = a[0] + 4 * P0 - b[0];
+        r[1] = a[1] + 4 * M - b[1];
+        r[2] = a[2] + 4 * M - b[2];
+        r[3] = a[3] + 4 * M - b[3];
+        r[4] = a[4] + 4 * P4 - b[4];
+        normalizeWeak(r);
+    }
+
+    static void negate(long[] a, long[] r) {
+        r[0] = 4 * P0 - a[0];
+        r[1] = 4 * M - a[1];
+        r[2] = 4 * M - a[2];
+        r[3] = 4 * M - a[3];
+        r[4] = 4 * P4 - a[4];
+        normalizeWeak(r);
+    }
+
+    /**
+     * multiply by a small constant, at most 2^10
+     */
+    static void multiply(long[] a, int k, long[] r) {
+        for (int i = 0; i < LIMBS; i++) {
+            r[i] = a[i] * k;
+        }
+        normalizeWeak(r);
+    }
+
+    /**
+     * r = mask == -1 ? a : r, for a mask of 0 or -1
+     */
+    static void select(long[] a, long mask, long[] r) {
+        for (int i = 0; i < LIMBS; i++) {
+            r[i] ^= (r[i] ^ a[i]) & mask;
+        }
+    }
+
+    static void multiply(long[] a, long[] b, long[] r) {
+        long a0 = a[0], a1 = a[1], a2 = a[2], a3 = a[3], a4 = a[4];
+        long b0 = b[0], b1 = b[1], b2 = b[2], b3 = b[3], b4 = b[4];
+        long cL, cH, dL, dH, p;
+        p = a0 * b3;
+        dL = p & M;
+        dH = (Math.multiplyHigh(a0, b3) << 12) | (p >>> 52);
+        p = a1 * b2;
+        dL += p & M;
+        dH += (Math.multiplyHigh(a1, b2) << 12) | (p >>> 52);
+        p = a2 * b1;
+        dL += p & M;
+        dH += (Math.multiplyHigh(a2, b1) << 12) | (p >>> 52);
+        p = a3 * b0;
+        dL += p & M;
+        dH += (Math.multiplyHigh(a3, b0) << 12) | (p >>> 52);
+        p = a4 * b4;
+        cL = p & M;
+        cH = (Math.multiplyHigh(a4, b4) << 12) | (p >>> 52);
+        p = R * (cL & M);
+        dL += p & M;
+        dH += (Math.multiplyHigh(R, (cL & M)) << 12) | (p >>> 52);
+        cL = cH + (cL >>> 52);
+        cH = 0;
+        long t3 = dL & M;
+        dL = dH + (dL >>> 52);
+        dH = 0;
+        p = a0 * b4;
+        dL += p & M;
+        dH += (Math.multiplyHigh(a0, b4) << 12) | (p >>> 52);
+        p = a1 * b3;
+        dL += p & M;
+        dH += (Math.multiplyHigh(a1, b3) << 12) | (p >>> 52);
+        p = a2 * b2;
+        dL += p & M;
+        dH += (Math.multiplyHigh(a2, b2) << 12) | (p >>> 52);
+        p = a3 * b1;
+        dL += p & M;
+        dH += (Math.multiplyHigh(a3, b1) << 12) | (p >>> 52);
+        p = a4 * b0;
+        dL += p & M;
+        dH += (Math.multiplyHigh(a4, b0) << 12) | (p >>> 52);
+        p = R * cL;
+        dL += p & M;
+        dH += (Math.multiplyHigh(R, cL) << 12) | (p >>> 52);
+        long t4 = dL & M;
+        dL = dH + (dL >>> 52);
+        dH = 0;
+        long tx = t4 >>> 48;
+        t4 &= M >>> 4;
+        p = a0 * b0;
+        cL = p & M;
+        cH = (Math.multiplyHigh(a0, b0) << 12) | (p >>> 52);
+        p = a1 * b4;
+        dL += p & M;
+        dH += (Math.multiplyHigh(a1, b4) << 12) | (p >>> 52);
+        p = a2 * b3;
+        dL += p & M;
+        dH += (Math.multiplyHigh(a2, b3) << 12) | (p >>> 52);
+        p = a3 * b2;
+        dL += p & M;
+        dH += (Math.multiplyHigh(a3, b2) << 12) | (p >>> 52);
+        p = a4 * b1;
+        dL += p & M;
+        dH += (Math.multiplyHigh(a4, b1) << 12) | (p >>> 52);
+        long u0 = dL & M;
+        dL = dH + (dL >>> 52);
+        dH = 0;
+        u0 = (u0 << 4) | tx;
+        p = u0 * (R >>> 4);
+        cL += p & M;
+        cH += (Math.multiplyHigh(u0, (R >>> 4)) << 12) | (p >>> 52);
+        long r0 = cL & M;
+        cL = cH + (cL >>> 52);
+        cH = 0;
+        p = a0 * b1;
+        cL += p & M;
+        cH += (Math.multiplyHigh(a0, b1) << 12) | (p >>> 52);
+        p = a1 * b0;
+        cL += p & M;
+        cH += (Math.multiplyHigh(a1, b0) << 12) | (p >>> 52);
+        p = a2 * b4;
+        dL += p & M;
+        dH += (Math.multiplyHigh(a2, b4) << 12) | (p >>> 52);
+        p = a3 * b3;
+        dL += p & M;
+        dH += (Math.multiplyHigh(a3, b3) << 12) | (p >>> 52);
+        p = a4 * b2;
+        dL += p & M;
+        dH += (Math.multiplyHigh(a4, b2) << 12) | (p >>> 52);
+        p = R * (dL & M);
+        cL += p & M;
+        cH += (Math.multiplyHigh(R, (dL & M)) << 12) | (p >>> 52);
+        dL = dH + (dL >>> 52);
+        dH = 0;
+        long r1 = cL & M;
+        cL = cH + (cL >>> 52);
+        cH = 0;
+        p = a0 * b2;
+        cL += p & M;
+        cH += (Math.multiplyHigh(a0, b2) << 12) | (p >>> 52);
+        p = a1 * b1;
+        cL += p & M;
+        cH += (Math.multiplyHigh(a1, b1) << 12) | (p >>> 52);
+        p = a2 * b0;
+        cL += p & M;
+        cH += (Math.multiplyHigh(a2, b0) << 12) | (p >>> 52);
+        p = a3 * b4;
+        dL += p & M;
+        dH += (Math.multiplyHigh(a3, b4) << 12) | (p >>> 52);
+        p = a4 * b3;
+        dL += p & M;
+        dH += (Math.multiplyHigh(a4, b3) << 12) | (p >>> 52);
+        p = R * (dL & M);
+        cL += p & M;
+        cH += (Math.multiplyHigh(R, (dL & M)) << 12) | (p >>> 52);
+        dL = dH + (dL >>> 52);
+        dH = 0;
+        long r2 = cL & M;
+        cL = cH + (cL >>> 52);
+        cH = 0;
+        p = R * dL;
+        cL += p & M;
+        cH += (Math.multiplyHigh(R, dL) << 12) | (p >>> 52);
+        cL += t3;
+        long r3 = cL & M;
+        cL = cH + (cL >>> 52);
+        cH = 0;
+        long r4 = cL + t4;
+        r[0] = r0;
+        r[1] = r1;
+        r[2] = r2;
+        r[3] = r3;
+        r[4] = r4;
+    }
+
+    static void square(long[] a, long[] r) {
+        long a0 = a[0], a1 = a[1], a2 = a[2], a3 = a[3], a4 = a[4];
+        long cL, cH, dL, dH, p;
+        p = (a0 * 2) * a3;
+        dL = p & M;
+        dH = (Math.multiplyHigh((a0 * 2), a3) << 12) | (p >>> 52);
+        p = (a1 * 2) * a2;
+        dL += p & M;
+        dH += (Math.multiplyHigh((a1 * 2), a2) << 12) | (p >>> 52);
+        p = a4 * a4;
+        cL = p & M;
+        cH = (Math.multiplyHigh(a4, a4) << 12) | (p >>> 52);
+        p = R * (cL & M);
+        dL += p & M;
+        dH += (Math.multiplyHigh(R, (cL & M)) << 12) | (p >>> 52);
+        cL = cH + (cL >>> 52);
+        cH = 0;
+        long t3 = dL & M;
+        dL = dH + (dL >>> 52);
+        dH = 0;
+        a4 *= 2;
+        p = a0 * a4;
+        dL += p & M;
+        dH += (Math.multiplyHigh(a0, a4) << 12) | (p >>> 52);
+        p = (a1 * 2) * a3;
+        dL += p & M;
+        dH += (Math.multiplyHigh((a1 * 2), a3) << 12) | (p >>> 52);
+        p = a2 * a2;
+        dL += p & M;
+        dH += (Math.multiplyHigh(a2, a2) << 12) | (p >>> 52);
+        p = R * cL;
+        dL += p & M;
+        dH += (Math.multiplyHigh(R, cL) << 12) | (p >>> 52);
+        long t4 = dL & M;
+        dL = dH + (dL >>> 52);
+        dH = 0;
+        long tx = t4 >>> 48;
+        t4 &= M >>> 4;
+        p = a0 * a0;
+        cL = p & M;
+        cH = (Math.multiplyHigh(a0, a0) << 12) | (p >>> 52);
+        p = a1 * a4;
+        dL += p & M;
+        dH += (Math.multiplyHigh(a1, a4) << 12) | (p >>> 52);
+        p = (a2 * 2) * a3;
+        dL += p & M;
+        dH += (Math.multiplyHigh((a2 * 2), a3) << 12) | (p >>> 52);
+        long u0 = dL & M;
+        dL = dH + (dL >>> 52);
+        dH = 0;
+        u0 = (u0 << 4) | tx;
+        p = u0 * (R >>> 4);
+        cL += p & M;
+        cH += (Math.multiplyHigh(u0, (R >>> 4)) << 12) | (p >>> 52);
+        long r0 = cL & M;
+        cL = cH + (cL >>> 52);
+        cH = 0;
+        a0 *= 2;
+        p = a0 * a1;
+        cL += p & M;
+        cH += (Math.multiplyHigh(a0, a1) << 12) | (p >>> 52);
+        p = a2 * a4;
+        dL += p & M;
+        dH += (Math.multiplyHigh(a2, a4) << 12) | (p >>> 52);
+        p = a3 * a3;
+        dL += p & M;
+        dH += (Math.multiplyHigh(a3, a3) << 12) | (p >>> 52);
+        p = R * (dL & M);
+        cL += p & M;
+        cH += (Math.multiplyHigh(R, (dL & M)) << 12) | (p >>> 52);
+        dL = dH + (dL >>> 52);
+        dH = 0;
+        long r1 = cL & M;
+        cL = cH + (cL >>> 52);
+        cH = 0;
+        p = a0 * a2;
+        cL += p & M;
+        cH += (Math.multiplyHigh(a0, a2) << 12) | (p >>> 52);
+        p = a1 * a1;
+        cL += p & M;
+        cH += (Math.multiplyHigh(a1, a1) << 12) | (p >>> 52);
+        p = a3 * a4;
+        dL += p & M;
+        dH += (Math.multiplyHigh(a3, a4) << 12) | (p >>> 52);
+        p = R * (dL & M);
+        cL += p & M;
+        cH += (Math.multiplyHigh(R, (dL & M)) << 12) | (p >>> 52);
+        dL = dH + (dL >>> 52);
+        dH = 0;
+        long r2 = cL & M;
+        cL = cH + (cL >>> 52);
+        cH = 0;
+        p = R * dL;
+        cL += p & M;
+        cH += (Math.multiplyHigh(R, dL) << 12) | (p >>> 52);
+        cL += t3;
+        long r3 = cL & M;
+        cL = cH + (cL >>> 52);
+        cH = 0;
+        long r4 = cL + t4;
+        r[0] = r0;
+        r[1] = r1;
+        r[2] = r2;
+        r[3] = r3;
+        r[4] = r4;
+    }
+
+    private static void squareTimes(long[] a, int times, long[] r) {
+        square(a, r);
+        for (int i = 1; i < times; i++) {
+            square(r, r);
+        }
+    }
+
+    /**
+     * a^(2^223 - 1) and the intermediate powers x2 = a^3 and x22 = a^(2^22 - 1), shared by inversion and square root
+     */
+    private static void pow2223(long[] a, long[] x2, long[] x22, long[] x223) {
+        long[] x3 = create(), t = create(), x11 = create(), x44 = create();
+        square(a, x2);
+        multiply(x2, a, x2);
+        square(x2, x3);
+        multiply(x3, a, x3);
+        squareTimes(x3, 3, t);
+        multiply(t, x3, t);
+        squareTimes(t, 3, t);
+        multiply(t, x3, t);
+        squareTimes(t, 2, x11);
+        multiply(x11, x2, x11);
+        squareTimes(x11, 11, x22);
+        multiply(x22, x11, x22);
+        squareTimes(x22, 22, x44);
+        multiply(x44, x22, x44);
+        squareTimes(x44, 44, t);
+        multiply(t, x44, t);
+        squareTimes(t, 88, x223);
+        multiply(x223, t, x223);
+        squareTimes(x223, 44, x223);
+        multiply(x223, x44, x223);
+        squareTimes(x223, 3, x223);
+        multiply(x223, x3, x223);
+    }
+
+    /**
+     * r = a^(p - 2), the inverse of a non-zero element
+     */
+    static void invert(long[] a, long[] r) {
+        long[] x2 = create(), x22 = create(), t = create();
+        pow2223(a, x2, x22, t);
+        squareTimes(t, 23, t);
+        multiply(t, x22, t);
+        squareTimes(t, 5, t);
+        multiply(t, a, t);
+        squareTimes(t, 3, t);
+        multiply(t, x2, t);
+        squareTimes(t, 2, t);
+        multiply(t, a, r);
+    }
+
+    /**
+     * r = a^((p + 1) / 4), a square root of a if it has one
+     *
+     * @return whether a is a square
+     */
+    static boolean sqrt(long[] a, long[] r) {
+        long[] x2 = create(), x22 = create(), t = create();
+        pow2223(a, x2, x22, t);
+        squareTimes(t, 23, t);
+        multiply(t, x22, t);
+        squareTimes(t, 6, t);
+        multiply(t, x2, t);
+        squareTimes(t, 2, t);
+        square(t, x2);
+        subtract(x2, a, x2);
+        copy(t, r);
+        return isZero(x2);
+    }
+}
@@ -0,0 +1,392 @@
+package org.mvnsearch.dotenvx.ecies;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+
+import static org.mvnsearch.dotenvx.ecies.Secp256k1Field.*;
+
+/**
+ * Mutable secp256k1 point in Jacobian coordinates, {@code (X / Z^2, Y / Z^3)}, with {@code Z = 0} for infinity.
+ * <p>
+ * Each instance owns the scratch elements of its formulas, so the arithmetic allocates nothing; an instance must not
+ * be shared between threads. Affine points are passed as {@code x} and {@code y} elements, tables of affine points as
+ * one flat {@code long[]} of 10 limbs per point. Doubling uses {@code dbl-2009-l} and additions {@code madd-2007-bl}
+ * and {@code add-2007-bl} from the Explicit-Formulas Database; the additions only branch in the exceptional cases,
+ * adding a point to itself, to its negation or to infinity.
+ * </p>
+ *
+ * @author linux_china
+ */
+final class Secp256k1Point {
+    static final int AFFINE_LIMBS = 2 * LIMBS;
+    /**
+     * beta, the cube root of unity mod p with {@code lambda * (x, y) = (beta * x, y)}
+     */
+    private static final long[] BETA = fromBigInteger(new BigInteger("7ae96a2b657c07106e64479eac3434e99cf0497512f58995c1396c28719501ee", 16));
+    final long[] x = create();
+    final long[] y = create();
+    final long[] z = create();
+    private final long[] t0 = create(), t1 = create(), t2 = create(), t3 = create();
+    private final long[] t4 = create(), t5 = create(), t6 = create();
+
+    boolean isInfinity() {
+        return isZero(z);
+    }
+
+    void setInfinity() {
+        Arrays.fill(x, 0);
+        Arrays.fill(y, 0);
+        Arrays.fill(z, 0);
+        x[0] = 1;
+        y[0] = 1;
+    }
+
+    void set(Secp256k1Point p) {
+        copy(p.x, x);
+        copy(p.y, y);
+        copy(p.z, z);
+    }
+
+    void setAffine(long[] ax, long[] ay) {
+        copy(ax, x);
+        copy(ay, y);
+        Arrays.fill(z, 0);
+        z[0] = 1;
+    }
+
+    /**
+     * this = mask == -1 ? p : this, for a mask of 0 or -1
+     */
+    void select(Secp256k1Point p, long mask) {
+        Secp256k1Field.select(p.x, mask, x);
+        Secp256k1Field.select(p.y, mask, y);
+        Secp256k1Field.select(p.z, mask, z);
+    }
+
+    void negate() {
+        Secp256k1Field.negate(y, y);
+    }
+
+    /**
+     * this = 2 * this
+     */
+    void twice() {
+        // Z3 = 2 * Y1 * Z1 first, Y1 is overwritten below; infinity stays infinity
+        multiply(y, z, z);
+        add(z, z, z);
+        square(x, t0);                  // A = X1^2
+        square(y, t1);                  // B = Y1^2
+        square(t1, t2);                 // C = B^2
+        add(x, t1, t3);
+        square(t3, t3);
+        subtract(t3, t0, t3);
+        subtract(t3, t2, t3);
+        add(t3, t3, t3);                // D = 2 * ((X1 + B)^2 - A - C)
+        multiply(t0, 3, t4);            // E = 3 * A
+        square(t4, t5);                 // F = E^2
+        add(t3, t3, t6);
+        subtract(t5, t6, x);            // X3 = F - 2 * D
+        subtract(t3, x, t3);
+        multiply(t4, t3, y);
+        multiply(t2, 8, t2);
+        subtract(y, t2, y);             // Y3 = E * (D - X3) - 8 * C
+    }
+
+    /**
+     * this = 2^times * this
+     */
+    void twice(int times) {
+        for (int i = 0; i < times; i++) {
+            twice();
+        }
+    }
+
+    /**
+     * this = this + (ax, ay)
+     */
+    void addAffine(long[] ax, long[] ay) {
+        if (isInfinity()) {
+            setAffine(ax, ay);
+            return;
+        }
+        square(z, t0);                  // Z1Z1 = Z1^2
+        multiply(ax, t0, t1);           // U2 = X2 * Z1Z1
+        multiply(ay, z, t2);
+        multiply(t2, t0, t2);           // S2 = Y2 * Z1 * Z1Z1
+        subtract(t1, x, t1);            // H = U2 - X1
+        subtract(t2, y, t2);
+        if (isZero(t1)) {
+            if (isZero(t2)) {
+                setAffine(ax, ay);
+                twice();
+            } else {
+                setInfinity();
+            }
+            return;
+        }
+        add(t2, t2, t2);                // r = 2 * (S2 - Y1)
+        square(t1, t3);                 // HH = H^2
+        add(z, t1, z);
+        square(z, z);
+        subtract(z, t0, z);
+        subtract(z, t3, z);             // Z3 = (Z1 + H)^2 - Z1Z1 - HH
+        multiply(t3, 4, t3);            // I = 4 * HH
+        multiply(t1, t3, t4);           // J = H * I
+        multiply(x, t3, t5);            // V = X1 * I
+        square(t2, x);
+        subtract(x, t4, x);
+        subtract(x, t5, x);
+        subtract(x, t5, x);             // X3 = r^2 - J - 2 * V
+        subtract(t5, x, t5);
+        multiply(t2, t5, t5);
+        multiply(y, t4, t6);
+        add(t6, t6, t6);
+        subtract(t5, t6, y);            // Y3 = r * (V - X3) - 2 * Y1 * J
+    }
+
+    /**
+     * this = this + p
+     */
+    void addJacobian(Secp256k1Point p) {
+        if (p.isInfinity()) {
+            return;
+        }
+        if (isInfinity()) {
+            set(p);
+            return;
+        }
+        square(z, t0);                  // Z1Z1 = Z1^2
+        square(p.z, t1);                // Z2Z2 = Z2^2
+        multiply(x, t1, t2);            // U1 = X1 * Z2Z2
+        multiply(p.x, t0, t3);          // U2 = X2 * Z1Z1
+        multiply(y, p.z, t4);
+        multiply(t4, t1, t4);           // S1 = Y1 * Z2 * Z2Z2
+        multiply(p.y, z, t5);
+        multiply(t5, t0, t5);           // S2 = Y2 * Z1 * Z1Z1
+        subtract(t3, t2, t3);           // H = U2 - U1
+        subtract(t5, t4, t5);
+        if (isZero(t3)) {
+            if (isZero(t5)) {
+                twice();
+            } else {
+                setInfinity();
+            }
+            return;
+        }
+        add(t5, t5, t5);                // r = 2 * (S2 - S1)
+        add(z, p.z, z);
+        square(z, z);
+        subtract(z, t0, z);
+        subtract(z, t1, z);
+        multiply(z, t3, z);             // Z3 = ((Z1 + Z2)^2 - Z1Z1 - Z2Z2) * H
+        add(t3, t3, t6);
+        square(t6, t6);                 // I = (2 * H)^2
+        multiply(t3, t6, t3);           // J = H * I
+        multiply(t2, t6, t2);           // V = U1 * I
+        square(t5, x);
+        subtract(x, t3, x);
+        subtract(x, t2, x);
+        subtract(x, t2, x);             // X3 = r^2 - J - 2 * V
+        subtract(t2, x, t2);
+        multiply(t5, t2, t2);
+        multiply(t4, t3, t4);
+        add(t4, t4, t4);
+        subtract(t2, t4, y);            // Y3 = r * (V - X3) - 2 * S1 * J
+    }
+
+    /**
+     * whether this point is not infinity and its affine x is ax, checked as {@code X = ax * Z^2} without an inversion
+     */
+    boolean hasAffineX(long[] ax) {
+        if (isInfinity()) {
+            return false;
+        }
+        square(z, t0);
+        multiply(ax, t0, t0);
+        subtract(t0, x, t0);
+        return isZero(t0);
+    }
+
+    /**
+     * convert to normalized affine coordinates
+     *
+     * @return false for infinity
+     */
+    boolean toAffine(long[] ax, long[] ay) {
+        if (isInfinity()) {
+            return false;
+        }
+        invert(z, t0);
+        square(t0, t1);
+        multiply(x, t1, ax);
+        multiply(t1, t0, t1);
+        multiply(y, t1, ay);
+        normalize(ax);
+        normalize(ay);
+        return true;
+    }
+
+    /**
+     * Converts Jacobian points, flat {@code X || Y || Z} with 15 limbs each, to a flat affine table with one inversion.
+     * None of the points may be infinity.
+     *
+     * @param jacobian jacobian points
+     * @param count    number of points
+     * @param affine   receives {@code x || y} with 10 limbs each
+     */
+    static void toAffine(long[] jacobian, int count, long[] affine) {
+        long[] products = new long[count * LIMBS];
+        long[] z = create(), inverse = create(), zInverse = create(), t = create();
+        // products[i] = Z0 * ... * Zi
+        System.arraycopy(jacobian, 2 * LIMBS, products, 0, LIMBS);
+        for (int i = 1; i < count; i++) {
+            System.arraycopy(jacobian, i * 3 * LIMBS + 2 * LIMBS, z, 0, LIMBS);
+            System.arraycopy(products, (i - 1) * LIMBS, t, 0, LIMBS);
+            multiply(t, z, t);
+            System.arraycopy(t, 0, products, i * LIMBS, LIMBS);
+        }
+        System.arraycopy(products, (count - 1) * LIMBS, t, 0, LIMBS);
+        invert(t, inverse);
+        long[] ax = create(), ay = create();
+        for (int i = count - 1; i >= 0; i--) {
+            int offset = i * 3 * LIMBS;
+            if (i > 0) {
+                System.arraycopy(products, (i - 1) * LIMBS, t, 0, LIMBS);
+                multiply(inverse, t, zInverse);
+                System.arraycopy(jacobian, offset + 2 * LIMBS, z, 0, LIMBS);
+                multiply(inverse, z, inverse);
+            } else {
+                copy(inverse, zInverse);
+            }
+            square(zInverse, t);
+            System.arraycopy(jacobian, offset, ax, 0, LIMBS);
+            multiply(ax, t, ax);
+            multiply(t, zInverse, t);
+            System.arraycopy(jacobian, offset + LIMBS, ay, 0, LIMBS);
+            multiply(ay, t, ay);
+            normalize(ax);
+            normalize(ay);
+            System.arraycopy(ax, 0, affine, i * AFFINE_LIMBS, LIMBS);
+            System.arraycopy(ay, 0, affine, i * AFFINE_LIMBS + LIMBS, LIMBS);
+        }
+    }
+
+    /**
+     * flat affine table of the odd multiples P, 3P, ..., (2 * count - 1) * P of a point P
+     */
+    static long[] oddMultiples(long[] px, long[] py, int count) {
+        long[] jacobian = new long[count * 3 * LIMBS];
+        Secp256k1Point twice = new Secp256k1Point();
+        twice.setAffine(px, py);
+        twice.twice();
+        Secp256k1Point multiple = new Secp256k1Point();
+        multiple.setAffine(px, py);
+        multiple.writeJacobian(jacobian, 0);
+        for (int i = 1; i < count; i++) {
+            multiple.addJacobian(twice);
+            multiple.writeJacobian(jacobian, i);
+        }
+        long[] affine = new long[count * AFFINE_LIMBS];
+        toAffine(jacobian, count, affine);
+        return affine;
+    }
+
+    /**
+     * the table of {@code lambda * P} for a flat affine table of points P
+     */
+    static long[] endomorphism(long[] affine) {
+        long[] result = affine.clone();
+        long[] t = create();
+        for (int offset = 0; offset < result.length; offset += AFFINE_LIMBS) {
+            System.arraycopy(result, offset, t, 0, LIMBS);
+            multiply(t, BETA, t);
+            normalize(t);
+            System.arraycopy(t, 0, result, offset, LIMBS);
+        }
+        return result;
+    }
+
+    void writeJacobian(long[] jacobian, int index) {
+        int offset = index * 3 * LIMBS;
+        System.arraycopy(x, 0, jacobian, offset, LIMBS);
+        System.arraycopy(y, 0, jacobian, offset + LIMBS, LIMBS);
+        System.arraycopy(z, 0, jacobian, offset + 2 * LIMBS, LIMBS);
+    }
+
+    /**
+     * Copies entry {@code first + index} of a flat affine table into (ax, ay), reading all {@code count} entries from
+     * {@code first} so that the memory access pattern doesn't depend on the index.
+     */
+    static void lookup(long[] affine, int first, int count, int index, long[] ax, long[] ay) {
+        Arrays.fill(ax, 0);
+        Arrays.fill(ay, 0);
+        for (int i = 0; i < count; i++) {
+            long mask = ((long) (i ^ index) - 1) >> 63;
+            int offset = (first + i) * AFFINE_LIMBS;
+            for (int j = 0; j < LIMBS; j++) {
+                ax[j] |= affine[offset + j] & mask;
+                ay[j] |= affine[offset + LIMBS + j] & mask;
+            }
+        }
+    }
+
+    /**
+     * whether (ax, ay) satisfies y^2 = x^3 + 7
+     */
+    static boolean isOnCurve(long[] ax, long[] ay) {
+        long[] lhs = create(), rhs = create();
+        square(ay, lhs);
+        square(ax, rhs);
+        multiply(rhs, ax, rhs);
+        add(rhs, fromInt(7), rhs);
+        subtract(lhs, rhs, lhs);
+        return isZero(lhs);
+    }
+
+    /**
+     * Decodes a compressed or uncompressed SEC1 point and checks that it is on the curve.
+     *
+     * @return false if the encoding or the point is invalid
+     */
+    static boolean decode(byte[] encoded, int offset, int length, long[] ax, long[] ay) {
+        if (length == 65 && encoded[offset] == 0x04) {
+            return setBytes(encoded, offset + 1, ax) && setBytes(encoded, offset + 33, ay) && isOnCurve(ax, ay);
+        }
+        if (length == 33 && (encoded[offset] == 0x02 || encoded[offset] == 0x03)) {
+            if (!setBytes(encoded, offset + 1, ax)) {
+                return false;
+            }
+            long[] rhs = create();
+            square(ax, rhs);
+            multiply(rhs, ax, rhs);
+            add(rhs, fromInt(7), rhs);
+            if (!sqrt(rhs, ay)) {
+                return false;
+            }
+            normalize(ay);
+            if (isOdd(ay) != (encoded[offset] == 0x03)) {
+                Secp256k1Field.negate(ay, ay);
+                normalize(ay);
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * SEC1 encoding of normalized affine coordinates
+     */
+    static byte[] encode(long[] ax, long[] ay, boolean compressed) {
+        if (compressed) {
+            byte[] encoded = new byte[33];
+            encoded[0] = (byte) (isOdd(ay) ? 0x03 : 0x02);
+            getBytes(ax, encoded, 1);
+            return encoded;
+        }
+        byte[] encoded = new byte[65];
+        encoded[0] = 0x04;
+        getBytes(ax, encoded, 1);
+        getBytes(ay, encoded, 33);
+        return encoded;
+    }
+}
@@ -0,0 +1,66 @@
+package org.mvnsearch.dotenvx.ecies;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.DrbgParameters;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+
+/**
+ * Striped SP800-90A DRBG instances for ephemeral keys and nonces.
+ * <p>
+ * A single shared {@link SecureRandom} serializes concurrent encryptions on its internal lock, e.g. {@code NativePRNG}
+ * reads from one global buffer. Each stripe here is an independently seeded {@code DRBG} instance, and threads are
+ * spread over the stripes by thread id, so threads only contend when there are more of them than stripes. Striping
+ * instead of a thread local keeps the number of instances bounded when encrypting on virtual threads.
+ * </p>
+ *
+ * @author linux_china
+ */
+public final class SecureRandoms {
+    private static final SecureRandom[] STRIPES = createStripes(Runtime.getRuntime().availableProcessors() * 2);
+
+    private SecureRandoms() {
+    }
+
+    /**
+     * secure random for the calling thread
+     *
+     * @return thread-safe secure random, shared with other threads on the same stripe
+     */
+    public static SecureRandom current() {
+        return STRIPES[(int) Thread.currentThread().getId() & (STRIPES.length - 1)];
+    }
+
+    /**
+     * fills given array with random bytes from the calling thread's stripe
+     *
+     * @param bytes array to fill
+     */
+    public static void nextBytes(byte[] bytes) {
+        current().nextBytes(bytes);
+    }
+
+    private static SecureRandom[] createStripes(int minimum) {
+        SecureRandom[] stripes = new SecureRandom[Integer.highestOneBit(Math.max(1, minimum - 1)) << 1];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = createDrbg(i);
+        }
+        return stripes;
+    }
+
+    private static SecureRandom createDrbg(int stripe) {
+        // the personalization string only separates instances, each one is seeded from the system entropy source
+        byte[] personalization = ByteBuffer.allocate(32)
+                .put("dotenvx-drbg".getBytes(StandardCharsets.US_ASCII))
+                .putInt(stripe)
+                .putLong(System.nanoTime())
+                .array();
+        try {
+            return SecureRandom.getInstance("DRBG",
+                    DrbgParameters.instantiation(256, DrbgParameters.Capability.RESEED_ONLY, personalization));
+        } catch (NoSuchAlgorithmException e) {
+            return new SecureRandom();
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package org.mvnsearch.dotenvx.ecies;
+
+/**
+ * Decryptor that may be tried on ciphertexts encrypted for other keys. A miss is an ordinary result, not an exception,
+ * so walking a list of keys costs one ECDH and one tag check per wrong key and nothing more.
+ *
+ * @author linux_china
+ */
+public interface TrialDecryptor {
+
+    /**
+     * Decrypts given ciphertext slice in place, without copying it
+     *
+     * @param cipherBytes cipher text binary
+     * @param offset      offset of the ciphertext
+     * @param length      length of the ciphertext
+     * @return decrypted message binary, or null if the ciphertext is not for this key, malformed or corrupted
+     */
+    byte[] tryDecrypt(byte[] cipherBytes, int offset, int length);
+}
@@ -0,0 +1,129 @@
+package org.mvnsearch.dotenvx.ecies;
+
+import org.bouncycastle.crypto.InvalidCipherTextException;
+import org.bouncycastle.math.ec.rfc7748.X25519;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * ECIES decryptor bound to one X25519 private key, see {@link X25519Ecies}. Instances are immutable and thread-safe.
+ *
+ * @author linux_china
+ */
+public final class X25519Decryptor implements TrialDecryptor {
+    private final byte[] privateKey;
+    private final AeadCipher cipher;
+
+    /**
+     * create decryptor for a private key
+     *
+     * @param privateKey X25519 private key binary, 32 bytes
+     */
+    public X25519Decryptor(byte[] privateKey) {
+        this(privateKey, AeadCiphers.AES_256_GCM);
+    }
+
+    /**
+     * create decryptor for a private key and a payload cipher
+     *
+     * @param privateKey X25519 private key binary, 32 bytes
+     * @param cipher     payload cipher, see {@link AeadCiphers}
+     */
+    public X25519Decryptor(byte[] privateKey, AeadCipher cipher) {
+        if (privateKey.length != X25519.SCALAR_SIZE) {
+            throw new IllegalArgumentException("Invalid x25519 private key");
+        }
+        this.privateKey = privateKey.clone();
+        this.cipher = cipher;
+    }
+
+    /**
+     * decryptor for the same private key with another payload cipher
+     *
+     * @param cipher payload cipher, see {@link AeadCiphers}
+     * @return decryptor
+     */
+    public X25519Decryptor withCipher(AeadCipher cipher) {
+        return cipher == this.cipher ? this : new X25519Decryptor(privateKey, cipher);
+    }
+
+    /**
+     * create decryptor for a private key text
+     *
+     * @param privateKey X25519 private key, {@code x25519:} and hex
+     * @return decryptor
+     */
+    public static X25519Decryptor fromText(String privateKey) {
+        return new X25519Decryptor(X25519Ecies.decodeKey(privateKey));
+    }
+
+    /**
+     * Decrypts given ciphertext
+     *
+     * @param ciphertext ciphered text in base64, with or without the {@code x25519:} prefix
+     * @return decrypted message
+     */
+    public String decrypt(String ciphertext) throws InvalidCipherTextException {
+        if (X25519Ecies.isX25519(ciphertext)) {
+            ciphertext = ciphertext.substring(X25519Ecies.PREFIX.length());
+        }
+        ByteBuffer buffer = Ecies.decodeBase64Pooled(ciphertext);
+        byte[] decrypted = decrypt(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+        return new String(decrypted, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Decrypts given ciphertext
+     *
+     * @param cipherBytes cipher text binary
+     * @return decrypted message binary
+     */
+    public byte[] decrypt(byte[] cipherBytes) throws InvalidCipherTextException {
+        return decrypt(cipherBytes, 0, cipherBytes.length);
+    }
+
+    /**
+     * Decrypts given ciphertext slice in place, without copying it
+     *
+     * @param cipherBytes cipher text binary
+     * @param offset      offset of the ciphertext
+     * @param length      length of the ciphertext
+     * @return decrypted message binary
+     */
+    public byte[] decrypt(byte[] cipherBytes, int offset, int length) throws InvalidCipherTextException {
+        int keySize = X25519Ecies.KEY_SIZE;
+        if (length <= keySize) {
+            throw new InvalidCipherTextException("Cipher text too short");
+        }
+        byte[] aesKey = X25519Ecies.sharedKey(privateKey, cipherBytes, offset, cipherBytes, offset);
+        return cipher.open(aesKey, cipherBytes, offset + keySize, length - keySize);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public byte[] tryDecrypt(byte[] cipherBytes, int offset, int length) {
+        int keySize = X25519Ecies.KEY_SIZE;
+        if (length <= keySize) {
+            return null;
+        }
+        byte[] aesKey = X25519Ecies.trySharedKey(privateKey, cipherBytes, offset, cipherBytes, offset);
+        return aesKey == null ? null : cipher.tryOpen(aesKey, cipherBytes, offset + keySize, length - keySize);
+    }
+
+    /**
+     * Decrypts all given ciphertexts on an executor
+     *
+     * @param cipherBytesList cipher text binaries
+     * @param executor        executor, e.g. {@link Batches#CALLER_THREAD} or a fork-join pool
+     * @return decrypted message binaries or failures, in input order
+     */
+    public List<BatchResult<byte[]>> decryptAll(Collection<byte[]> cipherBytesList, Executor executor) {
+        return Batches.map(cipherBytesList, this::decrypt, executor);
+    }
+}
@@ -0,0 +1,88 @@
+package org.mvnsearch.dotenvx.ecies;
+
+import org.bouncycastle.crypto.InvalidCipherTextException;
+import org.bouncycastle.math.ec.rfc7748.X25519;
+import org.bouncycastle.util.encoders.DecoderException;
+import org.bouncycastle.util.encoders.Hex;
+
+/**
+ * ECIES on X25519, the x25519 mode of eciespy and eciesjs.
+ * <p>
+ * The payload is {@code ephemeral public key (32) || nonce || tag || ciphertext} with the AES key derived by
+ * HKDF-SHA256 over {@code ephemeral public key || shared secret}, the secp256k1 layout with a 32 bytes ephemeral key.
+ * Keys and ciphertexts in text form start with {@link #PREFIX}, an encrypted value is
+ * {@code encrypted:x25519:<base64>}.
+ * </p>
+ *
+ * @author linux_china
+ */
+public final class X25519Ecies {
+    /**
+     * prefix of X25519 keys and ciphertexts in text form
+     */
+    public static final String PREFIX = "x25519:";
+    static final int KEY_SIZE = X25519.POINT_SIZE;
+
+    private X25519Ecies() {
+    }
+
+    /**
+     * whether a key or ciphertext text is for X25519
+     *
+     * @param text key or ciphertext, without the `encrypted:` prefix
+     * @return X25519 or not
+     */
+    public static boolean isX25519(String text) {
+        return text != null && text.startsWith(PREFIX);
+    }
+
+    /**
+     * decode a key text, with or without the {@code x25519:} prefix
+     *
+     * @param key key text
+     * @return raw 32 bytes key
+     * @throws IllegalArgumentException if the key is not 32 bytes of hex
+     */
+    public static byte[] decodeKey(String key) {
+        String hex = isX25519(key) ? key.substring(PREFIX.length()) : key;
+        try {
+            byte[] bytes = Hex.decode(hex.trim());
+            if (bytes.length == KEY_SIZE) {
+                return bytes;
+            }
+        } catch (DecoderException ignore) {
+        }
+        throw new IllegalArgumentException("Invalid x25519 key");
+    }
+
+    /**
+     * Derives the AES key shared by a private key and a peer public key
+     *
+     * @param privateKey      own private key, the ephemeral one when encrypting
+     * @param ephemeralKey    buffer with the ephemeral public key of the payload
+     * @param ephemeralOffset offset of the ephemeral public key
+     * @param peerKey         buffer with the peer public key, the recipient's when encrypting, the ephemeral one when decrypting
+     * @param peerOffset      offset of the peer public key
+     * @return 32 bytes AES key
+     */
+    static byte[] sharedKey(byte[] privateKey, byte[] ephemeralKey, int ephemeralOffset, byte[] peerKey, int peerOffset)
+            throws InvalidCipherTextException {
+        byte[] aesKey = trySharedKey(privateKey, ephemeralKey, ephemeralOffset, peerKey, peerOffset);
+        if (aesKey == null) {
+            throw new InvalidCipherTextException("Invalid x25519 public key");
+        }
+        return aesKey;
+    }
+
+    /**
+     * same as {@link #sharedKey(byte[], byte[], int, byte[], int)}, null for a low-order peer key
+     */
+    static byte[] trySharedKey(byte[] privateKey, byte[] ephemeralKey, int ephemeralOffset, byte[] peerKey, int peerOffset) {
+        byte[] shared = new byte[X25519.POINT_SIZE];
+        // false for a low-order peer key, whose shared secret is all zeros
+        if (!X25519.calculateAgreement(privateKey, 0, peerKey, peerOffset, shared, 0)) {
+            return null;
+        }
+        return Ecies.hkdf(ephemeralKey, ephemeralOffset, KEY_SIZE, shared);
+    }
+}
@@ -0,0 +1,96 @@
+package org.mvnsearch.dotenvx.ecies;
+
+import org.bouncycastle.crypto.InvalidCipherTextException;
+import org.bouncycastle.math.ec.rfc7748.X25519;
+import org.bouncycastle.util.encoders.Base64;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * ECIES encryptor bound to one X25519 recipient public key, see {@link X25519Ecies}. Instances are immutable and
+ * thread-safe.
+ *
+ * @author linux_china
+ */
+public final class X25519Encryptor {
+    private final byte[] publicKey;
+    private final AeadCipher cipher;
+
+    /**
+     * create encryptor for a public key
+     *
+     * @param publicKey X25519 public key binary, 32 bytes
+     */
+    public X25519Encryptor(byte[] publicKey) {
+        this(publicKey, AeadCiphers.AES_256_GCM);
+    }
+
+    /**
+     * create encryptor for a public key with a payload cipher
+     *
+     * @param publicKey X25519 public key binary, 32 bytes
+     * @param cipher    payload cipher, see {@link AeadCiphers}
+     */
+    public X25519Encryptor(byte[] publicKey, AeadCipher cipher) {
+        if (publicKey.length != X25519Ecies.KEY_SIZE) {
+            throw new IllegalArgumentException("Invalid x25519 public key");
+        }
+        this.publicKey = publicKey.clone();
+        this.cipher = cipher;
+    }
+
+    /**
+     * create encryptor for a public key text
+     *
+     * @param publicKey X25519 public key, {@code x25519:} and hex
+     * @return encryptor
+     */
+    public static X25519Encryptor fromText(String publicKey) {
+        return new X25519Encryptor(X25519Ecies.decodeKey(publicKey));
+    }
+
+    /**
+     * Encrypts a given message
+     *
+     * @param message message to encrypt
+     * @return encrypted message, {@code x25519:} and base64
+     */
+    public String encrypt(String message) throws InvalidCipherTextException {
+        return X25519Ecies.PREFIX + Base64.toBase64String(encrypt(message.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Encrypts a given message
+     *
+     * @param message message to encrypt binary
+     * @return encrypted message binary
+     */
+    public byte[] encrypt(byte[] message) throws InvalidCipherTextException {
+        byte[] ephemeral = new byte[X25519.SCALAR_SIZE];
+        X25519.generatePrivateKey(SecureRandoms.current(), ephemeral);
+        // output layout: ephemeral public key || nonce || tag || ciphered
+        int keySize = X25519Ecies.KEY_SIZE;
+        byte[] output = new byte[keySize + cipher.getNonceLength() + AeadCipher.TAG_LENGTH + message.length];
+        X25519.generatePublicKey(ephemeral, 0, output, 0);
+        byte[] aesKey = X25519Ecies.sharedKey(ephemeral, output, 0, publicKey, 0);
+        byte[] nonce = new byte[cipher.getNonceLength()];
+        SecureRandoms.nextBytes(nonce);
+        System.arraycopy(nonce, 0, output, keySize, nonce.length);
+        cipher.seal(aesKey, message, output, keySize);
+        return output;
+    }
+
+    /**
+     * Encrypts all given messages on an executor
+     *
+     * @param messages message binaries to encrypt
+     * @param executor executor, e.g. {@link Batches#CALLER_THREAD} or a fork-join pool
+     * @return encrypted message binaries or failures, in input order
+     */
+    public List<BatchResult<byte[]>> encryptAll(Collection<byte[]> messages, Executor executor) {
+        return Batches.map(messages, this::encrypt, executor);
+    }
+}
@@ -0,0 +1,53 @@
+package org.mvnsearch.dotenvx.ecies;
+
+import org.bouncycastle.math.ec.rfc7748.X25519;
+import org.bouncycastle.util.encoders.Hex;
+
+/**
+ * X25519 key pair, raw 32 bytes keys as in RFC 7748. The text form of a key is {@code x25519:} followed by its hex, so
+ * it can't be mistaken for a secp256k1 key in {@code .env} or {@code .env.keys}.
+ *
+ * @author linux_china
+ */
+@SuppressWarnings("unused")
+public final class X25519KeyPair {
+    private final byte[] privateKey;
+    private final byte[] publicKey;
+
+    X25519KeyPair(byte[] privateKey) {
+        this.privateKey = privateKey;
+        this.publicKey = new byte[X25519.POINT_SIZE];
+        X25519.generatePublicKey(privateKey, 0, publicKey, 0);
+    }
+
+    /**
+     * generate a key pair from {@link SecureRandoms}, see {@link Ecies#generateX25519KeyPair()}
+     */
+    static X25519KeyPair generate() {
+        byte[] privateKey = new byte[X25519.SCALAR_SIZE];
+        X25519.generatePrivateKey(SecureRandoms.current(), privateKey);
+        return new X25519KeyPair(privateKey);
+    }
+
+    public byte[] getPublicBinary() {
+        return publicKey.clone();
+    }
+
+    public byte[] getPrivateBinary() {
+        return privateKey.clone();
+    }
+
+    /**
+     * public key text, {@code x25519:} and hex
+     */
+    public String getPublicKey() {
+        return X25519Ecies.PREFIX + Hex.toHexString(publicKey);
+    }
+
+    /**
+     * private key text, {@code x25519:} and hex
+     */
+    public String getPrivateKey() {
+        return X25519Ecies.PREFIX + Hex.toHexString(privateKey);
+    }
+}
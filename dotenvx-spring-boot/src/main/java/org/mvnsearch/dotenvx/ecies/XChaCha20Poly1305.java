@@ -0,0 +1,74 @@
+package org.mvnsearch.dotenvx.ecies;
+
+import org.bouncycastle.crypto.InvalidCipherTextException;
+import org.bouncycastle.crypto.engines.ChaChaEngine;
+import org.bouncycastle.crypto.modes.ChaCha20Poly1305;
+import org.bouncycastle.crypto.params.AEADParameters;
+import org.bouncycastle.crypto.params.KeyParameter;
+import org.bouncycastle.util.Pack;
+
+/**
+ * XChaCha20-Poly1305 with a 24 bytes nonce: HChaCha20 derives a subkey from the key and the first 16 bytes of the
+ * nonce, then ChaCha20-Poly1305 (RFC 8439) runs with the subkey and the nonce {@code 0 (4) || nonce[16..24]}. It needs
+ * no AES hardware support and is a good fit for hosts without it.
+ *
+ * @author linux_china
+ */
+final class XChaCha20Poly1305 implements AeadCipher {
+    private static final int NONCE_LENGTH = 24;
+    private static final int HCHACHA_NONCE_LENGTH = 16;
+    private static final ThreadLocal<ChaCha20Poly1305> CHACHA20_POLY1305 = ThreadLocal.withInitial(ChaCha20Poly1305::new);
+
+    @Override
+    public String getName() {
+        return "xchacha20-poly1305";
+    }
+
+    @Override
+    public int getNonceLength() {
+        return NONCE_LENGTH;
+    }
+
+    @Override
+    public void seal(byte[] key, byte[] message, byte[] output, int offset) throws InvalidCipherTextException {
+        final ChaCha20Poly1305 cipher = CHACHA20_POLY1305.get();
+        cipher.init(true, parameters(key, output, offset));
+        AeadCiphers.seal(cipher, message, output, offset + NONCE_LENGTH);
+    }
+
+    @Override
+    public byte[] open(byte[] key, byte[] input, int offset, int length) throws InvalidCipherTextException {
+        final int cipheredLength = AeadCiphers.cipheredLength(this, length);
+        final ChaCha20Poly1305 cipher = CHACHA20_POLY1305.get();
+        cipher.init(false, parameters(key, input, offset));
+        return AeadCiphers.open(cipher, input, offset + NONCE_LENGTH, cipheredLength);
+    }
+
+    private static AEADParameters parameters(byte[] key, byte[] nonce, int nonceOffset) {
+        byte[] chachaNonce = new byte[12];
+        System.arraycopy(nonce, nonceOffset + HCHACHA_NONCE_LENGTH, chachaNonce, 4, 8);
+        return new AEADParameters(new KeyParameter(hChaCha20(key, nonce, nonceOffset)), TAG_LENGTH * 8, chachaNonce);
+    }
+
+    /**
+     * HChaCha20: the ChaCha20 block function without the final addition, keeping words 0..3 and 12..15
+     */
+    static byte[] hChaCha20(byte[] key, byte[] nonce, int nonceOffset) {
+        int[] state = new int[16];
+        // "expand 32-byte k"
+        state[0] = 0x61707865;
+        state[1] = 0x3320646e;
+        state[2] = 0x79622d32;
+        state[3] = 0x6b206574;
+        Pack.littleEndianToInt(key, 0, state, 4, 8);
+        Pack.littleEndianToInt(nonce, nonceOffset, state, 12, HCHACHA_NONCE_LENGTH / 4);
+        int[] x = new int[16];
+        ChaChaEngine.chachaCore(20, state, x);
+        byte[] subkey = new byte[32];
+        for (int i = 0; i < 4; i++) {
+            Pack.intToLittleEndian(x[i] - state[i], subkey, i * 4);
+            Pack.intToLittleEndian(x[12 + i] - state[12 + i], subkey, 16 + i * 4);
+        }
+        return subkey;
+    }
+}
@@ -0,0 +1,66 @@
+package org.mvnsearch.dotenvx.jwt;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSSigner;
+import com.nimbusds.jose.jca.JCAContext;
+import com.nimbusds.jose.util.Base64URL;
+import org.bouncycastle.util.BigIntegers;
+import org.mvnsearch.dotenvx.ecies.Secp256k1;
+
+import java.math.BigInteger;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.interfaces.ECPrivateKey;
+import java.util.Set;
+
+/**
+ * ES256K JWS signer on the {@link Secp256k1} engine, a drop-in for nimbus {@code ECDSASigner}
+ *
+ * @author linux_china
+ */
+public class Secp256k1JwsSigner implements JWSSigner {
+    private final BigInteger privateKey;
+    private final JCAContext jcaContext = new JCAContext();
+
+    /**
+     * create a signer
+     *
+     * @param privateKey secp256k1 private key
+     * @throws JOSEException if the key is not on secp256k1
+     */
+    public Secp256k1JwsSigner(ECPrivateKey privateKey) throws JOSEException {
+        if (!Secp256k1.isSecp256k1(privateKey.getParams())) {
+            throw new JOSEException("The EC private key is not on the secp256k1 curve");
+        }
+        this.privateKey = privateKey.getS();
+    }
+
+    @Override
+    public Base64URL sign(JWSHeader header, byte[] signingInput) throws JOSEException {
+        if (!JWSAlgorithm.ES256K.equals(header.getAlgorithm())) {
+            throw new JOSEException("Unsupported JWS algorithm " + header.getAlgorithm() + ", must be ES256K");
+        }
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(signingInput);
+            BigInteger[] rs = Secp256k1.sign(hash, privateKey);
+            byte[] signature = new byte[64];
+            BigIntegers.asUnsignedByteArray(rs[0], signature, 0, 32);
+            BigIntegers.asUnsignedByteArray(rs[1], signature, 32, 32);
+            return Base64URL.encode(signature);
+        } catch (NoSuchAlgorithmException | IllegalArgumentException e) {
+            throw new JOSEException(e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public Set<JWSAlgorithm> supportedJWSAlgorithms() {
+        return Set.of(JWSAlgorithm.ES256K);
+    }
+
+    @Override
+    public JCAContext getJCAContext() {
+        return jcaContext;
+    }
+}
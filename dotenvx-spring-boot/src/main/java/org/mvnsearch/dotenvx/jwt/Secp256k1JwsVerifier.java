@@ -0,0 +1,60 @@
+package org.mvnsearch.dotenvx.jwt;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jose.jca.JCAContext;
+import com.nimbusds.jose.util.Base64URL;
+import org.mvnsearch.dotenvx.ecies.Secp256k1;
+
+import java.math.BigInteger;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Set;
+
+/**
+ * ES256K JWS verifier on the {@link Secp256k1} engine, a drop-in for nimbus {@code ECDSAVerifier}. Pass a
+ * {@link Secp256k1.PublicKey#precompute() precomputed} key to verify many tokens of one issuer.
+ * Tokens with critical header parameters are rejected.
+ *
+ * @author linux_china
+ */
+public class Secp256k1JwsVerifier implements JWSVerifier {
+    private final Secp256k1.PublicKey publicKey;
+    private final JCAContext jcaContext = new JCAContext();
+
+    public Secp256k1JwsVerifier(Secp256k1.PublicKey publicKey) {
+        this.publicKey = publicKey;
+    }
+
+    @Override
+    public boolean verify(JWSHeader header, byte[] signedContent, Base64URL signature) throws JOSEException {
+        if (!JWSAlgorithm.ES256K.equals(header.getAlgorithm())) {
+            throw new JOSEException("Unsupported JWS algorithm " + header.getAlgorithm() + ", must be ES256K");
+        }
+        if (header.getCriticalParams() != null && !header.getCriticalParams().isEmpty()) {
+            return false;
+        }
+        byte[] rs = signature.decode();
+        if (rs.length != 64) {
+            return false;
+        }
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(signedContent);
+            return Secp256k1.verify(hash, new BigInteger(1, rs, 0, 32), new BigInteger(1, rs, 32, 32), publicKey);
+        } catch (NoSuchAlgorithmException e) {
+            throw new JOSEException(e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public Set<JWSAlgorithm> supportedJWSAlgorithms() {
+        return Set.of(JWSAlgorithm.ES256K);
+    }
+
+    @Override
+    public JCAContext getJCAContext() {
+        return jcaContext;
+    }
+}
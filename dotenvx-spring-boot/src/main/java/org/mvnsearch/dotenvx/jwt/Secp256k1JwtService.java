@@ -1,12 +1,11 @@
 package org.mvnsearch.dotenvx.jwt;
 
 import com.nimbusds.jose.*;
-import com.nimbusds.jose.crypto.ECDSASigner;
 import com.nimbusds.jose.crypto.ECDSAVerifier;
 import com.nimbusds.jose.crypto.bc.BouncyCastleProviderSingleton;
-import com.nimbusds.jose.jwk.Curve;
 import com.nimbusds.jwt.JWTClaimsSet;
 import com.nimbusds.jwt.SignedJWT;
+import org.mvnsearch.dotenvx.ecies.Secp256k1;
 
 import java.security.interfaces.ECPrivateKey;
 import java.security.interfaces.ECPublicKey;
@@ -31,9 +30,7 @@ public class Secp256k1JwtService {
         // Create the signed JWT
         SignedJWT signedJWT = new SignedJWT(header, claimsSet);
         // Sign the JWT with the private key
-        JWSSigner signer = new ECDSASigner(privateKey, Curve.SECP256K1);
-        signer.getJCAContext().setProvider(BouncyCastleProviderSingleton.getInstance());
-        signedJWT.sign(signer);
+        signedJWT.sign(new Secp256k1JwsSigner(privateKey));
         // Serialize the JWT to a compact string
         return signedJWT.serialize();
     }
@@ -51,11 +48,31 @@ public class Secp256k1JwtService {
         // Parse the signed JWT
         SignedJWT signedJWT = SignedJWT.parse(jwt);
         // Create a verifier with the public key
-        JWSVerifier verifier = new ECDSAVerifier(publicKey);
-        verifier.getJCAContext().setProvider(BouncyCastleProviderSingleton.getInstance());
+        JWSVerifier verifier;
+        if (Secp256k1.isSecp256k1(publicKey.getParams())) {
+            verifier = new Secp256k1JwsVerifier(Secp256k1.PublicKey.fromAffine(publicKey.getW().getAffineX(), publicKey.getW().getAffineY()));
+        } else {
+            verifier = new ECDSAVerifier(publicKey);
+            verifier.getJCAContext().setProvider(BouncyCastleProviderSingleton.getInstance());
+        }
         // Verify the signature
         signedJWT.verify(verifier);
         // return claims set
         return signedJWT.getJWTClaimsSet();
     }
+
+    /**
+     * verify JWT token with a decoded secp256k1 public key, precompute it to verify many tokens of one issuer
+     *
+     * @param jwt       jwt token
+     * @param publicKey public key
+     * @return claims set
+     * @throws JOSEException  jose exception
+     * @throws ParseException JWT parse exception
+     */
+    public static JWTClaimsSet verifyJwt(String jwt, Secp256k1.PublicKey publicKey) throws JOSEException, ParseException {
+        SignedJWT signedJWT = SignedJWT.parse(jwt);
+        signedJWT.verify(new Secp256k1JwsVerifier(publicKey));
+        return signedJWT.getJWTClaimsSet();
+    }
 }
@@ -1,12 +1,18 @@
 package org.mvnsearch.dotenvx.jwt;
 
+import org.bouncycastle.crypto.signers.StandardDSAEncoding;
 import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import org.mvnsearch.dotenvx.ecies.Secp256k1;
 
+import java.io.IOException;
+import java.math.BigInteger;
 import java.security.*;
+import java.security.interfaces.ECPrivateKey;
+import java.security.interfaces.ECPublicKey;
 
 
 /**
- * secp256k1 signer
+ * secp256k1 signer, on the {@link Secp256k1} engine for secp256k1 keys and JCA for other keys
  */
 public class Secp256k1Signer {
     static {
@@ -24,6 +30,19 @@ public class Secp256k1Signer {
      */
     public static byte[] signData(byte[] data, PrivateKey privateKey)
             throws NoSuchAlgorithmException, NoSuchProviderException, InvalidKeyException, SignatureException {
+        if (privateKey instanceof ECPrivateKey ecPrivateKey && Secp256k1.isSecp256k1(ecPrivateKey.getParams())) {
+            BigInteger[] rs;
+            try {
+                rs = Secp256k1.sign(sha256(data), ecPrivateKey.getS());
+            } catch (IllegalArgumentException e) {
+                throw new InvalidKeyException(e.getMessage(), e);
+            }
+            try {
+                return StandardDSAEncoding.INSTANCE.encode(Secp256k1.N, rs[0], rs[1]);
+            } catch (IOException e) {
+                throw new SignatureException(e.getMessage(), e);
+            }
+        }
         Signature signature = Signature.getInstance("SHA256withECDSA", BouncyCastleProvider.PROVIDER_NAME);
         signature.initSign(privateKey);
         signature.update(data);
@@ -40,9 +59,41 @@ public class Secp256k1Signer {
      */
     public static boolean verifySignature(byte[] data, byte[] signatureBytes, PublicKey publicKey)
             throws NoSuchAlgorithmException, NoSuchProviderException, InvalidKeyException, SignatureException {
+        if (publicKey instanceof ECPublicKey ecPublicKey && Secp256k1.isSecp256k1(ecPublicKey.getParams())) {
+            Secp256k1.PublicKey key;
+            try {
+                key = Secp256k1.PublicKey.fromAffine(ecPublicKey.getW().getAffineX(), ecPublicKey.getW().getAffineY());
+            } catch (IllegalArgumentException e) {
+                throw new InvalidKeyException(e.getMessage(), e);
+            }
+            return verifySignature(data, signatureBytes, key);
+        }
         Signature signature = Signature.getInstance("SHA256withECDSA", BouncyCastleProvider.PROVIDER_NAME);
         signature.initVerify(publicKey);
         signature.update(data);
         return signature.verify(signatureBytes);
     }
+
+    /**
+     * verify signature with SHA256withECDSA against a decoded, possibly precomputed, secp256k1 public key
+     *
+     * @param data           data
+     * @param signatureBytes DER signature bytes
+     * @param publicKey      public key
+     * @return verified result
+     */
+    public static boolean verifySignature(byte[] data, byte[] signatureBytes, Secp256k1.PublicKey publicKey)
+            throws NoSuchAlgorithmException, SignatureException {
+        BigInteger[] rs;
+        try {
+            rs = StandardDSAEncoding.INSTANCE.decode(Secp256k1.N, signatureBytes);
+        } catch (IllegalArgumentException | IOException e) {
+            throw new SignatureException("error decoding signature bytes.", e);
+        }
+        return Secp256k1.verify(sha256(data), rs[0], rs[1], publicKey);
+    }
+
+    private static byte[] sha256(byte[] data) throws NoSuchAlgorithmException {
+        return MessageDigest.getInstance("SHA-256").digest(data);
+    }
 }
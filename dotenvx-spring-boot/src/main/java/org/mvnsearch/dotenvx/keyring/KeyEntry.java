@@ -0,0 +1,189 @@
+package org.mvnsearch.dotenvx.keyring;
+
+import org.bouncycastle.math.ec.rfc7748.X25519;
+import org.bouncycastle.util.encoders.Hex;
+import org.mvnsearch.dotenvx.ecies.EciesDecryptor;
+import org.mvnsearch.dotenvx.ecies.EciesEnvelope;
+import org.mvnsearch.dotenvx.ecies.Secp256k1;
+import org.mvnsearch.dotenvx.ecies.X25519Decryptor;
+import org.mvnsearch.dotenvx.ecies.X25519Ecies;
+import org.mvnsearch.dotenvx.jwt.Secp256k1KeyParser;
+
+import java.nio.file.Path;
+import java.security.interfaces.ECPrivateKey;
+
+/**
+ * Private key of a {@link Keyring} with its derived material: public key, key id, decryptor and JWT keys, each
+ * computed on first use and shared by all users of the entry. Instances are thread-safe.
+ *
+ * @author linux_china
+ */
+public final class KeyEntry {
+    private final Path source;
+    private final String name;
+    private final String privateKey;
+    private final boolean x25519;
+    private volatile String publicKey;
+    private volatile EciesDecryptor decryptor;
+    private volatile X25519Decryptor x25519Decryptor;
+    private volatile ECPrivateKey signingKey;
+    private volatile Secp256k1.PublicKey verificationKey;
+
+    KeyEntry(Path source, String name, String privateKey, String publicKey) {
+        this.source = source;
+        this.name = name;
+        this.privateKey = privateKey;
+        this.x25519 = X25519Ecies.isX25519(privateKey);
+        this.publicKey = publicKey;
+    }
+
+    /**
+     * key file of the entry
+     *
+     * @return file, null for keys given by value
+     */
+    public Path getSource() {
+        return source;
+    }
+
+    /**
+     * name of the entry in `.env.keys`, e.g. `DOTENV_PRIVATE_KEY_PRODUCTION`
+     *
+     * @return name, null for keys of `.env.keys.json` and keys registered by value
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * private key text, hex for secp256k1 or {@code x25519:} and hex
+     *
+     * @return private key
+     */
+    public String getPrivateKey() {
+        return privateKey;
+    }
+
+    public boolean isX25519() {
+        return x25519;
+    }
+
+    /**
+     * public key text, compressed hex for secp256k1 or {@code x25519:} and hex, derived from the private key if the key
+     * file didn't list it
+     *
+     * @return public key
+     */
+    public String getPublicKey() {
+        String publicKey = this.publicKey;
+        if (publicKey == null) {
+            if (x25519) {
+                byte[] point = new byte[X25519.POINT_SIZE];
+                X25519.generatePublicKey(X25519Ecies.decodeKey(privateKey), 0, point, 0);
+                publicKey = X25519Ecies.PREFIX + Hex.toHexString(point);
+            } else {
+                publicKey = Hex.toHexString(Secp256k1.derivePublicKey(Hex.decode(privateKey), true));
+            }
+            this.publicKey = publicKey;
+        }
+        return publicKey;
+    }
+
+    /**
+     * public key listed in the key file or already derived, without deriving it
+     */
+    String getKnownPublicKey() {
+        return publicKey;
+    }
+
+    /**
+     * key id of a secp256k1 key, see {@link EciesEnvelope#keyId(byte[])}
+     *
+     * @return key id
+     * @throws IllegalStateException for an X25519 key
+     */
+    public int getKeyId() {
+        return getDecryptor().getKeyId();
+    }
+
+    /**
+     * decryptor with the default payload cipher, see {@link EciesDecryptor#withCipher}
+     *
+     * @return secp256k1 decryptor
+     * @throws IllegalStateException for an X25519 key
+     */
+    public EciesDecryptor getDecryptor() {
+        if (x25519) {
+            throw new IllegalStateException("Not a secp256k1 key");
+        }
+        EciesDecryptor decryptor = this.decryptor;
+        if (decryptor == null) {
+            synchronized (this) {
+                decryptor = this.decryptor;
+                if (decryptor == null) {
+                    decryptor = EciesDecryptor.fromHex(privateKey);
+                    this.decryptor = decryptor;
+                }
+            }
+        }
+        return decryptor;
+    }
+
+    /**
+     * decryptor with the default payload cipher, see {@link X25519Decryptor#withCipher}
+     *
+     * @return X25519 decryptor
+     * @throws IllegalStateException for a secp256k1 key
+     */
+    public X25519Decryptor getX25519Decryptor() {
+        if (!x25519) {
+            throw new IllegalStateException("Not an x25519 key");
+        }
+        X25519Decryptor decryptor = this.x25519Decryptor;
+        if (decryptor == null) {
+            decryptor = X25519Decryptor.fromText(privateKey);
+            this.x25519Decryptor = decryptor;
+        }
+        return decryptor;
+    }
+
+    /**
+     * JCA private key for signing, e.g. with {@link org.mvnsearch.dotenvx.jwt.Secp256k1JwtService}
+     *
+     * @return secp256k1 private key
+     * @throws IllegalStateException for an X25519 key
+     */
+    public ECPrivateKey getSigningKey() {
+        if (x25519) {
+            throw new IllegalStateException("Not a secp256k1 key");
+        }
+        ECPrivateKey signingKey = this.signingKey;
+        if (signingKey == null) {
+            try {
+                signingKey = Secp256k1KeyParser.parseSecp256k1PrivateKey(Hex.decode(privateKey));
+            } catch (Exception e) {
+                throw new IllegalStateException("Invalid secp256k1 private key", e);
+            }
+            this.signingKey = signingKey;
+        }
+        return signingKey;
+    }
+
+    /**
+     * precomputed public key for signature verification
+     *
+     * @return secp256k1 public key
+     * @throws IllegalStateException for an X25519 key
+     */
+    public Secp256k1.PublicKey getVerificationKey() {
+        if (x25519) {
+            throw new IllegalStateException("Not a secp256k1 key");
+        }
+        Secp256k1.PublicKey verificationKey = this.verificationKey;
+        if (verificationKey == null) {
+            verificationKey = Secp256k1.PublicKey.decode(Hex.decode(getPublicKey())).precompute();
+            this.verificationKey = verificationKey;
+        }
+        return verificationKey;
+    }
+}
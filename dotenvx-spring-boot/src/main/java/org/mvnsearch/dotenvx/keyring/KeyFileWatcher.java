@@ -0,0 +1,189 @@
+package org.mvnsearch.dotenvx.keyring;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.nio.file.StandardWatchEventKinds.*;
+
+/**
+ * Watches the key files of the default keyring and swaps in a new keyring when one of them changes.
+ * <p>
+ * A daemon thread waits for file events, lets a burst of them settle, then reloads each changed file with
+ * {@link Keyring#reload(Path)} and replaces the default keyring with a compare-and-set. Lookups never wait for a
+ * reload: they keep using the keyring they got until they ask for the default again. Listeners are told about the
+ * removed and added keys after the swap, on the watcher thread.
+ * </p>
+ *
+ * @author linux_china
+ */
+public final class KeyFileWatcher implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(KeyFileWatcher.class);
+    private final WatchService watchService;
+    private final long settleMillis;
+    /**
+     * key file of the keyring by absolute path
+     */
+    private final Map<Path, Path> files = new HashMap<>();
+    private final List<KeyringListener> listeners = new CopyOnWriteArrayList<>();
+    private final Thread watchThread;
+    private final AtomicLong reloadCount = new AtomicLong();
+    private final AtomicLong maxReloadNanos = new AtomicLong();
+    private volatile long lastReloadNanos;
+    private volatile boolean closed = false;
+
+    /**
+     * watch the key files of {@link Keyring#getDefault()} and start the watcher thread
+     *
+     * @param settleMillis delay between the first event and the reload, so that one save is one reload
+     * @throws IOException if the key file directories can't be watched
+     */
+    public KeyFileWatcher(long settleMillis) throws IOException {
+        this.settleMillis = settleMillis;
+        this.watchService = FileSystems.getDefault().newWatchService();
+        Set<Path> directories = new HashSet<>();
+        for (Path file : Keyring.getDefault().getFiles()) {
+            Path absolute = file.toAbsolutePath().normalize();
+            files.put(absolute, file);
+            Path directory = absolute.getParent();
+            if (directory != null && Files.isDirectory(directory) && directories.add(directory)) {
+                directory.register(watchService, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE);
+            }
+        }
+        this.watchThread = new Thread(this::watch, "dotenvx-key-file-watcher");
+        this.watchThread.setDaemon(true);
+        this.watchThread.start();
+    }
+
+    /**
+     * add a listener for keyring changes
+     *
+     * @param listener listener
+     */
+    public void addListener(KeyringListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * number of key file reloads
+     *
+     * @return reloads
+     */
+    public long getReloadCount() {
+        return reloadCount.get();
+    }
+
+    /**
+     * time to parse the last changed key file and swap in the new keyring, listeners excluded
+     *
+     * @return nanoseconds
+     */
+    public long getLastReloadNanos() {
+        return lastReloadNanos;
+    }
+
+    /**
+     * longest reload so far
+     *
+     * @return nanoseconds
+     */
+    public long getMaxReloadNanos() {
+        return maxReloadNanos.get();
+    }
+
+    /**
+     * reload one key file and swap in the new keyring
+     *
+     * @param file key file of the default keyring
+     */
+    void reload(Path file) {
+        long start = System.nanoTime();
+        Keyring previous;
+        Keyring current;
+        do {
+            previous = Keyring.getDefault();
+            current = previous.reload(file);
+        } while (!Keyring.replaceDefault(previous, current));
+        long nanos = System.nanoTime() - start;
+        lastReloadNanos = nanos;
+        maxReloadNanos.accumulateAndGet(nanos, Math::max);
+        reloadCount.incrementAndGet();
+        KeyringChange change = new KeyringChange(file, previous, current);
+        log.info("Key file {} reloaded in {}us, {} keys removed, {} added", file, nanos / 1000,
+                change.getRemoved().size(), change.getAdded().size());
+        if (change.isEmpty()) {
+            return;
+        }
+        for (KeyringListener listener : listeners) {
+            try {
+                listener.keyringChanged(change);
+            } catch (RuntimeException e) {
+                log.error("Keyring listener {} failed", listener, e);
+            }
+        }
+    }
+
+    private void watch() {
+        try {
+            while (!closed) {
+                WatchKey key = watchService.take();
+                Thread.sleep(settleMillis);
+                Set<Path> changed = new LinkedHashSet<>();
+                do {
+                    collect(key, changed);
+                } while ((key = watchService.poll()) != null);
+                for (Path file : changed) {
+                    reload(file);
+                }
+            }
+        } catch (InterruptedException ignore) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException ignore) {
+            // closed
+        }
+    }
+
+    private void collect(WatchKey key, Set<Path> changed) {
+        Path directory = (Path) key.watchable();
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == OVERFLOW) {
+                changed.addAll(files.values());
+            } else {
+                Path file = files.get(directory.resolve((Path) event.context()));
+                if (file != null) {
+                    changed.add(file);
+                }
+            }
+        }
+        key.reset();
+    }
+
+    /**
+     * stop the watcher thread
+     */
+    @Override
+    public void close() {
+        closed = true;
+        watchThread.interrupt();
+        try {
+            watchService.close();
+        } catch (IOException ignore) {
+        }
+    }
+}
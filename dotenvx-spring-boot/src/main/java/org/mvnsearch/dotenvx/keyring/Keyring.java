@@ -0,0 +1,411 @@
+package org.mvnsearch.dotenvx.keyring;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.bouncycastle.util.encoders.Hex;
+import org.mvnsearch.dotenvx.ecies.Secp256k1;
+import org.mvnsearch.dotenvx.ecies.X25519Ecies;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Private keys of the process, from `.env.keys` and `$HOME/.dotenvx/.env.keys.json`.
+ * <p>
+ * Each key file is read once, in a single streaming pass, and its keys are indexed by name, public key, private key
+ * and key id. The {@link KeyEntry} of a key holds its decryptor and JWT keys, built on first use, so the encryptor, the
+ * JSON deserializer and JWT code share one precomputed context per key. Keys given by value, e.g. from
+ * `dotenv.private.key`, share the entry of the same key in a file, and are otherwise kept by their owner only, see
+ * {@link #entryOf(String)}. Instances are thread-safe.
+ * </p>
+ * <p>
+ * A keyring is never reloaded in place: {@link #reload(Path)} builds a new one, reusing the entries of unchanged keys
+ * and their contexts, and {@link KeyFileWatcher} swaps it in as the default.
+ * </p>
+ *
+ * @author linux_china
+ */
+public final class Keyring {
+    /**
+     * name of the primary key in `.env.keys`, profile keys get the profile in upper case as suffix
+     */
+    public static final String PRIVATE_KEY_NAME = "DOTENV_PRIVATE_KEY";
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final AtomicReference<Keyring> DEFAULT = new AtomicReference<>();
+    private final Path envKeysFile;
+    private final Path globalKeysFile;
+    private final Collection<KeyEntry> entries = new CopyOnWriteArrayList<>();
+    private final Map<String, KeyEntry> byName = new ConcurrentHashMap<>();
+    private final Map<String, KeyEntry> byPrivateKey = new ConcurrentHashMap<>();
+    private final Map<String, KeyEntry> byPublicKey = new ConcurrentHashMap<>();
+    private volatile Map<Integer, KeyEntry> byKeyId;
+    private volatile boolean publicKeysDerived;
+
+    private Keyring(Path envKeysFile, Path globalKeysFile) {
+        this.envKeysFile = envKeysFile;
+        this.globalKeysFile = globalKeysFile;
+    }
+
+    /**
+     * process-wide keyring: `.env.keys` of the working directory, or of the user's home if there is none, and
+     * `$HOME/.dotenvx/.env.keys.json`, loaded on first use
+     *
+     * @return keyring
+     */
+    public static Keyring getDefault() {
+        Keyring keyring = DEFAULT.get();
+        if (keyring == null) {
+            synchronized (Keyring.class) {
+                keyring = DEFAULT.get();
+                if (keyring == null) {
+                    String home = System.getProperty("user.home");
+                    Path envKeys = Paths.get(".env.keys");
+                    if (!Files.exists(envKeys)) {
+                        envKeys = Paths.get(home, ".env.keys");
+                    }
+                    keyring = load(envKeys, Paths.get(home, ".dotenvx", ".env.keys.json"));
+                    DEFAULT.set(keyring);
+                }
+            }
+        }
+        return keyring;
+    }
+
+    /**
+     * replace the default keyring, unless it was replaced since {@code expected} was read
+     */
+    static boolean replaceDefault(Keyring expected, Keyring keyring) {
+        return DEFAULT.compareAndSet(expected, keyring);
+    }
+
+    /**
+     * load a keyring from key files, missing or unreadable files are skipped
+     *
+     * @param envKeysFile     `.env.keys` file, may be null
+     * @param globalKeysFile  `.env.keys.json` file, may be null
+     * @return keyring
+     */
+    public static Keyring load(Path envKeysFile, Path globalKeysFile) {
+        Keyring keyring = new Keyring(envKeysFile, globalKeysFile);
+        keyring.read(envKeysFile, Collections.emptyMap());
+        keyring.read(globalKeysFile, Collections.emptyMap());
+        return keyring;
+    }
+
+    /**
+     * new keyring with one key file read again; entries of the other file are carried over, and the entries of keys
+     * still in the file are reused with their contexts
+     *
+     * @param changedFile changed key file, one of {@link #getFiles()}
+     * @return new keyring
+     */
+    public Keyring reload(Path changedFile) {
+        Keyring keyring = new Keyring(envKeysFile, globalKeysFile);
+        Map<String, KeyEntry> previous = new HashMap<>();
+        for (KeyEntry entry : entries) {
+            if (entry.getSource().equals(changedFile)) {
+                previous.put(entry.getPrivateKey(), entry);
+            }
+        }
+        for (Path file : getFiles()) {
+            if (file.equals(changedFile)) {
+                keyring.read(file, previous);
+            } else {
+                keyring.copy(this, file);
+            }
+        }
+        return keyring;
+    }
+
+    /**
+     * key files of the keyring, existing or not
+     *
+     * @return `.env.keys` and `.env.keys.json` paths
+     */
+    public List<Path> getFiles() {
+        List<Path> files = new ArrayList<>(2);
+        if (envKeysFile != null) {
+            files.add(envKeysFile);
+        }
+        if (globalKeysFile != null) {
+            files.add(globalKeysFile);
+        }
+        return files;
+    }
+
+    /**
+     * all keys, in file order
+     *
+     * @return entries
+     */
+    public Collection<KeyEntry> getEntries() {
+        return Collections.unmodifiableCollection(entries);
+    }
+
+    /**
+     * key by name in `.env.keys`
+     *
+     * @param name name, e.g. `DOTENV_PRIVATE_KEY_PRODUCTION`
+     * @return entry or null
+     */
+    public KeyEntry findByName(String name) {
+        return byName.get(name);
+    }
+
+    /**
+     * key of a profile in `.env.keys`
+     *
+     * @param profile profile, null for the primary key
+     * @return entry or null
+     */
+    public KeyEntry findByProfile(String profile) {
+        return findByName(profile == null ? PRIVATE_KEY_NAME : PRIVATE_KEY_NAME + "_" + profile.toUpperCase(Locale.ROOT));
+    }
+
+    /**
+     * key by public key; the public keys of `.env.keys` entries are derived on the first miss
+     *
+     * @param publicKey public key, hex for secp256k1, compressed or not, or {@code x25519:} and hex
+     * @return entry or null
+     */
+    public KeyEntry findByPublicKey(String publicKey) {
+        String normalized = normalizePublicKey(publicKey);
+        if (normalized == null) {
+            return null;
+        }
+        KeyEntry entry = byPublicKey.get(normalized);
+        if (entry == null && !publicKeysDerived) {
+            derivePublicKeys();
+            entry = byPublicKey.get(normalized);
+        }
+        return entry;
+    }
+
+    /**
+     * secp256k1 key by key id, see {@link org.mvnsearch.dotenvx.ecies.EciesEnvelope#keyId(byte[])}
+     *
+     * @param keyId key id
+     * @return entry or null
+     */
+    public KeyEntry findByKeyId(int keyId) {
+        Map<Integer, KeyEntry> byKeyId = this.byKeyId;
+        if (byKeyId == null) {
+            byKeyId = new HashMap<>();
+            for (KeyEntry entry : entries) {
+                if (!entry.isX25519()) {
+                    byKeyId.putIfAbsent(entry.getKeyId(), entry);
+                }
+            }
+            this.byKeyId = byKeyId;
+        }
+        return byKeyId.get(keyId);
+    }
+
+    /**
+     * entry of a private key given by value: the shared entry if the key is in a key file, otherwise a new entry that
+     * isn't added to the keyring, so that its contexts are freed with the encryptor or deserializer holding it
+     *
+     * @param privateKey private key, hex for secp256k1 or {@code x25519:} and hex
+     * @return entry
+     * @throws IllegalArgumentException if the key is not valid
+     */
+    public KeyEntry entryOf(String privateKey) {
+        String normalized = normalizePrivateKey(privateKey);
+        if (normalized == null) {
+            throw new IllegalArgumentException("Invalid private key");
+        }
+        KeyEntry entry = byPrivateKey.get(normalized);
+        return entry != null ? entry : new KeyEntry(null, null, normalized, null);
+    }
+
+    private void read(Path file, Map<String, KeyEntry> previous) {
+        if (file == null || !Files.isRegularFile(file)) {
+            return;
+        }
+        try {
+            if (file.equals(envKeysFile)) {
+                readEnvKeys(file, previous);
+            } else {
+                readGlobalKeys(file, previous);
+            }
+        } catch (IOException ignore) {
+            // unreadable, e.g. being written, the next change reads it again
+        }
+    }
+
+    private void copy(Keyring keyring, Path file) {
+        for (KeyEntry entry : keyring.entries) {
+            if (Objects.equals(entry.getSource(), file) && !byPrivateKey.containsKey(entry.getPrivateKey())) {
+                add(entry);
+                if (entry.getName() != null) {
+                    byName.putIfAbsent(entry.getName(), entry);
+                }
+            }
+        }
+    }
+
+    private void readEnvKeys(Path file, Map<String, KeyEntry> previous) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (!line.startsWith(PRIVATE_KEY_NAME)) {
+                    continue;
+                }
+                int equals = line.indexOf('=');
+                if (equals < 0) {
+                    continue;
+                }
+                String name = line.substring(0, equals).trim();
+                String value = unquote(line.substring(equals + 1).trim());
+                String privateKey = normalizePrivateKey(value);
+                if (privateKey != null && !byName.containsKey(name)) {
+                    byName.put(name, entry(file, name, privateKey, null, previous));
+                }
+            }
+        }
+    }
+
+    /**
+     * {@code {"version": .., "keys": {"<public key>": {"private_key": ".."}}}}, or the keys object alone
+     */
+    private void readGlobalKeys(Path file, Map<String, KeyEntry> previous) throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(file.toFile())) {
+            if (parser.nextToken() == JsonToken.START_OBJECT) {
+                readKeysObject(parser, file, previous);
+            }
+        }
+    }
+
+    private void readKeysObject(JsonParser parser, Path file, Map<String, KeyEntry> previous) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+            } else if ("keys".equals(field)) {
+                readKeysObject(parser, file, previous);
+            } else {
+                String privateKey = normalizePrivateKey(readPrivateKey(parser));
+                String publicKey = normalizePublicKey(field);
+                if (privateKey != null && publicKey != null && !byPublicKey.containsKey(publicKey)) {
+                    entry(file, null, privateKey, publicKey, previous);
+                }
+            }
+        }
+    }
+
+    private static String readPrivateKey(JsonParser parser) throws IOException {
+        String privateKey = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken token = parser.nextToken();
+            if ("private_key".equals(field) && token == JsonToken.VALUE_STRING) {
+                privateKey = parser.getText();
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return privateKey;
+    }
+
+    /**
+     * the entry of a private key listed twice, e.g. in both files, is shared; the entry of an unchanged key is reused
+     */
+    private KeyEntry entry(Path file, String name, String privateKey, String publicKey, Map<String, KeyEntry> previous) {
+        KeyEntry entry = byPrivateKey.get(privateKey);
+        if (entry == null) {
+            KeyEntry reused = previous.get(privateKey);
+            if (reused != null && Objects.equals(reused.getName(), name)) {
+                entry = reused;
+            } else {
+                entry = new KeyEntry(file, name, privateKey, publicKey);
+            }
+            return add(entry);
+        }
+        if (publicKey != null) {
+            byPublicKey.putIfAbsent(publicKey, entry);
+        }
+        return entry;
+    }
+
+    private KeyEntry add(KeyEntry entry) {
+        entries.add(entry);
+        byPrivateKey.putIfAbsent(entry.getPrivateKey(), entry);
+        String publicKey = entry.getKnownPublicKey();
+        if (publicKey != null) {
+            byPublicKey.putIfAbsent(publicKey, entry);
+        } else {
+            publicKeysDerived = false;
+        }
+        return entry;
+    }
+
+    private synchronized void derivePublicKeys() {
+        for (KeyEntry entry : entries) {
+            try {
+                byPublicKey.putIfAbsent(entry.getPublicKey(), entry);
+            } catch (RuntimeException ignore) {
+                // invalid key
+            }
+        }
+        publicKeysDerived = true;
+    }
+
+    private static String unquote(String value) {
+        if (value.length() >= 2 && (value.startsWith("\"") || value.startsWith("'"))) {
+            return value.substring(1, value.length() - 1);
+        }
+        return value;
+    }
+
+    static String normalizePrivateKey(String privateKey) {
+        if (privateKey == null) {
+            return null;
+        }
+        if (privateKey.contains("{")) {
+            privateKey = privateKey.substring(0, privateKey.indexOf("{"));
+        }
+        try {
+            if (X25519Ecies.isX25519(privateKey)) {
+                return X25519Ecies.PREFIX + Hex.toHexString(X25519Ecies.decodeKey(privateKey));
+            }
+            return Hex.toHexString(Hex.decode(privateKey.trim()));
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static String normalizePublicKey(String publicKey) {
+        if (publicKey == null) {
+            return null;
+        }
+        try {
+            if (X25519Ecies.isX25519(publicKey)) {
+                return X25519Ecies.PREFIX + Hex.toHexString(X25519Ecies.decodeKey(publicKey));
+            }
+            byte[] bytes = Hex.decode(publicKey.trim());
+            if (bytes.length == 65) {
+                bytes = Secp256k1.PublicKey.decode(bytes).getEncoded(true);
+            }
+            return Hex.toHexString(bytes);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package org.mvnsearch.dotenvx.keyring;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Difference between two keyrings after a key file was reloaded. Entries of unchanged keys are reused by
+ * {@link Keyring#reload(Path)}, so entries are compared by identity: a key whose value or name changed is both removed
+ * and added.
+ *
+ * @author linux_china
+ */
+public final class KeyringChange {
+    private final Path file;
+    private final Keyring previous;
+    private final Keyring current;
+    private final List<KeyEntry> removed;
+    private final List<KeyEntry> added;
+
+    KeyringChange(Path file, Keyring previous, Keyring current) {
+        this.file = file;
+        this.previous = previous;
+        this.current = current;
+        this.removed = difference(previous.getEntries(), current.getEntries());
+        this.added = difference(current.getEntries(), previous.getEntries());
+    }
+
+    /**
+     * changed key file
+     *
+     * @return file
+     */
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * keyring before the reload
+     *
+     * @return keyring
+     */
+    public Keyring getPrevious() {
+        return previous;
+    }
+
+    /**
+     * keyring after the reload, the default keyring at the time of the swap
+     *
+     * @return keyring
+     */
+    public Keyring getCurrent() {
+        return current;
+    }
+
+    /**
+     * keys no longer in the keyring
+     *
+     * @return entries of the previous keyring
+     */
+    public List<KeyEntry> getRemoved() {
+        return removed;
+    }
+
+    /**
+     * keys new in the keyring
+     *
+     * @return entries of the current keyring
+     */
+    public List<KeyEntry> getAdded() {
+        return added;
+    }
+
+    /**
+     * whether the reload left the keys as they were, e.g. a touched or rewritten file
+     *
+     * @return true if no key was removed or added
+     */
+    public boolean isEmpty() {
+        return removed.isEmpty() && added.isEmpty();
+    }
+
+    private static List<KeyEntry> difference(Collection<KeyEntry> entries, Collection<KeyEntry> others) {
+        Map<KeyEntry, Boolean> index = new IdentityHashMap<>();
+        for (KeyEntry other : others) {
+            index.put(other, Boolean.TRUE);
+        }
+        List<KeyEntry> difference = new ArrayList<>();
+        for (KeyEntry entry : entries) {
+            if (!index.containsKey(entry)) {
+                difference.add(entry);
+            }
+        }
+        return Collections.unmodifiableList(difference);
+    }
+}
@@ -0,0 +1,17 @@
+package org.mvnsearch.dotenvx.keyring;
+
+/**
+ * Callback of {@link KeyFileWatcher} after a new default keyring was swapped in.
+ *
+ * @author linux_china
+ */
+@FunctionalInterface
+public interface KeyringListener {
+
+    /**
+     * called on the watcher thread after the swap, once per changed key file
+     *
+     * @param change keys removed and added by the reload
+     */
+    void keyringChanged(KeyringChange change);
+}
@@ -0,0 +1,19 @@
+package org.mvnsearch.dotenvx.keyring;
+
+/**
+ * Loads the key pair of a tenant for {@link TenantKeyRegistry}, e.g. from a database or a secret manager.
+ *
+ * @author linux_china
+ */
+@FunctionalInterface
+public interface TenantKeyLoader {
+
+    /**
+     * load the keys of a tenant, called once per tenant until it is evicted
+     *
+     * @param tenantId tenant or key id
+     * @return keys, null if the tenant is unknown
+     * @throws Exception if the keys can't be loaded
+     */
+    TenantKeys load(String tenantId) throws Exception;
+}
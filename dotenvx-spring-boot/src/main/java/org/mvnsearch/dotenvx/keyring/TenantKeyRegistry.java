@@ -0,0 +1,272 @@
+package org.mvnsearch.dotenvx.keyring;
+
+import org.bouncycastle.crypto.InvalidCipherTextException;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ToIntFunction;
+
+/**
+ * Bounded registry of {@link TenantKeys} by tenant or key id, for applications holding one key pair per tenant.
+ * <p>
+ * Keys are loaded on first use by a {@link TenantKeyLoader}, once per tenant even when many threads ask at the same
+ * time, and kept with their precomputed contexts until the total weight exceeds the maximum; the least recently used
+ * tenants are evicted first. Hits read a {@link ConcurrentHashMap} and only record their access in the LRU order if the
+ * order lock is free, so a contended hit never waits and hot tenants stay on top.
+ * </p>
+ *
+ * @author linux_china
+ */
+public final class TenantKeyRegistry {
+    private final TenantKeyLoader loader;
+    private final long maximumWeight;
+    private final ToIntFunction<TenantKeys> weigher;
+    private final Map<String, Node> nodes = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<TenantKeys>> loading = new ConcurrentHashMap<>();
+    /**
+     * access order of the tenants, guarded by {@link #orderLock}
+     */
+    private final LinkedHashMap<String, Node> order = new LinkedHashMap<>(16, 0.75f, true);
+    private final ReentrantLock orderLock = new ReentrantLock();
+    private long weight;
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder loadFailureCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+
+    /**
+     * registry of at most {@code maximumSize} tenants
+     *
+     * @param loader      key loader
+     * @param maximumSize maximum number of tenants
+     */
+    public TenantKeyRegistry(TenantKeyLoader loader, long maximumSize) {
+        this(loader, maximumSize, keys -> 1);
+    }
+
+    /**
+     * registry with a weight per tenant, e.g. more for tenants with both keys
+     *
+     * @param loader        key loader
+     * @param maximumWeight maximum total weight
+     * @param weigher       weight of the keys of a tenant, at least 1
+     */
+    public TenantKeyRegistry(TenantKeyLoader loader, long maximumWeight, ToIntFunction<TenantKeys> weigher) {
+        if (maximumWeight <= 0) {
+            throw new IllegalArgumentException("Maximum weight must be positive");
+        }
+        this.loader = loader;
+        this.maximumWeight = maximumWeight;
+        this.weigher = weigher;
+    }
+
+    /**
+     * keys of a tenant, loaded if they are not in the registry
+     *
+     * @param tenantId tenant or key id
+     * @return keys, null if the loader doesn't know the tenant
+     * @throws IllegalStateException if the loader fails
+     */
+    public TenantKeys get(String tenantId) {
+        Node node = nodes.get(tenantId);
+        if (node != null) {
+            hitCount.increment();
+            if (orderLock.tryLock()) {
+                try {
+                    order.get(tenantId);
+                } finally {
+                    orderLock.unlock();
+                }
+            }
+            return node.keys;
+        }
+        missCount.increment();
+        return load(tenantId);
+    }
+
+    /**
+     * encrypt a message for a tenant
+     *
+     * @param tenantId tenant or key id
+     * @param message  message
+     * @return base64, prefixed with {@code x25519:} for an X25519 key
+     * @throws IllegalArgumentException if the tenant is unknown
+     */
+    public String encrypt(String tenantId, String message) throws InvalidCipherTextException {
+        return require(tenantId).encrypt(message);
+    }
+
+    /**
+     * decrypt a value of a tenant
+     *
+     * @param tenantId   tenant or key id
+     * @param ciphertext base64, prefixed with {@code x25519:} for an X25519 key
+     * @return message
+     * @throws IllegalArgumentException if the tenant is unknown
+     */
+    public String decrypt(String tenantId, String ciphertext) throws InvalidCipherTextException {
+        return require(tenantId).decrypt(ciphertext);
+    }
+
+    /**
+     * drop the keys of a tenant, e.g. after a key rotation; they are loaded again on next use
+     *
+     * @param tenantId tenant or key id
+     */
+    public void invalidate(String tenantId) {
+        orderLock.lock();
+        try {
+            Node node = nodes.remove(tenantId);
+            if (node != null) {
+                order.remove(tenantId);
+                weight -= node.weight;
+            }
+        } finally {
+            orderLock.unlock();
+        }
+    }
+
+    /**
+     * drop all keys
+     */
+    public void invalidateAll() {
+        orderLock.lock();
+        try {
+            nodes.clear();
+            order.clear();
+            weight = 0;
+        } finally {
+            orderLock.unlock();
+        }
+    }
+
+    /**
+     * number of tenants in the registry
+     *
+     * @return tenants
+     */
+    public int size() {
+        return nodes.size();
+    }
+
+    /**
+     * total weight of the tenants in the registry
+     *
+     * @return weight
+     */
+    public long getWeight() {
+        orderLock.lock();
+        try {
+            return weight;
+        } finally {
+            orderLock.unlock();
+        }
+    }
+
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    public long getLoadFailureCount() {
+        return loadFailureCount.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictionCount.sum();
+    }
+
+    /**
+     * hits of all lookups
+     *
+     * @return rate in [0, 1], 1 without lookups
+     */
+    public double getHitRate() {
+        long hits = hitCount.sum();
+        long lookups = hits + missCount.sum();
+        return lookups == 0 ? 1.0 : (double) hits / lookups;
+    }
+
+    private TenantKeys require(String tenantId) {
+        TenantKeys keys = get(tenantId);
+        if (keys == null) {
+            throw new IllegalArgumentException("Unknown tenant: " + tenantId);
+        }
+        return keys;
+    }
+
+    /**
+     * single-flight load: the first thread loads, the others wait for its result
+     */
+    private TenantKeys load(String tenantId) {
+        CompletableFuture<TenantKeys> future = new CompletableFuture<>();
+        CompletableFuture<TenantKeys> running = loading.putIfAbsent(tenantId, future);
+        if (running != null) {
+            try {
+                return running.join();
+            } catch (CompletionException e) {
+                throw (RuntimeException) e.getCause();
+            }
+        }
+        try {
+            // loaded by another thread between the miss and the flight
+            Node node = nodes.get(tenantId);
+            TenantKeys keys = node != null ? node.keys : loader.load(tenantId);
+            if (keys != null && node == null) {
+                add(tenantId, new Node(keys, Math.max(1, weigher.applyAsInt(keys))));
+            }
+            future.complete(keys);
+            return keys;
+        } catch (Exception e) {
+            loadFailureCount.increment();
+            RuntimeException failure = e instanceof RuntimeException runtimeException ? runtimeException
+                    : new IllegalStateException("Failed to load the keys of tenant " + tenantId, e);
+            future.completeExceptionally(failure);
+            throw failure;
+        } finally {
+            loading.remove(tenantId, future);
+        }
+    }
+
+    private void add(String tenantId, Node node) {
+        orderLock.lock();
+        try {
+            nodes.put(tenantId, node);
+            order.put(tenantId, node);
+            weight += node.weight;
+            Iterator<Map.Entry<String, Node>> eldest = order.entrySet().iterator();
+            while (weight > maximumWeight && eldest.hasNext()) {
+                Map.Entry<String, Node> entry = eldest.next();
+                if (entry.getValue() == node) {
+                    // a tenant heavier than the registry is kept until the next load
+                    break;
+                }
+                eldest.remove();
+                nodes.remove(entry.getKey());
+                weight -= entry.getValue().weight;
+                evictionCount.increment();
+            }
+        } finally {
+            orderLock.unlock();
+        }
+    }
+
+    private static final class Node {
+        private final TenantKeys keys;
+        private final int weight;
+
+        private Node(TenantKeys keys, int weight) {
+            this.keys = keys;
+            this.weight = weight;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package org.mvnsearch.dotenvx.keyring;
+
+import org.bouncycastle.crypto.InvalidCipherTextException;
+import org.mvnsearch.dotenvx.ecies.EciesEncryptor;
+import org.mvnsearch.dotenvx.ecies.X25519Ecies;
+import org.mvnsearch.dotenvx.ecies.X25519Encryptor;
+
+/**
+ * Prepared encryption and decryption contexts of one tenant's key pair, see {@link TenantKeyRegistry}. Values use the
+ * formats of {@link org.mvnsearch.dotenvx.ecies.Ecies#encrypt(String, String)} and
+ * {@link org.mvnsearch.dotenvx.ecies.Ecies#decrypt(String, String)}. Instances are thread-safe.
+ *
+ * @author linux_china
+ */
+public final class TenantKeys {
+    private final String publicKey;
+    private final KeyEntry entry;
+    private final EciesEncryptor encryptor;
+    private final X25519Encryptor x25519Encryptor;
+
+    /**
+     * build the contexts of a key pair; either key may be missing, the public key is derived from the private key
+     *
+     * @param publicKey  public key, hex for secp256k1 or {@code x25519:} and hex, may be null
+     * @param privateKey private key, hex for secp256k1 or {@code x25519:} and hex, may be null
+     * @throws IllegalArgumentException if both keys are missing or a key is not valid
+     */
+    public TenantKeys(String publicKey, String privateKey) {
+        if (privateKey != null) {
+            String normalized = Keyring.normalizePrivateKey(privateKey);
+            if (normalized == null) {
+                throw new IllegalArgumentException("Invalid private key");
+            }
+            this.entry = new KeyEntry(null, null, normalized, publicKey);
+            if (publicKey == null) {
+                publicKey = entry.getPublicKey();
+            }
+        } else if (publicKey != null) {
+            this.entry = null;
+        } else {
+            throw new IllegalArgumentException("Public or private key required");
+        }
+        this.publicKey = publicKey;
+        if (X25519Ecies.isX25519(publicKey)) {
+            this.encryptor = null;
+            this.x25519Encryptor = X25519Encryptor.fromText(publicKey);
+        } else {
+            this.encryptor = EciesEncryptor.fromHex(publicKey);
+            this.x25519Encryptor = null;
+        }
+        // precompute the decryption context, so that the first decryption of a loaded tenant is as fast as the next
+        if (entry != null) {
+            if (entry.isX25519()) {
+                entry.getX25519Decryptor();
+            } else {
+                entry.getDecryptor();
+            }
+        }
+    }
+
+    public String getPublicKey() {
+        return publicKey;
+    }
+
+    /**
+     * whether the tenant's values can be decrypted
+     *
+     * @return true with a private key
+     */
+    public boolean canDecrypt() {
+        return entry != null;
+    }
+
+    /**
+     * encrypt a message for the tenant
+     *
+     * @param message message
+     * @return base64, prefixed with {@code x25519:} for an X25519 key
+     */
+    public String encrypt(String message) throws InvalidCipherTextException {
+        return encryptor != null ? encryptor.encrypt(message) : x25519Encryptor.encrypt(message);
+    }
+
+    /**
+     * decrypt a value of the tenant
+     *
+     * @param ciphertext base64, prefixed with {@code x25519:} for an X25519 key
+     * @return message
+     * @throws IllegalStateException without a private key
+     */
+    public String decrypt(String ciphertext) throws InvalidCipherTextException {
+        if (entry == null) {
+            throw new IllegalStateException("No private key");
+        }
+        return entry.isX25519() ? entry.getX25519Decryptor().decrypt(ciphertext) : entry.getDecryptor().decrypt(ciphertext);
+    }
+}
@@ -27,4 +27,16 @@ public interface EncryptablePropertyDetector {
      * @return the encrypted portion of the property value.
      */
     String unwrapEncryptedValue(String property);
+
+    /**
+     * Returns where the encrypted value starts in a property made of optional leading whitespace, a prefix and the
+     * encrypted value, so that it can be read in place instead of trimmed and unwrapped. Detectors of other formats,
+     * e.g. with suffixes, return -1 and are unwrapped with {@link #unwrapEncryptedValue(String)}.
+     *
+     * @param property the property value
+     * @return offset of the encrypted value, -1 if the property isn't encrypted or not in this format
+     */
+    default int payloadOffset(String property) {
+        return -1;
+    }
 }
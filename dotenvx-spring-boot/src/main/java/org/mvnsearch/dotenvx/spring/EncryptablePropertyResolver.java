@@ -1,5 +1,9 @@
 package org.mvnsearch.dotenvx.spring;
 
+import org.springframework.core.env.PropertySource;
+
+import java.util.Set;
+
 /**
  * An interface to resolve property values that may be encrypted.
  *
@@ -16,4 +20,38 @@ public interface EncryptablePropertyResolver {
      * @return either the same value if the value is not encrypted, or the decrypted version.
      */
     String resolvePropertyValue(String value);
+
+    /**
+     * Same as {@link #resolvePropertyValue(String)} for a value read from a property source, so that the encryptor
+     * can try the key of the source's previous values first.
+     *
+     * @param value  the property value
+     * @param source the property source the value was read from
+     * @return either the same value if the value is not encrypted, or the decrypted version.
+     */
+    default String resolvePropertyValue(String value, PropertySource<?> source) {
+        return resolvePropertyValue(value);
+    }
+
+    /**
+     * Whether {@link #resolvePropertyValue(String)} returns the value itself, whatever the other properties are, so
+     * that property sources can skip resolving it on every read. False by default.
+     *
+     * @param value the property value
+     * @return true for values neither encrypted nor containing placeholders
+     */
+    default boolean isPlain(String value) {
+        return false;
+    }
+
+    /**
+     * Keys of the placeholders of a value, whose changes change its resolved value. Property sources record the
+     * properties read while resolving a value as well, so resolvers may return an empty set.
+     *
+     * @param value the property value
+     * @return keys, empty by default
+     */
+    default Set<String> getPlaceholderKeys(String value) {
+        return Set.of();
+    }
 }
@@ -4,6 +4,8 @@ import org.springframework.boot.origin.Origin;
 import org.springframework.boot.origin.OriginLookup;
 import org.springframework.core.env.PropertySource;
 
+import java.util.Set;
+
 /**
  * <p>EncryptablePropertySource interface.</p>
  *
@@ -40,6 +42,17 @@ public interface EncryptablePropertySource<T> extends OriginLookup<String> {
         }
     }
 
+    /**
+     * Refresh the cached values of changed properties, and of the values depending on them.
+     *
+     * @param changedKeys names of the changed properties
+     */
+    default void refresh(Set<String> changedKeys) {
+        if (getDelegate() instanceof EncryptablePropertySource) {
+            ((EncryptablePropertySource<?>) getDelegate()).refresh(changedKeys);
+        }
+    }
+
     /**
      * <p>getProperty.</p>
      *
@@ -53,7 +66,7 @@ public interface EncryptablePropertySource<T> extends OriginLookup<String> {
         Object value = source.getProperty(name);
         if (value != null && filter.shouldInclude(source, name) && value instanceof String) {
             String stringValue = String.valueOf(value);
-            return resolver.resolvePropertyValue(stringValue);
+            return resolver.resolvePropertyValue(stringValue, source);
         }
         return value;
     }
@@ -2,15 +2,18 @@ package org.mvnsearch.dotenvx.spring;
 
 import org.mvnsearch.dotenvx.spring.aop.EncryptableMutablePropertySourcesInterceptor;
 import org.mvnsearch.dotenvx.spring.aop.EncryptablePropertySourceMethodInterceptor;
+import org.mvnsearch.dotenvx.spring.caching.CachePolicy;
 import org.mvnsearch.dotenvx.spring.configuration.EnvCopy;
 import org.mvnsearch.dotenvx.spring.wrapper.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.aop.framework.ProxyFactory;
 import org.springframework.aop.support.AopUtils;
+import org.springframework.boot.origin.OriginLookup;
 import org.springframework.core.env.*;
 
 import java.lang.reflect.Modifier;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Stream;
@@ -28,12 +31,21 @@ public class EncryptablePropertySourceConverter {
 
     private static final List<String> DEFAULT_SKIP_PROPERTY_SOURCE_CLASSES = Arrays.asList(
             "org.springframework.core.env.PropertySource$StubPropertySource",
-            "org.springframework.boot.context.properties.source.ConfigurationPropertySourcesPropertySource"
+            "org.springframework.boot.context.properties.source.ConfigurationPropertySourcesPropertySource",
+            // random values are generated, never encrypted
+            "org.springframework.boot.env.RandomValuePropertySource",
+            "org.mvnsearch.dotenvx.spring.provider.DotenvxKeyProviders$KeyProvidersPropertySource"
     );
+    /**
+     * sources with more names are scanned in parallel
+     */
+    private static final int PARALLEL_SCAN_THRESHOLD = 512;
     private final InterceptionMode interceptionMode;
     private final List<Class<PropertySource<?>>> skipPropertySourceClasses;
     private final EncryptablePropertyResolver propertyResolver;
     private final EncryptablePropertyFilter propertyFilter;
+    private final CachePolicy cachePolicy;
+    private final boolean skipUnencryptedSources;
 
     /**
      * <p>Constructor for EncryptablePropertySourceConverter.</p>
@@ -44,6 +56,35 @@ public class EncryptablePropertySourceConverter {
      * @param propertyFilter            a {@link EncryptablePropertyFilter} object
      */
     public EncryptablePropertySourceConverter(InterceptionMode interceptionMode, List<Class<PropertySource<?>>> skipPropertySourceClasses, EncryptablePropertyResolver propertyResolver, EncryptablePropertyFilter propertyFilter) {
+        this(interceptionMode, skipPropertySourceClasses, propertyResolver, propertyFilter, CachePolicy.UNBOUNDED);
+    }
+
+    /**
+     * <p>Constructor for EncryptablePropertySourceConverter.</p>
+     *
+     * @param interceptionMode          a {@link InterceptionMode} object
+     * @param skipPropertySourceClasses a {@link java.util.List} object
+     * @param propertyResolver          a {@link EncryptablePropertyResolver} object
+     * @param propertyFilter            a {@link EncryptablePropertyFilter} object
+     * @param cachePolicy               bounds and expiry of the decrypted values of each property source
+     */
+    public EncryptablePropertySourceConverter(InterceptionMode interceptionMode, List<Class<PropertySource<?>>> skipPropertySourceClasses, EncryptablePropertyResolver propertyResolver, EncryptablePropertyFilter propertyFilter, CachePolicy cachePolicy) {
+        this(interceptionMode, skipPropertySourceClasses, propertyResolver, propertyFilter, cachePolicy, false);
+    }
+
+    /**
+     * <p>Constructor for EncryptablePropertySourceConverter.</p>
+     *
+     * @param interceptionMode          a {@link InterceptionMode} object
+     * @param skipPropertySourceClasses a {@link java.util.List} object
+     * @param propertyResolver          a {@link EncryptablePropertyResolver} object
+     * @param propertyFilter            a {@link EncryptablePropertyFilter} object
+     * @param cachePolicy               bounds and expiry of the decrypted values of each property source
+     * @param skipUnencryptedSources    leave unchanging property sources without encrypted values unwrapped
+     */
+    public EncryptablePropertySourceConverter(InterceptionMode interceptionMode, List<Class<PropertySource<?>>> skipPropertySourceClasses, EncryptablePropertyResolver propertyResolver, EncryptablePropertyFilter propertyFilter, CachePolicy cachePolicy, boolean skipUnencryptedSources) {
+        this.cachePolicy = cachePolicy;
+        this.skipUnencryptedSources = skipUnencryptedSources;
         this.interceptionMode = interceptionMode;
         this.skipPropertySourceClasses = Stream.concat(skipPropertySourceClasses.stream(), defaultSkipPropertySourceClasses().stream()).collect(toList());
         this.propertyResolver = propertyResolver;
@@ -79,11 +120,20 @@ public class EncryptablePropertySourceConverter {
      * @param propSources a {@link org.springframework.core.env.MutablePropertySources} object
      */
     public void convertPropertySources(MutablePropertySources propSources) {
-        propSources.stream()
+        List<PropertySource<?>> propertySources = propSources.stream()
                 .filter(ps -> !(ps instanceof EncryptablePropertySource))
-                .map(this::makeEncryptable)
-                .toList()
-                .forEach(ps -> propSources.replace(ps.getName(), ps));
+                .toList();
+        List<PropertySource<?>> encryptablePropertySources = new ArrayList<>(propertySources.size());
+        for (PropertySource<?> propertySource : propertySources) {
+            if (!isUnencrypted(propertySource)) {
+                encryptablePropertySources.add(convert(propertySource));
+            }
+        }
+        encryptablePropertySources.forEach(ps -> propSources.replace(ps.getName(), ps));
+        int skipped = propertySources.size() - encryptablePropertySources.size();
+        if (skipped > 0) {
+            log.info("Skipped {} of {} PropertySources without encrypted values", skipped, propertySources.size());
+        }
     }
 
     /**
@@ -94,6 +144,14 @@ public class EncryptablePropertySourceConverter {
      * @return a {@link org.springframework.core.env.PropertySource} object
      */
     public <T> PropertySource<T> makeEncryptable(PropertySource<T> propertySource) {
+        if (!(propertySource instanceof EncryptablePropertySource) && isUnencrypted(propertySource)) {
+            log.info("Skipping PropertySource {} [{}] without encrypted values", propertySource.getName(), propertySource.getClass().getName());
+            return propertySource;
+        }
+        return convert(propertySource);
+    }
+
+    private <T> PropertySource<T> convert(PropertySource<T> propertySource) {
         if (propertySource instanceof EncryptablePropertySource || skipPropertySourceClasses.stream().anyMatch(skipClass -> skipClass.equals(propertySource.getClass()))) {
             if (!(propertySource instanceof EncryptablePropertySource)) {
                 log.info("Skipping PropertySource {} [{}", propertySource.getName(), propertySource.getClass());
@@ -137,6 +195,29 @@ public class EncryptablePropertySourceConverter {
                 new EncryptableMutablePropertySourcesWrapper(originalPropertySources, this, envCopy);
     }
 
+    /**
+     * Whether a property source can be left unwrapped: its values are scanned once, and only sources whose contents
+     * don't change, the application's config files and the system environment, are scanned.
+     * Values with placeholders are resolved by the wrapper, so they count as encrypted.
+     */
+    private boolean isUnencrypted(PropertySource<?> propertySource) {
+        if (!skipUnencryptedSources || !(propertySource instanceof EnumerablePropertySource<?> enumerable) || !isUnchanging(propertySource)) {
+            return false;
+        }
+        String[] names = enumerable.getPropertyNames();
+        Stream<String> stream = names.length >= PARALLEL_SCAN_THRESHOLD ? Arrays.stream(names).parallel() : Arrays.stream(names);
+        return stream.noneMatch(name -> enumerable.getProperty(name) instanceof String value && !propertyResolver.isPlain(value));
+    }
+
+    /**
+     * Sources whose values only change when they are replaced. System properties may be set at any time, e.g. to an
+     * encrypted value, so they are always wrapped.
+     */
+    private static boolean isUnchanging(PropertySource<?> propertySource) {
+        return propertySource.getSource() == System.getenv()
+                || (propertySource instanceof OriginLookup<?> originLookup && originLookup.isImmutable());
+    }
+
     private <T> PropertySource<T> convertPropertySource(PropertySource<T> propertySource) {
         return interceptionMode == InterceptionMode.PROXY
                 ? proxyPropertySource(propertySource) : instantiatePropertySource(propertySource);
@@ -156,7 +237,7 @@ public class EncryptablePropertySourceConverter {
         proxyFactory.setProxyTargetClass(true);
         proxyFactory.addInterface(EncryptablePropertySource.class);
         proxyFactory.setTarget(propertySource);
-        proxyFactory.addAdvice(new EncryptablePropertySourceMethodInterceptor<>(propertySource, propertyResolver, propertyFilter));
+        proxyFactory.addAdvice(new EncryptablePropertySourceMethodInterceptor<>(propertySource, propertyResolver, propertyFilter, cachePolicy));
         return (PropertySource<T>) proxyFactory.getProxy();
     }
 
@@ -166,13 +247,13 @@ public class EncryptablePropertySourceConverter {
         if (needsProxyAnyway(propertySource)) {
             encryptablePropertySource = proxyPropertySource(propertySource);
         } else if (propertySource instanceof SystemEnvironmentPropertySource) {
-            encryptablePropertySource = (PropertySource<T>) new EncryptableSystemEnvironmentPropertySourceWrapper((SystemEnvironmentPropertySource) propertySource, propertyResolver, propertyFilter);
+            encryptablePropertySource = (PropertySource<T>) new EncryptableSystemEnvironmentPropertySourceWrapper((SystemEnvironmentPropertySource) propertySource, propertyResolver, propertyFilter, cachePolicy);
         } else if (propertySource instanceof MapPropertySource) {
-            encryptablePropertySource = (PropertySource<T>) new EncryptableMapPropertySourceWrapper((MapPropertySource) propertySource, propertyResolver, propertyFilter);
+            encryptablePropertySource = (PropertySource<T>) new EncryptableMapPropertySourceWrapper((MapPropertySource) propertySource, propertyResolver, propertyFilter, cachePolicy);
         } else if (propertySource instanceof EnumerablePropertySource) {
-            encryptablePropertySource = new EncryptableEnumerablePropertySourceWrapper<>((EnumerablePropertySource) propertySource, propertyResolver, propertyFilter);
+            encryptablePropertySource = new EncryptableEnumerablePropertySourceWrapper<>((EnumerablePropertySource) propertySource, propertyResolver, propertyFilter, cachePolicy);
         } else {
-            encryptablePropertySource = new EncryptablePropertySourceWrapper<>(propertySource, propertyResolver, propertyFilter);
+            encryptablePropertySource = new EncryptablePropertySourceWrapper<>(propertySource, propertyResolver, propertyFilter, cachePolicy);
         }
         return encryptablePropertySource;
     }
@@ -4,10 +4,13 @@ import org.aopalliance.intercept.MethodInterceptor;
 import org.aopalliance.intercept.MethodInvocation;
 import org.mvnsearch.dotenvx.spring.EncryptablePropertyFilter;
 import org.mvnsearch.dotenvx.spring.EncryptablePropertyResolver;
+import org.mvnsearch.dotenvx.spring.caching.CachePolicy;
 import org.mvnsearch.dotenvx.spring.caching.CachingDelegateEncryptablePropertySource;
 import org.springframework.core.env.PropertySource;
 import org.springframework.lang.NonNull;
 
+import java.util.Set;
+
 /**
  * <p>EncryptablePropertySourceMethodInterceptor class.</p>
  *
@@ -27,13 +30,30 @@ public class EncryptablePropertySourceMethodInterceptor<T> extends CachingDelega
         super(delegate, resolver, filter);
     }
 
+    /**
+     * <p>Constructor for EncryptablePropertySourceMethodInterceptor.</p>
+     *
+     * @param delegate    a {@link org.springframework.core.env.PropertySource} object
+     * @param resolver    a {@link EncryptablePropertyResolver} object
+     * @param filter      a {@link EncryptablePropertyFilter} object
+     * @param cachePolicy bounds and expiry of the decrypted values
+     */
+    public EncryptablePropertySourceMethodInterceptor(PropertySource<T> delegate, EncryptablePropertyResolver resolver, EncryptablePropertyFilter filter, CachePolicy cachePolicy) {
+        super(delegate, resolver, filter, cachePolicy);
+    }
+
     /**
      * {@inheritDoc}
      */
     @Override
+    @SuppressWarnings("unchecked")
     public Object invoke(@NonNull MethodInvocation invocation) throws Throwable {
         if (isRefreshCall(invocation)) {
-            refresh();
+            if (invocation.getArguments().length == 1 && invocation.getArguments()[0] instanceof Set<?> changedKeys) {
+                refresh((Set<String>) changedKeys);
+            } else {
+                refresh();
+            }
             return null;
         }
         if (isGetDelegateCall(invocation)) {
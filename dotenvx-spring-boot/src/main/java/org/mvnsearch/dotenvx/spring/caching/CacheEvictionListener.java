@@ -0,0 +1,43 @@
+package org.mvnsearch.dotenvx.spring.caching;
+
+/**
+ * Told about the decrypted values removed from a {@link PropertyValueCache}, e.g. to wipe the mutable secret holders,
+ * such as {@code char[]} passwords, that the application derived from them. Listeners are listed in
+ * `META-INF/spring.factories` under this interface name, and called outside of the cache locks.
+ *
+ * @author linux_china
+ */
+@FunctionalInterface
+public interface CacheEvictionListener {
+
+    /**
+     * why a value left the cache
+     */
+    enum Cause {
+        /**
+         * maximum size or weight reached
+         */
+        SIZE,
+        /**
+         * expired after access or after write
+         */
+        EXPIRED,
+        /**
+         * encrypted value of the property changed
+         */
+        REPLACED,
+        /**
+         * property source refreshed
+         */
+        EXPLICIT
+    }
+
+    /**
+     * a decrypted value was removed
+     *
+     * @param name  property name
+     * @param value decrypted value
+     * @param cause cause
+     */
+    void evicted(String name, String value, Cause cause);
+}
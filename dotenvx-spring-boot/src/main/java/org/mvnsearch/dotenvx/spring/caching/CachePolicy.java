@@ -0,0 +1,151 @@
+package org.mvnsearch.dotenvx.spring.caching;
+
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.core.env.Environment;
+import org.springframework.core.io.support.SpringFactoriesLoader;
+import org.springframework.lang.Nullable;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bounds of the decrypted values cached by each property source: maximum number of entries, maximum weight in
+ * characters of decrypted values, expiry after access or after write, and eviction listeners. Without bounds, values
+ * are kept until the property source is refreshed. Instances are immutable.
+ *
+ * @author linux_china
+ */
+public final class CachePolicy {
+    /**
+     * no bounds, no expiry
+     */
+    public static final CachePolicy UNBOUNDED = new CachePolicy(0, 0, 0, 0, List.of());
+    private final long maximumSize;
+    private final long maximumWeight;
+    private final long expireAfterAccessNanos;
+    private final long expireAfterWriteNanos;
+    private final List<CacheEvictionListener> listeners;
+
+    private CachePolicy(long maximumSize, long maximumWeight, long expireAfterAccessNanos, long expireAfterWriteNanos,
+                        List<CacheEvictionListener> listeners) {
+        this.maximumSize = maximumSize;
+        this.maximumWeight = maximumWeight;
+        this.expireAfterAccessNanos = expireAfterAccessNanos;
+        this.expireAfterWriteNanos = expireAfterWriteNanos;
+        this.listeners = listeners;
+    }
+
+    /**
+     * policy from `dotenvx.cache.*` properties, with the eviction listeners of `META-INF/spring.factories`
+     *
+     * @param environment environment
+     * @return policy
+     */
+    public static CachePolicy from(Environment environment) {
+        return new CachePolicy(
+                environment.getProperty("dotenvx.cache.maximum-size", Long.class, 0L),
+                environment.getProperty("dotenvx.cache.maximum-weight", Long.class, 0L),
+                nanos(environment.getProperty("dotenvx.cache.expire-after-access")),
+                nanos(environment.getProperty("dotenvx.cache.expire-after-write")),
+                SpringFactoriesLoader.loadFactories(CacheEvictionListener.class, CachePolicy.class.getClassLoader()));
+    }
+
+    /**
+     * @param maximumSize maximum number of values per property source, 0 for no limit
+     * @return new policy
+     */
+    public CachePolicy withMaximumSize(long maximumSize) {
+        return new CachePolicy(maximumSize, maximumWeight, expireAfterAccessNanos, expireAfterWriteNanos, listeners);
+    }
+
+    /**
+     * @param maximumWeight maximum total length of the values per property source, 0 for no limit
+     * @return new policy
+     */
+    public CachePolicy withMaximumWeight(long maximumWeight) {
+        return new CachePolicy(maximumSize, maximumWeight, expireAfterAccessNanos, expireAfterWriteNanos, listeners);
+    }
+
+    /**
+     * @param duration values not read for this long are removed, null for no expiry
+     * @return new policy
+     */
+    public CachePolicy withExpireAfterAccess(@Nullable Duration duration) {
+        return new CachePolicy(maximumSize, maximumWeight, nanos(duration), expireAfterWriteNanos, listeners);
+    }
+
+    /**
+     * @param duration values decrypted this long ago are removed, null for no expiry
+     * @return new policy
+     */
+    public CachePolicy withExpireAfterWrite(@Nullable Duration duration) {
+        return new CachePolicy(maximumSize, maximumWeight, expireAfterAccessNanos, nanos(duration), listeners);
+    }
+
+    /**
+     * @param listener additional eviction listener
+     * @return new policy
+     */
+    public CachePolicy withEvictionListener(CacheEvictionListener listener) {
+        List<CacheEvictionListener> all = new ArrayList<>(listeners);
+        all.add(listener);
+        return new CachePolicy(maximumSize, maximumWeight, expireAfterAccessNanos, expireAfterWriteNanos, List.copyOf(all));
+    }
+
+    public long getMaximumSize() {
+        return maximumSize;
+    }
+
+    public long getMaximumWeight() {
+        return maximumWeight;
+    }
+
+    boolean isBounded() {
+        return maximumSize > 0 || maximumWeight > 0;
+    }
+
+    boolean isOverflowing(long size, long weight) {
+        return (maximumSize > 0 && size > maximumSize) || (maximumWeight > 0 && weight > maximumWeight);
+    }
+
+    boolean expires() {
+        return expireAfterAccessNanos > 0 || expireAfterWriteNanos > 0;
+    }
+
+    boolean expiresAfterAccess() {
+        return expireAfterAccessNanos > 0;
+    }
+
+    boolean isExpired(long writtenNanos, long accessedNanos, long nowNanos) {
+        return (expireAfterWriteNanos > 0 && nowNanos - writtenNanos >= expireAfterWriteNanos)
+                || (expireAfterAccessNanos > 0 && nowNanos - accessedNanos >= expireAfterAccessNanos);
+    }
+
+    /**
+     * interval of the background expiry: a quarter of the shortest expiry, between 100ms and one minute
+     */
+    long sweepIntervalNanos() {
+        long shortest = Math.min(expireAfterAccessNanos > 0 ? expireAfterAccessNanos : Long.MAX_VALUE,
+                expireAfterWriteNanos > 0 ? expireAfterWriteNanos : Long.MAX_VALUE);
+        return Math.max(Duration.ofMillis(100).toNanos(), Math.min(Duration.ofMinutes(1).toNanos(), shortest / 4));
+    }
+
+    void evicted(String name, String value, CacheEvictionListener.Cause cause) {
+        for (CacheEvictionListener listener : listeners) {
+            listener.evicted(name, value, cause);
+        }
+    }
+
+    boolean hasListeners() {
+        return !listeners.isEmpty();
+    }
+
+    private static long nanos(@Nullable String duration) {
+        return duration == null || duration.isEmpty() ? 0 : nanos(DurationStyle.detectAndParse(duration));
+    }
+
+    private static long nanos(@Nullable Duration duration) {
+        return duration == null ? 0 : duration.toNanos();
+    }
+}
@@ -9,10 +9,16 @@ import org.springframework.core.env.PropertySource;
 import org.springframework.lang.NonNull;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
+import org.springframework.util.SystemPropertyUtils;
 
+import java.util.HashSet;
 import java.util.Map;
-import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * <p>CachingDelegateEncryptablePropertySource class.</p>
@@ -22,10 +28,32 @@ import java.util.concurrent.ConcurrentHashMap;
  */
 public class CachingDelegateEncryptablePropertySource<T> extends PropertySource<T> implements EncryptablePropertySource<T> {
     private static final Logger log = LoggerFactory.getLogger(CachingDelegateEncryptablePropertySource.class);
+    /**
+     * names of the properties read on this thread while a value with placeholders is resolved, its dependencies
+     */
+    private static final ThreadLocal<Set<String>> DEPENDENCIES = new ThreadLocal<>();
+    /**
+     * number of flights owned by this thread, in any property source: a thread inside a flight never waits for the
+     * flight of another thread, which may be waiting for its own
+     */
+    private static final ThreadLocal<int[]> OWNED_FLIGHTS = ThreadLocal.withInitial(() -> new int[1]);
     private final PropertySource<T> delegate;
     private final EncryptablePropertyResolver resolver;
     private final EncryptablePropertyFilter filter;
-    private final Map<String, CachedValue> cache;
+    private final PropertyValueCache cache;
+    /**
+     * how reads of a property are served, decided once per property value until {@link #refresh()}
+     */
+    private final Map<String, Classification> classifications = new ConcurrentHashMap<>();
+    /**
+     * decryptions in flight by property name, joined by the concurrent readers of the same encrypted value
+     */
+    private final Map<String, Flight> flights = new ConcurrentHashMap<>();
+    /**
+     * incremented by {@link #refresh()}, so that decryptions started before it aren't cached after it
+     */
+    private final AtomicLong generation = new AtomicLong();
+    private final LongAdder joinedCount = new LongAdder();
 
     /**
      * <p>Constructor for CachingDelegateEncryptablePropertySource.</p>
@@ -35,6 +63,18 @@ public class CachingDelegateEncryptablePropertySource<T> extends PropertySource<
      * @param filter   a {@link EncryptablePropertyFilter} object
      */
     public CachingDelegateEncryptablePropertySource(PropertySource<T> delegate, EncryptablePropertyResolver resolver, EncryptablePropertyFilter filter) {
+        this(delegate, resolver, filter, CachePolicy.UNBOUNDED);
+    }
+
+    /**
+     * <p>Constructor for CachingDelegateEncryptablePropertySource.</p>
+     *
+     * @param delegate    a {@link org.springframework.core.env.PropertySource} object
+     * @param resolver    a {@link EncryptablePropertyResolver} object
+     * @param filter      a {@link EncryptablePropertyFilter} object
+     * @param cachePolicy bounds and expiry of the decrypted values
+     */
+    public CachingDelegateEncryptablePropertySource(PropertySource<T> delegate, EncryptablePropertyResolver resolver, EncryptablePropertyFilter filter, CachePolicy cachePolicy) {
         super(delegate.getName(), delegate.getSource());
         //todo use this for decrypt
         Assert.notNull(delegate, "PropertySource delegate cannot be null");
@@ -43,7 +83,7 @@ public class CachingDelegateEncryptablePropertySource<T> extends PropertySource<
         this.delegate = delegate;
         this.resolver = resolver;
         this.filter = filter;
-        this.cache = new ConcurrentHashMap<>();
+        this.cache = new PropertyValueCache(cachePolicy);
     }
 
     /**
@@ -62,6 +102,10 @@ public class CachingDelegateEncryptablePropertySource<T> extends PropertySource<
     public Object getProperty(@NonNull String name) {
         //The purpose of this cache is to reduce the cost of decryption,
         // so it's not a bad idea to read the original property every time, it's generally fast.
+        Set<String> dependencies = DEPENDENCIES.get();
+        if (dependencies != null) {
+            dependencies.add(name);
+        }
         Object originValue = delegate.getProperty(name);
         if (!(originValue instanceof String originStringValue)) {
             //Because we read the original property every time, if it isn't a String,
@@ -69,27 +113,146 @@ public class CachingDelegateEncryptablePropertySource<T> extends PropertySource<
             return originValue;
         }
 
-        CachedValue cachedValue = cache.get(name);
-        if (cachedValue != null && Objects.equals(originValue, cachedValue.originValue)) {
-            // If the original property has not changed, it is safe to return the cached result.
-            return cachedValue.resolvedValue;
+        Classification classification = classifications.get(name);
+        if (classification == null || !classification.matches(originStringValue)) {
+            classification = classify(name, originStringValue);
+        }
+        if (classification.kind != Kind.ENCRYPTED) {
+            // plain values resolve to themselves, excluded ones aren't resolved
+            return originValue;
+        }
+
+        // If the original property has not changed, it is safe to return the cached result.
+        String cachedValue = cache.get(name, originStringValue);
+        if (cachedValue != null) {
+            if (dependencies != null) {
+                dependencies.addAll(cache.getDependencies(name));
+            }
+            return cachedValue;
         }
+        //return the result calculated this time
+        return resolve(name, originStringValue);
+    }
 
-        //originValue must be String here
-        if (filter.shouldInclude(delegate, name)) {
-            String resolved = resolver.resolvePropertyValue(originStringValue);
-            CachedValue newCachedValue = new CachedValue(originStringValue, resolved);
-            //If the mapping relationship in the cache changes during
-            // the calculation process, then ignore it directly.
-            if (cachedValue == null) {
-                cache.putIfAbsent(name, newCachedValue);
-            } else {
-                cache.replace(name, cachedValue, newCachedValue);
+    private Classification classify(String name, String originValue) {
+        Kind kind;
+        if (!filter.shouldInclude(delegate, name)) {
+            kind = Kind.EXCLUDED;
+        } else if (resolver.isPlain(originValue)) {
+            kind = Kind.PLAIN;
+        } else {
+            kind = Kind.ENCRYPTED;
+        }
+        Classification classification = new Classification(originValue, kind);
+        classifications.put(name, classification);
+        return classification;
+    }
+
+    /**
+     * single-flight decryption: the first thread missing a value decrypts it, the concurrent readers of the same
+     * encrypted value wait for its result
+     */
+    @Nullable
+    private String resolve(String name, String originValue) {
+        Flight flight = new Flight(originValue);
+        Flight running = flights.putIfAbsent(name, flight);
+        if (running != null) {
+            if (running.owner == Thread.currentThread()) {
+                // the value refers to itself through its placeholders, joining its own flight would never return
+                throw new IllegalArgumentException("Circular placeholder reference '" + name + "' in property source " + delegate.getName());
+            }
+            if (running.originValue.equals(originValue) && OWNED_FLIGHTS.get()[0] == 0) {
+                joinedCount.increment();
+                try {
+                    String resolved = running.future.join();
+                    Set<String> dependencies = DEPENDENCIES.get();
+                    if (dependencies != null) {
+                        dependencies.addAll(cache.getDependencies(name));
+                    }
+                    return resolved;
+                } catch (CompletionException e) {
+                    if (e.getCause() instanceof Error error) {
+                        throw error;
+                    }
+                    throw (RuntimeException) e.getCause();
+                }
+            }
+            // the encrypted value changed while the old one was decrypted, or this thread resolves it inline from
+            // its own flight, where a circular reference fails on the flight of this thread instead of deadlocking
+            return resolver.resolvePropertyValue(originValue, delegate);
+        }
+        int[] ownedFlights = OWNED_FLIGHTS.get();
+        ownedFlights[0]++;
+        try {
+            long startGeneration = generation.get();
+            // cached by another flight between the miss and this one
+            String resolved = cache.get(name, originValue);
+            if (resolved == null) {
+                Set<String> dependencies = placeholderDependencies(originValue);
+                resolved = resolveRecording(originValue, dependencies);
+                if (resolved != null && startGeneration == generation.get()) {
+                    cache.put(name, originValue, resolved, dependencies == null ? Set.of() : Set.copyOf(dependencies));
+                }
             }
-            //return the result calculated this time
+            flight.future.complete(resolved);
             return resolved;
+        } catch (RuntimeException | Error e) {
+            flight.future.completeExceptionally(e);
+            throw e;
+        } finally {
+            ownedFlights[0]--;
+            flights.remove(name, flight);
         }
-        return originValue;
+    }
+
+    /**
+     * keys of the placeholders of a value, null for values without placeholders
+     */
+    @Nullable
+    private Set<String> placeholderDependencies(String originValue) {
+        Set<String> keys = resolver.getPlaceholderKeys(originValue);
+        if (keys.isEmpty() && !originValue.contains(SystemPropertyUtils.PLACEHOLDER_PREFIX)) {
+            return null;
+        }
+        return new HashSet<>(keys);
+    }
+
+    /**
+     * resolve a value, recording the properties read meanwhile as its dependencies, and as the dependencies of the
+     * values being resolved on this thread around it
+     */
+    private String resolveRecording(String originValue, @Nullable Set<String> dependencies) {
+        if (dependencies == null) {
+            return resolver.resolvePropertyValue(originValue, delegate);
+        }
+        Set<String> outer = DEPENDENCIES.get();
+        DEPENDENCIES.set(dependencies);
+        try {
+            return resolver.resolvePropertyValue(originValue, delegate);
+        } finally {
+            DEPENDENCIES.set(outer);
+            if (outer != null) {
+                outer.addAll(dependencies);
+            }
+        }
+    }
+
+    /**
+     * decrypted values of the property source
+     *
+     * @return cache
+     */
+    public PropertyValueCache getCache() {
+        return cache;
+    }
+
+    /**
+     * reads that waited for the decryption of another thread instead of decrypting
+     *
+     * @return count
+     */
+    public long getJoinedCount() {
+        return joinedCount.sum();
     }
 
     /**
@@ -98,16 +261,62 @@ public class CachingDelegateEncryptablePropertySource<T> extends PropertySource<
     @Override
     public void refresh() {
         log.info("Property Source {} refreshed", delegate.getName());
+        generation.incrementAndGet();
+        flights.clear();
+        classifications.clear();
         cache.clear();
     }
 
-    private static class CachedValue {
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void refresh(Set<String> changedKeys) {
+        generation.incrementAndGet();
+        changedKeys.forEach(classifications::remove);
+        int invalidated = cache.invalidate(changedKeys);
+        log.info("Property Source {} refreshed, {} values invalidated", delegate.getName(), invalidated);
+    }
+
+    private enum Kind {
+        /**
+         * returned as is, without resolving
+         */
+        PLAIN,
+        /**
+         * encrypted, or with placeholders: resolved once and cached
+         */
+        ENCRYPTED,
+        /**
+         * excluded by the filter
+         */
+        EXCLUDED
+    }
+
+    private static final class Classification {
+        private final String originValue;
+        private final Kind kind;
+
+        private Classification(String originValue, Kind kind) {
+            this.originValue = originValue;
+            this.kind = kind;
+        }
+
+        /**
+         * the filter only depends on the name, the other kinds on the value, usually the same instance on every read
+         */
+        private boolean matches(String value) {
+            return kind == Kind.EXCLUDED || originValue == value || originValue.equals(value);
+        }
+    }
+
+    private static final class Flight {
         private final String originValue;
-        private final String resolvedValue;
+        private final Thread owner = Thread.currentThread();
+        private final CompletableFuture<String> future = new CompletableFuture<>();
 
-        public CachedValue(String originValue, String resolvedValue) {
+        private Flight(String originValue) {
             this.originValue = originValue;
-            this.resolvedValue = resolvedValue;
         }
     }
 }
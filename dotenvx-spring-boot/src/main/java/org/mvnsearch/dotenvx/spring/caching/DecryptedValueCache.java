@@ -0,0 +1,166 @@
+package org.mvnsearch.dotenvx.spring.caching;
+
+import org.springframework.lang.Nullable;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Decrypted values by SHA-256 of their ciphertext, shared by all property sources.
+ * <p>
+ * A ciphertext always decrypts to the same plaintext, so the cache doesn't depend on property names or sources: the
+ * same secret in several sources, or re-delivered unchanged by a refresh, is decrypted once. The ciphertexts
+ * themselves are not kept.
+ * </p>
+ * <p>
+ * Values are bounded, expired and reported to the eviction listeners by the same {@link CachePolicy} as the caches of
+ * the property sources, so that it doesn't keep secrets longer than they allow. The listeners get the hex SHA-256 of the
+ * ciphertext as property name. Each value records the public key that decrypted it, so that removing a private key
+ * drops only its values, see {@link #invalidateKeys(Collection)}; all values are dropped by {@link #clear()}.
+ * </p>
+ *
+ * @author linux_china
+ */
+public final class DecryptedValueCache {
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+    private static final HexFormat HEX = HexFormat.of();
+    /**
+     * recorded for values whose decrypting key wasn't reported, dropped with any key
+     */
+    private static final String UNKNOWN_KEY = "*";
+    /**
+     * values by digest, which is also their "encrypted value"
+     */
+    private final PropertyValueCache values;
+    /**
+     * incremented by {@link #clear()} and {@link #invalidateKeys(Collection)}, so that decryptions started before them
+     * are not cached
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * <p>Constructor for DecryptedValueCache, without bounds.</p>
+     */
+    public DecryptedValueCache() {
+        this(CachePolicy.UNBOUNDED);
+    }
+
+    /**
+     * <p>Constructor for DecryptedValueCache.</p>
+     *
+     * @param policy bounds, expiry and eviction listeners
+     */
+    public DecryptedValueCache(CachePolicy policy) {
+        this.values = new PropertyValueCache(policy);
+    }
+
+    /**
+     * decrypted value of a ciphertext, from the cache or from the decryption
+     *
+     * @param ciphertext ciphertext
+     * @param bundleKey  data key of a bundled value, part of the cache key, null otherwise
+     * @param decryption decryption on a miss
+     * @return plaintext
+     */
+    public String get(String ciphertext, @Nullable String bundleKey, Supplier<String> decryption) {
+        return get(ciphertext, bundleKey, publicKeys -> decryption.get());
+    }
+
+    /**
+     * decrypted value of a ciphertext, from the cache or from the decryption, which reports the decrypting key
+     *
+     * @param ciphertext ciphertext
+     * @param bundleKey  data key of a bundled value, part of the cache key, null otherwise
+     * @param decryption decryption on a miss, given a consumer of the public key that decrypted the value
+     * @return plaintext
+     */
+    public String get(String ciphertext, @Nullable String bundleKey, Function<Consumer<String>, String> decryption) {
+        String digest = digest(ciphertext, bundleKey);
+        String value = values.get(digest, digest);
+        if (value != null) {
+            return value;
+        }
+        long started = generation.get();
+        Set<String> publicKeys = new HashSet<>(1);
+        value = decryption.apply(publicKeys::add);
+        if (value != null && generation.get() == started) {
+            values.put(digest, digest, value, publicKeys.isEmpty() ? Set.of(UNKNOWN_KEY) : Set.copyOf(publicKeys));
+        }
+        return value;
+    }
+
+    /**
+     * drop the values decrypted with some keys, e.g. removed from a key file, and the values of unknown keys
+     *
+     * @param publicKeys public keys, as reported to {@link #get(String, String, Function)}
+     * @return number of dropped values
+     */
+    public int invalidateKeys(Collection<String> publicKeys) {
+        Set<String> keys = new HashSet<>(publicKeys);
+        keys.add(UNKNOWN_KEY);
+        generation.incrementAndGet();
+        return values.invalidate(keys);
+    }
+
+    /**
+     * drop all values
+     */
+    public void clear() {
+        generation.incrementAndGet();
+        values.clear();
+    }
+
+    public int size() {
+        return values.size();
+    }
+
+    /**
+     * total length of the cached values
+     *
+     * @return weight
+     */
+    public long getWeight() {
+        return values.getWeight();
+    }
+
+    public long getHitCount() {
+        return values.getHitCount();
+    }
+
+    public long getMissCount() {
+        return values.getMissCount();
+    }
+
+    public long getEvictionCount() {
+        return values.getEvictionCount();
+    }
+
+    public long getExpirationCount() {
+        return values.getExpirationCount();
+    }
+
+    private static String digest(String ciphertext, @Nullable String bundleKey) {
+        MessageDigest sha256 = SHA_256.get();
+        sha256.update(ciphertext.getBytes(StandardCharsets.UTF_8));
+        if (bundleKey != null) {
+            sha256.update((byte) 0);
+            sha256.update(bundleKey.getBytes(StandardCharsets.UTF_8));
+        }
+        return HEX.formatHex(sha256.digest());
+    }
+}
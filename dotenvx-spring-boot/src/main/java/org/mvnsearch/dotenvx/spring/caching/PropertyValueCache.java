@@ -0,0 +1,336 @@
+package org.mvnsearch.dotenvx.spring.caching;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.lang.Nullable;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Decrypted values of one property source by property name, bounded and expired by a {@link CachePolicy}.
+ * <p>
+ * Reads never block: a hit is a {@link ConcurrentHashMap} lookup, expired values are treated as misses, and the
+ * access order of a bounded cache is only updated when its lock is free. Writes, evictions and the background expiry
+ * of a shared daemon thread take the lock; eviction listeners are called after it is released.
+ * </p>
+ *
+ * @author linux_china
+ */
+public final class PropertyValueCache {
+    private static final Logger log = LoggerFactory.getLogger(PropertyValueCache.class);
+    private static final ScheduledExecutorService EXPIRY_EXECUTOR = Executors.newSingleThreadScheduledExecutor(task -> {
+        Thread thread = new Thread(task, "dotenvx-cache-expiry");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final CachePolicy policy;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    /**
+     * least recently used first, guarded by {@link #lock}
+     */
+    private final LinkedHashMap<String, Entry> order = new LinkedHashMap<>(16, 0.75f, true);
+    private final ReentrantLock lock = new ReentrantLock();
+    private long weight;
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+    private final LongAdder expirationCount = new LongAdder();
+
+    /**
+     * <p>Constructor for PropertyValueCache.</p>
+     *
+     * @param policy bounds and expiry
+     */
+    public PropertyValueCache(CachePolicy policy) {
+        this.policy = policy;
+        if (policy.expires()) {
+            scheduleExpiry(this);
+        }
+    }
+
+    /**
+     * cached value of a property, if its encrypted value didn't change
+     *
+     * @param name        property name
+     * @param originValue current encrypted value
+     * @return decrypted value, null on a miss
+     */
+    @Nullable
+    public String get(String name, String originValue) {
+        Entry entry = entries.get(name);
+        if (entry != null && (entry.originValue == originValue || entry.originValue.equals(originValue))) {
+            long now = policy.expires() ? System.nanoTime() : 0;
+            if (!policy.isExpired(entry.written, entry.accessed, now)) {
+                hitCount.increment();
+                if (policy.expiresAfterAccess()) {
+                    entry.accessed = now;
+                }
+                if (policy.isBounded() && lock.tryLock()) {
+                    try {
+                        order.get(name);
+                    } finally {
+                        lock.unlock();
+                    }
+                }
+                return entry.resolvedValue;
+            }
+        }
+        missCount.increment();
+        return null;
+    }
+
+    /**
+     * cache the decrypted value of a property, evicting the least recently used values beyond the bounds
+     *
+     * @param name          property name
+     * @param originValue   encrypted value
+     * @param resolvedValue decrypted value
+     */
+    public void put(String name, String originValue, String resolvedValue) {
+        put(name, originValue, resolvedValue, Set.of());
+    }
+
+    /**
+     * cache the decrypted value of a property, with the properties its value depends on
+     *
+     * @param name          property name
+     * @param originValue   encrypted value
+     * @param resolvedValue decrypted value
+     * @param dependencies  names of the properties read to resolve the value
+     */
+    public void put(String name, String originValue, String resolvedValue, Set<String> dependencies) {
+        Entry entry = new Entry(originValue, resolvedValue, dependencies, policy.expires() ? System.nanoTime() : 0);
+        List<Removal> removals = new ArrayList<>(1);
+        lock.lock();
+        try {
+            Entry previous = entries.put(name, entry);
+            order.put(name, entry);
+            weight += entry.resolvedValue.length();
+            if (previous != null) {
+                weight -= previous.resolvedValue.length();
+                removals.add(new Removal(name, previous, CacheEvictionListener.Cause.REPLACED));
+            }
+            Iterator<Map.Entry<String, Entry>> eldest = order.entrySet().iterator();
+            while (policy.isOverflowing(entries.size(), weight) && eldest.hasNext()) {
+                Map.Entry<String, Entry> candidate = eldest.next();
+                if (candidate.getValue() == entry) {
+                    break;
+                }
+                eldest.remove();
+                entries.remove(candidate.getKey());
+                weight -= candidate.getValue().resolvedValue.length();
+                evictionCount.increment();
+                removals.add(new Removal(candidate.getKey(), candidate.getValue(), CacheEvictionListener.Cause.SIZE));
+            }
+        } finally {
+            lock.unlock();
+        }
+        notifyListeners(removals);
+    }
+
+    /**
+     * remove all values
+     */
+    public void clear() {
+        List<Removal> removals = new ArrayList<>();
+        lock.lock();
+        try {
+            if (policy.hasListeners()) {
+                order.forEach((name, entry) -> removals.add(new Removal(name, entry, CacheEvictionListener.Cause.EXPLICIT)));
+            }
+            entries.clear();
+            order.clear();
+            weight = 0;
+        } finally {
+            lock.unlock();
+        }
+        notifyListeners(removals);
+    }
+
+    /**
+     * names of the properties the cached value of a property depends on
+     *
+     * @param name property name
+     * @return dependencies, empty if not cached
+     */
+    public Set<String> getDependencies(String name) {
+        Entry entry = entries.get(name);
+        return entry != null ? entry.dependencies : Set.of();
+    }
+
+    /**
+     * remove the values of changed properties, and the values depending on them
+     *
+     * @param changedKeys names of the changed properties
+     * @return number of removed values
+     */
+    public int invalidate(Set<String> changedKeys) {
+        List<Removal> removals = new ArrayList<>();
+        lock.lock();
+        try {
+            Iterator<Map.Entry<String, Entry>> iterator = order.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<String, Entry> candidate = iterator.next();
+                Entry entry = candidate.getValue();
+                if (changedKeys.contains(candidate.getKey()) || dependsOn(entry.dependencies, changedKeys)) {
+                    iterator.remove();
+                    entries.remove(candidate.getKey());
+                    weight -= entry.resolvedValue.length();
+                    removals.add(new Removal(candidate.getKey(), entry, CacheEvictionListener.Cause.EXPLICIT));
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        notifyListeners(removals);
+        return removals.size();
+    }
+
+    private static boolean dependsOn(Set<String> dependencies, Set<String> changedKeys) {
+        for (String dependency : dependencies) {
+            if (changedKeys.contains(dependency)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * remove the expired values
+     */
+    void expire() {
+        List<Removal> removals = new ArrayList<>();
+        long now = System.nanoTime();
+        lock.lock();
+        try {
+            Iterator<Map.Entry<String, Entry>> iterator = order.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<String, Entry> candidate = iterator.next();
+                Entry entry = candidate.getValue();
+                if (policy.isExpired(entry.written, entry.accessed, now)) {
+                    iterator.remove();
+                    entries.remove(candidate.getKey());
+                    weight -= entry.resolvedValue.length();
+                    expirationCount.increment();
+                    removals.add(new Removal(candidate.getKey(), entry, CacheEvictionListener.Cause.EXPIRED));
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        notifyListeners(removals);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * total length of the cached values
+     *
+     * @return weight
+     */
+    public long getWeight() {
+        lock.lock();
+        try {
+            return weight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictionCount.sum();
+    }
+
+    public long getExpirationCount() {
+        return expirationCount.sum();
+    }
+
+    /**
+     * hits of all reads
+     *
+     * @return rate in [0, 1], 1 without reads
+     */
+    public double getHitRate() {
+        long hits = hitCount.sum();
+        long reads = hits + missCount.sum();
+        return reads == 0 ? 1.0 : (double) hits / reads;
+    }
+
+    private void notifyListeners(List<Removal> removals) {
+        for (Removal removal : removals) {
+            try {
+                policy.evicted(removal.name, removal.entry.resolvedValue, removal.cause);
+            } catch (RuntimeException e) {
+                log.warn("Cache eviction listener failed for {}: {}", removal.name, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * the task only holds the cache weakly, and stops when the cache is collected with its property source
+     */
+    private static void scheduleExpiry(PropertyValueCache cache) {
+        WeakReference<PropertyValueCache> reference = new WeakReference<>(cache);
+        long interval = cache.policy.sweepIntervalNanos();
+        ScheduledFuture<?>[] future = new ScheduledFuture<?>[1];
+        future[0] = EXPIRY_EXECUTOR.scheduleWithFixedDelay(() -> {
+            PropertyValueCache current = reference.get();
+            if (current == null) {
+                future[0].cancel(false);
+            } else {
+                current.expire();
+            }
+        }, interval, interval, TimeUnit.NANOSECONDS);
+    }
+
+    private static final class Entry {
+        private final String originValue;
+        private final String resolvedValue;
+        private final Set<String> dependencies;
+        private final long written;
+        private volatile long accessed;
+
+        private Entry(String originValue, String resolvedValue, Set<String> dependencies, long now) {
+            this.originValue = originValue;
+            this.resolvedValue = resolvedValue;
+            this.dependencies = dependencies;
+            this.written = now;
+            this.accessed = now;
+        }
+    }
+
+    private static final class Removal {
+        private final String name;
+        private final Entry entry;
+        private final CacheEvictionListener.Cause cause;
+
+        private Removal(String name, Entry entry, CacheEvictionListener.Cause cause) {
+            this.name = name;
+            this.entry = entry;
+            this.cause = cause;
+        }
+    }
+}
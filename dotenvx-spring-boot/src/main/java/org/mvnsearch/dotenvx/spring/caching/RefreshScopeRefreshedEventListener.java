@@ -11,13 +11,16 @@ import org.springframework.core.Ordered;
 import org.springframework.core.annotation.Order;
 import org.springframework.core.env.*;
 import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
 import org.springframework.util.ClassUtils;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * <p>RefreshScopeRefreshedEventListener class.</p>
@@ -41,6 +44,12 @@ public class RefreshScopeRefreshedEventListener implements ApplicationListener<A
     private final EncryptablePropertySourceConverter converter;
     private final List<Class<?>> eventClasses = new ArrayList<>();
     private final Map<String, Boolean> eventTriggersCache = new ConcurrentHashMap<>();
+    /**
+     * thread of the environment change whose changed keys were refreshed, until the scope refresh that Spring Cloud's
+     * ContextRefresher publishes right after it on the same thread; any other event on that thread ends the pairing,
+     * e.g. at the end of a request that changed the environment without a scope refresh
+     */
+    private final AtomicReference<Thread> keysRefreshedBy = new AtomicReference<>();
 
     /**
      * <p>Constructor for RefreshScopeRefreshedEventListener.</p>
@@ -58,11 +67,60 @@ public class RefreshScopeRefreshedEventListener implements ApplicationListener<A
      */
     @Override
     public void onApplicationEvent(@NonNull ApplicationEvent event) {
-        if (this.shouldTriggerRefresh(event)) {
-            log.info("Refreshing cached encryptable property sources on {}", event.getClass().getSimpleName());
-            refreshCachedProperties();
+        Thread thread = Thread.currentThread();
+        if (!this.shouldTriggerRefresh(event)) {
+            keysRefreshedBy.compareAndSet(thread, null);
+            return;
+        }
+        if (!isInstance(event, EVENT_CLASS_NAMES.get(0)) && !isInstance(event, EVENT_CLASS_NAMES.get(1))) {
+            // e.g. the web server started: the sources added since startup are wrapped, the cached values still hold
             decorateNewSources();
+            return;
+        }
+        Set<String> changedKeys = changedKeys(event);
+        if (changedKeys != null) {
+            log.info("Refreshing {} changed keys of encryptable property sources on {}", changedKeys.size(), event.getClass().getSimpleName());
+            refreshCachedProperties(changedKeys);
+            keysRefreshedBy.set(thread);
+        } else if (isInstance(event, EVENT_CLASS_NAMES.get(0)) && keysRefreshedBy.compareAndSet(thread, null)) {
+            log.debug("Changed keys already refreshed before {}", event.getClass().getSimpleName());
+        } else {
+            keysRefreshedBy.set(null);
+            log.info("Refreshing cached encryptable property sources on {}", event.getClass().getSimpleName());
+            refreshCachedProperties(null);
+        }
+        decorateNewSources();
+    }
+
+    /**
+     * keys of an EnvironmentChangeEvent
+     *
+     * @return changed keys, null for other events
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    private Set<String> changedKeys(ApplicationEvent event) {
+        if (!isInstance(event, EVENT_CLASS_NAMES.get(1))) {
+            return null;
+        }
+        try {
+            return (Set<String>) event.getClass().getMethod("getKeys").invoke(event);
+        } catch (ReflectiveOperationException | ClassCastException e) {
+            log.warn("Failed to read the changed keys of {}: {}", event.getClass().getSimpleName(), e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * the event classes are optional dependencies, matched by name
+     */
+    private static boolean isInstance(ApplicationEvent event, String className) {
+        for (Class<?> clazz = event.getClass(); clazz != null; clazz = clazz.getSuperclass()) {
+            if (clazz.getName().equals(className)) {
+                return true;
+            }
         }
+        return false;
     }
 
     private boolean shouldTriggerRefresh(ApplicationEvent event) {
@@ -82,17 +140,20 @@ public class RefreshScopeRefreshedEventListener implements ApplicationListener<A
         return ClassUtils.isAssignableValue(clazz, value);
     }
 
-    private void refreshCachedProperties() {
+    private void refreshCachedProperties(@Nullable Set<String> changedKeys) {
         PropertySources propertySources = environment.getPropertySources();
-        propertySources.forEach(this::refreshPropertySource);
+        propertySources.forEach(propertySource -> refreshPropertySource(propertySource, changedKeys));
     }
 
-    @SuppressWarnings("rawtypes")
-    private void refreshPropertySource(PropertySource<?> propertySource) {
+    private void refreshPropertySource(PropertySource<?> propertySource, @Nullable Set<String> changedKeys) {
         if (propertySource instanceof CompositePropertySource cps) {
-            cps.getPropertySources().forEach(this::refreshPropertySource);
-        } else if (propertySource instanceof EncryptablePropertySource eps) {
-            eps.refresh();
+            cps.getPropertySources().forEach(nested -> refreshPropertySource(nested, changedKeys));
+        } else if (propertySource instanceof EncryptablePropertySource<?> eps) {
+            if (changedKeys == null) {
+                eps.refresh();
+            } else {
+                eps.refresh(changedKeys);
+            }
         }
     }
 
@@ -101,6 +162,14 @@ public class RefreshScopeRefreshedEventListener implements ApplicationListener<A
      */
     @Override
     public void afterPropertiesSet() {
+        EVENT_CLASS_NAMES.forEach(this::addEventClass);
+    }
 
+    private void addEventClass(String className) {
+        try {
+            eventClasses.add(ClassUtils.forName(className, RefreshScopeRefreshedEventListener.class.getClassLoader()));
+        } catch (ClassNotFoundException | LinkageError e) {
+            log.trace("Could not load event class {}", className);
+        }
     }
 }
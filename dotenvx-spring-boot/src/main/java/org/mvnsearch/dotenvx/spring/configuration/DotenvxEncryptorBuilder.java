@@ -1,10 +1,17 @@
 package org.mvnsearch.dotenvx.spring.configuration;
 
+import org.mvnsearch.dotenvx.ecies.AeadCipher;
+import org.mvnsearch.dotenvx.ecies.AeadCiphers;
+import org.mvnsearch.dotenvx.ecies.Batches;
+import org.mvnsearch.dotenvx.ecies.EciesEnvelope;
+import org.mvnsearch.dotenvx.ecies.EphemeralKeyPool;
 import org.mvnsearch.dotenvx.spring.encryptor.DotenvxEncryptor;
 import org.mvnsearch.dotenvx.spring.encryptor.DotenvxEncryptorImpl;
 import org.springframework.lang.Nullable;
 
 import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.Executor;
 
 /**
  * <p>DotenvxEncryptorBuilder class.</p>
@@ -19,6 +26,12 @@ public class DotenvxEncryptorBuilder {
     @Nullable
     private String privateKeyHex;
     private HashMap<String, String> profileKeyPairs = new HashMap<>();
+    @Nullable
+    private EphemeralKeyPool ephemeralKeyPool;
+    private Executor batchExecutor = Batches.CALLER_THREAD;
+    private AeadCipher cipher = AeadCiphers.AES_256_GCM;
+    @Nullable
+    private List<String> envelopeRecipients;
 
     /**
      * <p>Constructor for DotenvxEncryptorBuilder.</p>
@@ -59,12 +72,57 @@ public class DotenvxEncryptorBuilder {
         return this;
     }
 
+    /**
+     * set pool of pre-generated ephemeral keys for encryption
+     *
+     * @param ephemeralKeyPool ephemeral key pool
+     * @return this builder
+     */
+    public DotenvxEncryptorBuilder withEphemeralKeyPool(@Nullable EphemeralKeyPool ephemeralKeyPool) {
+        this.ephemeralKeyPool = ephemeralKeyPool;
+        return this;
+    }
+
+    /**
+     * set executor for {@link DotenvxEncryptor#encryptAll} and {@link DotenvxEncryptor#decryptAll}
+     *
+     * @param batchExecutor batch executor, see {@link Batches#executor(String)}
+     * @return this builder
+     */
+    public DotenvxEncryptorBuilder withBatchExecutor(Executor batchExecutor) {
+        this.batchExecutor = batchExecutor;
+        return this;
+    }
+
+    /**
+     * set payload cipher, values must be decrypted with the cipher they were encrypted with
+     *
+     * @param cipher payload cipher, see {@link AeadCiphers#forName(String)}
+     * @return this builder
+     */
+    public DotenvxEncryptorBuilder withCipher(AeadCipher cipher) {
+        this.cipher = cipher;
+        return this;
+    }
+
+    /**
+     * write values in the versioned format with key ids, see {@link EciesEnvelope}, encrypted for the primary public
+     * key and the additional recipients
+     *
+     * @param additionalRecipients public keys in hex every value is also encrypted for, may be empty
+     * @return this builder
+     */
+    public DotenvxEncryptorBuilder withEnvelopeFormat(List<String> additionalRecipients) {
+        this.envelopeRecipients = additionalRecipients;
+        return this;
+    }
+
     /**
      * build a {@link DotenvxEncryptor} object
      *
      * @return a {@link DotenvxEncryptor} object
      */
     public DotenvxEncryptor build() {
-        return new DotenvxEncryptorImpl(publicKeyHex, privateKeyHex, profileKeyPairs);
+        return new DotenvxEncryptorImpl(publicKeyHex, privateKeyHex, profileKeyPairs, ephemeralKeyPool, batchExecutor, cipher, envelopeRecipients);
     }
 }
@@ -0,0 +1,59 @@
+package org.mvnsearch.dotenvx.spring.configuration;
+
+import org.mvnsearch.dotenvx.spring.encryptor.DotenvxEncryptor;
+import org.mvnsearch.dotenvx.spring.resource.DotenvxProtocolResolver;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationContextAware;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+import java.util.function.Supplier;
+
+/**
+ * <p>{@link BeanFactoryPostProcessor} that registers the {@link DotenvxProtocolResolver} on the application context
+ * before any bean is created, so that {@code dotenvx:} resources can be injected. The encryptor bean is only looked up
+ * when such a resource is resolved. The same encryptor is used by the resolvers of Spring Boot's
+ * {@code ApplicationResourceLoader}, e.g. for SSL bundles, until the context is closed.</p>
+ *
+ * @author linux_china
+ */
+public class DotenvxProtocolResolverRegistrar implements BeanFactoryPostProcessor, ApplicationContextAware, DisposableBean {
+    private ApplicationContext applicationContext;
+    @Nullable
+    private Supplier<DotenvxEncryptor> encryptor;
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void setApplicationContext(@NonNull ApplicationContext applicationContext) throws BeansException {
+        this.applicationContext = applicationContext;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void postProcessBeanFactory(@NonNull ConfigurableListableBeanFactory beanFactory) throws BeansException {
+        encryptor = () -> beanFactory.getBean(EncryptablePropertyResolverConfiguration.ENCRYPTOR_BEAN_NAME, DotenvxEncryptor.class);
+        if (applicationContext instanceof ConfigurableApplicationContext context) {
+            context.addProtocolResolver(new DotenvxProtocolResolver(encryptor));
+        }
+        DotenvxProtocolResolver.setDefaultEncryptor(encryptor);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void destroy() {
+        if (encryptor != null) {
+            DotenvxProtocolResolver.removeDefaultEncryptor(encryptor);
+        }
+    }
+}
@@ -28,4 +28,14 @@ public class EnableEncryptablePropertiesConfiguration {
     public static EnableEncryptablePropertiesBeanFactoryPostProcessor enableEncryptablePropertySourcesPostProcessor(final ConfigurableEnvironment environment, EncryptablePropertySourceConverter converter) {
         return new EnableEncryptablePropertiesBeanFactoryPostProcessor(environment, converter);
     }
+
+    /**
+     * <p>dotenvxProtocolResolverRegistrar.</p>
+     *
+     * @return a {@link org.mvnsearch.dotenvx.spring.configuration.DotenvxProtocolResolverRegistrar} object
+     */
+    @Bean
+    public static DotenvxProtocolResolverRegistrar dotenvxProtocolResolverRegistrar() {
+        return new DotenvxProtocolResolverRegistrar();
+    }
 }
@@ -1,6 +1,7 @@
 package org.mvnsearch.dotenvx.spring.configuration;
 
 import org.mvnsearch.dotenvx.spring.*;
+import org.mvnsearch.dotenvx.spring.caching.CachePolicy;
 import org.mvnsearch.dotenvx.spring.detector.DefaultLazyPropertyDetector;
 import org.mvnsearch.dotenvx.spring.encryptor.DefaultLazyEncryptor;
 import org.mvnsearch.dotenvx.spring.encryptor.DotenvxEncryptor;
@@ -38,7 +39,7 @@ public class EncryptablePropertyResolverConfiguration {
     private static final String FILTER_BEAN_PROPERTY = "dotenvx.encryptor.property.filter-bean";
     private static final String FILTER_BEAN_PLACEHOLDER = String.format("${%s:encryptablePropertyFilter}", FILTER_BEAN_PROPERTY);
 
-    private static final String ENCRYPTOR_BEAN_NAME = "lazyDotenvxEncryptor";
+    static final String ENCRYPTOR_BEAN_NAME = "lazyDotenvxEncryptor";
     private static final String DETECTOR_BEAN_NAME = "lazyEncryptablePropertyDetector";
     private static final String CONFIG_SINGLETON = "configPropsSingleton";
     /**
@@ -64,8 +65,9 @@ public class EncryptablePropertyResolverConfiguration {
         final boolean proxyPropertySources = environment.getProperty("dotenvx.encryptor.proxy-property-sources", Boolean.TYPE, false);
         final List<String> skipPropertySources = (List<String>) environment.getProperty("dotenvx.encryptor.skip-property-sources", List.class, Collections.EMPTY_LIST);
         final List<Class<PropertySource<?>>> skipPropertySourceClasses = skipPropertySources.stream().map(EncryptablePropertySourceConverter::getPropertiesClass).collect(Collectors.toList());
+        final boolean skipUnencryptedSources = environment.getProperty("dotenvx.encryptor.skip-unencrypted-property-sources", Boolean.TYPE, true);
         final InterceptionMode interceptionMode = proxyPropertySources ? InterceptionMode.PROXY : InterceptionMode.WRAPPER;
-        return new EncryptablePropertySourceConverter(interceptionMode, skipPropertySourceClasses, propertyResolver, propertyFilter);
+        return new EncryptablePropertySourceConverter(interceptionMode, skipPropertySourceClasses, propertyResolver, propertyFilter, CachePolicy.from(environment), skipUnencryptedSources);
     }
 
     /**
@@ -6,6 +6,8 @@ import org.mvnsearch.dotenvx.spring.util.Singleton;
 import org.springframework.beans.factory.BeanFactory;
 import org.springframework.core.env.ConfigurableEnvironment;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
 import static org.mvnsearch.dotenvx.spring.util.Functional.tap;
@@ -45,9 +47,14 @@ public class DefaultLazyPropertyDetector implements EncryptablePropertyDetector
                         }));
     }
 
-    private DefaultPropertyDetector createDefault(ConfigurableEnvironment environment) {
+    static DefaultPropertyDetector createDefault(ConfigurableEnvironment environment) {
         DotenvxEncryptorConfigurationProperties props = DotenvxEncryptorConfigurationProperties.bindConfigProps(environment);
-        return new DefaultPropertyDetector(props.getProperty().getPrefix());
+        List<String> prefixes = new ArrayList<>();
+        prefixes.add(props.getProperty().getPrefix());
+        if (props.getProperty().getAdditionalPrefixes() != null) {
+            prefixes.addAll(props.getProperty().getAdditionalPrefixes());
+        }
+        return new DefaultPropertyDetector(prefixes);
     }
 
     /**
@@ -65,4 +72,12 @@ public class DefaultLazyPropertyDetector implements EncryptablePropertyDetector
     public String unwrapEncryptedValue(String property) {
         return singleton.get().unwrapEncryptedValue(property);
     }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int payloadOffset(String property) {
+        return singleton.get().payloadOffset(property);
+    }
 }
@@ -3,20 +3,37 @@ package org.mvnsearch.dotenvx.spring.detector;
 import org.mvnsearch.dotenvx.spring.EncryptablePropertyDetector;
 import org.springframework.util.Assert;
 
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
 /**
- * Default property detector that detects encrypted property values with the format "encrypted:base64_value".
+ * Default property detector that detects encrypted property values with the format "encrypted:base64_value", or
+ * with other configured prefixes.
+ * <p>
+ * Leading whitespace is skipped in place and the prefixes are tried longest first, by their first character, so
+ * that detection never allocates.
+ * </p>
  *
  * @author Ulises Bocchio
  * @version $Id: $Id
  */
 public class DefaultPropertyDetector implements EncryptablePropertyDetector {
 
-    private String prefix = "encrypted:";
+    /**
+     * longest first, so that a prefix wins over the shorter prefixes it starts with
+     */
+    private final String[] prefixes;
+    /**
+     * first character of each prefix, -1 for the empty prefix
+     */
+    private final int[] firstChars;
 
     /**
      * <p>Constructor for DefaultPropertyDetector.</p>
      */
     public DefaultPropertyDetector() {
+        this("encrypted:");
     }
 
     /**
@@ -25,8 +42,24 @@ public class DefaultPropertyDetector implements EncryptablePropertyDetector {
      * @param prefix a {@link java.lang.String} object
      */
     public DefaultPropertyDetector(String prefix) {
-        Assert.notNull(prefix, "Prefix can't be null");
-        this.prefix = prefix;
+        this(Collections.singletonList(prefix));
+    }
+
+    /**
+     * <p>Constructor for DefaultPropertyDetector.</p>
+     *
+     * @param prefixes prefixes of encrypted values
+     */
+    public DefaultPropertyDetector(List<String> prefixes) {
+        Assert.notEmpty(prefixes, "Prefixes can't be empty");
+        Assert.noNullElements(prefixes, "Prefix can't be null");
+        this.prefixes = prefixes.stream().distinct()
+                .sorted(Comparator.comparingInt(String::length).reversed())
+                .toArray(String[]::new);
+        this.firstChars = new int[this.prefixes.length];
+        for (int i = 0; i < this.prefixes.length; i++) {
+            firstChars[i] = this.prefixes[i].isEmpty() ? -1 : this.prefixes[i].charAt(0);
+        }
     }
 
     /**
@@ -34,11 +67,7 @@ public class DefaultPropertyDetector implements EncryptablePropertyDetector {
      */
     @Override
     public boolean isEncrypted(String property) {
-        if (property == null) {
-            return false;
-        }
-        final String trimmedValue = property.trim();
-        return (trimmedValue.startsWith(prefix));
+        return payloadOffset(property) >= 0;
     }
 
     /**
@@ -46,6 +75,30 @@ public class DefaultPropertyDetector implements EncryptablePropertyDetector {
      */
     @Override
     public String unwrapEncryptedValue(String property) {
-        return property.substring(prefix.length());
+        int offset = payloadOffset(property);
+        return offset < 0 ? property : property.substring(offset);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int payloadOffset(String property) {
+        if (property == null) {
+            return -1;
+        }
+        int start = 0;
+        int length = property.length();
+        // whitespace as String.trim() strips it
+        while (start < length && property.charAt(start) <= ' ') {
+            start++;
+        }
+        int first = start < length ? property.charAt(start) : -2;
+        for (int i = 0; i < prefixes.length; i++) {
+            if (firstChars[i] == -1 || (firstChars[i] == first && property.startsWith(prefixes[i], start))) {
+                return start + prefixes[i].length();
+            }
+        }
+        return -1;
     }
 }
@@ -1,17 +1,39 @@
 package org.mvnsearch.dotenvx.spring.encryptor;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import org.mvnsearch.dotenvx.ecies.AeadCiphers;
+import org.mvnsearch.dotenvx.ecies.BatchResult;
+import org.mvnsearch.dotenvx.ecies.Batches;
+import org.mvnsearch.dotenvx.ecies.EphemeralKeyPool;
+import org.mvnsearch.dotenvx.keyring.KeyEntry;
+import org.mvnsearch.dotenvx.keyring.KeyFileWatcher;
+import org.mvnsearch.dotenvx.keyring.Keyring;
+import org.mvnsearch.dotenvx.spring.EncryptablePropertySource;
+import org.mvnsearch.dotenvx.spring.caching.CachePolicy;
+import org.mvnsearch.dotenvx.spring.caching.DecryptedValueCache;
 import org.mvnsearch.dotenvx.spring.configuration.DotenvxEncryptorBuilder;
+import org.mvnsearch.dotenvx.spring.exception.DecryptionException;
+import org.mvnsearch.dotenvx.spring.provider.DotenvxKeyProviders;
 import org.mvnsearch.dotenvx.spring.util.Singleton;
 import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.core.env.CompositePropertySource;
 import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.PropertySource;
+import org.springframework.lang.Nullable;
 
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.util.HashMap;
-import java.util.Map;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 import static org.mvnsearch.dotenvx.spring.util.Functional.tap;
 
@@ -22,10 +44,22 @@ import static org.mvnsearch.dotenvx.spring.util.Functional.tap;
  * @author Ulises Bocchio
  * @version $Id: $Id
  */
-public class DefaultLazyEncryptor implements DotenvxEncryptor {
-    private static final ObjectMapper objectMapper = new ObjectMapper();
+public class DefaultLazyEncryptor implements DotenvxEncryptor, DisposableBean {
     private static final org.slf4j.Logger log = org.slf4j.LoggerFactory.getLogger(DefaultLazyEncryptor.class);
     private final Singleton<DotenvxEncryptor> singleton;
+    /**
+     * default encryptor rebuilt after a key file change, replaces the singleton
+     */
+    @Nullable
+    private volatile DotenvxEncryptor reloaded;
+    private volatile EphemeralKeyPool ephemeralKeyPool;
+    private volatile KeyFileWatcher keyFileWatcher;
+    private final LongAdder swapRetries = new LongAdder();
+    /**
+     * decrypted values by ciphertext, see `dotenvx.cache.shared`
+     */
+    @Nullable
+    private final DecryptedValueCache valueCache;
 
     /**
      * <p>Constructor for DefaultLazyEncryptor.</p>
@@ -36,6 +70,7 @@ public class DefaultLazyEncryptor implements DotenvxEncryptor {
      * @param bf                      {@link org.springframework.beans.factory.BeanFactory} object
      */
     public DefaultLazyEncryptor(final ConfigurableEnvironment env, final String customEncryptorBeanName, boolean isCustom, final BeanFactory bf) {
+        valueCache = createValueCache(env);
         singleton = new Singleton<>(() ->
                 Optional.of(customEncryptorBeanName)
                         .filter(bf::containsBean)
@@ -56,53 +91,150 @@ public class DefaultLazyEncryptor implements DotenvxEncryptor {
      * @param env {@link org.springframework.core.env.ConfigurableEnvironment} object
      */
     public DefaultLazyEncryptor(final ConfigurableEnvironment env) {
+        valueCache = createValueCache(env);
         singleton = new Singleton<>(() -> createDefault(env));
     }
 
+    @Nullable
+    private static DecryptedValueCache createValueCache(ConfigurableEnvironment env) {
+        return env.getProperty("dotenvx.cache.shared", Boolean.class, false) ? new DecryptedValueCache(CachePolicy.from(env)) : null;
+    }
+
     private DotenvxEncryptor createDefault(ConfigurableEnvironment env) {
-        final HashMap<String, String> globalKeyStore = getGlobalKeyStore();
+        // private keys from the key providers, usually prefetched during startup
+        final DotenvxKeyProviders keyProviders = DotenvxKeyProviders.get(env);
         String publicKeyHex = env.getProperty("dotenv.public.key", String.class);
-        String privateKeyHex = env.getProperty("dotenv.private.key", String.class);
-        if (privateKeyHex == null) {
-            privateKeyHex = System.getenv("DOTENV_PRIVATE_KEY");
+        String privateKeyHex = keyProviders.getPrivateKey(env, null, publicKeyHex);
+        DotenvxEncryptorBuilder builder = new DotenvxEncryptorBuilder();
+        builder.withPrimaryKeyPair(publicKeyHex, privateKeyHex);
+        // optional pool of pre-generated ephemeral keys for encryption
+        int poolSize = env.getProperty("dotenvx.encryptor.ephemeral-key-pool.size", Integer.class, 0);
+        if (poolSize > 0 && ephemeralKeyPool == null) {
+            int lowWaterMark = env.getProperty("dotenvx.encryptor.ephemeral-key-pool.low-water-mark", Integer.class, poolSize / 2);
+            ephemeralKeyPool = new EphemeralKeyPool(poolSize, lowWaterMark);
         }
-        // get private key from global key pairs if public key is provided
-        if (publicKeyHex != null && privateKeyHex == null) {
-            privateKeyHex = globalKeyStore.get(publicKeyHex);
+        // created once, and kept by the encryptors rebuilt when the key files change
+        if (ephemeralKeyPool != null) {
+            builder.withEphemeralKeyPool(ephemeralKeyPool);
         }
-        if (privateKeyHex == null) {
-            privateKeyHex = readPrivateKeyFromKeysFile("DOTENV_PRIVATE_KEY");
+        builder.withCipher(AeadCiphers.forName(env.getProperty("dotenvx.encryptor.cipher", String.class, "aes-256-gcm")));
+        builder.withBatchExecutor(Batches.executor(env.getProperty("dotenvx.encryptor.batch.executor", String.class, "fork-join")));
+        // versioned values with key ids, optionally shared with more recipients
+        if ("v2".equalsIgnoreCase(env.getProperty("dotenvx.encryptor.format", String.class, "v1"))) {
+            builder.withEnvelopeFormat(Arrays.asList(env.getProperty("dotenvx.encryptor.recipients", String[].class, new String[0])));
         }
-        DotenvxEncryptorBuilder builder = new DotenvxEncryptorBuilder();
-        builder.withPrimaryKeyPair(publicKeyHex, privateKeyHex);
-        // get private keys for profile: public -> private
+        // private keys of the active profiles
         for (String activeProfile : env.getActiveProfiles()) {
             String profilePublicKey = env.getProperty("dotenv.public.key." + activeProfile, String.class);
-            String profilePrivateKey = env.getProperty("dotenv.private.key." + activeProfile, String.class);
-            if (privateKeyHex == null) {
-                privateKeyHex = System.getenv("DOTENV_PRIVATE_KEY_" + activeProfile.toUpperCase());
-            }
-            // get private key from global key pairs if public key is provided
-            if (profilePublicKey != null && profilePrivateKey == null) {
-                profilePrivateKey = globalKeyStore.get(profilePublicKey);
-            }
-            // read private key from .env.keys file if not found
-            if (profilePrivateKey == null) {
-                profilePrivateKey = readPrivateKeyFromKeysFile("DOTENV_PRIVATE_KEY_" + activeProfile.toUpperCase());
-            }
+            String profilePrivateKey = keyProviders.getPrivateKey(env, activeProfile, profilePublicKey);
             if (profilePublicKey != null && profilePrivateKey != null) {
                 builder.withProfileKeyPair(profilePublicKey, profilePrivateKey);
             }
         }
+        if (keyFileWatcher == null && env.getProperty("dotenvx.keyring.watch", Boolean.class, false)) {
+            keyFileWatcher = watchKeyFiles(env);
+        }
         return builder.build();
     }
 
+    /**
+     * rebuild the default encryptor when a key file changes, and drop the cached values decrypted with a removed key:
+     * the shared values of the key, and the values of the property sources it decrypted
+     */
+    @Nullable
+    private KeyFileWatcher watchKeyFiles(ConfigurableEnvironment env) {
+        try {
+            KeyFileWatcher watcher = new KeyFileWatcher(50);
+            watcher.addListener(change -> {
+                DotenvxEncryptor previous = delegate();
+                DotenvxKeyProviders.get(env).clear();
+                reloaded = createDefault(env);
+                if (valueCache != null && !change.getRemoved().isEmpty()) {
+                    valueCache.invalidateKeys(publicKeys(change.getRemoved()));
+                }
+                if (previous instanceof DotenvxEncryptorImpl impl) {
+                    Set<String> sources = impl.getSourcesDecryptedWith(change.getRemoved());
+                    if (!sources.isEmpty()) {
+                        env.getPropertySources().forEach(source -> refresh(source, sources));
+                    }
+                }
+            });
+            return watcher;
+        } catch (IOException e) {
+            log.warn("Key files can't be watched: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static Set<String> publicKeys(Collection<KeyEntry> entries) {
+        Set<String> publicKeys = new HashSet<>();
+        for (KeyEntry entry : entries) {
+            try {
+                publicKeys.add(entry.getPublicKey());
+            } catch (RuntimeException ignore) {
+                // invalid key, nothing was decrypted with it
+            }
+        }
+        return publicKeys;
+    }
+
+    private static void refresh(PropertySource<?> propertySource, Set<String> names) {
+        if (propertySource instanceof CompositePropertySource cps) {
+            cps.getPropertySources().forEach(source -> refresh(source, names));
+        } else if (propertySource instanceof EncryptablePropertySource<?> eps && names.contains(propertySource.getName())) {
+            eps.refresh();
+        }
+    }
+
+    private DotenvxEncryptor delegate() {
+        DotenvxEncryptor encryptor = reloaded;
+        return encryptor != null ? encryptor : singleton.get();
+    }
+
+    /**
+     * decrypt through the shared value cache, if enabled, recording the public key that decrypted each value
+     */
+    private String decryptCached(String ciphertext, @Nullable String bundleKey, @Nullable String sourceName) {
+        DecryptedValueCache cache = valueCache;
+        if (cache == null) {
+            return decrypt(encryptor -> decrypt(encryptor, ciphertext, bundleKey, sourceName, null));
+        }
+        return cache.get(ciphertext, bundleKey, publicKeys -> decrypt(encryptor -> decrypt(encryptor, ciphertext, bundleKey, sourceName,
+                entry -> publicKeys.accept(entry.getPublicKey()))));
+    }
+
+    private static String decrypt(DotenvxEncryptor encryptor, String ciphertext, @Nullable String bundleKey, @Nullable String sourceName,
+                                  @Nullable Consumer<KeyEntry> decryptedWith) {
+        if (encryptor instanceof DotenvxEncryptorImpl impl) {
+            return bundleKey != null ? impl.decryptBundled(ciphertext, bundleKey, decryptedWith) : impl.decrypt(ciphertext, sourceName, decryptedWith);
+        }
+        return bundleKey != null ? encryptor.decryptBundled(ciphertext, bundleKey) : encryptor.decrypt(ciphertext, sourceName);
+    }
+
+    /**
+     * decrypt with the current encryptor; a value that failed while the keys were swapped is tried again with the
+     * new encryptor instead of waiting for the swap
+     */
+    private String decrypt(Function<DotenvxEncryptor, String> decryption) {
+        DotenvxEncryptor encryptor = delegate();
+        try {
+            return decryption.apply(encryptor);
+        } catch (DecryptionException e) {
+            DotenvxEncryptor current = delegate();
+            if (current == encryptor) {
+                throw e;
+            }
+            swapRetries.increment();
+            return decryption.apply(current);
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
     @Override
     public String encrypt(final String message) {
-        return singleton.get().encrypt(message);
+        return delegate().encrypt(message);
     }
 
     /**
@@ -110,59 +242,155 @@ public class DefaultLazyEncryptor implements DotenvxEncryptor {
      */
     @Override
     public String decrypt(final String encryptedMessage) {
-        return singleton.get().decrypt(encryptedMessage);
+        return decryptCached(encryptedMessage, null, null);
     }
 
-    private HashMap<String, String> getGlobalKeyStore() {
-        HashMap<String, String> globalKeyPairs = new HashMap<>();
-        // read global key pairs from $HOME/.dotenvx/.env.keys.json
-        final Path globalEnvKeysPath = Path.of(System.getProperty("user.home"), ".dotenvx", ".env.keys.json");
-        if (globalEnvKeysPath.toFile().exists()) {
-            try {
-                Map<String, Object> keyStore = objectMapper.readValue(globalEnvKeysPath.toFile(), Map.class);
-                if (!keyStore.isEmpty()) {
-                    if (keyStore.containsKey("version") && keyStore.containsKey("keys")) {
-                        keyStore = (Map<String, Object>) keyStore.get("keys");
-                    }
-                    for (String publicKey : keyStore.keySet()) {
-                        Object pair = keyStore.get(publicKey);
-                        if (pair instanceof Map<?, ?>) {
-                            String privateKye = ((Map<?, ?>) pair).get("private_key").toString();
-                            globalKeyPairs.put(publicKey, privateKye);
-                        }
-                    }
-                }
-            } catch (Exception ignore) {
-            }
-        }
-        return globalKeyPairs;
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String decrypt(final String encryptedMessage, @Nullable final String sourceName) {
+        return decryptCached(encryptedMessage, null, sourceName);
     }
 
-    public String readPrivateKeyFromKeysFile(String privateKeyEnvName) {
-        String privateKey = null;
-        try {
-            if (Files.exists(Paths.get(".env.keys"))) { // Check in the current directory
-                for (String line : Files.readAllLines(Paths.get(".env.keys"))) {
-                    if (line.startsWith(privateKeyEnvName + "=")) {
-                        privateKey = line.substring((privateKeyEnvName + "=").length()).trim();
-                        break;
-                    }
-                }
-            } else if (Files.exists(Paths.get(System.getProperty("user.home"), ".env.keys"))) { // Check in the user's home directory
-                for (String line : Files.readAllLines(Paths.get(System.getProperty("user.home"), ".env.keys"))) {
-                    if (line.startsWith(privateKeyEnvName + "=")) {
-                        privateKey = line.substring((privateKeyEnvName + "=").length()).trim();
-                        break;
-                    }
-                }
-            }
-        } catch (Exception ignore) {
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String generateBundleKey() {
+        return delegate().generateBundleKey();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String encryptBundled(final String message, final String bundleKey) {
+        return delegate().encryptBundled(message, bundleKey);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String decryptBundled(final String encryptedMessage, final String bundleKey) {
+        return decryptCached(encryptedMessage, bundleKey, null);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<BatchResult<String>> encryptAll(final Collection<String> messages) {
+        return delegate().encryptAll(messages);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<BatchResult<String>> encryptAll(final Collection<String> messages, final Executor executor) {
+        return delegate().encryptAll(messages, executor);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<BatchResult<String>> decryptAll(final Collection<String> encryptedMessages) {
+        return delegate().decryptAll(encryptedMessages);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<BatchResult<String>> decryptAll(final Collection<String> encryptedMessages, final Executor executor) {
+        return delegate().decryptAll(encryptedMessages, executor);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public OutputStream encryptingStream(final OutputStream out) {
+        return delegate().encryptingStream(out);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public InputStream decryptingStream(final InputStream in) {
+        return delegate().decryptingStream(in);
+    }
 
+    /**
+     * key file watcher, see `dotenvx.keyring.watch`
+     *
+     * @return watcher, null if key files are not watched
+     */
+    @Nullable
+    public KeyFileWatcher getKeyFileWatcher() {
+        return keyFileWatcher;
+    }
+
+    /**
+     * pool of pre-generated ephemeral keys, see `dotenvx.encryptor.ephemeral-key-pool.size`
+     *
+     * @return pool, null if not configured
+     */
+    @Nullable
+    public EphemeralKeyPool getEphemeralKeyPool() {
+        // the pool is created with the default encryptor
+        delegate();
+        return ephemeralKeyPool;
+    }
+
+    /**
+     * decrypted values shared by all property sources, see `dotenvx.cache.shared`
+     *
+     * @return cache, null if disabled
+     */
+    @Nullable
+    public DecryptedValueCache getValueCache() {
+        return valueCache;
+    }
+
+    /**
+     * number of values decrypted again because the keys were swapped during their decryption
+     *
+     * @return retries
+     */
+    public long getSwapRetries() {
+        return swapRetries.sum();
+    }
+
+    /**
+     * stop the ephemeral key pool refill thread and the key file watcher, if any
+     */
+    @Override
+    public void destroy() {
+        if (ephemeralKeyPool != null) {
+            ephemeralKeyPool.close();
         }
-        if (privateKey != null && (privateKey.startsWith("\"") || privateKey.startsWith("'"))) {
-            privateKey = privateKey.substring(1, privateKey.length() - 1);
+        if (keyFileWatcher != null) {
+            keyFileWatcher.close();
         }
-        return privateKey;
     }
 
+    /**
+     * read a private key from `.env.keys`, see {@link Keyring#getDefault()}
+     *
+     * @param privateKeyEnvName key name, e.g. `DOTENV_PRIVATE_KEY_PRODUCTION`
+     * @return private key or null
+     */
+    public String readPrivateKeyFromKeysFile(String privateKeyEnvName) {
+        return privateKey(Keyring.getDefault().findByName(privateKeyEnvName));
+    }
+
+    @Nullable
+    private static String privateKey(@Nullable KeyEntry entry) {
+        return entry != null ? entry.getPrivateKey() : null;
+    }
 }
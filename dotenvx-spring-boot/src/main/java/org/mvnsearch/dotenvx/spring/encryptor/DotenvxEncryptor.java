@@ -1,8 +1,17 @@
 package org.mvnsearch.dotenvx.spring.encryptor;
 
-
+import org.mvnsearch.dotenvx.ecies.BatchResult;
+import org.mvnsearch.dotenvx.ecies.Batches;
 import org.mvnsearch.dotenvx.spring.exception.DecryptionException;
 import org.mvnsearch.dotenvx.spring.exception.EncryptionException;
+import org.springframework.lang.Nullable;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
 
 /**
  * dotenvx encryptor interface
@@ -10,6 +19,10 @@ import org.mvnsearch.dotenvx.spring.exception.EncryptionException;
  * @author linux_china
  */
 public interface DotenvxEncryptor {
+    /**
+     * property holding the encrypted data key of a configuration file, see {@link #decryptBundled(String, String)}
+     */
+    String BUNDLE_KEY_PROPERTY = "dotenvx.bundle.key";
 
     /**
      * encrypt text using dotenvx encryptor
@@ -26,4 +39,134 @@ public interface DotenvxEncryptor {
      * @return decrypted text
      */
     String decrypt(String base64EncodedText) throws DecryptionException;
+
+    /**
+     * decrypt text read from a property source; implementations holding several keys may use the source name to try
+     * the key of the source's previous values first
+     *
+     * @param base64EncodedText base64 encoded encrypted text with the `encrypted:` prefix
+     * @param sourceName        property source name of the value, null if unknown
+     * @return decrypted text
+     */
+    default String decrypt(String base64EncodedText, @Nullable String sourceName) throws DecryptionException {
+        return decrypt(base64EncodedText);
+    }
+
+    /**
+     * generate a data key for a configuration file, to be stored as {@link #BUNDLE_KEY_PROPERTY} in the file
+     *
+     * @return data key encrypted for the public key, with the `encrypted:` prefix
+     * @throws EncryptionException if the encryptor has no public key or doesn't support data keys
+     */
+    default String generateBundleKey() throws EncryptionException {
+        throw new EncryptionException("Data keys are not supported by " + getClass().getName());
+    }
+
+    /**
+     * encrypt text under the data key of a configuration file, one AEAD operation without ECDH
+     *
+     * @param text      text to encrypt
+     * @param bundleKey encrypted data key of the file, see {@link #generateBundleKey()}
+     * @return encrypted text with the `encrypted:bundle:` prefix
+     */
+    default String encryptBundled(String text, String bundleKey) throws EncryptionException {
+        throw new EncryptionException("Data keys are not supported by " + getClass().getName());
+    }
+
+    /**
+     * decrypt text encrypted under the data key of a configuration file; the data key is decrypted once and cached
+     *
+     * @param base64EncodedText encrypted text with the `encrypted:bundle:` prefix, `encrypted:` being optional
+     * @param bundleKey         encrypted data key of the file, the {@link #BUNDLE_KEY_PROPERTY} property of its property source
+     * @return decrypted text
+     */
+    default String decryptBundled(String base64EncodedText, String bundleKey) throws DecryptionException {
+        throw new DecryptionException("Data keys are not supported by " + getClass().getName());
+    }
+
+    /**
+     * encrypt all texts on the encryptor's batch executor, the calling thread by default
+     *
+     * @param texts texts to encrypt
+     * @return encrypted texts with the `encrypted:` prefix or failures, in input order
+     */
+    default List<BatchResult<String>> encryptAll(Collection<String> texts) {
+        return encryptAll(texts, Batches.CALLER_THREAD);
+    }
+
+    /**
+     * encrypt all texts on an executor
+     *
+     * @param texts    texts to encrypt
+     * @param executor executor for the batch
+     * @return encrypted texts with the `encrypted:` prefix or failures, in input order
+     */
+    default List<BatchResult<String>> encryptAll(Collection<String> texts, Executor executor) {
+        return Batches.map(texts, this::encrypt, executor);
+    }
+
+    /**
+     * encrypt all values of a map on the encryptor's batch executor
+     *
+     * @param texts texts to encrypt by key
+     * @param <K>   key type
+     * @return encrypted texts or failures by key, in the iteration order of the input map
+     */
+    default <K> Map<K, BatchResult<String>> encryptAll(Map<K, String> texts) {
+        return Batches.byKey(texts, encryptAll(texts.values()));
+    }
+
+    /**
+     * decrypt all texts on the encryptor's batch executor, the calling thread by default
+     *
+     * @param base64EncodedTexts base64 encoded encrypted texts with the `encrypted:` prefix
+     * @return decrypted texts or failures, in input order
+     */
+    default List<BatchResult<String>> decryptAll(Collection<String> base64EncodedTexts) {
+        return decryptAll(base64EncodedTexts, Batches.CALLER_THREAD);
+    }
+
+    /**
+     * decrypt all texts on an executor
+     *
+     * @param base64EncodedTexts base64 encoded encrypted texts with the `encrypted:` prefix
+     * @param executor           executor for the batch
+     * @return decrypted texts or failures, in input order
+     */
+    default List<BatchResult<String>> decryptAll(Collection<String> base64EncodedTexts, Executor executor) {
+        return Batches.map(base64EncodedTexts, this::decrypt, executor);
+    }
+
+    /**
+     * decrypt all values of a map on the encryptor's batch executor
+     *
+     * @param base64EncodedTexts base64 encoded encrypted texts by key
+     * @param <K>                key type
+     * @return decrypted texts or failures by key, in the iteration order of the input map
+     */
+    default <K> Map<K, BatchResult<String>> decryptAll(Map<K, String> base64EncodedTexts) {
+        return Batches.byKey(base64EncodedTexts, decryptAll(base64EncodedTexts.values()));
+    }
+
+    /**
+     * wrap a stream so that everything written to it is encrypted with the streaming ECIES format
+     *
+     * @param out stream receiving the encrypted bytes, closed with the returned stream
+     * @return plaintext stream
+     * @throws EncryptionException if the encryptor has no public key or doesn't support streams
+     */
+    default OutputStream encryptingStream(OutputStream out) throws EncryptionException {
+        throw new EncryptionException("Streaming encryption is not supported by " + getClass().getName());
+    }
+
+    /**
+     * wrap a stream in the streaming ECIES format, decrypting it as it is read
+     *
+     * @param in encrypted stream
+     * @return decrypted stream, failing with an {@link java.io.IOException} on corrupted or truncated data
+     * @throws DecryptionException if the encryptor has no private key or doesn't support streams
+     */
+    default InputStream decryptingStream(InputStream in) throws DecryptionException {
+        throw new DecryptionException("Streaming decryption is not supported by " + getClass().getName());
+    }
 }
@@ -1,33 +1,224 @@
 package org.mvnsearch.dotenvx.spring.encryptor;
 
+import org.bouncycastle.util.encoders.DecoderException;
+import org.bouncycastle.util.encoders.Hex;
+import org.mvnsearch.dotenvx.ecies.AeadCipher;
+import org.mvnsearch.dotenvx.ecies.AeadCiphers;
+import org.mvnsearch.dotenvx.ecies.BatchResult;
+import org.mvnsearch.dotenvx.ecies.Batches;
+import org.mvnsearch.dotenvx.ecies.BundleCipher;
 import org.mvnsearch.dotenvx.ecies.Ecies;
+import org.mvnsearch.dotenvx.ecies.EciesDecryptor;
+import org.mvnsearch.dotenvx.ecies.EciesEncryptor;
+import org.mvnsearch.dotenvx.ecies.EciesEnvelope;
+import org.mvnsearch.dotenvx.ecies.EciesEnvelopeEncryptor;
+import org.mvnsearch.dotenvx.ecies.EciesInputStream;
+import org.mvnsearch.dotenvx.ecies.EphemeralKeyPool;
+import org.mvnsearch.dotenvx.ecies.X25519Decryptor;
+import org.mvnsearch.dotenvx.ecies.X25519Ecies;
+import org.mvnsearch.dotenvx.ecies.X25519Encryptor;
+import org.mvnsearch.dotenvx.keyring.KeyEntry;
+import org.mvnsearch.dotenvx.keyring.Keyring;
 import org.mvnsearch.dotenvx.spring.exception.DecryptionException;
 import org.mvnsearch.dotenvx.spring.exception.EncryptionException;
 import org.springframework.lang.Nullable;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
 
 /**
- * dotenvx encryptor implementation
+ * dotenvx encryptor implementation. Keys with the `x25519:` prefix select the X25519 variant, its values are encrypted
+ * as `encrypted:x25519:base64`; secp256k1 and X25519 keys may be mixed between the primary and the profile keys.
+ * With envelope recipients, secp256k1 values are written in the versioned format of {@link EciesEnvelope}, whose key
+ * ids select the private key for decryption directly.
  *
  * @author linux_china
  */
 public class DotenvxEncryptorImpl implements DotenvxEncryptor {
-    private final String publicKeyHex;
-    private final String privateKeyHex;
-    private final HashMap<String, String> profileKeyPairs;
+    @Nullable
+    private final EciesEncryptor encryptor;
+    @Nullable
+    private final EciesEnvelopeEncryptor envelopeEncryptor;
+    /**
+     * decryptors built once per private key: the primary key first, then the profile keys
+     */
+    private final List<EciesDecryptor> decryptors = new ArrayList<>();
+    /**
+     * decryptors by key id, several for colliding key ids
+     */
+    private final Map<Integer, List<EciesDecryptor>> decryptorsByKeyId = new HashMap<>();
+    @Nullable
+    private final X25519Encryptor x25519Encryptor;
+    private final List<X25519Decryptor> x25519Decryptors = new ArrayList<>();
+    /**
+     * keyring entries of the decryptors, by decryptor index
+     */
+    private final List<KeyEntry> entries = new ArrayList<>();
+    private final List<KeyEntry> x25519Entries = new ArrayList<>();
+    private final KeyAffinityRouter router = new KeyAffinityRouter(decryptors);
+    private final KeyAffinityRouter x25519Router = new KeyAffinityRouter(x25519Decryptors);
+    private final Executor batchExecutor;
+    private final AeadCipher cipher;
+    /**
+     * data key ciphers by encrypted data key, one ECDH per configuration file
+     */
+    private final Map<String, BundleCipher> bundleCiphers = new ConcurrentHashMap<>();
+    /**
+     * keyring entries of the keys that decrypted the data keys, by encrypted data key
+     */
+    private final Map<String, KeyEntry> bundleKeyEntries = new ConcurrentHashMap<>();
 
     public DotenvxEncryptorImpl(@Nullable String publicKeyHex, @Nullable String privateKeyHex, HashMap<String, String> profileKeyPairs) {
-        this.publicKeyHex = publicKeyHex;
-        this.profileKeyPairs = profileKeyPairs;
-        if (privateKeyHex != null && privateKeyHex.contains("{")) {
-            this.privateKeyHex = privateKeyHex.substring(0, privateKeyHex.indexOf("{"));
+        this(publicKeyHex, privateKeyHex, profileKeyPairs, null);
+    }
+
+    public DotenvxEncryptorImpl(@Nullable String publicKeyHex, @Nullable String privateKeyHex, HashMap<String, String> profileKeyPairs,
+                                @Nullable EphemeralKeyPool ephemeralKeyPool) {
+        this(publicKeyHex, privateKeyHex, profileKeyPairs, ephemeralKeyPool, Batches.CALLER_THREAD);
+    }
+
+    public DotenvxEncryptorImpl(@Nullable String publicKeyHex, @Nullable String privateKeyHex, HashMap<String, String> profileKeyPairs,
+                                @Nullable EphemeralKeyPool ephemeralKeyPool, Executor batchExecutor) {
+        this(publicKeyHex, privateKeyHex, profileKeyPairs, ephemeralKeyPool, batchExecutor, AeadCiphers.AES_256_GCM);
+    }
+
+    public DotenvxEncryptorImpl(@Nullable String publicKeyHex, @Nullable String privateKeyHex, HashMap<String, String> profileKeyPairs,
+                                @Nullable EphemeralKeyPool ephemeralKeyPool, Executor batchExecutor, AeadCipher cipher) {
+        this(publicKeyHex, privateKeyHex, profileKeyPairs, ephemeralKeyPool, batchExecutor, cipher, null);
+    }
+
+    /**
+     * create encryptor
+     *
+     * @param publicKeyHex       primary public key
+     * @param privateKeyHex      primary private key
+     * @param profileKeyPairs    profile key pairs: public key to private key
+     * @param ephemeralKeyPool   pre-generated ephemeral keys, null to generate them on every call
+     * @param batchExecutor      executor for batches
+     * @param cipher             payload cipher
+     * @param envelopeRecipients public keys every value is also encrypted for, in the versioned format with the
+     *                           primary public key first; null for the legacy format
+     */
+    public DotenvxEncryptorImpl(@Nullable String publicKeyHex, @Nullable String privateKeyHex, HashMap<String, String> profileKeyPairs,
+                                @Nullable EphemeralKeyPool ephemeralKeyPool, Executor batchExecutor, AeadCipher cipher,
+                                @Nullable List<String> envelopeRecipients) {
+        this.batchExecutor = batchExecutor;
+        this.cipher = cipher;
+        if (X25519Ecies.isX25519(publicKeyHex)) {
+            this.encryptor = null;
+            this.envelopeEncryptor = null;
+            this.x25519Encryptor = createX25519Encryptor(publicKeyHex, cipher);
         } else {
-            this.privateKeyHex = privateKeyHex;
+            this.encryptor = createEncryptor(publicKeyHex, ephemeralKeyPool, cipher);
+            this.envelopeEncryptor = envelopeRecipients != null ? createEnvelopeEncryptor(publicKeyHex, envelopeRecipients, ephemeralKeyPool, cipher) : null;
+            this.x25519Encryptor = null;
+        }
+        addDecryptor(privateKeyHex);
+        for (String profilePrivateKey : profileKeyPairs.values()) {
+            addDecryptor(profilePrivateKey);
+        }
+    }
+
+    @Nullable
+    private static EciesEncryptor createEncryptor(@Nullable String publicKeyHex, @Nullable EphemeralKeyPool ephemeralKeyPool, AeadCipher cipher) {
+        if (publicKeyHex != null) {
+            try {
+                return new EciesEncryptor(Hex.decode(publicKeyHex), ephemeralKeyPool, cipher);
+            } catch (Exception ignore) {
+                // invalid key, encryption fails with an EncryptionException
+            }
+        }
+        return null;
+    }
+
+    @Nullable
+    private static EciesEnvelopeEncryptor createEnvelopeEncryptor(@Nullable String publicKeyHex, List<String> recipients,
+                                                                  @Nullable EphemeralKeyPool ephemeralKeyPool, AeadCipher cipher) {
+        if (publicKeyHex != null) {
+            try {
+                List<byte[]> publicKeys = new ArrayList<>();
+                publicKeys.add(Hex.decode(publicKeyHex));
+                for (String recipient : recipients) {
+                    publicKeys.add(Hex.decode(recipient.trim()));
+                }
+                return new EciesEnvelopeEncryptor(publicKeys, true, ephemeralKeyPool, cipher);
+            } catch (Exception ignore) {
+                // invalid key, encryption fails with an EncryptionException
+            }
+        }
+        return null;
+    }
+
+    @Nullable
+    private static X25519Encryptor createX25519Encryptor(String publicKey, AeadCipher cipher) {
+        try {
+            return new X25519Encryptor(X25519Ecies.decodeKey(publicKey), cipher);
+        } catch (Exception ignore) {
+            // invalid key, encryption fails with an EncryptionException
+            return null;
+        }
+    }
+
+    /**
+     * decryptors share the precomputed contexts of the keys in the key files, the contexts of other keys are their own
+     */
+    private void addDecryptor(@Nullable String privateKeyHex) {
+        if (privateKeyHex == null) {
+            return;
+        }
+        try {
+            KeyEntry entry = Keyring.getDefault().entryOf(privateKeyHex);
+            if (entry.isX25519()) {
+                x25519Decryptors.add(entry.getX25519Decryptor().withCipher(cipher));
+                x25519Entries.add(entry);
+            } else {
+                EciesDecryptor decryptor = entry.getDecryptor().withCipher(cipher);
+                decryptors.add(decryptor);
+                entries.add(entry);
+                decryptorsByKeyId.computeIfAbsent(decryptor.getKeyId(), keyId -> new ArrayList<>(1)).add(decryptor);
+            }
+        } catch (Exception ignore) {
+            // invalid key, values encrypted for it can't be decrypted
         }
     }
 
+    /**
+     * names of the property sources whose values were decrypted with one of the keys
+     *
+     * @param keys keyring entries, e.g. the keys removed from a reloaded key file
+     * @return property source names
+     */
+    public Set<String> getSourcesDecryptedWith(Collection<KeyEntry> keys) {
+        Set<String> sources = new HashSet<>();
+        sources.addAll(router.getSources(indexesOf(entries, keys)));
+        sources.addAll(x25519Router.getSources(indexesOf(x25519Entries, keys)));
+        return sources;
+    }
+
+    private static Set<Integer> indexesOf(List<KeyEntry> entries, Collection<KeyEntry> keys) {
+        Set<Integer> indexes = new HashSet<>();
+        for (int i = 0; i < entries.size(); i++) {
+            if (keys.contains(entries.get(i))) {
+                indexes.add(i);
+            }
+        }
+        return indexes;
+    }
+
     /**
      * encrypt text using dotenvx encryptor
      *
@@ -37,8 +228,21 @@ public class DotenvxEncryptorImpl implements DotenvxEncryptor {
      */
     @Override
     public String encrypt(String text) throws EncryptionException {
+        if (x25519Encryptor != null) {
+            try {
+                return "encrypted:" + x25519Encryptor.encrypt(text);
+            } catch (Exception e) {
+                throw new EncryptionException("Failed to encrypt text: " + text, e);
+            }
+        }
+        if (encryptor == null) {
+            throw new EncryptionException("Failed to encrypt text: " + text + ", no valid public key");
+        }
         try {
-            return "encrypted:" + Ecies.encrypt(publicKeyHex, text);
+            if (envelopeEncryptor != null) {
+                return "encrypted:" + envelopeEncryptor.encrypt(text);
+            }
+            return "encrypted:" + encryptor.encrypt(text);
         } catch (Exception e) {
             throw new EncryptionException("Failed to encrypt text: " + text, e);
         }
@@ -53,23 +257,229 @@ public class DotenvxEncryptorImpl implements DotenvxEncryptor {
      */
     @Override
     public String decrypt(String base64EncodedText) throws DecryptionException {
+        return decrypt(base64EncodedText, null);
+    }
+
+    /**
+     * decrypt text, trying first the key that decrypted the previous values of the property source
+     *
+     * @param base64EncodedText base64 encoded encrypted text with the `encrypted:` prefix if applicable
+     * @param sourceName        property source name of the value, null if unknown
+     * @return decrypted text
+     * @throws DecryptionException descryption exception if decryption fails
+     */
+    @Override
+    public String decrypt(String base64EncodedText, @Nullable String sourceName) throws DecryptionException {
+        return decrypt(base64EncodedText, sourceName, null);
+    }
+
+    /**
+     * decrypt text like {@link #decrypt(String, String)}, and report the keyring entry of the key that decrypted it
+     *
+     * @param base64EncodedText base64 encoded encrypted text with the `encrypted:` prefix if applicable
+     * @param sourceName        property source name of the value, null if unknown
+     * @param decryptedWith     receives the entry of the decrypting key, null if not needed
+     * @return decrypted text
+     * @throws DecryptionException descryption exception if decryption fails
+     */
+    public String decrypt(String base64EncodedText, @Nullable String sourceName, @Nullable Consumer<KeyEntry> decryptedWith) throws DecryptionException {
+        if (base64EncodedText.startsWith("encrypted:")) {
+            base64EncodedText = base64EncodedText.substring("encrypted:".length());
+        }
+        if (BundleCipher.isBundled(base64EncodedText)) {
+            throw new DecryptionException("Failed to decrypt text: " + base64EncodedText + ", encrypted under a data key, see " + BUNDLE_KEY_PROPERTY);
+        }
+        boolean x25519 = X25519Ecies.isX25519(base64EncodedText);
+        final byte[] decrypted;
         try {
-            if (base64EncodedText.startsWith("encrypted:")) {
-                base64EncodedText = base64EncodedText.substring("encrypted:".length());
-            }
-            return Ecies.decrypt(privateKeyHex, base64EncodedText);
-        } catch (Exception ignore) {
+            // decoded once into a per-thread buffer, every decryptor reads the same slice
+            decrypted = Ecies.decodeBase64(x25519 ? base64EncodedText.substring(X25519Ecies.PREFIX.length()) : base64EncodedText,
+                    cipherBuffer -> decrypt(cipherBuffer, x25519, sourceName, decryptedWith));
+        } catch (DecoderException e) {
+            throw new DecryptionException("Failed to decrypt text: " + base64EncodedText + ", not base64");
+        }
+        if (decrypted == null) {
+            throw new DecryptionException("Failed to decrypt text: " + base64EncodedText);
+        }
+        return new String(decrypted, StandardCharsets.UTF_8);
+    }
+
+    @Nullable
+    private byte[] decrypt(ByteBuffer cipherBuffer, boolean x25519, @Nullable String sourceName, @Nullable Consumer<KeyEntry> decryptedWith) {
+        byte[] cipherBytes = cipherBuffer.array();
+        int offset = cipherBuffer.arrayOffset() + cipherBuffer.position();
+        int length = cipherBuffer.remaining();
+        if (x25519) {
+            return x25519Router.decrypt(cipherBytes, offset, length, sourceName,
+                    decryptedWith == null ? null : index -> decryptedWith.accept(x25519Entries.get(index)));
+        } else if (EciesEnvelope.isEnvelope(cipherBytes, offset, length)) {
+            return decryptEnvelope(cipherBytes, offset, length, decryptedWith);
         }
-        for (Map.Entry<String, String> keyPair : profileKeyPairs.entrySet()) {
+        return router.decrypt(cipherBytes, offset, length, sourceName,
+                decryptedWith == null ? null : index -> decryptedWith.accept(entries.get(index)));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String generateBundleKey() throws EncryptionException {
+        return encrypt(Base64.getEncoder().encodeToString(BundleCipher.generateDataKey()));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String encryptBundled(String text, String bundleKey) throws EncryptionException {
+        try {
+            return "encrypted:" + bundleCipher(bundleKey).encrypt(text);
+        } catch (DecryptionException e) {
+            throw new EncryptionException("Failed to encrypt text: " + text + ", invalid data key", e);
+        } catch (Exception e) {
+            throw new EncryptionException("Failed to encrypt text: " + text, e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String decryptBundled(String base64EncodedText, String bundleKey) throws DecryptionException {
+        return decryptBundled(base64EncodedText, bundleKey, null);
+    }
+
+    /**
+     * decrypt text like {@link #decryptBundled(String, String)}, and report the keyring entry of the key that decrypted
+     * the data key
+     *
+     * @param base64EncodedText base64 encoded encrypted text with the `encrypted:` prefix if applicable
+     * @param bundleKey         encrypted data key
+     * @param decryptedWith     receives the entry of the key that decrypted the data key, null if not needed
+     * @return decrypted text
+     * @throws DecryptionException descryption exception if decryption fails
+     */
+    public String decryptBundled(String base64EncodedText, String bundleKey, @Nullable Consumer<KeyEntry> decryptedWith) throws DecryptionException {
+        if (base64EncodedText.startsWith("encrypted:")) {
+            base64EncodedText = base64EncodedText.substring("encrypted:".length());
+        }
+        BundleCipher bundleCipher = bundleCipher(bundleKey);
+        String decrypted;
+        try {
+            decrypted = bundleCipher.decrypt(base64EncodedText);
+        } catch (Exception e) {
+            throw new DecryptionException("Failed to decrypt text: " + base64EncodedText, e);
+        }
+        KeyEntry entry = bundleKeyEntries.get(bundleKey);
+        if (decryptedWith != null && entry != null) {
+            decryptedWith.accept(entry);
+        }
+        return decrypted;
+    }
+
+    private BundleCipher bundleCipher(String bundleKey) throws DecryptionException {
+        BundleCipher bundleCipher = bundleCiphers.get(bundleKey);
+        if (bundleCipher == null) {
+            // a race decrypts the data key twice, the same key
+            byte[] dataKey;
             try {
-                String privateKey = keyPair.getValue();
-                if (base64EncodedText.startsWith("encrypted:")) {
-                    base64EncodedText = base64EncodedText.substring("encrypted:".length());
+                dataKey = Base64.getDecoder().decode(decrypt(bundleKey, null, entry -> bundleKeyEntries.put(bundleKey, entry)));
+                bundleCipher = new BundleCipher(dataKey, cipher);
+            } catch (IllegalArgumentException e) {
+                throw new DecryptionException("Invalid data key", e);
+            }
+            bundleCiphers.put(bundleKey, bundleCipher);
+        }
+        return bundleCipher;
+    }
+
+    /**
+     * the key ids of a versioned value name its private keys, no trial
+     */
+    @Nullable
+    private byte[] decryptEnvelope(byte[] cipherBytes, int offset, int length, @Nullable Consumer<KeyEntry> decryptedWith) {
+        int recipients = EciesEnvelope.recipients(cipherBytes, offset, length);
+        for (int i = 0; i < recipients; i++) {
+            int keyId = EciesEnvelope.keyId(cipherBytes, offset, i);
+            List<EciesDecryptor> candidates = decryptorsByKeyId.get(keyId);
+            if (candidates == null || isPreviousKeyId(cipherBytes, offset, i, keyId)) {
+                // a decryptor tries all the recipients with its key id at once
+                continue;
+            }
+            // a colliding key id or a damaged wrapped key fails, the other keys are still tried
+            for (EciesDecryptor decryptor : candidates) {
+                byte[] decrypted = decryptor.tryDecrypt(cipherBytes, offset, length);
+                if (decrypted != null) {
+                    if (decryptedWith != null) {
+                        decryptedWith.accept(entryOf(decryptor));
+                    }
+                    return decrypted;
                 }
-                return Ecies.decrypt(privateKey, base64EncodedText);
-            } catch (Exception ignore) {
             }
         }
-        throw new DecryptionException("Failed to decrypt text: " + base64EncodedText);
+        return null;
+    }
+
+    private KeyEntry entryOf(EciesDecryptor decryptor) {
+        for (int i = 0; i < decryptors.size(); i++) {
+            if (decryptors.get(i) == decryptor) {
+                return entries.get(i);
+            }
+        }
+        throw new IllegalStateException("Unknown decryptor");
+    }
+
+    private static boolean isPreviousKeyId(byte[] cipherBytes, int offset, int index, int keyId) {
+        for (int i = 0; i < index; i++) {
+            if (EciesEnvelope.keyId(cipherBytes, offset, i) == keyId) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<BatchResult<String>> encryptAll(Collection<String> texts) {
+        return encryptAll(texts, batchExecutor);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<BatchResult<String>> decryptAll(Collection<String> base64EncodedTexts) {
+        return decryptAll(base64EncodedTexts, batchExecutor);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public OutputStream encryptingStream(OutputStream out) throws EncryptionException {
+        if (x25519Encryptor != null) {
+            throw new EncryptionException("Streaming encryption is not supported for x25519 keys");
+        }
+        if (encryptor == null) {
+            throw new EncryptionException("Failed to encrypt stream, no valid public key");
+        }
+        try {
+            return encryptor.encryptingStream(out);
+        } catch (IOException e) {
+            throw new EncryptionException("Failed to encrypt stream", e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public InputStream decryptingStream(InputStream in) throws DecryptionException {
+        if (decryptors.isEmpty()) {
+            throw new DecryptionException("Failed to decrypt stream, no valid private key");
+        }
+        return new EciesInputStream(in, decryptors);
     }
 }
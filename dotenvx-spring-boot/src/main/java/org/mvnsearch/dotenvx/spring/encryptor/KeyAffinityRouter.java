@@ -0,0 +1,97 @@
+package org.mvnsearch.dotenvx.spring.encryptor;
+
+import org.mvnsearch.dotenvx.ecies.TrialDecryptor;
+import org.springframework.lang.Nullable;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntConsumer;
+
+/**
+ * Routes a ciphertext to the key that decrypted the previous values of the same property source, or the last
+ * successful key when the source is unknown, and falls back to the other keys in turn. Values of one source are
+ * normally encrypted with one key, so after the first value of a source each one costs a single ECDH.
+ *
+ * @author linux_china
+ */
+class KeyAffinityRouter {
+    private final List<? extends TrialDecryptor> decryptors;
+    /**
+     * index of the decryptor by property source name
+     */
+    private final Map<String, Integer> affinity = new ConcurrentHashMap<>();
+    private volatile int last;
+
+    KeyAffinityRouter(List<? extends TrialDecryptor> decryptors) {
+        this.decryptors = decryptors;
+    }
+
+    /**
+     * decrypt with the preferred key first, then the others
+     *
+     * @param cipherBytes cipher text binary
+     * @param offset      offset of the ciphertext
+     * @param length      length of the ciphertext
+     * @param sourceName  property source name of the value, null if unknown
+     * @return decrypted message binary, or null if no key decrypts it
+     */
+    @Nullable
+    byte[] decrypt(byte[] cipherBytes, int offset, int length, @Nullable String sourceName) {
+        return decrypt(cipherBytes, offset, length, sourceName, null);
+    }
+
+    /**
+     * decrypt with the preferred key first, then the others, and report the index of the decrypting key
+     *
+     * @param cipherBytes   cipher text binary
+     * @param offset        offset of the ciphertext
+     * @param length        length of the ciphertext
+     * @param sourceName    property source name of the value, null if unknown
+     * @param decryptedWith receives the index of the decryptor that decrypted it, null if not needed
+     * @return decrypted message binary, or null if no key decrypts it
+     */
+    @Nullable
+    byte[] decrypt(byte[] cipherBytes, int offset, int length, @Nullable String sourceName, @Nullable IntConsumer decryptedWith) {
+        int size = decryptors.size();
+        Integer known = sourceName == null ? null : affinity.get(sourceName);
+        int start = known != null && known < size ? known : last;
+        for (int i = 0; i < size; i++) {
+            int index = (start + i) % size;
+            byte[] decrypted = decryptors.get(index).tryDecrypt(cipherBytes, offset, length);
+            if (decrypted != null) {
+                if (i != 0 || last != index) {
+                    last = index;
+                }
+                if (sourceName != null && (known == null || known != index)) {
+                    affinity.put(sourceName, index);
+                }
+                if (decryptedWith != null) {
+                    decryptedWith.accept(index);
+                }
+                return decrypted;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * property sources routed to one of the decryptors
+     *
+     * @param indexes decryptor indexes
+     * @return property source names
+     */
+    Set<String> getSources(Set<Integer> indexes) {
+        Set<String> sources = new HashSet<>();
+        if (!indexes.isEmpty()) {
+            affinity.forEach((source, index) -> {
+                if (indexes.contains(index)) {
+                    sources.add(source);
+                }
+            });
+        }
+        return sources;
+    }
+}
@@ -2,8 +2,11 @@ package org.mvnsearch.dotenvx.spring.filter;
 
 import org.mvnsearch.dotenvx.spring.EncryptablePropertyFilter;
 import org.springframework.core.env.PropertySource;
+import org.springframework.lang.Nullable;
 
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Default Strategy for contemplating properties for decryption based on the following constructor args:
@@ -11,25 +14,32 @@ import java.util.List;
  * <b>includeSourceNames:</b> To include property sources by name, provide a list of regex. If set, property sources that don't match will be excluded
  * <b>includePropertyNames:</b> To include properties by name, provide a list of regex. If set, properties that don't match will be excluded
  * </p>
+ * <p>
+ * Patterns are compiled once, and decisions are memoized per source name and property name.
+ * </p>
  *
  * @author Ulises Bocchio
  * @version $Id: $Id
  */
 public class DefaultPropertyFilter implements EncryptablePropertyFilter {
+    /**
+     * memoized property sources, and property names per source
+     */
+    private static final int MAX_SOURCES = 256;
+    private static final int MAX_NAMES = 4096;
 
-    private final List<String> includeSourceNames;
-    private final List<String> excludeSourceNames;
-    private final List<String> includePropertyNames;
-    private final List<String> excludePropertyNames;
+    private final NamePatterns includeSourceNames;
+    private final NamePatterns excludeSourceNames;
+    private final NamePatterns includePropertyNames;
+    private final NamePatterns excludePropertyNames;
+    private final boolean includeAll;
+    private final Map<String, SourceDecisions> decisions = new ConcurrentHashMap<>();
 
     /**
      * <p>Constructor for DefaultPropertyFilter.</p>
      */
     public DefaultPropertyFilter() {
-        includeSourceNames = null;
-        includePropertyNames = null;
-        excludeSourceNames = null;
-        excludePropertyNames = null;
+        this(null, null, null, null);
     }
 
     /**
@@ -41,44 +51,81 @@ public class DefaultPropertyFilter implements EncryptablePropertyFilter {
      * @param excludePropertyNames a {@link java.util.List} object
      */
     public DefaultPropertyFilter(List<String> includeSourceNames, List<String> excludeSourceNames, List<String> includePropertyNames, List<String> excludePropertyNames) {
-        this.includeSourceNames = includeSourceNames;
-        this.excludeSourceNames = excludeSourceNames;
-        this.includePropertyNames = includePropertyNames;
-        this.excludePropertyNames = excludePropertyNames;
+        this.includeSourceNames = NamePatterns.compile(includeSourceNames);
+        this.excludeSourceNames = NamePatterns.compile(excludeSourceNames);
+        this.includePropertyNames = NamePatterns.compile(includePropertyNames);
+        this.excludePropertyNames = NamePatterns.compile(excludePropertyNames);
+        this.includeAll = isIncludeUnset() && isExcludeUnset();
     }
 
     /** {@inheritDoc} */
     @Override
     public boolean shouldInclude(PropertySource<?> source, String name) {
-        if (isIncludeAll()) {
+        if (includeAll) {
             return true;
         }
-
-        if (isMatch(source.getName(), excludeSourceNames) || isMatch(name, excludePropertyNames)) {
-            return false;
+        String sourceName = source.getName();
+        SourceDecisions sourceDecisions = sourceName != null ? sourceDecisions(sourceName) : null;
+        if (sourceDecisions == null || name == null) {
+            return decide(sourceName, name);
         }
+        Boolean included = sourceDecisions.names.get(name);
+        if (included == null) {
+            included = sourceDecisions.decide(name);
+            if (sourceDecisions.names.size() < MAX_NAMES) {
+                sourceDecisions.names.put(name, included);
+            }
+        }
+        return included;
+    }
 
-        return isIncludeUnset() || isMatch(source.getName(), includeSourceNames) || isMatch(name, includePropertyNames);
-
+    @Nullable
+    private SourceDecisions sourceDecisions(String sourceName) {
+        SourceDecisions sourceDecisions = decisions.get(sourceName);
+        if (sourceDecisions == null && decisions.size() < MAX_SOURCES) {
+            SourceDecisions created = new SourceDecisions(excludeSourceNames.matches(sourceName),
+                    isIncludeUnset() || includeSourceNames.matches(sourceName));
+            sourceDecisions = decisions.putIfAbsent(sourceName, created);
+            if (sourceDecisions == null) {
+                sourceDecisions = created;
+            }
+        }
+        return sourceDecisions;
     }
 
-    private boolean isIncludeAll() {
-        return isIncludeUnset() && isExcludeUnset();
+    private boolean decide(@Nullable String sourceName, @Nullable String name) {
+        if (excludeSourceNames.matches(sourceName) || excludePropertyNames.matches(name)) {
+            return false;
+        }
+        return isIncludeUnset() || includeSourceNames.matches(sourceName) || includePropertyNames.matches(name);
     }
 
     private boolean isIncludeUnset() {
-        return isEmpty(includeSourceNames) && isEmpty(includePropertyNames);
+        return includeSourceNames.isEmpty() && includePropertyNames.isEmpty();
     }
 
     private boolean isExcludeUnset() {
-        return isEmpty(excludeSourceNames) && isEmpty(excludePropertyNames);
+        return excludeSourceNames.isEmpty() && excludePropertyNames.isEmpty();
     }
 
-    private boolean isEmpty(List<String> patterns) {
-        return patterns == null || patterns.isEmpty();
-    }
+    /**
+     * decisions for the properties of one source, whose own name was matched once
+     */
+    private final class SourceDecisions {
+        private final boolean sourceExcluded;
+        private final boolean sourceIncluded;
+        private final Map<String, Boolean> names = new ConcurrentHashMap<>();
+
+        private SourceDecisions(boolean sourceExcluded, boolean sourceIncluded) {
+            this.sourceExcluded = sourceExcluded;
+            this.sourceIncluded = sourceIncluded;
+        }
 
-    private boolean isMatch(String name, List<String> patterns) {
-        return name != null && !isEmpty(patterns) && patterns.stream().anyMatch(name::matches);
+        private boolean decide(String name) {
+            if (sourceExcluded || excludePropertyNames.matches(name)) {
+                return false;
+            }
+            return sourceIncluded || includePropertyNames.matches(name);
+        }
     }
 }
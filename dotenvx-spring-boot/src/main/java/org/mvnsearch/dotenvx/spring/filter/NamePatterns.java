@@ -0,0 +1,158 @@
+package org.mvnsearch.dotenvx.spring.filter;
+
+import org.springframework.lang.Nullable;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Regular expressions matched against whole names, as {@link String#matches(String)} does, compiled once.
+ * <p>
+ * Literal patterns, such as {@code ^dotenvx\.encryptor$}, are matched with a set lookup and literals followed by
+ * {@code .*} with {@code startsWith}. The other patterns are joined into one alternation, except those with back
+ * references, whose group numbers would change.
+ * </p>
+ *
+ * @author linux_china
+ */
+final class NamePatterns {
+    private static final NamePatterns NONE = new NamePatterns(Set.of(), new String[0], new Pattern[0]);
+    private static final Pattern BACK_REFERENCE = Pattern.compile("\\\\([1-9]|k<)");
+    private static final String META_CHARACTERS = ".[]{}()*+?^$|";
+    private final Set<String> literals;
+    private final String[] prefixes;
+    private final Pattern[] patterns;
+
+    private NamePatterns(Set<String> literals, String[] prefixes, Pattern[] patterns) {
+        this.literals = literals;
+        this.prefixes = prefixes;
+        this.patterns = patterns;
+    }
+
+    static NamePatterns compile(@Nullable List<String> regexes) {
+        if (regexes == null || regexes.isEmpty()) {
+            return NONE;
+        }
+        Set<String> literals = new HashSet<>();
+        List<String> prefixes = new ArrayList<>();
+        List<Pattern> patterns = new ArrayList<>();
+        StringBuilder alternation = new StringBuilder();
+        for (String regex : regexes) {
+            // validated as before, invalid patterns fail when the filter is created instead of on the first lookup
+            Pattern pattern = Pattern.compile(regex);
+            String literal = literal(regex);
+            if (literal != null) {
+                literals.add(literal);
+            } else if ((literal = prefix(regex)) != null) {
+                prefixes.add(literal);
+            } else if (BACK_REFERENCE.matcher(regex).find()) {
+                patterns.add(pattern);
+            } else {
+                alternation.append(alternation.isEmpty() ? "" : "|").append("(?:").append(regex).append(')');
+            }
+        }
+        if (!alternation.isEmpty()) {
+            patterns.add(Pattern.compile(alternation.toString()));
+        }
+        return new NamePatterns(Set.copyOf(literals), prefixes.toArray(new String[0]), patterns.toArray(new Pattern[0]));
+    }
+
+    boolean isEmpty() {
+        return this == NONE;
+    }
+
+    boolean matches(@Nullable String name) {
+        if (name == null || this == NONE) {
+            return false;
+        }
+        if (literals.contains(name)) {
+            return true;
+        }
+        for (String prefix : prefixes) {
+            if (name.startsWith(prefix) && !hasLineTerminator(name, prefix.length())) {
+                return true;
+            }
+        }
+        for (Pattern pattern : patterns) {
+            if (pattern.matcher(name).matches()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * the text matched by a regex without quantifiers, classes or groups, anchors aside
+     *
+     * @return literal text, null if the regex isn't literal
+     */
+    @Nullable
+    static String literal(String regex) {
+        int start = regex.startsWith("^") ? 1 : 0;
+        int end = regex.length();
+        if (end > start && regex.charAt(end - 1) == '$' && !isEscaped(regex, end - 1)) {
+            end--;
+        }
+        StringBuilder literal = new StringBuilder(end - start);
+        for (int i = start; i < end; i++) {
+            char c = regex.charAt(i);
+            if (c == '\\') {
+                if (i + 1 >= end || Character.isLetterOrDigit(regex.charAt(i + 1))) {
+                    // character classes such as \d, escapes such as \Q or \n
+                    return null;
+                }
+                literal.append(regex.charAt(++i));
+            } else if (META_CHARACTERS.indexOf(c) >= 0) {
+                return null;
+            } else {
+                literal.append(c);
+            }
+        }
+        return literal.toString();
+    }
+
+    /**
+     * the text before a final {@code .*} of a regex otherwise literal
+     *
+     * @return literal prefix, null if the regex isn't a literal followed by {@code .*}
+     */
+    @Nullable
+    static String prefix(String regex) {
+        int end = regex.length();
+        if (end > 0 && regex.charAt(end - 1) == '$' && !isEscaped(regex, end - 1)) {
+            end--;
+        }
+        if (end < 2 || !regex.startsWith(".*", end - 2) || isEscaped(regex, end - 2)) {
+            return null;
+        }
+        String head = regex.substring(0, end - 2);
+        if (head.endsWith("$") && !isEscaped(head, head.length() - 1)) {
+            return null;
+        }
+        return literal(head);
+    }
+
+    /**
+     * {@code .} doesn't match line terminators
+     */
+    private static boolean hasLineTerminator(String name, int from) {
+        for (int i = from; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isEscaped(String regex, int index) {
+        int backslashes = 0;
+        for (int i = index - 1; i >= 0 && regex.charAt(i) == '\\'; i--) {
+            backslashes++;
+        }
+        return backslashes % 2 == 1;
+    }
+}
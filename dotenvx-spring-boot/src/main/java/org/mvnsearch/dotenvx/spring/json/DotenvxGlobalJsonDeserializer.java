@@ -5,7 +5,8 @@ import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
-import org.mvnsearch.dotenvx.ecies.Ecies;
+import org.mvnsearch.dotenvx.ecies.EciesDecryptor;
+import org.mvnsearch.dotenvx.keyring.Keyring;
 
 import java.io.IOException;
 
@@ -16,16 +17,20 @@ import java.io.IOException;
  */
 
 public class DotenvxGlobalJsonDeserializer extends StdDeserializer<String> {
-    private final String privateKey;
+    private final EciesDecryptor decryptor;
 
     public DotenvxGlobalJsonDeserializer(String privateKey) {
+        this(Keyring.getDefault().entryOf(privateKey).getDecryptor());
+    }
+
+    public DotenvxGlobalJsonDeserializer(EciesDecryptor decryptor) {
         super(String.class);
-        this.privateKey = privateKey;
+        this.decryptor = decryptor;
     }
 
     public String decryptData(String data) throws IOException {
         try {
-            return Ecies.decrypt(privateKey, data.substring(10));
+            return decryptor.decrypt(data.substring(10));
         } catch (Exception e) {
             throw new IOException("Failed to encrypt data", e);
         }
@@ -3,7 +3,11 @@ package org.mvnsearch.dotenvx.spring.json;
 import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.SerializerProvider;
 import com.fasterxml.jackson.databind.ser.std.StdSerializer;
-import org.mvnsearch.dotenvx.ecies.Ecies;
+import org.mvnsearch.dotenvx.ecies.EciesEncryptor;
+import org.mvnsearch.dotenvx.ecies.EphemeralKeyPool;
+import org.mvnsearch.dotenvx.spring.encryptor.DefaultLazyEncryptor;
+import org.mvnsearch.dotenvx.spring.encryptor.DotenvxEncryptor;
+import org.springframework.lang.Nullable;
 
 import java.io.IOException;
 
@@ -13,12 +17,36 @@ import java.io.IOException;
  * @author linux_china
  */
 public class DotenvxGlobalJsonSerializer extends StdSerializer<String> {
-    private final String publicKey;
+    private final EciesEncryptor encryptor;
     public static String prefix = "private:";
 
     public DotenvxGlobalJsonSerializer(String publicKey) {
+        this(EciesEncryptor.fromHex(publicKey));
+    }
+
+    /**
+     * serializer taking its ephemeral keys from the pool
+     *
+     * @param publicKey        public key in hex
+     * @param ephemeralKeyPool pool of pre-generated ephemeral keys, null to generate them on the calling thread
+     */
+    public DotenvxGlobalJsonSerializer(String publicKey, @Nullable EphemeralKeyPool ephemeralKeyPool) {
+        this(EciesEncryptor.fromHex(publicKey, ephemeralKeyPool));
+    }
+
+    /**
+     * serializer sharing the ephemeral key pool configured for the encryptor, see `dotenvx.encryptor.ephemeral-key-pool.size`
+     *
+     * @param publicKey public key in hex
+     * @param encryptor dotenvx encryptor, usually the `lazyDotenvxEncryptor` bean
+     */
+    public DotenvxGlobalJsonSerializer(String publicKey, DotenvxEncryptor encryptor) {
+        this(publicKey, encryptor instanceof DefaultLazyEncryptor lazyEncryptor ? lazyEncryptor.getEphemeralKeyPool() : null);
+    }
+
+    public DotenvxGlobalJsonSerializer(EciesEncryptor encryptor) {
         super(String.class);
-        this.publicKey = publicKey;
+        this.encryptor = encryptor;
     }
 
     @Override
@@ -32,7 +60,7 @@ public class DotenvxGlobalJsonSerializer extends StdSerializer<String> {
 
     public String encryptData(String data) throws IOException {
         try {
-            return Ecies.encrypt(publicKey, data);
+            return encryptor.encrypt(data);
         } catch (Exception e) {
             throw new IOException("Failed to encrypt data", e);
         }
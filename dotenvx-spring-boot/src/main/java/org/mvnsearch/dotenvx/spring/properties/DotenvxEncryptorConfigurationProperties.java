@@ -105,14 +105,32 @@ public class DotenvxEncryptorConfigurationProperties {
 
         /**
          * Specify a custom {@link String} to identify as prefix of encrypted properties. Default value is
-         * {@code "ENC("}
+         * {@code "encrypted:"}
          */
         private String prefix = "encrypted:";
 
+        /**
+         * Specify other prefixes of encrypted properties, such as legacy ones, whose values are decrypted the same way.
+         * Default value is {@code null}
+         */
+        private List<String> additionalPrefixes = null;
+
         public String getPrefix() {
             return prefix;
         }
 
+        public void setPrefix(String prefix) {
+            this.prefix = prefix;
+        }
+
+        public List<String> getAdditionalPrefixes() {
+            return additionalPrefixes;
+        }
+
+        public void setAdditionalPrefixes(List<String> additionalPrefixes) {
+            this.additionalPrefixes = additionalPrefixes;
+        }
+
         public FilterConfigurationProperties getFilter() {
             return filter;
         }
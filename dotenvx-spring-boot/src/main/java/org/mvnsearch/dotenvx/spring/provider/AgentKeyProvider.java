@@ -0,0 +1,119 @@
+package org.mvnsearch.dotenvx.spring.provider;
+
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.core.env.Environment;
+import org.springframework.lang.Nullable;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * private key from a local key agent listening on a Unix domain socket, set with `dotenvx.agent.socket` or the
+ * `DOTENVX_AGENT_SOCK` environment variable. The provider is skipped when neither is set.
+ * <p>
+ * One request per connection: the client sends the key name, followed by a space and the public key if there is one,
+ * e.g. {@code DOTENV_PRIVATE_KEY_PRODUCTION 02b4...}, and a line feed; the agent answers with the private key and a
+ * line feed, or an empty line if it doesn't hold the key. See {@link KeyAgentServer}.
+ * </p>
+ * <p>
+ * An agent that doesn't answer within `dotenvx.agent.timeout`, 5s by default, fails the lookup.
+ * </p>
+ *
+ * @author linux_china
+ */
+public class AgentKeyProvider implements DotenvxKeyProvider {
+    /**
+     * Constant <code>SOCKET_ENV_NAME="DOTENVX_AGENT_SOCK"</code>
+     */
+    public static final String SOCKET_ENV_NAME = "DOTENVX_AGENT_SOCK";
+    private static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(5);
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Nullable
+    public String getPrivateKey(Environment environment, @Nullable String profile, @Nullable String publicKey) throws IOException {
+        String socket = environment.getProperty("dotenvx.agent.socket", System.getenv(SOCKET_ENV_NAME));
+        if (socket == null || socket.isEmpty()) {
+            return null;
+        }
+        String request = DotenvxKeyProvider.keyName(profile) + (publicKey != null ? " " + publicKey : "");
+        String timeoutText = environment.getProperty("dotenvx.agent.timeout");
+        Duration timeout = timeoutText == null || timeoutText.isBlank() ? DEFAULT_TIMEOUT : DurationStyle.detectAndParse(timeoutText.trim());
+        long deadline = System.nanoTime() + timeout.toNanos();
+        // non-blocking, so that a stuck agent can't block the lookup longer than the timeout
+        try (SocketChannel channel = SocketChannel.open(StandardProtocolFamily.UNIX); Selector selector = Selector.open()) {
+            channel.configureBlocking(false);
+            SelectionKey key = channel.register(selector, 0);
+            if (!channel.connect(UnixDomainSocketAddress.of(socket))) {
+                await(key, SelectionKey.OP_CONNECT, deadline, timeout);
+                channel.finishConnect();
+            }
+            ByteBuffer output = ByteBuffer.wrap((request + "\n").getBytes(StandardCharsets.UTF_8));
+            while (output.hasRemaining()) {
+                if (channel.write(output) == 0) {
+                    await(key, SelectionKey.OP_WRITE, deadline, timeout);
+                }
+            }
+            ByteArrayOutputStream line = new ByteArrayOutputStream(128);
+            ByteBuffer input = ByteBuffer.allocate(256);
+            int read;
+            while ((read = channel.read(input)) >= 0) {
+                if (read == 0) {
+                    await(key, SelectionKey.OP_READ, deadline, timeout);
+                    continue;
+                }
+                input.flip();
+                while (input.hasRemaining()) {
+                    byte b = input.get();
+                    if (b == '\n') {
+                        return privateKey(line);
+                    }
+                    line.write(b);
+                }
+                input.clear();
+            }
+            return privateKey(line);
+        }
+    }
+
+    private static void await(SelectionKey key, int operation, long deadline, Duration timeout) throws IOException {
+        key.interestOps(operation);
+        Selector selector = key.selector();
+        while (true) {
+            long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            if (remaining <= 0) {
+                throw new SocketTimeoutException("Key agent didn't answer within " + timeout);
+            }
+            if (selector.select(remaining) > 0) {
+                selector.selectedKeys().clear();
+                return;
+            }
+        }
+    }
+
+    @Nullable
+    private static String privateKey(ByteArrayOutputStream line) {
+        String privateKey = line.toString(StandardCharsets.UTF_8).strip();
+        return privateKey.isEmpty() ? null : privateKey;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getOrder() {
+        return 300;
+    }
+}
@@ -0,0 +1,34 @@
+package org.mvnsearch.dotenvx.spring.provider;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.env.EnvironmentPostProcessor;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.ConfigurableEnvironment;
+
+/**
+ * Starts the private key lookups of {@link DotenvxKeyProviders} once the configuration files are loaded, so that they
+ * run during the rest of the startup instead of on the first encrypted property. Disabled with
+ * `dotenvx.key-providers.prefetch=false`.
+ *
+ * @author linux_china
+ */
+public class DotenvxKeyPrefetchEnvironmentPostProcessor implements EnvironmentPostProcessor, Ordered {
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void postProcessEnvironment(ConfigurableEnvironment environment, SpringApplication application) {
+        if (environment.getProperty("dotenvx.key-providers.prefetch", Boolean.class, true)) {
+            DotenvxKeyProviders.get(environment).prefetch(environment);
+        }
+    }
+
+    /**
+     * after the config data processor, which loads `dotenv.public.key` and the active profiles
+     */
+    @Override
+    public int getOrder() {
+        return Ordered.LOWEST_PRECEDENCE;
+    }
+}
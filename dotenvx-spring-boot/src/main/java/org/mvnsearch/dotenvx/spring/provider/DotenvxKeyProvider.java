@@ -0,0 +1,37 @@
+package org.mvnsearch.dotenvx.spring.provider;
+
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.lang.Nullable;
+
+/**
+ * Source of the private keys of the default encryptor. Providers are listed in `META-INF/spring.factories` under this
+ * interface name and asked in order, the first non-null key wins. Built-in providers, in order: `dotenv.private.key`
+ * properties, `DOTENV_PRIVATE_KEY` environment variables, the key agent and the keyring files.
+ *
+ * @author linux_china
+ */
+public interface DotenvxKeyProvider extends Ordered {
+
+    /**
+     * private key for a profile, or for the primary key pair
+     *
+     * @param environment environment
+     * @param profile     active profile, null for the primary key
+     * @param publicKey   public key of the profile from `dotenv.public.key[.profile]`, may be null
+     * @return private key, or null if the provider doesn't know it
+     * @throws Exception if the key can't be retrieved, the next provider is asked
+     */
+    @Nullable
+    String getPrivateKey(Environment environment, @Nullable String profile, @Nullable String publicKey) throws Exception;
+
+    /**
+     * name of the key in `.env.keys` and of its environment variable
+     *
+     * @param profile profile, null for the primary key
+     * @return name, e.g. `DOTENV_PRIVATE_KEY_PRODUCTION`
+     */
+    static String keyName(@Nullable String profile) {
+        return profile == null ? "DOTENV_PRIVATE_KEY" : "DOTENV_PRIVATE_KEY_" + profile.toUpperCase();
+    }
+}
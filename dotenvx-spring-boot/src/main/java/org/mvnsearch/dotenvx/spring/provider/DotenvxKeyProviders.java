@@ -0,0 +1,168 @@
+package org.mvnsearch.dotenvx.spring.provider;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.MutablePropertySources;
+import org.springframework.core.env.PropertySource;
+import org.springframework.core.io.support.SpringFactoriesLoader;
+import org.springframework.lang.Nullable;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Ordered chain of {@link DotenvxKeyProvider}s of an environment, with the keys it found.
+ * <p>
+ * {@link #prefetch(ConfigurableEnvironment)} looks up the primary and active profile keys on background threads, so that slow providers, a
+ * key agent or the keyring files, overlap with the rest of the startup; {@link #getPrivateKey(ConfigurableEnvironment, String, String)}
+ * then waits for the prefetched key, or looks it up on the calling thread if it was not prefetched.
+ * </p>
+ * <p>
+ * The instance of an environment is kept in one of its property sources, without properties, so that it is released
+ * with the environment and shared with its copies.
+ * </p>
+ *
+ * @author linux_china
+ */
+public final class DotenvxKeyProviders {
+    private static final Logger log = LoggerFactory.getLogger(DotenvxKeyProviders.class);
+    private static final long TIMEOUT_SECONDS = 10;
+    private static final Executor PREFETCH_EXECUTOR = task -> {
+        Thread thread = new Thread(task, "dotenvx-key-prefetch");
+        thread.setDaemon(true);
+        thread.start();
+    };
+    /**
+     * Constant <code>PROPERTY_SOURCE_NAME="dotenvxKeyProviders"</code>
+     */
+    public static final String PROPERTY_SOURCE_NAME = "dotenvxKeyProviders";
+    private final List<DotenvxKeyProvider> providers;
+    /**
+     * private key lookups by profile and public key
+     */
+    private final Map<String, CompletableFuture<String>> keys = new ConcurrentHashMap<>();
+
+    /**
+     * <p>Constructor for DotenvxKeyProviders.</p>
+     *
+     * @param providers providers, in order
+     */
+    public DotenvxKeyProviders(List<DotenvxKeyProvider> providers) {
+        this.providers = providers;
+    }
+
+    /**
+     * providers of the environment, from `META-INF/spring.factories`
+     *
+     * @param environment environment
+     * @return providers, shared by the prefetch and the encryptor of the environment
+     */
+    public static DotenvxKeyProviders get(ConfigurableEnvironment environment) {
+        MutablePropertySources propertySources = environment.getPropertySources();
+        synchronized (propertySources) {
+            PropertySource<?> propertySource = propertySources.get(PROPERTY_SOURCE_NAME);
+            if (propertySource != null && propertySource.getSource() instanceof DotenvxKeyProviders keyProviders) {
+                return keyProviders;
+            }
+            DotenvxKeyProviders keyProviders = new DotenvxKeyProviders(
+                    SpringFactoriesLoader.loadFactories(DotenvxKeyProvider.class, DotenvxKeyProviders.class.getClassLoader()));
+            propertySources.addLast(new KeyProvidersPropertySource(keyProviders));
+            return keyProviders;
+        }
+    }
+
+    /**
+     * start looking up the primary key and the keys of the active profiles
+     *
+     * @param environment environment
+     */
+    public void prefetch(ConfigurableEnvironment environment) {
+        fetch(environment, null, environment.getProperty("dotenv.public.key"));
+        for (String profile : environment.getActiveProfiles()) {
+            fetch(environment, profile, environment.getProperty("dotenv.public.key." + profile));
+        }
+    }
+
+    /**
+     * private key of a profile, prefetched or looked up now
+     *
+     * @param environment environment
+     * @param profile     profile, null for the primary key
+     * @param publicKey   public key of the profile, may be null
+     * @return private key or null
+     */
+    @Nullable
+    public String getPrivateKey(ConfigurableEnvironment environment, @Nullable String profile, @Nullable String publicKey) {
+        CompletableFuture<String> key = keys.get(cacheKey(profile, publicKey));
+        if (key == null) {
+            String privateKey = lookup(environment, profile, publicKey);
+            keys.putIfAbsent(cacheKey(profile, publicKey), CompletableFuture.completedFuture(privateKey));
+            return privateKey;
+        }
+        try {
+            return key.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (TimeoutException e) {
+            log.warn("Private key {} not returned by the key providers within {}s", DotenvxKeyProvider.keyName(profile), TIMEOUT_SECONDS);
+            return null;
+        } catch (ExecutionException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    /**
+     * forget the keys found so far, e.g. after the key files changed
+     */
+    public void clear() {
+        keys.clear();
+    }
+
+    private void fetch(ConfigurableEnvironment environment, @Nullable String profile, @Nullable String publicKey) {
+        keys.computeIfAbsent(cacheKey(profile, publicKey),
+                key -> CompletableFuture.supplyAsync(() -> lookup(environment, profile, publicKey), PREFETCH_EXECUTOR));
+    }
+
+    @Nullable
+    private String lookup(ConfigurableEnvironment environment, @Nullable String profile, @Nullable String publicKey) {
+        for (DotenvxKeyProvider provider : providers) {
+            try {
+                String privateKey = provider.getPrivateKey(environment, profile, publicKey);
+                if (privateKey != null && !privateKey.isEmpty()) {
+                    return privateKey;
+                }
+            } catch (Exception e) {
+                log.warn("Key provider {} failed for {}: {}", provider.getClass().getSimpleName(), DotenvxKeyProvider.keyName(profile), e.getMessage());
+            }
+        }
+        return null;
+    }
+
+    private static String cacheKey(@Nullable String profile, @Nullable String publicKey) {
+        return profile + "/" + publicKey;
+    }
+
+    /**
+     * holds the key providers of an environment, without properties
+     */
+    static final class KeyProvidersPropertySource extends PropertySource<DotenvxKeyProviders> {
+
+        KeyProvidersPropertySource(DotenvxKeyProviders keyProviders) {
+            super(PROPERTY_SOURCE_NAME, keyProviders);
+        }
+
+        @Override
+        @Nullable
+        public Object getProperty(String name) {
+            return null;
+        }
+    }
+}
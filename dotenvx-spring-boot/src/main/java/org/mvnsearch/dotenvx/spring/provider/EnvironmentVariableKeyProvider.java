@@ -0,0 +1,29 @@
+package org.mvnsearch.dotenvx.spring.provider;
+
+import org.springframework.core.env.Environment;
+import org.springframework.lang.Nullable;
+
+/**
+ * private key from the `DOTENV_PRIVATE_KEY` or `DOTENV_PRIVATE_KEY_[PROFILE]` environment variable
+ *
+ * @author linux_china
+ */
+public class EnvironmentVariableKeyProvider implements DotenvxKeyProvider {
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Nullable
+    public String getPrivateKey(Environment environment, @Nullable String profile, @Nullable String publicKey) {
+        return System.getenv(DotenvxKeyProvider.keyName(profile));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getOrder() {
+        return 200;
+    }
+}
@@ -0,0 +1,106 @@
+package org.mvnsearch.dotenvx.spring.provider;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.AsynchronousCloseException;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Minimal in-process key agent speaking the protocol of {@link AgentKeyProvider}, e.g. to stand in for the real agent
+ * in tests. Keys are looked up by public key first, then by key name. Requests are served one at a time on a daemon
+ * thread.
+ *
+ * @author linux_china
+ */
+public final class KeyAgentServer implements AutoCloseable {
+    private final Path socket;
+    private final Map<String, String> keys = new ConcurrentHashMap<>();
+    private final ServerSocketChannel serverChannel;
+    private final Thread acceptThread;
+    private final AtomicInteger requests = new AtomicInteger();
+
+    /**
+     * bind the socket and start serving
+     *
+     * @param socket socket file, must not exist
+     * @param keys   private keys by public key or by key name, e.g. `DOTENV_PRIVATE_KEY`
+     * @throws IOException if the socket can't be bound
+     */
+    public KeyAgentServer(Path socket, Map<String, String> keys) throws IOException {
+        this.socket = socket;
+        this.keys.putAll(keys);
+        this.serverChannel = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+        this.serverChannel.bind(UnixDomainSocketAddress.of(socket));
+        this.acceptThread = new Thread(this::serve, "dotenvx-key-agent");
+        this.acceptThread.setDaemon(true);
+        this.acceptThread.start();
+    }
+
+    /**
+     * socket file
+     *
+     * @return path
+     */
+    public Path getSocket() {
+        return socket;
+    }
+
+    /**
+     * number of requests served
+     *
+     * @return requests
+     */
+    public int getRequests() {
+        return requests.get();
+    }
+
+    private void serve() {
+        while (serverChannel.isOpen()) {
+            try (SocketChannel channel = serverChannel.accept()) {
+                BufferedReader reader = new BufferedReader(Channels.newReader(channel, StandardCharsets.UTF_8));
+                String request = reader.readLine();
+                requests.incrementAndGet();
+                Writer writer = Channels.newWriter(channel, StandardCharsets.UTF_8);
+                writer.write(lookup(request) + "\n");
+                writer.flush();
+            } catch (AsynchronousCloseException e) {
+                return;
+            } catch (IOException ignore) {
+                // broken connection, serve the next one
+            }
+        }
+    }
+
+    private String lookup(String request) {
+        if (request == null || request.isEmpty()) {
+            return "";
+        }
+        String[] parts = request.trim().split(" ", 2);
+        String privateKey = parts.length > 1 ? keys.get(parts[1]) : null;
+        if (privateKey == null) {
+            privateKey = keys.get(parts[0]);
+        }
+        return privateKey != null ? privateKey : "";
+    }
+
+    /**
+     * stop serving and delete the socket file
+     */
+    @Override
+    public void close() throws IOException {
+        serverChannel.close();
+        acceptThread.interrupt();
+        Files.deleteIfExists(socket);
+    }
+}
@@ -0,0 +1,37 @@
+package org.mvnsearch.dotenvx.spring.provider;
+
+import org.mvnsearch.dotenvx.keyring.KeyEntry;
+import org.mvnsearch.dotenvx.keyring.Keyring;
+import org.springframework.core.env.Environment;
+import org.springframework.lang.Nullable;
+
+/**
+ * private key from the keyring files, see {@link Keyring#getDefault()}: by public key if one is configured, then by
+ * profile name in `.env.keys`
+ *
+ * @author linux_china
+ */
+public class KeyringKeyProvider implements DotenvxKeyProvider {
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Nullable
+    public String getPrivateKey(Environment environment, @Nullable String profile, @Nullable String publicKey) {
+        Keyring keyring = Keyring.getDefault();
+        KeyEntry entry = publicKey != null ? keyring.findByPublicKey(publicKey) : null;
+        if (entry == null) {
+            entry = keyring.findByProfile(profile);
+        }
+        return entry != null ? entry.getPrivateKey() : null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getOrder() {
+        return 400;
+    }
+}
@@ -0,0 +1,29 @@
+package org.mvnsearch.dotenvx.spring.provider;
+
+import org.springframework.core.env.Environment;
+import org.springframework.lang.Nullable;
+
+/**
+ * private key from `dotenv.private.key` or `dotenv.private.key.[profile]`
+ *
+ * @author linux_china
+ */
+public class PropertyKeyProvider implements DotenvxKeyProvider {
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Nullable
+    public String getPrivateKey(Environment environment, @Nullable String profile, @Nullable String publicKey) {
+        return environment.getProperty(profile == null ? "dotenv.private.key" : "dotenv.private.key." + profile);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getOrder() {
+        return 100;
+    }
+}
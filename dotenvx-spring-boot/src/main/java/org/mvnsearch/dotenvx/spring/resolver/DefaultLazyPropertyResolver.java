@@ -8,8 +8,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.BeanFactory;
 import org.springframework.core.env.Environment;
+import org.springframework.core.env.PropertySource;
 
 import java.util.Optional;
+import java.util.Set;
 
 import static org.mvnsearch.dotenvx.spring.util.Functional.tap;
 
@@ -71,4 +73,28 @@ public class DefaultLazyPropertyResolver implements EncryptablePropertyResolver
     public String resolvePropertyValue(String value) {
         return singleton.get().resolvePropertyValue(value);
     }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String resolvePropertyValue(String value, PropertySource<?> source) {
+        return singleton.get().resolvePropertyValue(value, source);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isPlain(String value) {
+        return singleton.get().isPlain(value);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Set<String> getPlaceholderKeys(String value) {
+        return singleton.get().getPlaceholderKeys(value);
+    }
 }
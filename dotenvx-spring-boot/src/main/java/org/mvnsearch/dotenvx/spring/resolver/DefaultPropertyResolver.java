@@ -1,14 +1,20 @@
 package org.mvnsearch.dotenvx.spring.resolver;
 
+import org.mvnsearch.dotenvx.ecies.BundleCipher;
 import org.mvnsearch.dotenvx.spring.EncryptablePropertyDetector;
 import org.mvnsearch.dotenvx.spring.EncryptablePropertyResolver;
 import org.mvnsearch.dotenvx.spring.detector.DefaultPropertyDetector;
 import org.mvnsearch.dotenvx.spring.encryptor.DotenvxEncryptor;
 import org.mvnsearch.dotenvx.spring.exception.DecryptionException;
 import org.springframework.core.env.Environment;
+import org.springframework.core.env.PropertySource;
+import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
+import org.springframework.util.SystemPropertyUtils;
 
-import java.util.Optional;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * <p>DefaultPropertyResolver class.</p>
@@ -17,10 +23,12 @@ import java.util.Optional;
  * @version $Id: $Id
  */
 public class DefaultPropertyResolver implements EncryptablePropertyResolver {
+    private static final int MAX_TEMPLATES = 4096;
 
     private final Environment environment;
     private DotenvxEncryptor encryptor;
     private EncryptablePropertyDetector detector;
+    private final Map<String, PlaceholderTemplate> templates = new ConcurrentHashMap<>();
 
     /**
      * <p>Constructor for DefaultPropertyResolver.</p>
@@ -50,19 +58,68 @@ public class DefaultPropertyResolver implements EncryptablePropertyResolver {
     /** {@inheritDoc} */
     @Override
     public String resolvePropertyValue(String value) {
-        return Optional.ofNullable(value)
-                .map(environment::resolvePlaceholders)
-                .filter(detector::isEncrypted)
-                .map(resolvedValue -> {
-                    try {
-                        String unwrappedProperty = detector.unwrapEncryptedValue(resolvedValue.trim());
-                        String resolvedProperty = environment.resolvePlaceholders(unwrappedProperty);
-                        return encryptor.decrypt(resolvedProperty);
-                    } catch (DecryptionException e) {
-                        throw new DecryptionException("Unable to decrypt property: " + value + " resolved to: " + resolvedValue + ". Decryption of Properties failed,  make sure encryption/decryption " +
-                                "passwords match", e);
-                    }
-                })
-                .orElse(value);
+        return resolveValue(value, null);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String resolvePropertyValue(String value, PropertySource<?> source) {
+        return resolveValue(value, source);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean isPlain(String value) {
+        return !value.contains(SystemPropertyUtils.PLACEHOLDER_PREFIX) && !detector.isEncrypted(value);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Set<String> getPlaceholderKeys(String value) {
+        return template(value).getKeys();
+    }
+
+    /**
+     * parsed template of a raw value
+     *
+     * @param value raw property value
+     * @return template, parsed once per value
+     */
+    public PlaceholderTemplate template(String value) {
+        PlaceholderTemplate template = templates.get(value);
+        if (template == null) {
+            template = PlaceholderTemplate.parse(value, detector);
+            if (templates.size() >= MAX_TEMPLATES) {
+                // values of replaced property sources, parsed again on their next read
+                templates.clear();
+            }
+            templates.put(value, template);
+        }
+        return template;
+    }
+
+    private String resolveValue(String value, @Nullable PropertySource<?> source) {
+        if (value == null) {
+            return null;
+        }
+        PlaceholderTemplate template = template(value);
+        String resolvedValue = template.render(environment);
+        String encryptedValue = template.hasPlaceholders() ? PlaceholderTemplate.unwrap(resolvedValue, detector) : template.getEncryptedValue();
+        if (encryptedValue == null) {
+            return value;
+        }
+        try {
+            String resolvedProperty = encryptedValue.contains(SystemPropertyUtils.PLACEHOLDER_PREFIX)
+                    ? environment.resolvePlaceholders(encryptedValue) : encryptedValue;
+            if (source != null && BundleCipher.isBundled(resolvedProperty)
+                    && source.getProperty(DotenvxEncryptor.BUNDLE_KEY_PROPERTY) instanceof String bundleKey) {
+                // values of the file under its data key
+                return encryptor.decryptBundled(resolvedProperty, bundleKey);
+            }
+            return encryptor.decrypt(resolvedProperty, source != null ? source.getName() : null);
+        } catch (DecryptionException e) {
+            throw new DecryptionException("Unable to decrypt property: " + value + " resolved to: " + resolvedValue + ". Decryption of Properties failed,  make sure encryption/decryption " +
+                    "passwords match", e);
+        }
     }
 }
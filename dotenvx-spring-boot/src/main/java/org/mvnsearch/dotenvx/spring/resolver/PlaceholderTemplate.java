@@ -0,0 +1,185 @@
+package org.mvnsearch.dotenvx.spring.resolver;
+
+import org.mvnsearch.dotenvx.spring.EncryptablePropertyDetector;
+import org.springframework.core.env.PropertyResolver;
+import org.springframework.lang.Nullable;
+import org.springframework.util.SystemPropertyUtils;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A property value parsed once: literal text and placeholder references, or, without placeholders, its encrypted
+ * value already unwrapped. The keys of its placeholders are kept to invalidate the values depending on them.
+ * <p>
+ * Values without placeholders are never resolved. Placeholders are resolved one by one, which is what the
+ * environment does with the whole value, and values with nested or escaped placeholders are still resolved whole.
+ * </p>
+ *
+ * @author linux_china
+ */
+public final class PlaceholderTemplate {
+    private static final String PREFIX = SystemPropertyUtils.PLACEHOLDER_PREFIX;
+    private static final String SUFFIX = SystemPropertyUtils.PLACEHOLDER_SUFFIX;
+    private static final String SEPARATOR = SystemPropertyUtils.VALUE_SEPARATOR;
+    private final String value;
+    /**
+     * literal texts and placeholders, null when the value has no placeholders or is resolved whole
+     */
+    @Nullable
+    private final String[] segments;
+    @Nullable
+    private final boolean[] placeholders;
+    private final boolean hasPlaceholders;
+    @Nullable
+    private final String encryptedValue;
+    private final Set<String> keys;
+
+    private PlaceholderTemplate(String value, @Nullable String[] segments, @Nullable boolean[] placeholders,
+                                boolean hasPlaceholders, @Nullable String encryptedValue, Set<String> keys) {
+        this.value = value;
+        this.segments = segments;
+        this.placeholders = placeholders;
+        this.hasPlaceholders = hasPlaceholders;
+        this.encryptedValue = encryptedValue;
+        this.keys = keys;
+    }
+
+    /**
+     * parse a property value
+     *
+     * @param value    property value
+     * @param detector detector of encrypted values
+     * @return template
+     */
+    public static PlaceholderTemplate parse(String value, EncryptablePropertyDetector detector) {
+        int start = value.indexOf(PREFIX);
+        if (start < 0) {
+            return new PlaceholderTemplate(value, null, null, false, unwrap(value, detector), Set.of());
+        }
+        Set<String> keys = new LinkedHashSet<>();
+        List<String> segments = new ArrayList<>();
+        List<Boolean> placeholders = new ArrayList<>();
+        // escape characters are left to the environment
+        boolean simple = value.indexOf('\\') < 0;
+        int position = 0;
+        while (start >= 0) {
+            int end = value.indexOf(SUFFIX, start + PREFIX.length());
+            // a brace before the suffix, such as the one of a nested placeholder, is matched by the environment
+            int brace = value.indexOf('{', start + PREFIX.length());
+            if (!simple || end < 0 || (brace >= 0 && brace < end)) {
+                // escaped, nested or unterminated: resolved whole by the environment
+                simple = false;
+                collectKeys(value, start, keys);
+                break;
+            }
+            if (start > position) {
+                segments.add(value.substring(position, start));
+                placeholders.add(false);
+            }
+            String placeholder = value.substring(start, end + SUFFIX.length());
+            segments.add(placeholder);
+            placeholders.add(true);
+            keys.add(key(placeholder.substring(PREFIX.length(), placeholder.length() - SUFFIX.length())));
+            position = end + SUFFIX.length();
+            start = value.indexOf(PREFIX, position);
+        }
+        if (!simple) {
+            return new PlaceholderTemplate(value, null, null, true, null, Set.copyOf(keys));
+        }
+        if (position < value.length()) {
+            segments.add(value.substring(position));
+            placeholders.add(false);
+        }
+        boolean[] kinds = new boolean[placeholders.size()];
+        for (int i = 0; i < kinds.length; i++) {
+            kinds[i] = placeholders.get(i);
+        }
+        return new PlaceholderTemplate(value, segments.toArray(new String[0]), kinds, true, null, Set.copyOf(keys));
+    }
+
+    /**
+     * the value with its placeholders resolved
+     *
+     * @param resolver environment
+     * @return resolved value, the value itself without placeholders
+     */
+    public String render(PropertyResolver resolver) {
+        if (!hasPlaceholders) {
+            return value;
+        }
+        if (segments == null || placeholders == null) {
+            return resolver.resolvePlaceholders(value);
+        }
+        if (segments.length == 1) {
+            return resolver.resolvePlaceholders(segments[0]);
+        }
+        StringBuilder rendered = new StringBuilder(value.length() + 16);
+        for (int i = 0; i < segments.length; i++) {
+            rendered.append(placeholders[i] ? resolver.resolvePlaceholders(segments[i]) : segments[i]);
+        }
+        return rendered.toString();
+    }
+
+    public boolean hasPlaceholders() {
+        return hasPlaceholders;
+    }
+
+    /**
+     * encrypted value of a value without placeholders, without prefix and surrounding whitespace
+     *
+     * @return encrypted value, null if the value isn't encrypted or has placeholders
+     */
+    @Nullable
+    public String getEncryptedValue() {
+        return encryptedValue;
+    }
+
+    /**
+     * keys of the placeholders, nested ones included
+     *
+     * @return keys
+     */
+    public Set<String> getKeys() {
+        return keys;
+    }
+
+    @Nullable
+    static String unwrap(String value, EncryptablePropertyDetector detector) {
+        int offset = detector.payloadOffset(value);
+        if (offset >= 0) {
+            int end = value.length();
+            while (end > offset && value.charAt(end - 1) <= ' ') {
+                end--;
+            }
+            return value.substring(offset, end);
+        }
+        return detector.isEncrypted(value) ? detector.unwrapEncryptedValue(value.trim()) : null;
+    }
+
+    /**
+     * keys of all placeholders from an offset, best effort for nested placeholders
+     */
+    private static void collectKeys(String value, int from, Set<String> keys) {
+        int start = value.indexOf(PREFIX, from);
+        while (start >= 0) {
+            int keyStart = start + PREFIX.length();
+            int keyEnd = keyStart;
+            while (keyEnd < value.length() && !value.startsWith(SUFFIX, keyEnd) && !value.startsWith(PREFIX, keyEnd)
+                    && !value.startsWith(SEPARATOR, keyEnd)) {
+                keyEnd++;
+            }
+            if (keyEnd > keyStart) {
+                keys.add(value.substring(keyStart, keyEnd));
+            }
+            start = value.indexOf(PREFIX, keyStart);
+        }
+    }
+
+    private static String key(String placeholder) {
+        int separator = placeholder.indexOf(SEPARATOR);
+        return separator < 0 ? placeholder : placeholder.substring(0, separator);
+    }
+}
@@ -0,0 +1,94 @@
+package org.mvnsearch.dotenvx.spring.resource;
+
+import org.mvnsearch.dotenvx.spring.encryptor.DotenvxEncryptor;
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * {@link Resource} whose content is a stream in the streaming ECIES format, decrypted chunk by chunk as it is read,
+ * so memory use stays constant whatever the size of the resource.
+ *
+ * @author linux_china
+ */
+public class DecryptingResource extends AbstractResource {
+    private static final String ENCRYPTED_SUFFIX = ".enc";
+    private final Resource encrypted;
+    private final Supplier<DotenvxEncryptor> encryptor;
+
+    /**
+     * <p>Constructor for DecryptingResource.</p>
+     *
+     * @param encrypted resource with the encrypted content
+     * @param encryptor supplier of the encryptor, called when the resource is opened
+     */
+    public DecryptingResource(Resource encrypted, Supplier<DotenvxEncryptor> encryptor) {
+        this.encrypted = encrypted;
+        this.encryptor = encryptor;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @NonNull
+    public InputStream getInputStream() throws IOException {
+        return encryptor.get().decryptingStream(encrypted.getInputStream());
+    }
+
+    @Override
+    public boolean exists() {
+        return encrypted.exists();
+    }
+
+    @Override
+    public boolean isReadable() {
+        return encrypted.isReadable();
+    }
+
+    @Override
+    public long lastModified() throws IOException {
+        return encrypted.lastModified();
+    }
+
+    /**
+     * file name of the encrypted resource without the {@code .enc} suffix
+     */
+    @Override
+    @Nullable
+    public String getFilename() {
+        String filename = encrypted.getFilename();
+        if (filename != null && filename.endsWith(ENCRYPTED_SUFFIX)) {
+            return filename.substring(0, filename.length() - ENCRYPTED_SUFFIX.length());
+        }
+        return filename;
+    }
+
+    @Override
+    @NonNull
+    public Resource createRelative(@NonNull String relativePath) throws IOException {
+        return new DecryptingResource(encrypted.createRelative(relativePath), encryptor);
+    }
+
+    @Override
+    @NonNull
+    public String getDescription() {
+        return "dotenvx decrypted " + encrypted.getDescription();
+    }
+
+    @Override
+    public boolean equals(@Nullable Object other) {
+        return this == other || (other instanceof DecryptingResource that && encrypted.equals(that.encrypted));
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(DecryptingResource.class, encrypted);
+    }
+}
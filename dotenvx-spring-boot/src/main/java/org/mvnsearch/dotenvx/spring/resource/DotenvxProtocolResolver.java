@@ -0,0 +1,92 @@
+package org.mvnsearch.dotenvx.spring.resource;
+
+import org.mvnsearch.dotenvx.spring.encryptor.DefaultLazyEncryptor;
+import org.mvnsearch.dotenvx.spring.encryptor.DotenvxEncryptor;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.core.io.ProtocolResolver;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Resolves {@code dotenvx:<location>} to a {@link DecryptingResource}: {@code <location>} is resolved by the same
+ * resource loader, e.g. {@code dotenvx:classpath:keystore.p12.enc}, and its content is decrypted as it is read.
+ * <p>
+ * The resolver is also listed in `META-INF/spring.factories`, for Spring Boot's {@code ApplicationResourceLoader}
+ * used by SSL bundles and {@code server.ssl.key-store}. Created there without arguments, it decrypts with the
+ * encryptor of the application context, or, before the context is refreshed, with one reading the private keys from
+ * the system properties, the environment variables and the key files.
+ * </p>
+ *
+ * @author linux_china
+ */
+public class DotenvxProtocolResolver implements ProtocolResolver {
+    /**
+     * Constant <code>PREFIX="dotenvx:"</code>
+     */
+    public static final String PREFIX = "dotenvx:";
+    private static final AtomicReference<Supplier<DotenvxEncryptor>> DEFAULT_ENCRYPTOR = new AtomicReference<>();
+    private final Supplier<DotenvxEncryptor> encryptor;
+
+    /**
+     * <p>Constructor for DotenvxProtocolResolver, with the default encryptor.</p>
+     */
+    public DotenvxProtocolResolver() {
+        this(DotenvxProtocolResolver::getDefaultEncryptor);
+    }
+
+    /**
+     * <p>Constructor for DotenvxProtocolResolver.</p>
+     *
+     * @param encryptor supplier of the encryptor, called when a resource is opened
+     */
+    public DotenvxProtocolResolver(Supplier<DotenvxEncryptor> encryptor) {
+        this.encryptor = encryptor;
+    }
+
+    /**
+     * encryptor of the resolvers created without arguments, set by the application context
+     *
+     * @param encryptor supplier of the encryptor, null to use the one reading the private keys of the system
+     */
+    public static void setDefaultEncryptor(@Nullable Supplier<DotenvxEncryptor> encryptor) {
+        DEFAULT_ENCRYPTOR.set(encryptor);
+    }
+
+    /**
+     * stop using an encryptor, e.g. when its application context is closed, unless another one replaced it
+     *
+     * @param encryptor supplier of the encryptor
+     */
+    public static void removeDefaultEncryptor(Supplier<DotenvxEncryptor> encryptor) {
+        DEFAULT_ENCRYPTOR.compareAndSet(encryptor, null);
+    }
+
+    private static DotenvxEncryptor getDefaultEncryptor() {
+        Supplier<DotenvxEncryptor> supplier = DEFAULT_ENCRYPTOR.get();
+        return supplier != null ? supplier.get() : SystemEncryptor.INSTANCE;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Nullable
+    public Resource resolve(@NonNull String location, @NonNull ResourceLoader resourceLoader) {
+        if (location.startsWith(PREFIX)) {
+            return new DecryptingResource(resourceLoader.getResource(location.substring(PREFIX.length())), encryptor);
+        }
+        return null;
+    }
+
+    /**
+     * created on first use
+     */
+    private static final class SystemEncryptor {
+        private static final DotenvxEncryptor INSTANCE = new DefaultLazyEncryptor(new StandardEnvironment());
+    }
+}
@@ -1,5 +1,6 @@
 package org.mvnsearch.dotenvx.spring.wrapper;
 
+import org.mvnsearch.dotenvx.spring.caching.CachePolicy;
 import org.mvnsearch.dotenvx.spring.caching.CachingDelegateEncryptablePropertySource;
 import org.mvnsearch.dotenvx.spring.EncryptablePropertyFilter;
 import org.mvnsearch.dotenvx.spring.EncryptablePropertyResolver;
@@ -24,8 +25,20 @@ public class EncryptableEnumerablePropertySourceWrapper<T> extends EnumerablePro
      * @param filter a {@link EncryptablePropertyFilter} object
      */
     public EncryptableEnumerablePropertySourceWrapper(EnumerablePropertySource<T> delegate, EncryptablePropertyResolver resolver, EncryptablePropertyFilter filter) {
+        this(delegate, resolver, filter, CachePolicy.UNBOUNDED);
+    }
+
+    /**
+     * <p>Constructor for EncryptableEnumerablePropertySourceWrapper.</p>
+     *
+     * @param delegate    a {@link org.springframework.core.env.EnumerablePropertySource} object
+     * @param resolver    a {@link EncryptablePropertyResolver} object
+     * @param filter      a {@link EncryptablePropertyFilter} object
+     * @param cachePolicy bounds and expiry of the decrypted values
+     */
+    public EncryptableEnumerablePropertySourceWrapper(EnumerablePropertySource<T> delegate, EncryptablePropertyResolver resolver, EncryptablePropertyFilter filter, CachePolicy cachePolicy) {
         super(delegate.getName(), delegate.getSource());
-        encryptableDelegate = new CachingDelegateEncryptablePropertySource<>(delegate, resolver, filter);
+        encryptableDelegate = new CachingDelegateEncryptablePropertySource<>(delegate, resolver, filter, cachePolicy);
     }
 
     /** {@inheritDoc} */
@@ -1,5 +1,6 @@
 package org.mvnsearch.dotenvx.spring.wrapper;
 
+import org.mvnsearch.dotenvx.spring.caching.CachePolicy;
 import org.mvnsearch.dotenvx.spring.caching.CachingDelegateEncryptablePropertySource;
 import org.mvnsearch.dotenvx.spring.EncryptablePropertyFilter;
 import org.mvnsearch.dotenvx.spring.EncryptablePropertyResolver;
@@ -27,8 +28,20 @@ public class EncryptableMapPropertySourceWrapper extends MapPropertySource imple
      * @param filter a {@link EncryptablePropertyFilter} object
      */
     public EncryptableMapPropertySourceWrapper(MapPropertySource delegate, EncryptablePropertyResolver resolver, EncryptablePropertyFilter filter) {
+        this(delegate, resolver, filter, CachePolicy.UNBOUNDED);
+    }
+
+    /**
+     * <p>Constructor for EncryptableMapPropertySourceWrapper.</p>
+     *
+     * @param delegate    a {@link org.springframework.core.env.MapPropertySource} object
+     * @param resolver    a {@link EncryptablePropertyResolver} object
+     * @param filter      a {@link EncryptablePropertyFilter} object
+     * @param cachePolicy bounds and expiry of the decrypted values
+     */
+    public EncryptableMapPropertySourceWrapper(MapPropertySource delegate, EncryptablePropertyResolver resolver, EncryptablePropertyFilter filter, CachePolicy cachePolicy) {
         super(delegate.getName(), delegate.getSource());
-        encryptableDelegate = new CachingDelegateEncryptablePropertySource<>(delegate, resolver, filter);
+        encryptableDelegate = new CachingDelegateEncryptablePropertySource<>(delegate, resolver, filter, cachePolicy);
     }
 
     /** {@inheritDoc} */
@@ -3,6 +3,7 @@ package org.mvnsearch.dotenvx.spring.wrapper;
 import org.mvnsearch.dotenvx.spring.EncryptablePropertyFilter;
 import org.mvnsearch.dotenvx.spring.EncryptablePropertyResolver;
 import org.mvnsearch.dotenvx.spring.EncryptablePropertySource;
+import org.mvnsearch.dotenvx.spring.caching.CachePolicy;
 import org.mvnsearch.dotenvx.spring.caching.CachingDelegateEncryptablePropertySource;
 import org.springframework.core.env.PropertySource;
 import org.springframework.lang.NonNull;
@@ -27,8 +28,20 @@ public class EncryptablePropertySourceWrapper<T> extends PropertySource<T> imple
      * @param filter   a {@link EncryptablePropertyFilter} object
      */
     public EncryptablePropertySourceWrapper(PropertySource<T> delegate, EncryptablePropertyResolver resolver, EncryptablePropertyFilter filter) {
+        this(delegate, resolver, filter, CachePolicy.UNBOUNDED);
+    }
+
+    /**
+     * <p>Constructor for EncryptablePropertySourceWrapper.</p>
+     *
+     * @param delegate    a {@link org.springframework.core.env.PropertySource} object
+     * @param resolver    a {@link EncryptablePropertyResolver} object
+     * @param filter      a {@link EncryptablePropertyFilter} object
+     * @param cachePolicy bounds and expiry of the decrypted values
+     */
+    public EncryptablePropertySourceWrapper(PropertySource<T> delegate, EncryptablePropertyResolver resolver, EncryptablePropertyFilter filter, CachePolicy cachePolicy) {
         super(delegate.getName(), delegate.getSource());
-        encryptableDelegate = new CachingDelegateEncryptablePropertySource<>(delegate, resolver, filter);
+        encryptableDelegate = new CachingDelegateEncryptablePropertySource<>(delegate, resolver, filter, cachePolicy);
     }
 
     /**
@@ -3,6 +3,7 @@ package org.mvnsearch.dotenvx.spring.wrapper;
 import org.mvnsearch.dotenvx.spring.EncryptablePropertyFilter;
 import org.mvnsearch.dotenvx.spring.EncryptablePropertyResolver;
 import org.mvnsearch.dotenvx.spring.EncryptablePropertySource;
+import org.mvnsearch.dotenvx.spring.caching.CachePolicy;
 import org.mvnsearch.dotenvx.spring.caching.CachingDelegateEncryptablePropertySource;
 import org.springframework.boot.origin.Origin;
 import org.springframework.boot.origin.SystemEnvironmentOrigin;
@@ -29,8 +30,20 @@ public class EncryptableSystemEnvironmentPropertySourceWrapper extends SystemEnv
      * @param filter a {@link EncryptablePropertyFilter} object
      */
     public EncryptableSystemEnvironmentPropertySourceWrapper(SystemEnvironmentPropertySource delegate, EncryptablePropertyResolver resolver, EncryptablePropertyFilter filter) {
+        this(delegate, resolver, filter, CachePolicy.UNBOUNDED);
+    }
+
+    /**
+     * <p>Constructor for EncryptableSystemEnvironmentPropertySourceWrapper.</p>
+     *
+     * @param delegate    a {@link org.springframework.core.env.SystemEnvironmentPropertySource} object
+     * @param resolver    a {@link EncryptablePropertyResolver} object
+     * @param filter      a {@link EncryptablePropertyFilter} object
+     * @param cachePolicy bounds and expiry of the decrypted values
+     */
+    public EncryptableSystemEnvironmentPropertySourceWrapper(SystemEnvironmentPropertySource delegate, EncryptablePropertyResolver resolver, EncryptablePropertyFilter filter, CachePolicy cachePolicy) {
         super(delegate.getName(), delegate.getSource());
-        encryptableDelegate = new CachingDelegateEncryptablePropertySource<>(delegate, resolver, filter);
+        encryptableDelegate = new CachingDelegateEncryptablePropertySource<>(delegate, resolver, filter, cachePolicy);
     }
 
     /** {@inheritDoc} */
@@ -0,0 +1,65 @@
+package org.mvnsearch.dotenvx.ecies;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.security.SecureRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Payload encryption and decryption with every {@link AeadCipher}, without the ECDH part, across payload sizes.
+ * <p>
+ * Run with {@code java -cp <test classpath> org.mvnsearch.dotenvx.ecies.AeadCipherBenchmark}.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AeadCipherBenchmark {
+    @Param({"aes-256-gcm", "jdk-aes-256-gcm", "xchacha20-poly1305"})
+    public String cipherName;
+    @Param({"64", "1024", "16384", "262144"})
+    public int size;
+    private AeadCipher cipher;
+    private byte[] key;
+    private byte[] message;
+    private byte[] sealed;
+
+    @Setup
+    public void setUp() throws Exception {
+        SecureRandom random = new SecureRandom();
+        cipher = AeadCiphers.forName(cipherName);
+        key = new byte[32];
+        random.nextBytes(key);
+        message = new byte[size];
+        random.nextBytes(message);
+        sealed = seal();
+    }
+
+    /**
+     * new key and nonce for every message, like ECIES
+     */
+    @Benchmark
+    public byte[] seal() throws Exception {
+        byte[] output = new byte[cipher.getNonceLength() + AeadCipher.TAG_LENGTH + message.length];
+        key[0]++;
+        output[0] = key[0];
+        cipher.seal(key, message, output, 0);
+        return output;
+    }
+
+    @Benchmark
+    public byte[] open() throws Exception {
+        byte[] openKey = key.clone();
+        openKey[0] = sealed[0];
+        return cipher.open(openKey, sealed, 0, sealed.length);
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder().include(AeadCipherBenchmark.class.getSimpleName()).build()).run();
+    }
+}
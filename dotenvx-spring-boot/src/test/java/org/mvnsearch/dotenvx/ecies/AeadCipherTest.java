@@ -0,0 +1,67 @@
+package org.mvnsearch.dotenvx.ecies;
+
+import org.bouncycastle.crypto.InvalidCipherTextException;
+import org.bouncycastle.util.encoders.Hex;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+
+public class AeadCipherTest {
+    private static final List<AeadCipher> CIPHERS = List.of(AeadCiphers.AES_256_GCM, AeadCiphers.JDK_AES_256_GCM, AeadCiphers.XCHACHA20_POLY1305);
+
+    @Test
+    public void testJdkAesGcmIsByteIdentical() throws Exception {
+        Random random = new Random(42);
+        for (int size : new int[]{0, 1, 15, 16, 17, 1000, 70000}) {
+            byte[] key = randomBytes(random, 32);
+            byte[] message = randomBytes(random, size);
+            byte[] bc = new byte[16 + AeadCipher.TAG_LENGTH + size];
+            random.nextBytes(bc);
+            byte[] jdk = bc.clone();
+            AeadCiphers.AES_256_GCM.seal(key, message, bc, 0);
+            AeadCiphers.JDK_AES_256_GCM.seal(key, message, jdk, 0);
+            assertThat(jdk).isEqualTo(bc);
+            assertThat(AeadCiphers.AES_256_GCM.open(key, jdk, 0, jdk.length)).isEqualTo(message);
+            assertThat(AeadCiphers.JDK_AES_256_GCM.open(key, bc, 0, bc.length)).isEqualTo(message);
+        }
+    }
+
+    @Test
+    public void testHChaCha20() {
+        // draft-irtf-cfrg-xchacha-03, section 2.2.1
+        byte[] key = Hex.decode("000102030405060708090a0b0c0d0e0f101112131415161718191a1b1c1d1e1f");
+        byte[] nonce = Hex.decode("000000090000004a0000000031415927");
+        assertThat(Hex.toHexString(XChaCha20Poly1305.hChaCha20(key, nonce, 0)))
+                .isEqualTo("82413b4227b27bfed30e42508a877d73a0f9e4d58a74a853c12ec41326d3ecdc");
+    }
+
+    @Test
+    public void testEciesRoundTrip() throws Exception {
+        ECKeyPair keyPair = Ecies.generateEcKeyPair();
+        for (AeadCipher cipher : CIPHERS) {
+            EciesEncryptor encryptor = new EciesEncryptor(keyPair.getPublicBinary(true), null, cipher);
+            EciesDecryptor decryptor = new EciesDecryptor(keyPair.getPrivateBinary(), cipher);
+            for (int size : new int[]{0, 5, 64, 1000}) {
+                byte[] message = randomBytes(new Random(size), size);
+                byte[] encrypted = encryptor.encrypt(message);
+                assertThat(encrypted).hasSize(65 + cipher.getNonceLength() + AeadCipher.TAG_LENGTH + size);
+                assertThat(decryptor.decrypt(encrypted)).isEqualTo(message);
+                encrypted[encrypted.length - 1 - size / 2] ^= 1;
+                assertThatThrownBy(() -> decryptor.decrypt(encrypted)).isInstanceOf(InvalidCipherTextException.class);
+            }
+        }
+        assertThat(AeadCiphers.forName("XChaCha20-Poly1305")).isSameAs(AeadCiphers.XCHACHA20_POLY1305);
+        assertThatThrownBy(() -> AeadCiphers.forName("rot13")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static byte[] randomBytes(Random random, int size) {
+        byte[] bytes = new byte[size];
+        random.nextBytes(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,64 @@
+package org.mvnsearch.dotenvx.ecies;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Batch decryption of 1000 values on the calling thread, fork-join pools of 1 to 8 workers and virtual threads.
+ * <p>
+ * Run with {@code java -cp <test classpath> org.mvnsearch.dotenvx.ecies.BatchDecryptBenchmark}; the speedup is bounded
+ * by the cores of the machine.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BatchDecryptBenchmark {
+    private static final int BATCH_SIZE = 1000;
+    @Param({"caller", "fork-join-1", "fork-join-2", "fork-join-4", "fork-join-8", "virtual"})
+    public String executorName;
+    private EciesDecryptor decryptor;
+    private List<byte[]> cipherBytesList;
+    private Executor executor;
+
+    @Setup
+    public void setUp() throws Exception {
+        ECKeyPair keyPair = Ecies.generateEcKeyPair();
+        EciesEncryptor encryptor = new EciesEncryptor(keyPair.getPublicBinary(true));
+        decryptor = new EciesDecryptor(keyPair.getPrivateBinary());
+        cipherBytesList = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            cipherBytesList.add(encryptor.encrypt(("secret-value-" + i).getBytes(StandardCharsets.UTF_8)));
+        }
+        executor = executorName.startsWith("fork-join-")
+                ? new ForkJoinPool(Integer.parseInt(executorName.substring("fork-join-".length())))
+                : Batches.executor(executorName);
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (executor instanceof ForkJoinPool pool && pool != ForkJoinPool.commonPool()) {
+            pool.shutdown();
+        }
+    }
+
+    @Benchmark
+    public List<BatchResult<byte[]>> decryptAll() {
+        return decryptor.decryptAll(cipherBytesList, executor);
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder().include(BatchDecryptBenchmark.class.getSimpleName()).build()).run();
+    }
+}
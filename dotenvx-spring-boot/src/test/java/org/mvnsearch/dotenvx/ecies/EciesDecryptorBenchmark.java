@@ -0,0 +1,89 @@
+package org.mvnsearch.dotenvx.ecies;
+
+import org.bouncycastle.jce.ECNamedCurveTable;
+import org.bouncycastle.jce.interfaces.ECPrivateKey;
+import org.bouncycastle.jce.interfaces.ECPublicKey;
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import org.bouncycastle.jce.spec.ECNamedCurveParameterSpec;
+import org.bouncycastle.jce.spec.ECNamedCurveSpec;
+import org.bouncycastle.util.encoders.Base64;
+import org.bouncycastle.util.encoders.Hex;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigInteger;
+import java.security.KeyFactory;
+import java.security.spec.ECPrivateKeySpec;
+import java.security.spec.ECPublicKeySpec;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-value decryption cost: key material rebuilt for every value vs. a reused {@link EciesDecryptor}, and a reused
+ * {@link X25519Decryptor}.
+ * <p>
+ * Run with {@code java -cp <test classpath> org.mvnsearch.dotenvx.ecies.EciesDecryptorBenchmark}.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EciesDecryptorBenchmark {
+    private static final BouncyCastleProvider BOUNCY_CASTLE_PROVIDER = new BouncyCastleProvider();
+    private String privateKeyHex;
+    private String ciphertext;
+    private EciesDecryptor decryptor;
+    private String x25519Ciphertext;
+    private X25519Decryptor x25519Decryptor;
+
+    @Setup
+    public void setUp() throws Exception {
+        ECKeyPair keyPair = Ecies.generateEcKeyPair();
+        privateKeyHex = keyPair.getPrivateHex();
+        ciphertext = Ecies.encrypt(keyPair.getPublicHex(true), "jdbc:postgresql://localhost:5432/demo?password=secret");
+        decryptor = EciesDecryptor.fromHex(privateKeyHex);
+        X25519KeyPair x25519KeyPair = Ecies.generateX25519KeyPair();
+        x25519Ciphertext = Ecies.encrypt(x25519KeyPair.getPublicKey(), "jdbc:postgresql://localhost:5432/demo?password=secret");
+        x25519Decryptor = X25519Decryptor.fromText(x25519KeyPair.getPrivateKey());
+    }
+
+    /**
+     * the decryption path before {@link EciesDecryptor}: curve spec, key factory and JCA keys for every value
+     */
+    @Benchmark
+    public byte[] perValueKeyRebuild() throws Exception {
+        byte[] cipherBytes = Base64.decode(ciphertext);
+        ECNamedCurveParameterSpec ecSpec = ECNamedCurveTable.getParameterSpec("secp256k1");
+        KeyFactory keyFactory = KeyFactory.getInstance("EC", BOUNCY_CASTLE_PROVIDER);
+        ECNamedCurveSpec curvedParams = new ECNamedCurveSpec("secp256k1", ecSpec.getCurve(), ecSpec.getG(), ecSpec.getN());
+        ECPrivateKey receiverPrivateKey = (ECPrivateKey) keyFactory.generatePrivate(new ECPrivateKeySpec(new BigInteger(1, Hex.decode(privateKeyHex)), curvedParams));
+        java.security.spec.ECPoint point = org.bouncycastle.jce.ECPointUtil.decodePoint(curvedParams.getCurve(), Arrays.copyOf(cipherBytes, 65));
+        ECPublicKey senderPubKey = (ECPublicKey) keyFactory.generatePublic(new ECPublicKeySpec(point, curvedParams));
+        byte[] multiply = senderPubKey.getQ().multiply(receiverPrivateKey.getD()).getEncoded(false);
+        byte[] aesKey = Ecies.hkdf(senderPubKey.getQ().getEncoded(false), multiply);
+        return AeadCiphers.AES_256_GCM.open(aesKey, cipherBytes, 65, cipherBytes.length - 65);
+    }
+
+    @Benchmark
+    public String staticDecrypt() throws Exception {
+        return Ecies.decrypt(privateKeyHex, ciphertext);
+    }
+
+    @Benchmark
+    public String reusedDecryptor() throws Exception {
+        return decryptor.decrypt(ciphertext);
+    }
+
+    @Benchmark
+    public String reusedX25519Decryptor() throws Exception {
+        return x25519Decryptor.decrypt(x25519Ciphertext);
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder().include(EciesDecryptorBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,74 @@
+package org.mvnsearch.dotenvx.ecies;
+
+import org.bouncycastle.math.ec.ECPoint;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+
+public class EciesDecryptorTest {
+    private static final String PRIVATE_KEY_HEX = "a7a0006f9136c246937a5ae60f11cfb71541df0dac389015e6916b3ebbe170cd";
+
+    @Test
+    public void testDecryptDotenvxValue() throws Exception {
+        String ciphertext = "BDFsggcvh9IiNUIZ66YrEI10sLoUJS6WW+UiUxqfAGyHo6cfg9lQ1DhOy9z18F50aRicFHZ7dXH7CagfhonUnZA5W+l1xldVBzv4b8OJN05qih2PHIcY01spqx6RYrgg76pUsuv2eA==";
+        assertThat(EciesDecryptor.fromHex(PRIVATE_KEY_HEX).decrypt(ciphertext)).isEqualTo("Jackie");
+        assertThat(Ecies.decrypt(PRIVATE_KEY_HEX, ciphertext)).isEqualTo("Jackie");
+    }
+
+    @Test
+    public void testReuseDecryptor() throws Exception {
+        final ECKeyPair keyPair = Ecies.generateEcKeyPair();
+        final EciesDecryptor decryptor = EciesDecryptor.fromHex(keyPair.getPrivateHex());
+        for (int i = 0; i < 16; i++) {
+            String message = "message-" + i;
+            assertThat(decryptor.decrypt(Ecies.encrypt(keyPair.getPublicHex(true), message))).isEqualTo(message);
+        }
+    }
+
+    @Test
+    public void testFixedScalarMultiplierMatchesReference() {
+        SecureRandom random = new SecureRandom();
+        for (int i = 0; i < 32; i++) {
+            BigInteger scalar = new BigInteger(256, random).mod(Ecies.CURVE.getN());
+            ECPoint point = Ecies.CURVE.getG().multiply(new BigInteger(256, random)).normalize();
+            ECPoint expected = point.multiply(scalar).normalize();
+            long[] x = Secp256k1Field.fromBigInteger(point.getAffineXCoord().toBigInteger());
+            long[] y = Secp256k1Field.fromBigInteger(point.getAffineYCoord().toBigInteger());
+            assertThat(new FixedScalarMultiplier(scalar).multiply(x, y)).isEqualTo(expected.getEncoded(false));
+        }
+    }
+
+    @Test
+    public void testDecryptAllKeepsOrderAndReportsFailures() throws Exception {
+        final ECKeyPair keyPair = Ecies.generateEcKeyPair();
+        final EciesEncryptor encryptor = EciesEncryptor.fromHex(keyPair.getPublicHex(true));
+        List<byte[]> cipherBytesList = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            cipherBytesList.add(i == 42 ? new byte[8] : encryptor.encrypt(("value-" + i).getBytes(StandardCharsets.UTF_8)));
+        }
+        List<BatchResult<byte[]>> results = Ecies.decryptAll(keyPair.getPrivateBinary(), cipherBytesList, ForkJoinPool.commonPool());
+        assertThat(results).hasSize(100);
+        for (int i = 0; i < 100; i++) {
+            if (i == 42) {
+                assertThat(results.get(i).isSuccess()).isFalse();
+                assertThat(results.get(i).getError()).isNotNull();
+            } else {
+                assertThat(new String(results.get(i).getValue(), StandardCharsets.UTF_8)).isEqualTo("value-" + i);
+            }
+        }
+    }
+
+    @Test
+    public void testInvalidPrivateKey() {
+        assertThatThrownBy(() -> new EciesDecryptor(new byte[32])).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,72 @@
+package org.mvnsearch.dotenvx.ecies;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encryption throughput: recipient key decoded per call vs. an {@link EciesEncryptor} with a precomputed comb table.
+ * <p>
+ * Run with {@code java -cp <test classpath> org.mvnsearch.dotenvx.ecies.EciesEncryptorBenchmark}.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EciesEncryptorBenchmark {
+    private static final String MESSAGE = "jdbc:postgresql://localhost:5432/demo?password=secret";
+    private String publicKeyHex;
+    private EciesEncryptor encryptor;
+    private EphemeralKeyPool ephemeralKeyPool;
+    private EciesEncryptor pooledEncryptor;
+
+    @Setup
+    public void setUp() throws Exception {
+        publicKeyHex = Ecies.generateEcKeyPair().getPublicHex(true);
+        encryptor = EciesEncryptor.fromHex(publicKeyHex);
+        ephemeralKeyPool = new EphemeralKeyPool(1024, 512);
+        pooledEncryptor = EciesEncryptor.fromHex(publicKeyHex, ephemeralKeyPool);
+    }
+
+    @TearDown
+    public void tearDown() {
+        ephemeralKeyPool.close();
+    }
+
+    @Benchmark
+    public String staticEncrypt() throws Exception {
+        return Ecies.encrypt(publicKeyHex, MESSAGE);
+    }
+
+    @Benchmark
+    public String boundEncryptor() throws Exception {
+        return encryptor.encrypt(MESSAGE);
+    }
+
+    /**
+     * latency distribution with ephemeral keys taken from a background-refilled pool, compare p99 with
+     * {@link #boundEncryptorLatency()}
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public String pooledEncryptorLatency() throws Exception {
+        return pooledEncryptor.encrypt(MESSAGE);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public String boundEncryptorLatency() throws Exception {
+        return encryptor.encrypt(MESSAGE);
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder().include(EciesEncryptorBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,45 @@
+package org.mvnsearch.dotenvx.ecies;
+
+import org.bouncycastle.math.ec.ECPoint;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.security.SecureRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+
+public class EciesEncryptorTest {
+
+    @Test
+    public void testEncryptDecrypt() throws Exception {
+        final ECKeyPair keyPair = Ecies.generateEcKeyPair();
+        final EciesEncryptor encryptor = EciesEncryptor.fromHex(keyPair.getPublicHex(true));
+        final EciesDecryptor decryptor = EciesDecryptor.fromHex(keyPair.getPrivateHex());
+        for (int i = 0; i < 16; i++) {
+            String message = "message-" + i;
+            String ciphertext = encryptor.encrypt(message);
+            assertThat(decryptor.decrypt(ciphertext)).isEqualTo(message);
+            assertThat(Ecies.decrypt(keyPair.getPrivateHex(), ciphertext)).isEqualTo(message);
+        }
+    }
+
+    @Test
+    public void testUncompressedPublicKey() throws Exception {
+        final ECKeyPair keyPair = Ecies.generateEcKeyPair();
+        final EciesEncryptor encryptor = new EciesEncryptor(keyPair.getPublicBinary(false));
+        assertThat(Ecies.decrypt(keyPair.getPrivateHex(), encryptor.encrypt("Jackie"))).isEqualTo("Jackie");
+    }
+
+    @Test
+    public void testPrecomputedPublicKeyMatchesReference() {
+        SecureRandom random = new SecureRandom();
+        ECPoint publicKey = Ecies.CURVE.getG().multiply(new BigInteger(256, random)).normalize();
+        Secp256k1.PublicKey precomputed = Secp256k1.PublicKey.decode(publicKey.getEncoded(true)).precompute();
+        for (int i = 0; i < 32; i++) {
+            BigInteger k = new BigInteger(256, random).mod(Ecies.CURVE.getN());
+            ECPoint expected = publicKey.multiply(k).normalize();
+            assertThat(precomputed.multiply(Secp256k1.toScalar(k))).isEqualTo(expected.getEncoded(false));
+        }
+    }
+}
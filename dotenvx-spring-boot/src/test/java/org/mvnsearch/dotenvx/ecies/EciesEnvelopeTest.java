@@ -0,0 +1,53 @@
+package org.mvnsearch.dotenvx.ecies;
+
+import org.bouncycastle.crypto.InvalidCipherTextException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class EciesEnvelopeTest {
+
+    @Test
+    public void testSingleRecipient() throws Exception {
+        ECKeyPair keyPair = Ecies.generateEcKeyPair();
+        EciesDecryptor decryptor = EciesDecryptor.fromHex(keyPair.getPrivateHex());
+        byte[] message = "Jackie".getBytes(StandardCharsets.UTF_8);
+        byte[] compressed = EciesEnvelopeEncryptor.fromHex(keyPair.getPublicHex(true)).encrypt(message);
+        byte[] legacy = Ecies.encrypt(keyPair.getPublic().getQ().getEncoded(true), message);
+        // 2 bytes header and 4 bytes key id for the 32 bytes saved on the ephemeral key
+        assertThat(compressed.length).isEqualTo(legacy.length - 32 + 2 + 4);
+        assertThat(EciesEnvelope.recipients(compressed, 0, compressed.length)).isEqualTo(1);
+        assertThat(EciesEnvelope.keyId(compressed, 0, 0)).isEqualTo(decryptor.getKeyId())
+                .isEqualTo(EciesEnvelope.keyId(keyPair.getPublic().getQ().getEncoded(false)));
+        assertThat(decryptor.decrypt(compressed)).isEqualTo(message);
+        byte[] uncompressed = new EciesEnvelopeEncryptor(List.of(keyPair.getPublic().getQ().getEncoded(true)), false, null, AeadCiphers.AES_256_GCM).encrypt(message);
+        assertThat(decryptor.decrypt(uncompressed)).isEqualTo(message);
+        assertThat(Ecies.decrypt(keyPair.getPrivateHex(), EciesEnvelopeEncryptor.fromHex(keyPair.getPublicHex(true)).encrypt("Jackie"))).isEqualTo("Jackie");
+    }
+
+    @Test
+    public void testMultipleRecipients() throws Exception {
+        ECKeyPair first = Ecies.generateEcKeyPair();
+        ECKeyPair second = Ecies.generateEcKeyPair();
+        ECKeyPair other = Ecies.generateEcKeyPair();
+        byte[] message = "shared secret".getBytes(StandardCharsets.UTF_8);
+        EciesEnvelopeEncryptor encryptor = EciesEnvelopeEncryptor.fromHex(first.getPublicHex(true), second.getPublicHex(false));
+        byte[] encrypted = encryptor.encrypt(message);
+        assertThat(EciesEnvelope.recipients(encrypted, 0, encrypted.length)).isEqualTo(2);
+        assertThat(EciesDecryptor.fromHex(first.getPrivateHex()).decrypt(encrypted)).isEqualTo(message);
+        assertThat(EciesDecryptor.fromHex(second.getPrivateHex()).decrypt(encrypted)).isEqualTo(message);
+        EciesDecryptor otherDecryptor = EciesDecryptor.fromHex(other.getPrivateHex());
+        assertThat(otherDecryptor.tryDecrypt(encrypted, 0, encrypted.length)).isNull();
+        assertThatThrownBy(() -> otherDecryptor.decrypt(encrypted)).isInstanceOf(InvalidCipherTextException.class);
+        // tampered wrapped key and truncated header
+        byte[] tampered = encrypted.clone();
+        tampered[2 + 33 + 8 + 20] ^= 1;
+        assertThat(EciesDecryptor.fromHex(first.getPrivateHex()).tryDecrypt(tampered, 0, tampered.length)).isNull();
+        assertThat(EciesDecryptor.fromHex(second.getPrivateHex()).decrypt(tampered)).isEqualTo(message);
+        assertThat(EciesDecryptor.fromHex(first.getPrivateHex()).tryDecrypt(encrypted, 0, 20)).isNull();
+    }
+}
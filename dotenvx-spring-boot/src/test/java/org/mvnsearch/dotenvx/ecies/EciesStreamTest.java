@@ -0,0 +1,87 @@
+package org.mvnsearch.dotenvx.ecies;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+
+public class EciesStreamTest {
+    private static final int CHUNK = 1 << EciesOutputStream.DEFAULT_CHUNK_SHIFT;
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        ECKeyPair keyPair = Ecies.generateEcKeyPair();
+        EciesEncryptor encryptor = EciesEncryptor.fromHex(keyPair.getPublicHex(true));
+        EciesDecryptor decryptor = EciesDecryptor.fromHex(keyPair.getPrivateHex());
+        for (int size : new int[]{0, 1, CHUNK - 1, CHUNK, CHUNK + 1, 3 * CHUNK + 5}) {
+            byte[] plaintext = randomBytes(size);
+            byte[] encrypted = encrypt(encryptor, plaintext);
+            assertThat(encrypted).hasSize(EciesOutputStream.HEADER_LENGTH + size + Math.max(1, (size + CHUNK - 1) / CHUNK) * EciesOutputStream.TAG_LENGTH);
+            try (InputStream in = decryptor.decryptingStream(new ByteArrayInputStream(encrypted))) {
+                assertThat(in.readAllBytes()).isEqualTo(plaintext);
+            }
+        }
+    }
+
+    @Test
+    public void testKeySelection() throws Exception {
+        ECKeyPair keyPair = Ecies.generateEcKeyPair();
+        byte[] plaintext = randomBytes(2 * CHUNK + 7);
+        byte[] encrypted = encrypt(EciesEncryptor.fromHex(keyPair.getPublicHex(false)), plaintext);
+        EciesDecryptor other = EciesDecryptor.fromHex(Ecies.generateEcKeyPair().getPrivateHex());
+        EciesDecryptor decryptor = EciesDecryptor.fromHex(keyPair.getPrivateHex());
+        try (InputStream in = new EciesInputStream(new ByteArrayInputStream(encrypted), List.of(other, decryptor))) {
+            assertThat(in.readAllBytes()).isEqualTo(plaintext);
+        }
+        assertThatThrownBy(() -> other.decryptingStream(new ByteArrayInputStream(encrypted)).readAllBytes())
+                .isInstanceOf(IOException.class);
+    }
+
+    @Test
+    public void testTamperingAndTruncation() throws Exception {
+        ECKeyPair keyPair = Ecies.generateEcKeyPair();
+        EciesDecryptor decryptor = EciesDecryptor.fromHex(keyPair.getPrivateHex());
+        byte[] encrypted = encrypt(EciesEncryptor.fromHex(keyPair.getPublicHex(true)), randomBytes(2 * CHUNK + 7));
+        int frameLength = CHUNK + EciesOutputStream.TAG_LENGTH;
+        // flipped bit in the second frame
+        byte[] tampered = encrypted.clone();
+        tampered[EciesOutputStream.HEADER_LENGTH + frameLength + 3] ^= 1;
+        // last frame dropped: the previous full frame isn't flagged as last
+        byte[] truncated = Arrays.copyOf(encrypted, EciesOutputStream.HEADER_LENGTH + 2 * frameLength);
+        // two frames swapped
+        byte[] reordered = encrypted.clone();
+        System.arraycopy(encrypted, EciesOutputStream.HEADER_LENGTH, reordered, EciesOutputStream.HEADER_LENGTH + frameLength, frameLength);
+        System.arraycopy(encrypted, EciesOutputStream.HEADER_LENGTH + frameLength, reordered, EciesOutputStream.HEADER_LENGTH, frameLength);
+        for (byte[] corrupted : List.of(tampered, truncated, reordered)) {
+            assertThatThrownBy(() -> decryptor.decryptingStream(new ByteArrayInputStream(corrupted)).readAllBytes())
+                    .isInstanceOf(IOException.class);
+        }
+    }
+
+    private static byte[] encrypt(EciesEncryptor encryptor, byte[] plaintext) throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (OutputStream out = encryptor.encryptingStream(bos)) {
+            // uneven writes across chunk boundaries
+            for (int off = 0; off < plaintext.length; off += 1000) {
+                out.write(plaintext, off, Math.min(1000, plaintext.length - off));
+            }
+        }
+        return bos.toByteArray();
+    }
+
+    private static byte[] randomBytes(int size) {
+        byte[] bytes = new byte[size];
+        new Random(size).nextBytes(bytes);
+        return bytes;
+    }
+}
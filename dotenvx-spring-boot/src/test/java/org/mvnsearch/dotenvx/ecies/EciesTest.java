@@ -2,6 +2,12 @@ package org.mvnsearch.dotenvx.ecies;
 
 import org.junit.jupiter.api.Test;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
 
 public class EciesTest {
 
@@ -11,4 +17,20 @@ public class EciesTest {
         System.out.println("public key: " + ecKeyPair.getPublicHex(true));
         System.out.println("private key: " + ecKeyPair.getPrivateHex());
     }
+
+    @Test
+    public void testDecodeBase64() {
+        ByteBuffer first = Ecies.decodeBase64(Base64.getEncoder().encodeToString("Jackie".getBytes()));
+        ByteBuffer second = Ecies.decodeBase64(Base64.getEncoder().encodeToString("Linux".getBytes()));
+        // each call returns its own buffer
+        assertThat(StandardCharsets.UTF_8.decode(first).toString()).isEqualTo("Jackie");
+        assertThat(StandardCharsets.UTF_8.decode(second).toString()).isEqualTo("Linux");
+        String nested = Ecies.decodeBase64(Base64.getEncoder().encodeToString("Jackie".getBytes()), outer -> {
+            String inner = Ecies.decodeBase64(Base64.getEncoder().encodeToString("Linux".getBytes()),
+                    buffer -> StandardCharsets.UTF_8.decode(buffer).toString());
+            return StandardCharsets.UTF_8.decode(outer) + " " + inner;
+        });
+        // a nested call doesn't overwrite the lent buffer
+        assertThat(nested).isEqualTo("Jackie Linux");
+    }
 }
@@ -0,0 +1,40 @@
+package org.mvnsearch.dotenvx.ecies;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+
+public class EphemeralKeyPoolTest {
+
+    @Test
+    public void testEncryptWithPool() throws Exception {
+        final ECKeyPair keyPair = Ecies.generateEcKeyPair();
+        try (EphemeralKeyPool pool = new EphemeralKeyPool(8, 2)) {
+            waitUntilAbove(pool, 7);
+            EciesEncryptor encryptor = EciesEncryptor.fromHex(keyPair.getPublicHex(true), pool);
+            EciesDecryptor decryptor = EciesDecryptor.fromHex(keyPair.getPrivateHex());
+            Set<String> ephemeralKeys = new HashSet<>();
+            // drains the pool and falls back to synchronous generation
+            for (int i = 0; i < 32; i++) {
+                byte[] ciphertext = encryptor.encrypt(("message-" + i).getBytes());
+                ephemeralKeys.add(org.bouncycastle.util.encoders.Hex.toHexString(ciphertext, 0, 65));
+                assertThat(new String(decryptor.decrypt(ciphertext))).isEqualTo("message-" + i);
+            }
+            assertThat(ephemeralKeys).hasSize(32);
+            // a take racing with the end of a refill may leave the pool between low-water mark and full
+            waitUntilAbove(pool, 2);
+        }
+    }
+
+    private static void waitUntilAbove(EphemeralKeyPool pool, int lowWaterMark) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (pool.available() <= lowWaterMark && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(pool.available()).isGreaterThan(lowWaterMark);
+    }
+}
@@ -0,0 +1,110 @@
+package org.mvnsearch.dotenvx.ecies;
+
+import org.bouncycastle.crypto.digests.SHA256Digest;
+import org.bouncycastle.crypto.params.ECDomainParameters;
+import org.bouncycastle.crypto.params.ECPrivateKeyParameters;
+import org.bouncycastle.crypto.params.ECPublicKeyParameters;
+import org.bouncycastle.crypto.signers.ECDSASigner;
+import org.bouncycastle.crypto.signers.HMacDSAKCalculator;
+import org.bouncycastle.math.ec.ECPoint;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigInteger;
+import java.security.SecureRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bouncy Castle's generic EC arithmetic versus {@link Secp256k1} for key generation, ECDH, signing and verification.
+ * <p>
+ * Run with {@code java -cp <test classpath> org.mvnsearch.dotenvx.ecies.Secp256k1Benchmark}.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class Secp256k1Benchmark {
+    private static final ECDomainParameters DOMAIN = new ECDomainParameters(Ecies.CURVE);
+    private final byte[] hash = new byte[32];
+    private BigInteger privateKey;
+    private byte[] scalar;
+    private ECPoint point;
+    private Secp256k1.PublicKey publicKey;
+    private Secp256k1.PublicKey precomputed;
+    private BigInteger[] signature;
+    private ECDSASigner bcSigner;
+    private ECDSASigner bcVerifier;
+
+    @Setup
+    public void setUp() {
+        new SecureRandom().nextBytes(hash);
+        scalar = Secp256k1.generatePrivateKey();
+        privateKey = new BigInteger(1, scalar);
+        point = Ecies.CURVE.getG().multiply(new BigInteger(1, Secp256k1.generatePrivateKey())).normalize();
+        publicKey = Secp256k1.PublicKey.decode(point.getEncoded(true));
+        precomputed = publicKey.precompute();
+        signature = Secp256k1.sign(hash, privateKey);
+        bcSigner = new ECDSASigner(new HMacDSAKCalculator(new SHA256Digest()));
+        bcSigner.init(true, new ECPrivateKeyParameters(privateKey, DOMAIN));
+        bcVerifier = new ECDSASigner();
+        bcVerifier.init(false, new ECPublicKeyParameters(point, DOMAIN));
+    }
+
+    @Benchmark
+    public byte[] bcDerivePublicKey() {
+        return Ecies.CURVE.getG().multiply(privateKey).getEncoded(true);
+    }
+
+    @Benchmark
+    public byte[] derivePublicKey() {
+        return Secp256k1.derivePublicKey(scalar, true);
+    }
+
+    @Benchmark
+    public byte[] bcEcdh() {
+        return point.multiply(privateKey).getEncoded(false);
+    }
+
+    @Benchmark
+    public byte[] ecdh() {
+        return publicKey.multiply(scalar);
+    }
+
+    @Benchmark
+    public byte[] ecdhPrecomputed() {
+        return precomputed.multiply(scalar);
+    }
+
+    @Benchmark
+    public BigInteger[] bcSign() {
+        return bcSigner.generateSignature(hash);
+    }
+
+    @Benchmark
+    public BigInteger[] sign() {
+        return Secp256k1.sign(hash, privateKey);
+    }
+
+    @Benchmark
+    public boolean bcVerify() {
+        return bcVerifier.verifySignature(hash, signature[0], signature[1]);
+    }
+
+    @Benchmark
+    public boolean verify() {
+        return Secp256k1.verify(hash, signature[0], signature[1], publicKey);
+    }
+
+    @Benchmark
+    public boolean verifyPrecomputed() {
+        return Secp256k1.verify(hash, signature[0], signature[1], precomputed);
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder().include(Secp256k1Benchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,122 @@
+package org.mvnsearch.dotenvx.ecies;
+
+import org.bouncycastle.crypto.digests.SHA256Digest;
+import org.bouncycastle.crypto.params.ECDomainParameters;
+import org.bouncycastle.crypto.params.ECPrivateKeyParameters;
+import org.bouncycastle.crypto.params.ECPublicKeyParameters;
+import org.bouncycastle.crypto.signers.ECDSASigner;
+import org.bouncycastle.crypto.signers.HMacDSAKCalculator;
+import org.bouncycastle.math.ec.ECPoint;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.security.SecureRandom;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * secp256k1 engine cross-checked against Bouncy Castle
+ */
+public class Secp256k1Test {
+    private static final BigInteger P = Secp256k1Field.P;
+    private static final BigInteger N = Secp256k1.N;
+    private static final ECDomainParameters DOMAIN = new ECDomainParameters(Ecies.CURVE);
+    private final SecureRandom random = new SecureRandom();
+
+    @Test
+    public void testFieldArithmetic() {
+        BigInteger[] edges = {BigInteger.ZERO, BigInteger.ONE, BigInteger.TWO, P.subtract(BigInteger.ONE),
+                P.subtract(BigInteger.TWO), BigInteger.ONE.shiftLeft(255), BigInteger.ONE.shiftLeft(52).subtract(BigInteger.ONE)};
+        for (int i = 0; i < 2000; i++) {
+            BigInteger a = i < edges.length ? edges[i] : new BigInteger(256, random).mod(P);
+            BigInteger b = i < edges.length ? edges[edges.length - 1 - i] : new BigInteger(256, random).mod(P);
+            long[] fa = Secp256k1Field.fromBigInteger(a), fb = Secp256k1Field.fromBigInteger(b), r = Secp256k1Field.create();
+            Secp256k1Field.multiply(fa, fb, r);
+            assertThat(Secp256k1Field.toBigInteger(r)).isEqualTo(a.multiply(b).mod(P));
+            Secp256k1Field.square(fa, r);
+            assertThat(Secp256k1Field.toBigInteger(r)).isEqualTo(a.multiply(a).mod(P));
+            Secp256k1Field.add(fa, fb, r);
+            assertThat(Secp256k1Field.toBigInteger(r)).isEqualTo(a.add(b).mod(P));
+            Secp256k1Field.subtract(fa, fb, r);
+            assertThat(Secp256k1Field.toBigInteger(r)).isEqualTo(a.subtract(b).mod(P));
+            if (a.signum() != 0) {
+                Secp256k1Field.invert(fa, r);
+                assertThat(Secp256k1Field.toBigInteger(r)).isEqualTo(a.modInverse(P));
+            }
+            byte[] bytes = new byte[32];
+            Secp256k1Field.normalize(fa);
+            Secp256k1Field.getBytes(fa, bytes, 0);
+            assertThat(new BigInteger(1, bytes)).isEqualTo(a);
+        }
+        assertThat(Secp256k1Field.setBytes(Secp256k1.toScalar(P), 0, Secp256k1Field.create())).isFalse();
+    }
+
+    @Test
+    public void testDerivePublicKey() {
+        BigInteger[] keys = {BigInteger.ONE, BigInteger.TWO, N.subtract(BigInteger.ONE), new BigInteger(1, Secp256k1.generatePrivateKey())};
+        for (BigInteger d : keys) {
+            ECPoint expected = Ecies.CURVE.getG().multiply(d).normalize();
+            assertThat(Secp256k1.derivePublicKey(Secp256k1.toScalar(d), true)).isEqualTo(expected.getEncoded(true));
+            assertThat(Secp256k1.derivePublicKey(Secp256k1.toScalar(d), false)).isEqualTo(expected.getEncoded(false));
+        }
+    }
+
+    @Test
+    public void testMultiplyMatchesReference() {
+        ECPoint point = Ecies.CURVE.getG().multiply(new BigInteger(256, random)).normalize();
+        Secp256k1.PublicKey publicKey = Secp256k1.PublicKey.decode(point.getEncoded(false));
+        Secp256k1.PublicKey precomputed = publicKey.precompute();
+        for (int i = 0; i < 32; i++) {
+            BigInteger k = i == 0 ? N.subtract(BigInteger.ONE) : new BigInteger(256, random).mod(N);
+            byte[] expected = point.multiply(k).normalize().getEncoded(false);
+            assertThat(publicKey.multiply(Secp256k1.toScalar(k))).isEqualTo(expected);
+            assertThat(precomputed.multiply(Secp256k1.toScalar(k))).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    public void testSignMatchesReference() {
+        ECDSASigner reference = new ECDSASigner(new HMacDSAKCalculator(new SHA256Digest()));
+        for (int i = 0; i < 16; i++) {
+            BigInteger d = new BigInteger(1, Secp256k1.generatePrivateKey());
+            ECPoint q = Ecies.CURVE.getG().multiply(d).normalize();
+            byte[] hash = new byte[32];
+            random.nextBytes(hash);
+            BigInteger[] signature = Secp256k1.sign(hash, d);
+            reference.init(true, new ECPrivateKeyParameters(d, DOMAIN));
+            assertThat(signature).isEqualTo(reference.generateSignature(hash));
+            Secp256k1.PublicKey publicKey = Secp256k1.PublicKey.decode(q.getEncoded(true));
+            assertThat(Secp256k1.verify(hash, signature[0], signature[1], publicKey)).isTrue();
+            assertThat(Secp256k1.verify(hash, signature[0], signature[1], publicKey.precompute())).isTrue();
+            reference.init(false, new ECPublicKeyParameters(q, DOMAIN));
+            assertThat(reference.verifySignature(hash, signature[0], signature[1])).isTrue();
+            // tampered hash and signature
+            hash[i] ^= 1;
+            assertThat(Secp256k1.verify(hash, signature[0], signature[1], publicKey)).isFalse();
+            hash[i] ^= 1;
+            assertThat(Secp256k1.verify(hash, signature[0], signature[1].add(BigInteger.ONE), publicKey)).isFalse();
+            assertThat(Secp256k1.verify(hash, N, signature[1], publicKey)).isFalse();
+        }
+    }
+
+    @Test
+    public void testDecodePublicKey() {
+        ECPoint point = Ecies.CURVE.getG().multiply(new BigInteger(256, random)).normalize();
+        Secp256k1.PublicKey compressed = Secp256k1.PublicKey.decode(point.getEncoded(true));
+        Secp256k1.PublicKey uncompressed = Secp256k1.PublicKey.decode(point.getEncoded(false));
+        assertThat(compressed.getEncoded(false)).isEqualTo(point.getEncoded(false));
+        assertThat(uncompressed.getEncoded(true)).isEqualTo(point.getEncoded(true));
+        byte[] offCurve = point.getEncoded(false);
+        offCurve[64] ^= 1;
+        assertThatThrownBy(() -> Secp256k1.PublicKey.decode(offCurve)).isInstanceOf(IllegalArgumentException.class);
+        byte[] truncated = Arrays.copyOf(point.getEncoded(true), 32);
+        assertThatThrownBy(() -> Secp256k1.PublicKey.decode(truncated)).isInstanceOf(IllegalArgumentException.class);
+        // x = 5 has no y with y^2 = x^3 + 7
+        byte[] noRoot = new byte[33];
+        noRoot[0] = 0x02;
+        noRoot[32] = 5;
+        assertThatThrownBy(() -> Secp256k1.PublicKey.decode(noRoot)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
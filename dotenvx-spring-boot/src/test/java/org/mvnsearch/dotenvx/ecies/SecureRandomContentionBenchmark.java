@@ -0,0 +1,66 @@
+package org.mvnsearch.dotenvx.ecies;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Nonce generation from one shared {@link SecureRandom} versus {@link SecureRandoms}, and full encryption, at 1 to 64
+ * threads.
+ * <p>
+ * Run with {@code java -cp <test classpath> org.mvnsearch.dotenvx.ecies.SecureRandomContentionBenchmark}; throughput
+ * only scales up to the cores of the machine.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SecureRandomContentionBenchmark {
+    private static final int[] THREADS = {1, 2, 4, 8, 16, 32, 64};
+    private static final SecureRandom SHARED = new SecureRandom();
+    private static final byte[] MESSAGE = "secret-value".getBytes(StandardCharsets.UTF_8);
+    private EciesEncryptor encryptor;
+
+    @State(Scope.Thread)
+    public static class Nonce {
+        final byte[] bytes = new byte[16];
+    }
+
+    @Setup
+    public void setUp() throws Exception {
+        encryptor = new EciesEncryptor(Ecies.generateEcKeyPair().getPublicBinary(true));
+    }
+
+    @Benchmark
+    public byte[] sharedNonce(Nonce nonce) {
+        SHARED.nextBytes(nonce.bytes);
+        return nonce.bytes;
+    }
+
+    @Benchmark
+    public byte[] stripedNonce(Nonce nonce) {
+        SecureRandoms.nextBytes(nonce.bytes);
+        return nonce.bytes;
+    }
+
+    @Benchmark
+    public byte[] encrypt() throws Exception {
+        return encryptor.encrypt(MESSAGE);
+    }
+
+    public static void main(String[] args) throws Exception {
+        for (int threads : THREADS) {
+            new Runner(new OptionsBuilder()
+                    .include(SecureRandomContentionBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .build()).run();
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package org.mvnsearch.dotenvx.ecies;
+
+import org.bouncycastle.crypto.InvalidCipherTextException;
+import org.junit.jupiter.api.Test;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.XECPrivateKey;
+import java.security.interfaces.XECPublicKey;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class X25519EciesTest {
+
+    @Test
+    public void testEncryptDecrypt() throws Exception {
+        X25519KeyPair keyPair = Ecies.generateX25519KeyPair();
+        assertThat(keyPair.getPublicKey()).startsWith("x25519:").hasSize(7 + 64);
+        String ciphertext = Ecies.encrypt(keyPair.getPublicKey(), "Jackie");
+        assertThat(ciphertext).startsWith("x25519:");
+        assertThat(Ecies.decrypt(keyPair.getPrivateKey(), ciphertext)).isEqualTo("Jackie");
+        X25519Decryptor decryptor = X25519Decryptor.fromText(keyPair.getPrivateKey());
+        assertThat(decryptor.decrypt(ciphertext.substring("x25519:".length()))).isEqualTo("Jackie");
+        assertThatThrownBy(() -> X25519Decryptor.fromText(Ecies.generateX25519KeyPair().getPrivateKey()).decrypt(ciphertext))
+                .isInstanceOf(InvalidCipherTextException.class);
+    }
+
+    @Test
+    public void testJdkKeys() throws Exception {
+        // raw RFC 7748 keys of the JDK XDH provider work as they are
+        KeyPair jdk = KeyPairGenerator.getInstance("X25519").generateKeyPair();
+        byte[] u = ((XECPublicKey) jdk.getPublic()).getU().toByteArray();
+        byte[] publicKey = new byte[32];
+        for (int i = 0; i < u.length && i < 32; i++) {
+            publicKey[i] = u[u.length - 1 - i];
+        }
+        byte[] privateKey = ((XECPrivateKey) jdk.getPrivate()).getScalar().orElseThrow();
+        byte[] encrypted = new X25519Encryptor(publicKey).encrypt("secret".getBytes());
+        assertThat(new X25519Decryptor(privateKey).decrypt(encrypted)).isEqualTo("secret".getBytes());
+    }
+
+    @Test
+    public void testInvalidCiphertext() throws Exception {
+        X25519KeyPair keyPair = Ecies.generateX25519KeyPair();
+        X25519Decryptor decryptor = new X25519Decryptor(keyPair.getPrivateBinary());
+        byte[] encrypted = new X25519Encryptor(keyPair.getPublicBinary()).encrypt("secret".getBytes());
+        byte[] tampered = encrypted.clone();
+        tampered[tampered.length - 1] ^= 1;
+        assertThatThrownBy(() -> decryptor.decrypt(tampered)).isInstanceOf(InvalidCipherTextException.class);
+        // low-order ephemeral key, the shared secret would be all zeros
+        byte[] lowOrder = encrypted.clone();
+        Arrays.fill(lowOrder, 0, 32, (byte) 0);
+        assertThatThrownBy(() -> decryptor.decrypt(lowOrder)).isInstanceOf(InvalidCipherTextException.class);
+        assertThatThrownBy(() -> decryptor.decrypt(new byte[32])).isInstanceOf(InvalidCipherTextException.class);
+        assertThatThrownBy(() -> X25519Ecies.decodeKey("x25519:abcd")).isInstanceOf(IllegalArgumentException.class);
+    }
+}
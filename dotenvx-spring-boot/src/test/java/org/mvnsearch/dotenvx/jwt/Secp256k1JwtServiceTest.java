@@ -1,11 +1,15 @@
 package org.mvnsearch.dotenvx.jwt;
 
+import com.nimbusds.jose.crypto.ECDSAVerifier;
+import com.nimbusds.jose.crypto.bc.BouncyCastleProviderSingleton;
 import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
 import org.bouncycastle.jcajce.provider.asymmetric.ec.BCECPrivateKey;
 import org.bouncycastle.jcajce.provider.asymmetric.ec.BCECPublicKey;
 import org.junit.jupiter.api.Test;
 import org.mvnsearch.dotenvx.ecies.ECKeyPair;
 import org.mvnsearch.dotenvx.ecies.Ecies;
+import org.mvnsearch.dotenvx.ecies.Secp256k1;
 
 import java.util.Date;
 
@@ -30,4 +34,20 @@ public class Secp256k1JwtServiceTest {
         final JWTClaimsSet jwtClaimsSet = Secp256k1JwtService.verifyJwt(jwtToken, publicKey);
         assertThat(jwtClaimsSet.getSubject()).isEqualTo(subject);
     }
+
+    @Test
+    public void testVerifyWithNimbusAndPrecomputedKey() throws Exception {
+        final ECKeyPair keyPair = Ecies.generateEcKeyPair();
+        JWTClaimsSet claimsSet = new JWTClaimsSet.Builder().subject("example-user").build();
+        final String jwtToken = Secp256k1JwtService.createJwtToken(keyPair.getPrivate(), claimsSet);
+        ECDSAVerifier nimbus = new ECDSAVerifier(keyPair.getPublic());
+        nimbus.getJCAContext().setProvider(BouncyCastleProviderSingleton.getInstance());
+        assertThat(SignedJWT.parse(jwtToken).verify(nimbus)).isTrue();
+        Secp256k1.PublicKey publicKey = Secp256k1.PublicKey.decode(keyPair.getPublicBinary(true)).precompute();
+        assertThat(Secp256k1JwtService.verifyJwt(jwtToken, publicKey).getSubject()).isEqualTo("example-user");
+        Secp256k1JwsVerifier verifier = new Secp256k1JwsVerifier(publicKey);
+        assertThat(SignedJWT.parse(jwtToken).verify(verifier)).isTrue();
+        String tampered = jwtToken.substring(0, jwtToken.length() - 2) + (jwtToken.endsWith("A") ? "BA" : "AA");
+        assertThat(SignedJWT.parse(tampered).verify(verifier)).isFalse();
+    }
 }
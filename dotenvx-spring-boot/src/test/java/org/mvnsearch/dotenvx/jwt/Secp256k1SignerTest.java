@@ -1,10 +1,15 @@
 package org.mvnsearch.dotenvx.jwt;
 
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
 import org.junit.jupiter.api.Test;
 import org.mvnsearch.dotenvx.ecies.ECKeyPair;
 import org.mvnsearch.dotenvx.ecies.Ecies;
 
+import java.security.Signature;
+import java.security.SignatureException;
+
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 
 public class Secp256k1SignerTest {
@@ -17,4 +22,21 @@ public class Secp256k1SignerTest {
         final boolean result = Secp256k1Signer.verifySignature(payload, signatureBytes, keyPair.getPublic());
         assertThat(result).isTrue();
     }
+
+    @Test
+    public void testInteroperableWithJca() throws Exception {
+        final ECKeyPair keyPair = Ecies.generateEcKeyPair();
+        byte[] payload = "Hello World!".getBytes();
+        Signature jca = Signature.getInstance("SHA256withECDSA", BouncyCastleProvider.PROVIDER_NAME);
+        jca.initVerify(keyPair.getPublic());
+        jca.update(payload);
+        assertThat(jca.verify(Secp256k1Signer.signData(payload, keyPair.getPrivate()))).isTrue();
+        jca.initSign(keyPair.getPrivate());
+        jca.update(payload);
+        final byte[] signatureBytes = jca.sign();
+        assertThat(Secp256k1Signer.verifySignature(payload, signatureBytes, keyPair.getPublic())).isTrue();
+        assertThat(Secp256k1Signer.verifySignature("Hello World?".getBytes(), signatureBytes, keyPair.getPublic())).isFalse();
+        assertThatThrownBy(() -> Secp256k1Signer.verifySignature(payload, new byte[]{0x30, 0x01}, keyPair.getPublic()))
+                .isInstanceOf(SignatureException.class);
+    }
 }
@@ -0,0 +1,87 @@
+package org.mvnsearch.dotenvx.keyring;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mvnsearch.dotenvx.ecies.ECKeyPair;
+import org.mvnsearch.dotenvx.ecies.Ecies;
+import org.mvnsearch.dotenvx.ecies.X25519KeyPair;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class KeyringTest {
+
+    @Test
+    public void testLoad(@TempDir Path dir) throws Exception {
+        ECKeyPair primary = Ecies.generateEcKeyPair();
+        X25519KeyPair production = Ecies.generateX25519KeyPair();
+        ECKeyPair global = Ecies.generateEcKeyPair();
+        Path envKeys = dir.resolve(".env.keys");
+        Files.writeString(envKeys, """
+                #/------------------!DOTENV_PRIVATE_KEYS!-------------------/
+                # .env
+                DOTENV_PRIVATE_KEY="%s"
+                # .env.production
+                DOTENV_PRIVATE_KEY_PRODUCTION='%s'
+                OTHER=value
+                """.formatted(primary.getPrivateHex(), production.getPrivateKey()));
+        Path globalKeys = dir.resolve(".env.keys.json");
+        Files.writeString(globalKeys, """
+                {"version": 1, "keys": {"%s": {"private_key": "%s", "created_at": {"ts": 1}}, "broken": 1}}
+                """.formatted(global.getPublicHex(false), global.getPrivateHex()));
+        Keyring keyring = Keyring.load(envKeys, globalKeys);
+        assertThat(keyring.getEntries()).hasSize(3);
+        KeyEntry primaryEntry = keyring.findByProfile(null);
+        assertThat(primaryEntry.getPrivateKey()).isEqualTo(primary.getPrivateHex());
+        assertThat(keyring.findByProfile("production").getPublicKey()).isEqualTo(production.getPublicKey());
+        // the public key of a .env.keys entry is derived, the JSON one is normalized to compressed
+        assertThat(keyring.findByPublicKey(primary.getPublicHex(true))).isSameAs(primaryEntry);
+        assertThat(keyring.findByPublicKey(global.getPublicHex(true)).getPrivateKey()).isEqualTo(global.getPrivateHex());
+        assertThat(keyring.findByKeyId(primaryEntry.getKeyId())).isSameAs(primaryEntry);
+        // keys given by value share the entry and its precomputed contexts
+        assertThat(keyring.entryOf(primary.getPrivateHex().toUpperCase())).isSameAs(primaryEntry);
+        assertThat(keyring.entryOf(primary.getPrivateHex()).getDecryptor()).isSameAs(primaryEntry.getDecryptor());
+        // other keys given by value are owned by the caller, never added to the keyring
+        ECKeyPair other = Ecies.generateEcKeyPair();
+        KeyEntry otherEntry = keyring.entryOf(other.getPrivateHex());
+        assertThat(otherEntry.getSource()).isNull();
+        assertThat(keyring.entryOf(other.getPrivateHex())).isNotSameAs(otherEntry);
+        assertThat(keyring.getEntries()).hasSize(3).doesNotContain(otherEntry);
+        assertThat(keyring.findByPublicKey(other.getPublicHex(true))).isNull();
+        assertThat(primaryEntry.getDecryptor().decrypt(Ecies.encrypt(primary.getPublicHex(true), "Jackie"))).isEqualTo("Jackie");
+        assertThat(primaryEntry.getVerificationKey().getEncoded(true)).isEqualTo(primary.getPublic().getQ().getEncoded(true));
+        assertThat(Keyring.load(dir.resolve("missing"), null).getEntries()).isEmpty();
+    }
+
+    @Test
+    public void testReload(@TempDir Path dir) throws Exception {
+        ECKeyPair primary = Ecies.generateEcKeyPair();
+        ECKeyPair production = Ecies.generateEcKeyPair();
+        ECKeyPair global = Ecies.generateEcKeyPair();
+        Path envKeys = dir.resolve(".env.keys");
+        Files.writeString(envKeys, "DOTENV_PRIVATE_KEY=" + primary.getPrivateHex() + "\n");
+        Path globalKeys = dir.resolve(".env.keys.json");
+        Files.writeString(globalKeys, """
+                {"keys": {"%s": {"private_key": "%s"}}}
+                """.formatted(global.getPublicHex(true), global.getPrivateHex()));
+        Keyring keyring = Keyring.load(envKeys, globalKeys);
+        KeyEntry primaryEntry = keyring.findByProfile(null);
+        keyring.entryOf(production.getPrivateHex());
+        Files.writeString(envKeys, "DOTENV_PRIVATE_KEY=" + primary.getPrivateHex() + "\nDOTENV_PRIVATE_KEY_PRODUCTION=" + production.getPrivateHex() + "\n");
+        Keyring reloaded = keyring.reload(envKeys);
+        // unchanged keys keep their entries, the other file is carried over
+        assertThat(reloaded.findByProfile(null)).isSameAs(primaryEntry);
+        assertThat(reloaded.findByPublicKey(global.getPublicHex(true))).isSameAs(keyring.findByPublicKey(global.getPublicHex(true)));
+        // a key given by value before it was added to the file is a new key of the file
+        assertThat(reloaded.findByProfile("production").getSource()).isEqualTo(envKeys);
+        assertThat(new KeyringChange(envKeys, keyring, reloaded).getAdded()).containsExactly(reloaded.findByProfile("production"));
+        assertThat(reloaded.getEntries()).hasSize(3);
+        // a removed key
+        Files.writeString(envKeys, "DOTENV_PRIVATE_KEY_PRODUCTION=" + production.getPrivateHex() + "\n");
+        Keyring removed = reloaded.reload(envKeys);
+        assertThat(removed.findByProfile(null)).isNull();
+        assertThat(new KeyringChange(envKeys, reloaded, removed).getRemoved()).containsExactly(primaryEntry);
+    }
+}
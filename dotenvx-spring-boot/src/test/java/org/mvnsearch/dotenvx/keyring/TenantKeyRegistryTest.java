@@ -0,0 +1,78 @@
+package org.mvnsearch.dotenvx.keyring;
+
+import org.junit.jupiter.api.Test;
+import org.mvnsearch.dotenvx.ecies.ECKeyPair;
+import org.mvnsearch.dotenvx.ecies.Ecies;
+import org.mvnsearch.dotenvx.ecies.X25519KeyPair;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TenantKeyRegistryTest {
+
+    @Test
+    public void testLruEviction() throws Exception {
+        Map<String, TenantKeys> tenants = new ConcurrentHashMap<>();
+        for (int i = 0; i < 4; i++) {
+            ECKeyPair keyPair = Ecies.generateEcKeyPair();
+            tenants.put("tenant-" + i, new TenantKeys(null, keyPair.getPrivateHex()));
+        }
+        X25519KeyPair x25519KeyPair = Ecies.generateX25519KeyPair();
+        tenants.put("tenant-x", new TenantKeys(x25519KeyPair.getPublicKey(), x25519KeyPair.getPrivateKey()));
+        AtomicInteger loads = new AtomicInteger();
+        TenantKeyRegistry registry = new TenantKeyRegistry(tenantId -> {
+            loads.incrementAndGet();
+            return tenants.get(tenantId);
+        }, 3);
+        assertThat(registry.decrypt("tenant-x", registry.encrypt("tenant-x", "Jackie"))).isEqualTo("Jackie");
+        assertThat(registry.decrypt("tenant-0", Ecies.encrypt(registry.get("tenant-0").getPublicKey(), "Jackie"))).isEqualTo("Jackie");
+        registry.get("tenant-1");
+        // tenant-x is the least recently used
+        registry.get("tenant-0");
+        registry.get("tenant-2");
+        assertThat(registry.size()).isEqualTo(3);
+        assertThat(registry.getEvictionCount()).isEqualTo(1);
+        assertThat(registry.get("tenant-0")).isSameAs(tenants.get("tenant-0"));
+        assertThat(loads.get()).isEqualTo(4);
+        assertThat(registry.get("unknown")).isNull();
+        assertThat(registry.size()).isEqualTo(3);
+        assertThat(registry.getHitCount()).isEqualTo(4);
+        assertThat(registry.getMissCount()).isEqualTo(5);
+    }
+
+    @Test
+    public void testSingleFlightLoad() throws Exception {
+        ECKeyPair keyPair = Ecies.generateEcKeyPair();
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        TenantKeyRegistry registry = new TenantKeyRegistry(tenantId -> {
+            loads.incrementAndGet();
+            Thread.sleep(50);
+            return new TenantKeys(keyPair.getPublicHex(true), keyPair.getPrivateHex());
+        }, 100);
+        List<CompletableFuture<TenantKeys>> futures = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            futures.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+                return registry.get("tenant");
+            }));
+        }
+        start.countDown();
+        TenantKeys keys = futures.get(0).join();
+        for (CompletableFuture<TenantKeys> future : futures) {
+            assertThat(future.join()).isSameAs(keys);
+        }
+        assertThat(loads.get()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,58 @@
+package org.mvnsearch.dotenvx.spring;
+
+import org.junit.jupiter.api.Test;
+import org.mvnsearch.dotenvx.spring.caching.CachePolicy;
+import org.mvnsearch.dotenvx.spring.encryptor.FakeDotenvxEncryptor;
+import org.mvnsearch.dotenvx.spring.filter.DefaultPropertyFilter;
+import org.mvnsearch.dotenvx.spring.resolver.DefaultPropertyResolver;
+import org.springframework.boot.env.OriginTrackedMapPropertySource;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.MutablePropertySources;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * unchanging property sources without encrypted values are left unwrapped
+ */
+public class EncryptablePropertySourceConverterTest {
+
+    @Test
+    public void testSkipUnencryptedSources() {
+        StandardEnvironment environment = new StandardEnvironment();
+        FakeDotenvxEncryptor encryptor = new FakeDotenvxEncryptor(ciphertext -> "secret");
+        Map<String, Object> large = new HashMap<>();
+        for (int i = 0; i < 2048; i++) {
+            large.put("app.property" + i, "value" + i);
+        }
+        MutablePropertySources sources = environment.getPropertySources();
+        sources.addLast(new OriginTrackedMapPropertySource("plain.properties", Map.of("app.name", "demo", "app.port", 8080), true));
+        sources.addLast(new OriginTrackedMapPropertySource("large.properties", large, true));
+        sources.addLast(new OriginTrackedMapPropertySource("encrypted.properties", Map.of("app.password", "encrypted:BDqDBibm"), true));
+        sources.addLast(new OriginTrackedMapPropertySource("placeholder.properties", Map.of("app.url", "${app.host}"), true));
+        // may change on its own
+        sources.addLast(new MapPropertySource("mutable", new HashMap<>(Map.of("app.mode", "plain"))));
+        EncryptablePropertySourceConverter converter = new EncryptablePropertySourceConverter(InterceptionMode.WRAPPER, List.of(),
+                new DefaultPropertyResolver(encryptor, environment), new DefaultPropertyFilter(), CachePolicy.UNBOUNDED, true);
+        converter.convertPropertySources(sources);
+        assertThat(sources.get("plain.properties")).isInstanceOf(OriginTrackedMapPropertySource.class);
+        assertThat(sources.get("large.properties")).isInstanceOf(OriginTrackedMapPropertySource.class);
+        assertThat(sources.get("encrypted.properties")).isInstanceOf(EncryptablePropertySource.class);
+        assertThat(sources.get("placeholder.properties")).isInstanceOf(EncryptablePropertySource.class);
+        assertThat(sources.get("mutable")).isInstanceOf(EncryptablePropertySource.class);
+        assertThat(environment.getProperty("app.password")).isEqualTo("secret");
+        assertThat(environment.getProperty("app.name")).isEqualTo("demo");
+        // system properties may be set later, with encrypted values
+        assertThat(sources.get(StandardEnvironment.SYSTEM_PROPERTIES_PROPERTY_SOURCE_NAME)).isInstanceOf(EncryptablePropertySource.class);
+        System.setProperty("dotenvx.test.password", "encrypted:BDqDBibm");
+        try {
+            assertThat(environment.getProperty("dotenvx.test.password")).isEqualTo("secret");
+        } finally {
+            System.clearProperty("dotenvx.test.password");
+        }
+    }
+}
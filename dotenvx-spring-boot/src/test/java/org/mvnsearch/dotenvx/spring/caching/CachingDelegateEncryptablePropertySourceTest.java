@@ -0,0 +1,173 @@
+package org.mvnsearch.dotenvx.spring.caching;
+
+import org.junit.jupiter.api.Test;
+import org.mvnsearch.dotenvx.spring.encryptor.FakeDotenvxEncryptor;
+import org.mvnsearch.dotenvx.spring.resolver.DefaultPropertyResolver;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+/**
+ * single-flight decryption of concurrent first reads, and reads served without allocation
+ */
+public class CachingDelegateEncryptablePropertySourceTest {
+
+    @Test
+    public void testOneDecryptionPerKeyUnderBurst() throws Exception {
+        Map<String, Object> properties = Map.of("a", "encrypted:a", "b", "encrypted:b", "c", "encrypted:c", "d", "encrypted:d");
+        Map<String, AtomicInteger> decryptions = new ConcurrentHashMap<>();
+        CachingDelegateEncryptablePropertySource<?> source = new CachingDelegateEncryptablePropertySource<>(
+                new MapPropertySource("test", properties), value -> {
+            decryptions.computeIfAbsent(value, key -> new AtomicInteger()).incrementAndGet();
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return value.substring("encrypted:".length()).toUpperCase();
+        }, (propertySource, name) -> true);
+        for (int round = 0; round < 2; round++) {
+            ExecutorService executor = Executors.newFixedThreadPool(64);
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Object>> results = new ArrayList<>();
+            for (int i = 0; i < 64; i++) {
+                String name = String.valueOf((char) ('a' + i % 4));
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return source.getProperty(name);
+                }));
+            }
+            start.countDown();
+            for (int i = 0; i < 64; i++) {
+                assertThat(results.get(i).get(10, TimeUnit.SECONDS)).isEqualTo(String.valueOf((char) ('A' + i % 4)));
+            }
+            executor.shutdown();
+            assertThat(decryptions).hasSize(4);
+            int expected = round + 1;
+            assertThat(decryptions.values()).allMatch(count -> count.get() == expected);
+            // concurrent first reads again after a refresh
+            source.refresh();
+        }
+    }
+
+    @Test
+    public void testHitPathAllocatesNothing() {
+        FakeDotenvxEncryptor encryptor = new FakeDotenvxEncryptor(ciphertext -> "secret");
+        Map<String, Object> properties = Map.of("url", "jdbc:postgresql://localhost:5432/demo",
+                "password", "encrypted:BDqDBibm", "excluded", "encrypted:BDqDBibm", "port", 5432);
+        CachingDelegateEncryptablePropertySource<?> source = new CachingDelegateEncryptablePropertySource<>(
+                new MapPropertySource("test", properties), new DefaultPropertyResolver(encryptor, new MockEnvironment()),
+                (propertySource, name) -> !name.equals("excluded"));
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < 100_000; i++) {
+            readAll(source);
+        }
+        long before = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < 10_000; i++) {
+            readAll(source);
+        }
+        long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+        assertThat(allocated).isZero();
+        assertThat(encryptor.getDecryptions()).isEqualTo(1);
+        assertThat(source.getProperty("url")).isSameAs(properties.get("url"));
+        assertThat(source.getProperty("excluded")).isEqualTo("encrypted:BDqDBibm");
+    }
+
+    @Test
+    public void testRefreshChangedKeys() {
+        FakeDotenvxEncryptor encryptor = new FakeDotenvxEncryptor(ciphertext -> "secret-" + ciphertext);
+        StandardEnvironment environment = new StandardEnvironment();
+        DefaultPropertyResolver resolver = new DefaultPropertyResolver(encryptor, environment);
+        Map<String, Object> ciphertexts = new HashMap<>(Map.of("db.ciphertext", "A"));
+        CachingDelegateEncryptablePropertySource<?> application = new CachingDelegateEncryptablePropertySource<>(
+                new MapPropertySource("application", Map.of("db.password", "encrypted:${db.ciphertext}",
+                        "api.password", "encrypted:${api.ciphertext:C}", "jwt.secret", "encrypted:D")),
+                resolver, (propertySource, name) -> true);
+        environment.getPropertySources().addFirst(new CachingDelegateEncryptablePropertySource<>(
+                new MapPropertySource("ciphertexts", ciphertexts), resolver, (propertySource, name) -> true));
+        environment.getPropertySources().addFirst(application);
+        assertThat(environment.getProperty("db.password")).isEqualTo("secret-A");
+        assertThat(environment.getProperty("api.password")).isEqualTo("secret-C");
+        assertThat(environment.getProperty("jwt.secret")).isEqualTo("secret-D");
+        ciphertexts.put("db.ciphertext", "B");
+        assertThat(environment.getProperty("db.password")).isEqualTo("secret-A");
+        // only the value depending on the changed key is decrypted again
+        application.refresh(Set.of("db.ciphertext"));
+        assertThat(environment.getProperty("db.password")).isEqualTo("secret-B");
+        assertThat(environment.getProperty("api.password")).isEqualTo("secret-C");
+        assertThat(environment.getProperty("jwt.secret")).isEqualTo("secret-D");
+        assertThat(encryptor.getDecryptions()).isEqualTo(4);
+    }
+
+    @Test
+    public void testCircularPlaceholderReference() {
+        StandardEnvironment environment = new StandardEnvironment();
+        DefaultPropertyResolver resolver = new DefaultPropertyResolver(new FakeDotenvxEncryptor(ciphertext -> "secret"), environment);
+        environment.getPropertySources().addFirst(new CachingDelegateEncryptablePropertySource<>(
+                new MapPropertySource("application", Map.of("a", "${a}", "b", "encrypted:${c}", "c", "${b}")),
+                resolver, (propertySource, name) -> true));
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            assertThatThrownBy(() -> environment.getProperty("a")).isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("Circular placeholder reference 'a'");
+            assertThatThrownBy(() -> environment.getProperty("b")).isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("Circular placeholder reference 'b'");
+        });
+    }
+
+    @Test
+    public void testCircularPlaceholderReferenceOnTwoThreads() {
+        StandardEnvironment environment = new StandardEnvironment();
+        CountDownLatch bothInFlight = new CountDownLatch(2);
+        environment.getPropertySources().addFirst(new CachingDelegateEncryptablePropertySource<>(
+                new MapPropertySource("application", Map.of("a", "${b}", "b", "${a}")), value -> {
+            // each thread owns one flight before reading the other value
+            bothInFlight.countDown();
+            try {
+                bothInFlight.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return environment.resolveRequiredPlaceholders(value);
+        }, (propertySource, name) -> true));
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            ExecutorService executor = Executors.newFixedThreadPool(2);
+            try {
+                Future<Object> a = executor.submit(() -> environment.getProperty("a"));
+                Future<Object> b = executor.submit(() -> environment.getProperty("b"));
+                assertThatThrownBy(a::get).hasCauseInstanceOf(IllegalArgumentException.class)
+                        .hasMessageContaining("Circular placeholder reference");
+                assertThatThrownBy(b::get).hasCauseInstanceOf(IllegalArgumentException.class)
+                        .hasMessageContaining("Circular placeholder reference");
+            } finally {
+                executor.shutdownNow();
+            }
+        });
+    }
+
+    private static void readAll(CachingDelegateEncryptablePropertySource<?> source) {
+        source.getProperty("url");
+        source.getProperty("password");
+        source.getProperty("excluded");
+        source.getProperty("port");
+    }
+}
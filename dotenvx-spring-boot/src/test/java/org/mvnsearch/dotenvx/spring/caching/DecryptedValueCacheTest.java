@@ -0,0 +1,85 @@
+package org.mvnsearch.dotenvx.spring.caching;
+
+import org.junit.jupiter.api.Test;
+import org.mvnsearch.dotenvx.ecies.ECKeyPair;
+import org.mvnsearch.dotenvx.ecies.Ecies;
+import org.mvnsearch.dotenvx.spring.encryptor.DefaultLazyEncryptor;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DecryptedValueCacheTest {
+
+    @Test
+    public void testSharedAcrossSources() throws Exception {
+        ECKeyPair keyPair = Ecies.generateEcKeyPair();
+        MockEnvironment env = new MockEnvironment()
+                .withProperty("dotenv.public.key", keyPair.getPublicHex(true))
+                .withProperty("dotenv.private.key", keyPair.getPrivateHex())
+                .withProperty("dotenvx.cache.shared", "true");
+        DefaultLazyEncryptor encryptor = new DefaultLazyEncryptor(env);
+        String ciphertext = encryptor.encrypt("Jackie");
+        assertThat(encryptor.decrypt(ciphertext, "application.properties")).isEqualTo("Jackie");
+        // the same ciphertext in another source, or re-delivered after a refresh
+        assertThat(encryptor.decrypt(ciphertext, "systemEnvironment")).isEqualTo("Jackie");
+        assertThat(encryptor.decrypt(ciphertext, "application.properties")).isEqualTo("Jackie");
+        DecryptedValueCache cache = encryptor.getValueCache();
+        assertThat(cache.getMissCount()).isEqualTo(1);
+        assertThat(cache.getHitCount()).isEqualTo(2);
+        // a different ciphertext of the same value is another entry
+        assertThat(encryptor.decrypt(encryptor.encrypt("Jackie"))).isEqualTo("Jackie");
+        assertThat(cache.size()).isEqualTo(2);
+        cache.clear();
+        assertThat(encryptor.decrypt(ciphertext)).isEqualTo("Jackie");
+        assertThat(cache.getMissCount()).isEqualTo(3);
+    }
+
+    @Test
+    public void testBoundedByCachePolicy() {
+        List<String> evicted = new ArrayList<>();
+        DecryptedValueCache cache = new DecryptedValueCache(CachePolicy.UNBOUNDED.withMaximumSize(1)
+                .withEvictionListener((name, value, cause) -> evicted.add(value + ":" + cause)));
+        assertThat(cache.get("BDqD", null, () -> "Jackie")).isEqualTo("Jackie");
+        assertThat(cache.get("BMVD", null, () -> "Linux")).isEqualTo("Linux");
+        // the evicted value is decrypted again
+        assertThat(cache.get("BDqD", null, () -> "Jackie")).isEqualTo("Jackie");
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(cache.getEvictionCount()).isEqualTo(2);
+        assertThat(cache.getMissCount()).isEqualTo(3);
+        assertThat(evicted).containsExactly("Jackie:SIZE", "Linux:SIZE");
+        cache.clear();
+        assertThat(evicted).containsExactly("Jackie:SIZE", "Linux:SIZE", "Jackie:EXPLICIT");
+    }
+
+    @Test
+    public void testInvalidateKeys() throws Exception {
+        ECKeyPair primary = Ecies.generateEcKeyPair();
+        ECKeyPair production = Ecies.generateEcKeyPair();
+        MockEnvironment env = new MockEnvironment()
+                .withProperty("dotenv.public.key", primary.getPublicHex(true))
+                .withProperty("dotenv.private.key", primary.getPrivateHex())
+                .withProperty("dotenv.public.key.production", production.getPublicHex(true))
+                .withProperty("dotenv.private.key.production", production.getPrivateHex())
+                .withProperty("dotenvx.cache.shared", "true");
+        env.setActiveProfiles("production");
+        DefaultLazyEncryptor encryptor = new DefaultLazyEncryptor(env);
+        String primaryValue = "encrypted:" + Ecies.encrypt(primary.getPublicHex(true), "Jackie");
+        String productionValue = "encrypted:" + Ecies.encrypt(production.getPublicHex(true), "Linux");
+        assertThat(encryptor.decrypt(primaryValue)).isEqualTo("Jackie");
+        assertThat(encryptor.decrypt(productionValue)).isEqualTo("Linux");
+        DecryptedValueCache cache = encryptor.getValueCache();
+        // only the value decrypted with the removed key is dropped
+        assertThat(cache.invalidateKeys(Set.of(production.getPublicHex(true)))).isEqualTo(1);
+        assertThat(encryptor.decrypt(primaryValue)).isEqualTo("Jackie");
+        assertThat(cache.getHitCount()).isEqualTo(1);
+        assertThat(encryptor.decrypt(productionValue)).isEqualTo("Linux");
+        assertThat(cache.getMissCount()).isEqualTo(3);
+        // values of unknown keys are dropped with any key
+        cache.get("BDqD", null, () -> "Jackie");
+        assertThat(cache.invalidateKeys(Set.of(primary.getPublicHex(true)))).isEqualTo(2);
+    }
+}
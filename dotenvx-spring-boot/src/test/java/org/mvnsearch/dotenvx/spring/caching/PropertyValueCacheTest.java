@@ -0,0 +1,63 @@
+package org.mvnsearch.dotenvx.spring.caching;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * bounds, expiry and eviction listeners of the per-source value cache
+ */
+public class PropertyValueCacheTest {
+
+    @Test
+    public void testMaximumSize() {
+        List<String> evicted = new ArrayList<>();
+        PropertyValueCache cache = new PropertyValueCache(CachePolicy.UNBOUNDED.withMaximumSize(2)
+                .withEvictionListener((name, value, cause) -> evicted.add(name + ":" + cause)));
+        cache.put("a", "encrypted:a", "1");
+        cache.put("b", "encrypted:b", "2");
+        assertThat(cache.get("a", "encrypted:a")).isEqualTo("1");
+        cache.put("c", "encrypted:c", "3");
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.get("b", "encrypted:b")).isNull();
+        assertThat(cache.get("a", "encrypted:a")).isEqualTo("1");
+        cache.put("a", "encrypted:a2", "4");
+        assertThat(cache.get("a", "encrypted:a")).isNull();
+        cache.clear();
+        assertThat(evicted).containsExactly("b:SIZE", "a:REPLACED", "c:EXPLICIT", "a:EXPLICIT");
+        assertThat(cache.getEvictionCount()).isEqualTo(1);
+        assertThat(cache.getHitCount()).isEqualTo(2);
+        assertThat(cache.getMissCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void testMaximumWeight() {
+        PropertyValueCache cache = new PropertyValueCache(CachePolicy.UNBOUNDED.withMaximumWeight(10));
+        cache.put("a", "encrypted:a", "12345");
+        cache.put("b", "encrypted:b", "12345");
+        assertThat(cache.getWeight()).isEqualTo(10);
+        cache.put("c", "encrypted:c", "123");
+        assertThat(cache.getWeight()).isEqualTo(8);
+        assertThat(cache.get("a", "encrypted:a")).isNull();
+    }
+
+    @Test
+    public void testExpireAfterWrite() throws Exception {
+        List<CacheEvictionListener.Cause> causes = new ArrayList<>();
+        PropertyValueCache cache = new PropertyValueCache(CachePolicy.UNBOUNDED.withExpireAfterWrite(Duration.ofMillis(20))
+                .withEvictionListener((name, value, cause) -> causes.add(cause)));
+        cache.put("a", "encrypted:a", "1");
+        assertThat(cache.get("a", "encrypted:a")).isEqualTo("1");
+        Thread.sleep(40);
+        assertThat(cache.get("a", "encrypted:a")).isNull();
+        cache.expire();
+        assertThat(cache.size()).isZero();
+        assertThat(cache.getWeight()).isZero();
+        assertThat(cache.getExpirationCount()).isEqualTo(1);
+        assertThat(causes).containsExactly(CacheEvictionListener.Cause.EXPIRED);
+    }
+}
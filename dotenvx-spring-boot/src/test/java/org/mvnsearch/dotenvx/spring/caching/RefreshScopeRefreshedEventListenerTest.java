@@ -0,0 +1,120 @@
+package org.mvnsearch.dotenvx.spring.caching;
+
+import org.junit.jupiter.api.Test;
+import org.mvnsearch.dotenvx.spring.EncryptablePropertySource;
+import org.mvnsearch.dotenvx.spring.EncryptablePropertySourceConverter;
+import org.mvnsearch.dotenvx.spring.InterceptionMode;
+import org.mvnsearch.dotenvx.spring.encryptor.FakeDotenvxEncryptor;
+import org.mvnsearch.dotenvx.spring.filter.DefaultPropertyFilter;
+import org.mvnsearch.dotenvx.spring.resolver.DefaultPropertyResolver;
+import org.springframework.boot.web.server.WebServer;
+import org.springframework.boot.web.servlet.context.ServletWebServerInitializedEvent;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.cloud.context.scope.refresh.RefreshScopeRefreshedEvent;
+import org.springframework.context.PayloadApplicationEvent;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * environment changes refresh the values depending on the changed keys only
+ */
+public class RefreshScopeRefreshedEventListenerTest {
+
+    @Test
+    public void testEnvironmentChangeEvent() {
+        StandardEnvironment environment = new StandardEnvironment();
+        FakeDotenvxEncryptor encryptor = new FakeDotenvxEncryptor(ciphertext -> "secret-" + ciphertext);
+        DefaultPropertyResolver resolver = new DefaultPropertyResolver(encryptor, environment);
+        Map<String, Object> ciphertexts = new HashMap<>(Map.of("db.ciphertext", "A"));
+        environment.getPropertySources().addFirst(new MapPropertySource("ciphertexts", ciphertexts));
+        environment.getPropertySources().addFirst(new MapPropertySource("application",
+                Map.of("db.password", "encrypted:${db.ciphertext}", "jwt.secret", "encrypted:D")));
+        EncryptablePropertySourceConverter converter = new EncryptablePropertySourceConverter(InterceptionMode.WRAPPER,
+                List.of(), resolver, new DefaultPropertyFilter());
+        converter.convertPropertySources(environment.getPropertySources());
+        RefreshScopeRefreshedEventListener listener = new RefreshScopeRefreshedEventListener(environment, converter);
+        listener.afterPropertiesSet();
+        assertThat(environment.getProperty("db.password")).isEqualTo("secret-A");
+        assertThat(environment.getProperty("jwt.secret")).isEqualTo("secret-D");
+        ciphertexts.put("db.ciphertext", "B");
+        listener.onApplicationEvent(new EnvironmentChangeEvent(Set.of("db.ciphertext")));
+        // the scope refresh following the change doesn't clear the other values
+        listener.onApplicationEvent(new RefreshScopeRefreshedEvent());
+        assertThat(environment.getProperty("db.password")).isEqualTo("secret-B");
+        assertThat(environment.getProperty("jwt.secret")).isEqualTo("secret-D");
+        assertThat(encryptor.getDecryptions()).isEqualTo(3);
+        // a scope refresh on its own clears all values
+        listener.onApplicationEvent(new RefreshScopeRefreshedEvent());
+        assertThat(environment.getProperty("jwt.secret")).isEqualTo("secret-D");
+        assertThat(encryptor.getDecryptions()).isEqualTo(4);
+    }
+
+    @Test
+    public void testEnvironmentChangeWithoutScopeRefresh() throws Exception {
+        StandardEnvironment environment = new StandardEnvironment();
+        FakeDotenvxEncryptor encryptor = new FakeDotenvxEncryptor(ciphertext -> "secret-" + ciphertext);
+        DefaultPropertyResolver resolver = new DefaultPropertyResolver(encryptor, environment);
+        Map<String, Object> ciphertexts = new HashMap<>(Map.of("db.ciphertext", "A"));
+        environment.getPropertySources().addFirst(new MapPropertySource("ciphertexts", ciphertexts));
+        environment.getPropertySources().addFirst(new MapPropertySource("application", Map.of("db.password", "encrypted:${db.ciphertext}")));
+        EncryptablePropertySourceConverter converter = new EncryptablePropertySourceConverter(InterceptionMode.WRAPPER,
+                List.of(), resolver, new DefaultPropertyFilter());
+        converter.convertPropertySources(environment.getPropertySources());
+        RefreshScopeRefreshedEventListener listener = new RefreshScopeRefreshedEventListener(environment, converter);
+        listener.afterPropertiesSet();
+        assertThat(environment.getProperty("db.password")).isEqualTo("secret-A");
+        // e.g. a POST to /actuator/env, ended by the event of its request
+        listener.onApplicationEvent(new EnvironmentChangeEvent(Set.of("db.password")));
+        listener.onApplicationEvent(new PayloadApplicationEvent<>(this, "request handled"));
+        assertThat(environment.getProperty("db.password")).isEqualTo("secret-A");
+        ciphertexts.put("db.ciphertext", "B");
+        listener.onApplicationEvent(new RefreshScopeRefreshedEvent());
+        assertThat(environment.getProperty("db.password")).isEqualTo("secret-B");
+        // the scope refresh on another thread isn't paired with the environment change either
+        listener.onApplicationEvent(new EnvironmentChangeEvent(Set.of("jwt.secret")));
+        ciphertexts.put("db.ciphertext", "C");
+        CompletableFuture.runAsync(() -> listener.onApplicationEvent(new RefreshScopeRefreshedEvent())).get();
+        assertThat(environment.getProperty("db.password")).isEqualTo("secret-C");
+    }
+
+    @Test
+    public void testWebServerInitialized() {
+        StandardEnvironment environment = new StandardEnvironment();
+        FakeDotenvxEncryptor encryptor = new FakeDotenvxEncryptor(ciphertext -> "secret-" + ciphertext);
+        DefaultPropertyResolver resolver = new DefaultPropertyResolver(encryptor, environment);
+        environment.getPropertySources().addFirst(new MapPropertySource("application", Map.of("jwt.secret", "encrypted:D")));
+        EncryptablePropertySourceConverter converter = new EncryptablePropertySourceConverter(InterceptionMode.WRAPPER,
+                List.of(), resolver, new DefaultPropertyFilter());
+        converter.convertPropertySources(environment.getPropertySources());
+        RefreshScopeRefreshedEventListener listener = new RefreshScopeRefreshedEventListener(environment, converter);
+        listener.afterPropertiesSet();
+        assertThat(environment.getProperty("jwt.secret")).isEqualTo("secret-D");
+        environment.getPropertySources().addLast(new MapPropertySource("server.ports", Map.of("local.server.port", "8080")));
+        listener.onApplicationEvent(new ServletWebServerInitializedEvent(new WebServer() {
+            @Override
+            public void start() {
+            }
+
+            @Override
+            public void stop() {
+            }
+
+            @Override
+            public int getPort() {
+                return 8080;
+            }
+        }, null));
+        // the new source is wrapped, the cached values are kept
+        assertThat(environment.getPropertySources().get("server.ports")).isInstanceOf(EncryptablePropertySource.class);
+        assertThat(environment.getProperty("jwt.secret")).isEqualTo("secret-D");
+        assertThat(encryptor.getDecryptions()).isEqualTo(1);
+    }
+}
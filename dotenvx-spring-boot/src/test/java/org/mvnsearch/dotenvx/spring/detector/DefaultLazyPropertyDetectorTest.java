@@ -0,0 +1,27 @@
+package org.mvnsearch.dotenvx.spring.detector;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * prefixes bound from the configuration properties
+ */
+public class DefaultLazyPropertyDetectorTest {
+
+    @Test
+    public void testAdditionalPrefixes() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("dotenvx.encryptor.property.additional-prefixes", "legacy:,ENC:");
+        DefaultPropertyDetector detector = DefaultLazyPropertyDetector.createDefault(environment);
+        assertThat(detector.isEncrypted("encrypted:BDqD")).isTrue();
+        assertThat(detector.isEncrypted("legacy:BDqD")).isTrue();
+        assertThat(detector.unwrapEncryptedValue("legacy:BDqD")).isEqualTo("BDqD");
+        assertThat(detector.isEncrypted("ENC:BDqD")).isTrue();
+        assertThat(detector.isEncrypted("plain:BDqD")).isFalse();
+        MockEnvironment custom = new MockEnvironment().withProperty("dotenvx.encryptor.property.prefix", "secret:");
+        assertThat(DefaultLazyPropertyDetector.createDefault(custom).isEncrypted("secret:BDqD")).isTrue();
+        assertThat(DefaultLazyPropertyDetector.createDefault(custom).isEncrypted("encrypted:BDqD")).isFalse();
+    }
+}
@@ -0,0 +1,28 @@
+package org.mvnsearch.dotenvx.spring.detector;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * prefixes detected in place, longest first
+ */
+public class DefaultPropertyDetectorTest {
+
+    @Test
+    public void testPayloadOffset() {
+        DefaultPropertyDetector detector = new DefaultPropertyDetector(List.of("encrypted:", "ENC:", "encrypted:legacy:"));
+        assertThat(detector.payloadOffset("encrypted:BDqD")).isEqualTo(10);
+        assertThat(detector.payloadOffset(" \tENC:BDqD ")).isEqualTo(6);
+        assertThat(detector.payloadOffset("encrypted:legacy:BDqD")).isEqualTo(17);
+        assertThat(detector.payloadOffset("encrypted")).isEqualTo(-1);
+        assertThat(detector.payloadOffset("   ")).isEqualTo(-1);
+        assertThat(detector.payloadOffset(null)).isEqualTo(-1);
+        assertThat(detector.isEncrypted("  ENC:BDqD")).isTrue();
+        assertThat(detector.isEncrypted("jdbc:postgresql://localhost/demo")).isFalse();
+        assertThat(detector.unwrapEncryptedValue("encrypted:BDqD")).isEqualTo("BDqD");
+        assertThat(new DefaultPropertyDetector().unwrapEncryptedValue("encrypted:bundle:kQ0b")).isEqualTo("bundle:kQ0b");
+    }
+}
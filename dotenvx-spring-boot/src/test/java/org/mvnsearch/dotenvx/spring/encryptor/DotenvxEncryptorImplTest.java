@@ -3,9 +3,24 @@ package org.mvnsearch.dotenvx.spring.encryptor;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
+import org.mvnsearch.dotenvx.ecies.AeadCiphers;
+import org.mvnsearch.dotenvx.ecies.BatchResult;
+import org.mvnsearch.dotenvx.ecies.Batches;
+import org.mvnsearch.dotenvx.ecies.ECKeyPair;
+import org.mvnsearch.dotenvx.ecies.Ecies;
+import org.mvnsearch.dotenvx.ecies.EciesEnvelope;
+import org.mvnsearch.dotenvx.ecies.X25519KeyPair;
+import org.mvnsearch.dotenvx.spring.exception.DecryptionException;
+import org.mvnsearch.dotenvx.spring.resolver.DefaultPropertyResolver;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.StandardEnvironment;
 
 import java.io.FileReader;
+import java.util.Base64;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 
 /**
@@ -40,4 +55,108 @@ public class DotenvxEncryptorImplTest {
         String decryptedText = dotenvxEncryptor.decrypt(base64EncodedText);
         System.out.println("Decrypted Text: " + decryptedText);
     }
+
+    @Test
+    public void testDecryptAll() {
+        Map<String, String> values = new LinkedHashMap<>();
+        values.put("first", dotenvxEncryptor.encrypt("one"));
+        values.put("broken", "encrypted:AAAA");
+        values.put("second", dotenvxEncryptor.encrypt("two"));
+        Map<String, BatchResult<String>> results = dotenvxEncryptor.decryptAll(values);
+        Assertions.assertEquals(values.keySet().stream().toList(), results.keySet().stream().toList());
+        Assertions.assertEquals("one", results.get("first").getValue());
+        Assertions.assertFalse(results.get("broken").isSuccess());
+        Assertions.assertEquals("two", results.get("second").getValue());
+    }
+
+    @Test
+    public void testX25519WithSecp256k1Profile() throws Exception {
+        X25519KeyPair primary = Ecies.generateX25519KeyPair();
+        ECKeyPair profile = Ecies.generateEcKeyPair();
+        HashMap<String, String> profileKeyPairs = new HashMap<>();
+        profileKeyPairs.put(profile.getPublicHex(true), profile.getPrivateHex());
+        DotenvxEncryptorImpl encryptor = new DotenvxEncryptorImpl(primary.getPublicKey(), primary.getPrivateKey(), profileKeyPairs);
+        String encrypted = encryptor.encrypt("Jackie");
+        Assertions.assertTrue(encrypted.startsWith("encrypted:x25519:"));
+        Assertions.assertEquals("Jackie", encryptor.decrypt(encrypted));
+        Assertions.assertEquals("Jackie", encryptor.decrypt("encrypted:" + Ecies.encrypt(profile.getPublicHex(true), "Jackie")));
+    }
+
+    @Test
+    public void testDecryptWithSourceAffinity() throws Exception {
+        ECKeyPair primary = Ecies.generateEcKeyPair();
+        ECKeyPair production = Ecies.generateEcKeyPair();
+        ECKeyPair staging = Ecies.generateEcKeyPair();
+        HashMap<String, String> profileKeyPairs = new LinkedHashMap<>();
+        profileKeyPairs.put(production.getPublicHex(true), production.getPrivateHex());
+        profileKeyPairs.put(staging.getPublicHex(true), staging.getPrivateHex());
+        DotenvxEncryptorImpl encryptor = new DotenvxEncryptorImpl(primary.getPublicHex(true), primary.getPrivateHex(), profileKeyPairs);
+        for (int i = 0; i < 3; i++) {
+            Assertions.assertEquals("prod" + i, encryptor.decrypt("encrypted:" + Ecies.encrypt(production.getPublicHex(true), "prod" + i), ".env.production"));
+            Assertions.assertEquals("staging" + i, encryptor.decrypt("encrypted:" + Ecies.encrypt(staging.getPublicHex(true), "staging" + i), ".env.staging"));
+            Assertions.assertEquals("main" + i, encryptor.decrypt(encryptor.encrypt("main" + i), ".env"));
+        }
+        // a source mixing keys still decrypts every value
+        Assertions.assertEquals("mixed", encryptor.decrypt(encryptor.encrypt("mixed"), ".env.production"));
+        Assertions.assertEquals("mixed", encryptor.decrypt("encrypted:" + Ecies.encrypt(staging.getPublicHex(true), "mixed")));
+        Assertions.assertThrows(DecryptionException.class,
+                () -> encryptor.decrypt("encrypted:" + Ecies.encrypt(Ecies.generateEcKeyPair().getPublicHex(true), "other"), ".env"));
+    }
+
+    @Test
+    public void testEnvelopeFormat() throws Exception {
+        ECKeyPair primary = Ecies.generateEcKeyPair();
+        ECKeyPair production = Ecies.generateEcKeyPair();
+        DotenvxEncryptorImpl encryptor = new DotenvxEncryptorImpl(primary.getPublicHex(true), primary.getPrivateHex(), new HashMap<>(),
+                null, Batches.CALLER_THREAD, AeadCiphers.AES_256_GCM, List.of(production.getPublicHex(true)));
+        String encrypted = encryptor.encrypt("Jackie");
+        Assertions.assertEquals("Jackie", encryptor.decrypt(encrypted));
+        // readable with the production key alone, next to legacy values
+        HashMap<String, String> profileKeyPairs = new HashMap<>();
+        profileKeyPairs.put(production.getPublicHex(true), production.getPrivateHex());
+        DotenvxEncryptorImpl productionEncryptor = new DotenvxEncryptorImpl(null, null, profileKeyPairs);
+        Assertions.assertEquals("Jackie", productionEncryptor.decrypt(encrypted));
+        Assertions.assertEquals("legacy", productionEncryptor.decrypt("encrypted:" + Ecies.encrypt(production.getPublicHex(true), "legacy")));
+        Assertions.assertThrows(DecryptionException.class, () -> new DotenvxEncryptorImpl(null, Ecies.generateEcKeyPair().getPrivateHex(), new HashMap<>()).decrypt(encrypted));
+    }
+
+    @Test
+    public void testEnvelopeDamagedRecipient() throws Exception {
+        ECKeyPair primary = Ecies.generateEcKeyPair();
+        ECKeyPair production = Ecies.generateEcKeyPair();
+        DotenvxEncryptorImpl encryptor = new DotenvxEncryptorImpl(primary.getPublicHex(true), primary.getPrivateHex(), new HashMap<>(),
+                null, Batches.CALLER_THREAD, AeadCiphers.AES_256_GCM, List.of(production.getPublicHex(true)));
+        byte[] envelope = Base64.getDecoder().decode(encryptor.encrypt("Jackie").substring("encrypted:".length()));
+        Assertions.assertEquals(2, EciesEnvelope.recipients(envelope, 0, envelope.length));
+        // damage the wrapped key of the first recipient: version, count, ephemeral key, key ids, wrapped keys
+        int ephemeralKeyLength = envelope[2] == 0x04 ? 65 : 33;
+        envelope[2 + ephemeralKeyLength + 2 * EciesEnvelope.KEY_ID_LENGTH + 20] ^= 1;
+        String damaged = "encrypted:" + Base64.getEncoder().encodeToString(envelope);
+        HashMap<String, String> profileKeyPairs = new HashMap<>();
+        profileKeyPairs.put(production.getPublicHex(true), production.getPrivateHex());
+        DotenvxEncryptorImpl both = new DotenvxEncryptorImpl(primary.getPublicHex(true), primary.getPrivateHex(), profileKeyPairs);
+        Assertions.assertEquals("Jackie", both.decrypt(damaged));
+    }
+
+    @Test
+    public void testBundleKey() throws Exception {
+        ECKeyPair keyPair = Ecies.generateEcKeyPair();
+        DotenvxEncryptorImpl encryptor = new DotenvxEncryptorImpl(keyPair.getPublicHex(true), keyPair.getPrivateHex(), new HashMap<>());
+        String bundleKey = encryptor.generateBundleKey();
+        String encrypted = encryptor.encryptBundled("Jackie", bundleKey);
+        Assertions.assertTrue(encrypted.startsWith("encrypted:bundle:"));
+        Assertions.assertEquals("Jackie", encryptor.decryptBundled(encrypted, bundleKey));
+        Assertions.assertThrows(DecryptionException.class, () -> encryptor.decrypt(encrypted));
+        Assertions.assertThrows(DecryptionException.class, () -> encryptor.decryptBundled(encrypted, encryptor.generateBundleKey()));
+        // resolved with the data key of the property source
+        Map<String, Object> properties = new HashMap<>();
+        properties.put(DotenvxEncryptor.BUNDLE_KEY_PROPERTY, bundleKey);
+        properties.put("password", encrypted);
+        properties.put("token", encryptor.encrypt("single"));
+        MapPropertySource source = new MapPropertySource("application.properties", properties);
+        DefaultPropertyResolver resolver = new DefaultPropertyResolver(encryptor, new StandardEnvironment());
+        Assertions.assertEquals("Jackie", resolver.resolvePropertyValue(encrypted, source));
+        Assertions.assertEquals("single", resolver.resolvePropertyValue((String) properties.get("token"), source));
+        Assertions.assertThrows(DecryptionException.class, () -> resolver.resolvePropertyValue(encrypted));
+    }
 }
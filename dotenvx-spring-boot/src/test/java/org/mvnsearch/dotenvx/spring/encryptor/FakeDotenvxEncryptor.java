@@ -0,0 +1,31 @@
+package org.mvnsearch.dotenvx.spring.encryptor;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.UnaryOperator;
+
+/**
+ * decrypts with a function and counts the decryptions, for the tests of property sources and resolvers
+ */
+public class FakeDotenvxEncryptor implements DotenvxEncryptor {
+    private final UnaryOperator<String> decryption;
+    private final AtomicInteger decryptions = new AtomicInteger();
+
+    public FakeDotenvxEncryptor(UnaryOperator<String> decryption) {
+        this.decryption = decryption;
+    }
+
+    @Override
+    public String encrypt(String text) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public String decrypt(String base64EncodedText) {
+        decryptions.incrementAndGet();
+        return decryption.apply(base64EncodedText);
+    }
+
+    public int getDecryptions() {
+        return decryptions.get();
+    }
+}
@@ -0,0 +1,74 @@
+package org.mvnsearch.dotenvx.spring.filter;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.PropertySource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Filter cost per lookup with 0, 5 and 50 exclude patterns: {@link DefaultPropertyFilter} versus the former
+ * {@code name::matches} per pattern and lookup.
+ * <p>
+ * Run with {@code java -cp <test classpath> org.mvnsearch.dotenvx.spring.filter.DefaultPropertyFilterBenchmark}.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DefaultPropertyFilterBenchmark {
+    @Param({"0", "5", "50"})
+    private int patternCount;
+    private final PropertySource<?> source = new MapPropertySource("application.properties", Map.of());
+    private final String[] names = new String[64];
+    private List<String> patterns;
+    private DefaultPropertyFilter filter;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        patterns = new ArrayList<>();
+        patterns.add("^dotenvx\\.encryptor\\.*");
+        for (int i = 1; i < patternCount; i++) {
+            // literals, literal prefixes and regular expressions
+            patterns.add(switch (i % 3) {
+                case 0 -> "^app\\.internal" + i + "$";
+                case 1 -> "^app\\.module" + i + "\\..*";
+                default -> "^app\\.(cache|queue)" + i + "\\.[a-z]+$";
+            });
+        }
+        if (patternCount == 0) {
+            patterns.clear();
+        }
+        filter = new DefaultPropertyFilter(null, null, null, patterns);
+        for (int i = 0; i < names.length; i++) {
+            names[i] = "spring.datasource.property" + i;
+        }
+    }
+
+    @Benchmark
+    public boolean shouldInclude() {
+        return filter.shouldInclude(source, names[next++ & 63]);
+    }
+
+    /**
+     * the former lookup: every pattern recompiled by {@link String#matches(String)}
+     */
+    @Benchmark
+    public boolean perLookupMatches() {
+        String name = names[next++ & 63];
+        return patterns.isEmpty() || patterns.stream().noneMatch(name::matches);
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder().include(DefaultPropertyFilterBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,50 @@
+package org.mvnsearch.dotenvx.spring.filter;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.env.MapPropertySource;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * compiled patterns match as {@link String#matches(String)}
+ */
+public class DefaultPropertyFilterTest {
+    private static final List<String> REGEXES = List.of("^dotenvx\\.encryptor\\.*", "^app\\.secret$", "app\\.module\\..*",
+            "^app\\.(cache|queue)\\.[a-z]+$", "(a)\\1", "^app\\.price\\$", "^app$.*", "", "db\\.\\d+");
+    private static final List<String> NAMES = List.of("dotenvx.encryptor", "dotenvx.encryptor.", "dotenvx.encryptor.x",
+            "app.secret", "app.secret.x", "app.module.", "app.module.name", "app.module\nname", "app.cache.abc",
+            "app.cache.1", "aa", "ab", "app.price$", "app", "appx", "", "db.42", "db.x");
+
+    @Test
+    public void testMatchesAsStringMatches() {
+        for (String regex : REGEXES) {
+            NamePatterns patterns = NamePatterns.compile(List.of(regex));
+            for (String name : NAMES) {
+                assertThat(patterns.matches(name)).as("%s matches %s", name, regex).isEqualTo(name.matches(regex));
+            }
+        }
+        NamePatterns all = NamePatterns.compile(REGEXES);
+        for (String name : NAMES) {
+            assertThat(all.matches(name)).as(name).isEqualTo(REGEXES.stream().anyMatch(name::matches));
+        }
+    }
+
+    @Test
+    public void testShouldInclude() {
+        MapPropertySource application = new MapPropertySource("application.properties", Map.of());
+        MapPropertySource system = new MapPropertySource("systemEnvironment", Map.of());
+        DefaultPropertyFilter filter = new DefaultPropertyFilter(List.of("^application.*"), List.of("^system.*"),
+                List.of("^secret\\..*"), List.of("^dotenvx\\.encryptor\\.*"));
+        for (int i = 0; i < 2; i++) {
+            assertThat(filter.shouldInclude(application, "app.name")).isTrue();
+            assertThat(filter.shouldInclude(application, "dotenvx.encryptor")).isFalse();
+            assertThat(filter.shouldInclude(system, "secret.password")).isFalse();
+            assertThat(filter.shouldInclude(new MapPropertySource("other", Map.of()), "secret.password")).isTrue();
+            assertThat(filter.shouldInclude(new MapPropertySource("other", Map.of()), "app.name")).isFalse();
+        }
+        assertThat(new DefaultPropertyFilter().shouldInclude(system, "dotenvx.encryptor")).isTrue();
+    }
+}
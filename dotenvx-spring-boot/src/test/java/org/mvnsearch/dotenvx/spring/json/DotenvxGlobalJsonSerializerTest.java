@@ -0,0 +1,55 @@
+package org.mvnsearch.dotenvx.spring.json;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import org.junit.jupiter.api.Test;
+import org.mvnsearch.dotenvx.ecies.ECKeyPair;
+import org.mvnsearch.dotenvx.ecies.Ecies;
+import org.mvnsearch.dotenvx.ecies.EphemeralKeyPool;
+import org.mvnsearch.dotenvx.spring.encryptor.DefaultLazyEncryptor;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DotenvxGlobalJsonSerializerTest {
+
+    @Test
+    public void testConfiguredEphemeralKeyPool() throws Exception {
+        ECKeyPair keyPair = Ecies.generateEcKeyPair();
+        MockEnvironment env = new MockEnvironment()
+                .withProperty("dotenv.public.key", keyPair.getPublicHex(true))
+                .withProperty("dotenv.private.key", keyPair.getPrivateHex())
+                .withProperty("dotenvx.encryptor.ephemeral-key-pool.size", "8")
+                .withProperty("dotenvx.encryptor.ephemeral-key-pool.low-water-mark", "2");
+        DefaultLazyEncryptor encryptor = new DefaultLazyEncryptor(env);
+        try {
+            EphemeralKeyPool pool = encryptor.getEphemeralKeyPool();
+            assertThat(pool).isNotNull();
+            waitUntilFull(pool, 8);
+            ECKeyPair jsonKeyPair = Ecies.generateEcKeyPair();
+            SimpleModule module = new SimpleModule();
+            module.addSerializer(new DotenvxGlobalJsonSerializer(jsonKeyPair.getPublicHex(true), encryptor));
+            module.addDeserializer(String.class, new DotenvxGlobalJsonDeserializer(jsonKeyPair.getPrivateHex()));
+            ObjectMapper objectMapper = new ObjectMapper().registerModule(module);
+            String json = objectMapper.writeValueAsString(Map.of("nick", "private:Jackie"));
+            assertThat(json).contains("encrypted:").doesNotContain("Jackie");
+            // the ephemeral key was taken from the configured pool
+            assertThat(pool.available()).isLessThan(8);
+            assertThat(objectMapper.readValue(json, new TypeReference<Map<String, String>>() {
+            })).containsEntry("nick", "Jackie");
+        } finally {
+            encryptor.destroy();
+        }
+    }
+
+    private static void waitUntilFull(EphemeralKeyPool pool, int size) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (pool.available() < size && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(pool.available()).isEqualTo(size);
+    }
+}
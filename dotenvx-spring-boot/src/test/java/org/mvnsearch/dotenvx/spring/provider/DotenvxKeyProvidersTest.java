@@ -0,0 +1,74 @@
+package org.mvnsearch.dotenvx.spring.provider;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mvnsearch.dotenvx.ecies.ECKeyPair;
+import org.mvnsearch.dotenvx.ecies.Ecies;
+import org.mvnsearch.dotenvx.spring.configuration.EnvCopy;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.net.SocketTimeoutException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class DotenvxKeyProvidersTest {
+
+    @Test
+    public void testAgentKeyProvider(@TempDir Path dir) throws Exception {
+        ECKeyPair primary = Ecies.generateEcKeyPair();
+        ECKeyPair production = Ecies.generateEcKeyPair();
+        ECKeyPair test = Ecies.generateEcKeyPair();
+        try (KeyAgentServer agent = new KeyAgentServer(dir.resolve("agent.sock"), Map.of(
+                "DOTENV_PRIVATE_KEY", primary.getPrivateHex(),
+                production.getPublicHex(true), production.getPrivateHex()))) {
+            MockEnvironment env = new MockEnvironment()
+                    .withProperty("dotenvx.agent.socket", agent.getSocket().toString())
+                    .withProperty("dotenv.public.key.production", production.getPublicHex(true))
+                    .withProperty("dotenv.private.key.test", test.getPrivateHex());
+            env.setActiveProfiles("production", "test");
+            DotenvxKeyProviders keyProviders = new DotenvxKeyProviders(List.of(new AgentKeyProvider(), new PropertyKeyProvider()));
+            keyProviders.prefetch(env);
+            assertThat(keyProviders.getPrivateKey(env, null, null)).isEqualTo(primary.getPrivateHex());
+            assertThat(keyProviders.getPrivateKey(env, "production", production.getPublicHex(true))).isEqualTo(production.getPrivateHex());
+            // unknown to the agent, the next provider answers
+            assertThat(keyProviders.getPrivateKey(env, "test", null)).isEqualTo(test.getPrivateHex());
+            // prefetched keys are not asked again
+            assertThat(keyProviders.getPrivateKey(env, null, null)).isEqualTo(primary.getPrivateHex());
+            assertThat(agent.getRequests()).isEqualTo(3);
+        }
+    }
+
+    @Test
+    public void testStuckAgentTimesOut(@TempDir Path dir) throws Exception {
+        Path socket = dir.resolve("stuck.sock");
+        try (ServerSocketChannel server = ServerSocketChannel.open(StandardProtocolFamily.UNIX)) {
+            server.bind(UnixDomainSocketAddress.of(socket));
+            MockEnvironment env = new MockEnvironment()
+                    .withProperty("dotenvx.agent.socket", socket.toString())
+                    .withProperty("dotenvx.agent.timeout", "200ms");
+            // accepted, never answered
+            assertThatThrownBy(() -> new AgentKeyProvider().getPrivateKey(env, null, null)).isInstanceOf(SocketTimeoutException.class);
+            try (SocketChannel ignored = server.accept()) {
+                assertThat(ignored).isNotNull();
+            }
+        }
+    }
+
+    @Test
+    public void testKeptOnTheEnvironment() {
+        MockEnvironment env = new MockEnvironment();
+        DotenvxKeyProviders keyProviders = DotenvxKeyProviders.get(env);
+        assertThat(DotenvxKeyProviders.get(env)).isSameAs(keyProviders);
+        // shared with the copies of the environment, released with it
+        assertThat(DotenvxKeyProviders.get(new EnvCopy(env).get())).isSameAs(keyProviders);
+        assertThat(env.getProperty(DotenvxKeyProviders.PROPERTY_SOURCE_NAME)).isNull();
+    }
+}
@@ -0,0 +1,37 @@
+package org.mvnsearch.dotenvx.spring.resolver;
+
+import org.junit.jupiter.api.Test;
+import org.mvnsearch.dotenvx.spring.EncryptablePropertyResolver;
+import org.mvnsearch.dotenvx.spring.detector.DefaultPropertyDetector;
+import org.mvnsearch.dotenvx.spring.encryptor.FakeDotenvxEncryptor;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.mock.env.MockEnvironment;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * the resolver bean of the application delegates to the default resolver
+ */
+public class DefaultLazyPropertyResolverTest {
+
+    @Test
+    public void testIsPlain() {
+        EncryptablePropertyResolver resolver = createResolver();
+        assertThat(resolver.isPlain("jdbc:mysql://localhost/test")).isTrue();
+        assertThat(resolver.isPlain("encrypted:BDqD")).isFalse();
+        assertThat(resolver.isPlain("${host}:3306")).isFalse();
+    }
+
+    @Test
+    public void testGetPlaceholderKeys() {
+        EncryptablePropertyResolver resolver = createResolver();
+        assertThat(resolver.getPlaceholderKeys("${host}:${port:3306}")).containsExactlyInAnyOrder("host", "port");
+        assertThat(resolver.getPlaceholderKeys("encrypted:BDqD")).isEmpty();
+    }
+
+    private static EncryptablePropertyResolver createResolver() {
+        // no custom resolver bean, as with the autoconfigured bean of an application
+        return new DefaultLazyPropertyResolver(new DefaultPropertyDetector(), new FakeDotenvxEncryptor(ciphertext -> "secret"),
+                "encryptablePropertyResolver", false, new DefaultListableBeanFactory(), new MockEnvironment());
+    }
+}
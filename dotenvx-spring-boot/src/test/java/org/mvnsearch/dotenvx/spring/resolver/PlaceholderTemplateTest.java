@@ -0,0 +1,43 @@
+package org.mvnsearch.dotenvx.spring.resolver;
+
+import org.junit.jupiter.api.Test;
+import org.mvnsearch.dotenvx.spring.detector.DefaultPropertyDetector;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * templates render as the environment resolves whole values
+ */
+public class PlaceholderTemplateTest {
+    private final DefaultPropertyDetector detector = new DefaultPropertyDetector();
+
+    @Test
+    public void testRenderAsEnvironment() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("db.host", "localhost")
+                .withProperty("db.port", "5432")
+                .withProperty("db.url", "jdbc:postgresql://${db.host}:${db.port}/demo")
+                .withProperty("password", "encrypted:BDqD");
+        List<String> values = List.of("jdbc:postgresql://${db.host}:${db.port}/demo", "${db.url}", "${db.name:demo}",
+                "${missing}/x", "${db.${kind:host}}", "\\${db.host}", "${db.host", "{${db.port}}", "${password}", "plain");
+        for (String value : values) {
+            assertThat(PlaceholderTemplate.parse(value, detector).render(environment)).as(value)
+                    .isEqualTo(environment.resolvePlaceholders(value));
+        }
+    }
+
+    @Test
+    public void testParse() {
+        PlaceholderTemplate plain = PlaceholderTemplate.parse("plain", detector);
+        assertThat(plain.hasPlaceholders()).isFalse();
+        assertThat(plain.getEncryptedValue()).isNull();
+        assertThat(PlaceholderTemplate.parse(" encrypted:BDqD ", detector).getEncryptedValue()).isEqualTo("BDqD");
+        PlaceholderTemplate url = PlaceholderTemplate.parse("jdbc:postgresql://${db.host}:${db.port:5432}/demo", detector);
+        assertThat(url.hasPlaceholders()).isTrue();
+        assertThat(url.getKeys()).containsExactlyInAnyOrder("db.host", "db.port");
+        assertThat(PlaceholderTemplate.parse("${db.${kind:host}}", detector).getKeys()).contains("kind");
+    }
+}
@@ -0,0 +1,68 @@
+package org.mvnsearch.dotenvx.spring.resource;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mvnsearch.dotenvx.ecies.ECKeyPair;
+import org.mvnsearch.dotenvx.ecies.Ecies;
+import org.mvnsearch.dotenvx.spring.encryptor.DotenvxEncryptor;
+import org.mvnsearch.dotenvx.spring.encryptor.DotenvxEncryptorImpl;
+import org.springframework.boot.io.ApplicationResourceLoader;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.Resource;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+
+public class DotenvxProtocolResolverTest {
+
+    @Test
+    public void testDecryptingResource(@TempDir Path dir) throws Exception {
+        ECKeyPair keyPair = Ecies.generateEcKeyPair();
+        DotenvxEncryptor encryptor = new DotenvxEncryptorImpl(keyPair.getPublicHex(true), keyPair.getPrivateHex(), new HashMap<>());
+        String content = "-----BEGIN CERTIFICATE-----\n".repeat(5000);
+        Path file = dir.resolve("bundle.pem.enc");
+        try (OutputStream out = encryptor.encryptingStream(Files.newOutputStream(file))) {
+            out.write(content.getBytes(StandardCharsets.UTF_8));
+        }
+        DefaultResourceLoader resourceLoader = new DefaultResourceLoader();
+        resourceLoader.addProtocolResolver(new DotenvxProtocolResolver(() -> encryptor));
+        Resource resource = resourceLoader.getResource("dotenvx:" + file.toUri());
+        assertThat(resource).isInstanceOf(DecryptingResource.class);
+        assertThat(resource.exists()).isTrue();
+        assertThat(resource.getFilename()).isEqualTo("bundle.pem");
+        try (InputStream in = resource.getInputStream()) {
+            assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo(content);
+        }
+        assertThat(resourceLoader.getResource("dotenvx:" + dir.resolve("missing.enc").toUri()).exists()).isFalse();
+    }
+
+    @Test
+    public void testApplicationResourceLoader(@TempDir Path dir) throws Exception {
+        ECKeyPair keyPair = Ecies.generateEcKeyPair();
+        DotenvxEncryptor encryptor = new DotenvxEncryptorImpl(keyPair.getPublicHex(true), keyPair.getPrivateHex(), new HashMap<>());
+        Path file = dir.resolve("keystore.p12.enc");
+        try (OutputStream out = encryptor.encryptingStream(Files.newOutputStream(file))) {
+            out.write("keystore".getBytes(StandardCharsets.UTF_8));
+        }
+        Supplier<DotenvxEncryptor> supplier = () -> encryptor;
+        DotenvxProtocolResolver.setDefaultEncryptor(supplier);
+        try {
+            // the loader of SSL bundles, with the resolvers of spring.factories
+            Resource resource = ApplicationResourceLoader.get().getResource("dotenvx:" + file.toUri());
+            assertThat(resource).isInstanceOf(DecryptingResource.class);
+            try (InputStream in = resource.getInputStream()) {
+                assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo("keystore");
+            }
+        } finally {
+            DotenvxProtocolResolver.removeDefaultEncryptor(supplier);
+        }
+    }
+}